@@ -1,8 +1,26 @@
+import base.controlador.ServicioPrecalculo;
+import servicio.controlador.ServidorSoluciones;
 import ui.vista.MenuRecursivo;
 import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        List<String> opciones = Arrays.asList(args);
+        // Con --precalcular, mientras el menú espera se resuelven en segundo plano
+        // los casos más habituales para que la primera petición ya tenga respuesta.
+        if (opciones.contains("--precalcular")) {
+            ServicioPrecalculo.iniciar();
+        }
+        // Con --servidor [puerto] se ofrecen los problemas por HTTP en vez de abrir el menú
+        int servidor = opciones.indexOf("--servidor");
+        if (servidor >= 0) {
+            boolean hayPuerto = servidor + 1 < args.length && !args[servidor + 1].startsWith("--");
+            ServidorSoluciones.main(hayPuerto ? new String[]{args[servidor + 1]} : new String[0]);
+            return;
+        }
         // SwingUtilities.invokeLater se usa para arrancar
         // el código de la interfaz gráfica en el Event Dispatch Thread (EDT),
         // que es el hilo seguro para todas las operaciones de Swing.
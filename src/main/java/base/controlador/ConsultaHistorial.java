@@ -0,0 +1,97 @@
+package base.controlador;
+
+import base.modelo.HistorialEjecuciones;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ConsultaHistorial: punto de entrada de consola para consultar el {@link HistorialEjecuciones}.
+ * El algoritmo se puede dar con un trozo de su nombre ("caballo", "hanoi", "reinas").
+ *
+ * Uso: ConsultaHistorial [--archivo historial.bin] lista
+ *      ConsultaHistorial [--archivo historial.bin] lentas algoritmo N [cuantas]
+ *      ConsultaHistorial [--archivo historial.bin] tendencia algoritmo N
+ */
+public class ConsultaHistorial {
+    private static final String USO = "Uso: ConsultaHistorial [--archivo historial.bin] "
+            + "lista | lentas algoritmo N [cuantas] | tendencia algoritmo N";
+    private static final int LENTAS_POR_DEFECTO = 10;
+
+    public static void main(String[] args) throws IOException {
+        List<String> resto = new ArrayList<>(Arrays.asList(args));
+        Path archivo = Paths.get("historial.bin");
+        int opcion = resto.indexOf("--archivo");
+        if (opcion >= 0 && opcion + 1 < resto.size()) {
+            archivo = Paths.get(resto.get(opcion + 1));
+            resto.subList(opcion, opcion + 2).clear();
+        }
+        if (resto.isEmpty()) {
+            System.err.println(USO);
+            System.exit(2);
+        }
+        if (!Files.exists(archivo)) {
+            System.err.println("No hay historial en " + archivo.toAbsolutePath());
+            System.exit(1);
+        }
+        try (HistorialEjecuciones historial = HistorialEjecuciones.abrir(archivo)) {
+            switch (resto.get(0)) {
+                case "lista":
+                    for (HistorialEjecuciones.Ejecucion e : historial.todas()) {
+                        System.out.println(e);
+                    }
+                    break;
+                case "lentas": {
+                    if (resto.size() < 3) salirConUso();
+                    String algoritmo = buscarAlgoritmo(historial, resto.get(1));
+                    int n = Integer.parseInt(resto.get(2));
+                    int cuantas = resto.size() > 3 ? Integer.parseInt(resto.get(3)) : LENTAS_POR_DEFECTO;
+                    for (HistorialEjecuciones.Ejecucion e : historial.masLentas(algoritmo, n, cuantas)) {
+                        System.out.println(e);
+                    }
+                    break;
+                }
+                case "tendencia": {
+                    if (resto.size() < 3) salirConUso();
+                    String algoritmo = buscarAlgoritmo(historial, resto.get(1));
+                    int n = Integer.parseInt(resto.get(2));
+                    for (HistorialEjecuciones.Tendencia t : historial.tendencia(algoritmo, n)) {
+                        System.out.println(t);
+                    }
+                    break;
+                }
+                default:
+                    salirConUso();
+            }
+        }
+    }
+
+    /**
+     * @return el nombre completo del único algoritmo del historial que contiene el texto
+     * @throws IllegalArgumentException si no hay ninguno o hay varios
+     */
+    private static String buscarAlgoritmo(HistorialEjecuciones historial, String texto) {
+        String buscado = texto.toLowerCase(Locale.ROOT);
+        List<String> encontrados = new ArrayList<>();
+        for (String nombre : historial.getAlgoritmos()) {
+            if (nombre.equalsIgnoreCase(texto)) return nombre;
+            if (nombre.toLowerCase(Locale.ROOT).contains(buscado)) encontrados.add(nombre);
+        }
+        if (encontrados.size() != 1) {
+            throw new IllegalArgumentException("\"" + texto + "\" no identifica un algoritmo del historial "
+                    + historial.getAlgoritmos() + ".");
+        }
+        return encontrados.get(0);
+    }
+
+    private static void salirConUso() {
+        System.err.println(USO);
+        System.exit(2);
+    }
+}
@@ -1,6 +1,8 @@
 // src/main/java/base/Dialogos.java
 package base.controlador;
 
+import base.modelo.PlanEjecucion;
+
 import javax.swing.JOptionPane;
 
 /**
@@ -38,4 +40,50 @@ public class Dialogos {
             }
         }
     }
+
+    /**
+     * Como {@link #pedirEntero}, para valores que no caben en un int (p. ej. números de paso).
+     * @return El valor válido, o null si el usuario pulsa Cancelar.
+     */
+    public static Long pedirLargo(String mensaje, long min, long max) {
+        while (true) {
+            String input = JOptionPane.showInputDialog(mensaje);
+            if (input == null) return null;
+            try {
+                long v = Long.parseLong(input.trim());
+                if (v < min || v > max) {
+                    JOptionPane.showMessageDialog(
+                            null,
+                            "Por favor ingresa un número entre " + min + " y " + max + "."
+                    );
+                } else {
+                    return v;
+                }
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(
+                        null,
+                        "Entrada inválida. Escribe un número entero."
+                );
+            }
+        }
+    }
+
+    /**
+     * Enseña el plan de ejecución antes de lanzar un problema.
+     * • Sin avisos: no pregunta nada.
+     * • Con avisos (lento, sin archivo, estrategia alternativa): pide confirmación.
+     * • Si ninguna estrategia cabe: muestra el motivo.
+     * @return true si se puede lanzar
+     */
+    public static boolean confirmarPlan(PlanEjecucion plan) {
+        if (!plan.isViable()) {
+            JOptionPane.showMessageDialog(null, plan.describir(),
+                    "No se puede ejecutar", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+        if (plan.getAvisos().isEmpty()) return true;
+        return JOptionPane.showConfirmDialog(null, plan.describir() + "\n\n¿Continuar?",
+                "Plan de ejecución", JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION;
+    }
 }
@@ -0,0 +1,110 @@
+package base.controlador;
+
+import base.vista.ExportadorFotogramas;
+import caballo.modelo.ProblemaCaballo;
+import caballo.vista.DibujoCaballo;
+import hanoi.modelo.ProblemaTorresHanoi;
+import hanoi.vista.DibujoHanoi;
+import nreinas.modelo.ProblemaNReinas;
+import nreinas.vista.DibujoNReinas;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+/**
+ * ExportadorAnimaciones: punto de entrada de consola que resuelve un problema y
+ * guarda su animación como PNG numerados, sin abrir ninguna ventana.
+ *
+ * Uso: ExportadorAnimaciones hanoi|nreinas|caballo N carpeta
+ *          [--inicio x y] [--tamano ancho alto] [--semilla s]
+ * • --inicio: casilla inicial del caballo (por defecto 0 0).
+ * • --semilla: colores de los discos de Hanoi (por defecto 0).
+ */
+public class ExportadorAnimaciones {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: ExportadorAnimaciones hanoi|nreinas|caballo N carpeta"
+                    + " [--inicio x y] [--tamano ancho alto] [--semilla s]");
+            System.exit(2);
+        }
+        // Sin pantalla: Java2D pinta en memoria aunque no haya servidor gráfico
+        System.setProperty("java.awt.headless", "true");
+
+        String juego = args[0];
+        int n = Integer.parseInt(args[1]);
+        Path carpeta = Paths.get(args[2]);
+        int x = 0, y = 0, ancho = 600, alto = 400;
+        long semilla = 0;
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "--inicio":
+                    x = Integer.parseInt(args[++i]);
+                    y = Integer.parseInt(args[++i]);
+                    break;
+                case "--tamano":
+                    ancho = Integer.parseInt(args[++i]);
+                    alto = Integer.parseInt(args[++i]);
+                    break;
+                case "--semilla":
+                    semilla = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        long inicio = System.nanoTime();
+        int fotogramas = exportar(juego, n, x, y, semilla, ancho, alto, carpeta);
+        System.out.println(fotogramas + " fotogramas en " + carpeta.toAbsolutePath()
+                + " (" + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+    }
+
+    /**
+     * Resuelve el problema indicado y exporta su animación.
+     * @return número de fotogramas escritos
+     */
+    public static int exportar(String juego, int n, int x, int y, long semilla,
+                               int ancho, int alto, Path carpeta) throws IOException {
+        Supplier<ExportadorFotogramas.Escena> escenas;
+        switch (juego) {
+            case "hanoi": {
+                // Antes de generar los movimientos: con tantos discos no se podría exportar
+                if (n > DibujoHanoi.MAX_DISCOS_ANIMACION) {
+                    throw new IllegalArgumentException("Con " + n + " discos hay demasiados fotogramas:"
+                            + " como mucho se exportan " + DibujoHanoi.MAX_DISCOS_ANIMACION + " discos.");
+                }
+                ProblemaTorresHanoi problema = new ProblemaTorresHanoi();
+                problema.setParametros(n);
+                problema.ejecutar();
+                escenas = () -> DibujoHanoi.escena(n, problema.getFuente(), semilla);
+                break;
+            }
+            case "nreinas": {
+                ProblemaNReinas problema = new ProblemaNReinas();
+                problema.setParametros(n);
+                problema.ejecutar();
+                escenas = () -> DibujoNReinas.escena(n, problema.getPasos());
+                break;
+            }
+            case "caballo": {
+                ProblemaCaballo problema = new ProblemaCaballo();
+                problema.setParametros(n);
+                problema.setStart(x, y);
+                problema.setPortafolio(true);
+                problema.ejecutar();
+                if (problema.getPasos().tamano() != n * n) {
+                    throw new IllegalStateException(
+                            "No hay recorrido completo desde (" + x + ", " + y + ").");
+                }
+                escenas = () -> DibujoCaballo.escena(n, problema.getPasos());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Juego desconocido: " + juego);
+        }
+        return ExportadorFotogramas.exportar(escenas, ancho, alto, carpeta, juego + "_" + n);
+    }
+}
@@ -0,0 +1,147 @@
+package base.controlador;
+
+import base.modelo.ControlBusqueda;
+import base.modelo.PaqueteSoluciones;
+import caballo.modelo.CacheRecorridosCerrados;
+import caballo.modelo.FactibilidadCaballo;
+import caballo.modelo.ProblemaCaballo;
+import nreinas.modelo.ContadorNReinas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * GeneradorPaquete: calcula y escribe el {@link PaqueteSoluciones}. Lo lanza Maven al
+ * compilar (exec-maven-plugin, fase process-classes) para que el paquete acabe en
+ * target/classes y en el JAR; con -Dpaquete.skip=true se salta.
+ * • Caballo, N = {@value #MIN_N_CABALLO}..{@value #MAX_N_CABALLO}: con N par, el
+ *   recorrido cerrado de {@link CacheRecorridosCerrados}; con N impar, un recorrido
+ *   desde cada casilla posible del octante (si Warnsdorff se atasca, la cartera).
+ * • N Reinas: la primera solución hasta N = {@value #MAX_N_PRIMERA_REINAS} (con N=34
+ *   la búsqueda ya tarda medio minuto; más allá la aplicación usa la construcción
+ *   explícita, que es inmediata) y las cuentas publicadas hasta N = 27 (OEIS A000170),
+ *   comprobando aquí las de N ≤ {@value #MAX_N_CUENTA_COMPROBADA}.
+ * Tarda alrededor de medio minuto.
+ *
+ * Uso: GeneradorPaquete archivo-de-salida
+ */
+public class GeneradorPaquete {
+    public static final int MIN_N_CABALLO = 5;
+    public static final int MAX_N_CABALLO = 69;
+    public static final int MAX_N_PRIMERA_REINAS = 33;
+    private static final int MAX_N_CUENTA_COMPROBADA = 14;
+    // Presupuesto por recorrido (× N²): primero Warnsdorff solo, luego la cartera
+    private static final long NODOS_CABALLO = 50;
+    private static final long NODOS_CARTERA = 1000;
+    // Soluciones de N Reinas para N = 0..27 (OEIS A000170); nadie ha contado más allá
+    private static final long[] CUENTAS_NREINAS = {
+            1L, 1L, 0L, 0L, 2L, 10L, 4L, 40L, 92L, 352L, 724L, 2680L, 14200L, 73712L,
+            365596L, 2279184L, 14772512L, 95815104L, 666090624L, 4968057848L,
+            39029188884L, 314666222712L, 2691008701644L, 24233937684440L,
+            227514171973736L, 2207893435808352L, 22317699616364044L, 234907967154122528L};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: GeneradorPaquete archivo-de-salida");
+            System.exit(2);
+        }
+        // Se genera buscando: un paquete anterior en el classpath no debe usarse
+        System.setProperty(PaqueteSoluciones.PROPIEDAD, "false");
+        long inicio = System.nanoTime();
+        PaqueteSoluciones.Escritor escritor = new PaqueteSoluciones.Escritor();
+        nReinas(escritor);
+        caballo(escritor);
+        Path archivo = Paths.get(args[0]);
+        escritor.escribir(archivo);
+        System.out.printf("Paquete de soluciones: %s (%,d bytes) en %.1f s%n",
+                archivo, Files.size(archivo), (System.nanoTime() - inicio) / 1e9);
+    }
+
+    private static void nReinas(PaqueteSoluciones.Escritor escritor) {
+        for (int n = 1; n < CUENTAS_NREINAS.length; n++) {
+            if (n <= MAX_N_CUENTA_COMPROBADA) {
+                ContadorNReinas contador = new ContadorNReinas(n);
+                long total = 0;
+                for (int u = 0; u < contador.getNumeroUnidades(); u++) {
+                    total += contador.contarUnidad(u);
+                }
+                if (total != CUENTAS_NREINAS[n]) {
+                    throw new IllegalStateException("N=" + n + ": se cuentan " + total
+                            + " soluciones y la tabla dice " + CUENTAS_NREINAS[n] + ".");
+                }
+            }
+            escritor.agregarCuentaNReinas(n, CUENTAS_NREINAS[n]);
+        }
+        for (int n = 1; n <= MAX_N_PRIMERA_REINAS; n++) {
+            int[] columnas = new int[n];
+            if (primeraNReinas(n, 0, 0, 0, 0, columnas)) {
+                escritor.agregarPrimeraNReinas(n, columnas);
+            }
+        }
+    }
+
+    /**
+     * Backtracking con máscaras (long: hasta 63 columnas) probando las columnas de
+     * izquierda a derecha, como {@link nreinas.modelo.EstadoNReinas}: da la misma solución.
+     */
+    private static boolean primeraNReinas(int n, int fila, long cols, long diagIzq, long diagDer, int[] columnas) {
+        if (fila == n) return true;
+        long todas = (1L << n) - 1;
+        long libres = todas & ~(cols | diagIzq | diagDer);
+        while (libres != 0) {
+            long bit = libres & -libres;
+            libres -= bit;
+            columnas[fila] = Long.numberOfTrailingZeros(bit);
+            if (primeraNReinas(n, fila + 1, cols | bit, ((diagIzq | bit) << 1) & todas,
+                    (diagDer | bit) >>> 1, columnas)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void caballo(PaqueteSoluciones.Escritor escritor) {
+        for (int n = MIN_N_CABALLO; n <= MAX_N_CABALLO; n++) {
+            if (CacheRecorridosCerrados.admiteCiclo(n)) {
+                int[] ciclo = CacheRecorridosCerrados.ciclo(n, new ControlBusqueda());
+                if (ciclo != null) {
+                    escritor.agregarCicloCaballo(n, ciclo);
+                } else {
+                    System.err.println("Sin recorrido cerrado para N=" + n);
+                }
+                continue;
+            }
+            int mitad = (n - 1) / 2;
+            for (int x = 0; x <= mitad; x++) {
+                for (int y = x; y <= mitad; y++) {
+                    if (!FactibilidadCaballo.esPosible(n, x, y)) continue;
+                    int[] celdas = recorrido(n, x, y, false, NODOS_CABALLO);
+                    if (celdas == null) celdas = recorrido(n, x, y, true, NODOS_CARTERA);
+                    if (celdas != null) {
+                        escritor.agregarAbiertoCaballo(n, celdas);
+                    } else {
+                        System.err.println("Sin recorrido para N=" + n + " desde (" + x + ", " + y + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    /** @return el recorrido desde (x, y) como casillas x*N + y, o null si no se encontró */
+    private static int[] recorrido(int n, int x, int y, boolean cartera, long nodosPorCasilla) {
+        ProblemaCaballo problema = new ProblemaCaballo();
+        problema.setParametros(n);
+        problema.setStart(x, y);
+        problema.setPortafolio(cartera);
+        problema.setLimiteNodos(nodosPorCasilla * n * n);
+        problema.ejecutar();
+        if (problema.getPasos().tamano() != n * n) return null;
+        int[] celdas = new int[n * n];
+        for (int i = 0; i < celdas.length; i++) {
+            celdas[i] = problema.getPasos().get(i, 0) * n + problema.getPasos().get(i, 1);
+        }
+        return celdas;
+    }
+}
@@ -0,0 +1,53 @@
+package base.controlador;
+
+import base.modelo.PasosMapeados;
+
+/**
+ * Juego: lo que el menú necesita saber de cada juego para enseñarlo, sin cargarlo.
+ * • Las implementaciones se descubren con {@link java.util.ServiceLoader} (ver
+ *   {@link RegistroJuegos}): añadir un juego es añadir una clase y una línea en
+ *   META-INF/services/base.controlador.Juego, sin tocar el menú.
+ * • Deben ser ligeras: los datos (nombre, parámetro y su rango) son constantes y sólo
+ *   {@link #lanzar()} y {@link #abrirResultado} tocan el lanzador, así que su ventana
+ *   y su modelo no se cargan hasta que se elige el juego.
+ */
+public interface Juego {
+
+    /** @return el texto del botón del menú */
+    String getNombre();
+
+    /** @return el texto de ayuda del botón (null = ninguno) */
+    default String getDescripcion() {
+        return null;
+    }
+
+    /** @return qué se pide al lanzarlo (por ejemplo, "Tamaño del tablero (N)") */
+    String getParametro();
+
+    /** @return valor mínimo del parámetro (el que se pasa a Dialogos.pedirEntero) */
+    int getMinimo();
+
+    /** @return valor máximo del parámetro */
+    int getMaximo();
+
+    /** @return posición en el menú (menor = más arriba) */
+    default int getOrden() {
+        return 100;
+    }
+
+    /** Pide el parámetro y abre el juego (aquí se cargan su lanzador, modelo y ventana). */
+    void lanzar();
+
+    /**
+     * @param cabecera lo que hay antes de los pasos en un archivo de resultado
+     * @return true si este juego sabe reproducir ese archivo
+     */
+    default boolean reproduce(String cabecera) {
+        return false;
+    }
+
+    /** Reproduce un archivo de resultado ya guardado (sólo si {@link #reproduce} dio true). */
+    default void abrirResultado(PasosMapeados pasos) {
+        throw new UnsupportedOperationException(getNombre() + " no reproduce archivos de resultado.");
+    }
+}
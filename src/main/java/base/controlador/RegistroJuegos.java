@@ -0,0 +1,52 @@
+package base.controlador;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * RegistroJuegos: los {@link Juego} instalados, descubiertos con ServiceLoader la
+ * primera vez que se piden y ordenados por {@link Juego#getOrden()}.
+ * Sólo se instancian los descriptores; un descriptor roto se avisa por consola y se
+ * salta, sin impedir que el menú enseñe los demás.
+ */
+public class RegistroJuegos {
+    private static List<Juego> juegos;
+
+    private RegistroJuegos() {
+    }
+
+    /** @return los juegos instalados, en el orden del menú */
+    public static synchronized List<Juego> juegos() {
+        if (juegos == null) {
+            List<Juego> encontrados = new ArrayList<>();
+            Iterator<Juego> it = ServiceLoader.load(Juego.class, RegistroJuegos.class.getClassLoader()).iterator();
+            while (true) {
+                try {
+                    if (!it.hasNext()) break;
+                    encontrados.add(it.next());
+                } catch (ServiceConfigurationError e) {
+                    e.printStackTrace();
+                }
+            }
+            encontrados.sort(Comparator.comparingInt(Juego::getOrden).thenComparing(Juego::getNombre));
+            juegos = Collections.unmodifiableList(encontrados);
+        }
+        return juegos;
+    }
+
+    /**
+     * @param cabecera lo que hay antes de los pasos en un archivo de resultado
+     * @return el primer juego que sabe reproducirlo, o null si ninguno
+     */
+    public static Juego paraResultado(String cabecera) {
+        for (Juego juego : juegos()) {
+            if (juego.reproduce(cabecera)) return juego;
+        }
+        return null;
+    }
+}
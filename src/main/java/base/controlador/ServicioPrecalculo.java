@@ -0,0 +1,114 @@
+package base.controlador;
+
+import base.modelo.CacheSoluciones;
+import caballo.modelo.ProblemaCaballo;
+import hanoi.modelo.ProblemaTorresHanoi;
+import nreinas.modelo.ProblemaNReinas;
+
+/**
+ * ServicioPrecalculo: aprovecha el tiempo en que el menú espera un clic para
+ * resolver en segundo plano los casos más pedidos y dejarlos en CacheSoluciones.
+ * • Corre en un único hilo demonio de prioridad mínima (no impide cerrar la aplicación).
+ * • Primero calienta el JIT con instancias pequeñas de cada algoritmo.
+ * • Después resuelve N Reinas 8..20, Hanoi hasta un presupuesto de memoria y el
+ *   caballo desde las cuatro esquinas para los N más habituales.
+ */
+public class ServicioPrecalculo {
+    // Fracción del heap máximo que puede ocupar Hanoi en la caché
+    private static final int FRACCION_HEAP_HANOI = 8;
+    // Tamaños de tablero del caballo que se precalculan desde las esquinas
+    private static final int[] TAMANOS_CABALLO = {5, 6, 7, 8, 10, 12, 16, 20};
+    // Nodos máximos por recorrido del caballo (para no atascarse en una esquina difícil)
+    private static final long LIMITE_NODOS_CABALLO = 2_000_000;
+
+    private static Thread hilo;
+
+    private ServicioPrecalculo() {
+    }
+
+    /** Arranca el precálculo si aún no estaba en marcha. */
+    public static synchronized void iniciar() {
+        if (hilo != null) return;
+        hilo = new Thread(ServicioPrecalculo::precalcular, "precalculo");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);
+        hilo.start();
+    }
+
+    private static void precalcular() {
+        try {
+            calentarJit();
+            precalcularNReinas();
+            precalcularHanoi();
+            precalcularCaballo();
+        } catch (RuntimeException | OutOfMemoryError e) {
+            // El precálculo es opcional: si falla, la aplicación sigue resolviendo bajo demanda
+            e.printStackTrace();
+        }
+    }
+
+    /** Ejecuta muchas veces instancias pequeñas para que el JIT compile los caminos calientes. */
+    private static void calentarJit() {
+        for (int i = 0; i < 200; i++) {
+            ProblemaNReinas reinas = new ProblemaNReinas();
+            reinas.setParametros(10);
+            reinas.ejecutar();
+
+            ProblemaCaballo caballo = new ProblemaCaballo();
+            caballo.setParametros(8);
+            caballo.setStart(i % 8, (i / 8) % 8);
+            caballo.setLimiteNodos(LIMITE_NODOS_CABALLO);
+            caballo.ejecutar();
+
+            ProblemaTorresHanoi hanoi = new ProblemaTorresHanoi();
+            hanoi.setParametros(12);
+            hanoi.ejecutar();
+        }
+    }
+
+    private static void precalcularNReinas() {
+        for (int n = 8; n <= 20; n++) {
+            ProblemaNReinas problema = new ProblemaNReinas();
+            problema.setParametros(n);
+            if (CacheSoluciones.contiene(problema.claveCache())) continue;
+            problema.ejecutar();
+            if (problema.getPasos().tamano() == n) {
+                CacheSoluciones.guardar(problema.claveCache(), problema.getPasos());
+            }
+        }
+    }
+
+    /** Guarda Hanoi de 1 disco en adelante mientras quepa en el presupuesto de memoria. */
+    private static void precalcularHanoi() {
+        long presupuesto = Runtime.getRuntime().maxMemory() / FRACCION_HEAP_HANOI;
+        long usado = 0;
+        for (int n = 1; n < 30; n++) {
+            // 2 enteros por movimiento; al generar y copiar conviven dos buffers
+            long bytes = 2L * 4 * ((1L << n) - 1);
+            if (usado + 2 * bytes > presupuesto) break;
+            ProblemaTorresHanoi problema = new ProblemaTorresHanoi();
+            problema.setParametros(n);
+            if (CacheSoluciones.contiene(problema.claveCache())) continue;
+            problema.ejecutar();
+            CacheSoluciones.guardar(problema.claveCache(), problema.getPasos());
+            usado += bytes;
+        }
+    }
+
+    private static void precalcularCaballo() {
+        for (int n : TAMANOS_CABALLO) {
+            int[][] esquinas = {{0, 0}, {0, n - 1}, {n - 1, 0}, {n - 1, n - 1}};
+            for (int[] e : esquinas) {
+                ProblemaCaballo problema = new ProblemaCaballo();
+                problema.setParametros(n);
+                problema.setStart(e[0], e[1]);
+                if (CacheSoluciones.contiene(problema.claveCache())) continue;
+                problema.setLimiteNodos(LIMITE_NODOS_CABALLO);
+                problema.ejecutar();
+                if (problema.getPasos().tamano() == n * n) {
+                    CacheSoluciones.guardar(problema.claveCache(), problema.getPasos());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package base.controlador;
+
+import base.modelo.ResultadoVerificacion;
+import caballo.modelo.VerificadorCaballo;
+import hanoi.modelo.VerificadorHanoi;
+import nreinas.modelo.VerificadorNReinas;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * VerificadorResultados: punto de entrada de consola para comprobar ficheros guardados.
+ * El tipo se deduce del prefijo del nombre que ponen las ventanas y lanzadores
+ * (resultadoHanoi_, resultadoCaballo_, tableroFinalCaballo_, tableroFinalNReinas_),
+ * y el tamaño del primer número del nombre si no se indica.
+ *
+ * Uso: VerificadorResultados archivo [N]
+ */
+public class VerificadorResultados {
+    private static final Pattern NUMERO = Pattern.compile("_(\\d+)");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: VerificadorResultados archivo [N]");
+            System.exit(2);
+        }
+        Path archivo = Paths.get(args[0]);
+        ResultadoVerificacion r = verificar(archivo,
+                args.length > 1 ? Integer.parseInt(args[1]) : -1);
+        System.out.println(archivo.getFileName() + " → " + r);
+        System.exit(r.isValido() ? 0 : 1);
+    }
+
+    /**
+     * Verifica un fichero según su tipo.
+     * @param archivo fichero de resultados
+     * @param n       tamaño (discos o lado del tablero); si es negativo se saca del nombre
+     */
+    public static ResultadoVerificacion verificar(Path archivo, int n) throws IOException {
+        String nombre = archivo.getFileName().toString();
+        if (n < 0) {
+            Matcher m = NUMERO.matcher(nombre);
+            if (!m.find()) {
+                throw new IllegalArgumentException(
+                        "No se puede deducir el tamaño de " + nombre + "; indícalo como argumento.");
+            }
+            n = Integer.parseInt(m.group(1));
+        }
+        if (nombre.startsWith("resultadoHanoi_")) {
+            return VerificadorHanoi.verificar(archivo, n);
+        } else if (nombre.startsWith("resultadoCaballo_")) {
+            return VerificadorCaballo.verificarRecorrido(archivo, n);
+        } else if (nombre.startsWith("tableroFinalCaballo_")) {
+            return VerificadorCaballo.verificarTablero(archivo, n);
+        } else if (nombre.startsWith("tableroFinalNReinas_")) {
+            return VerificadorNReinas.verificarTablero(archivo, n);
+        }
+        throw new IllegalArgumentException("Tipo de fichero desconocido: " + nombre);
+    }
+}
@@ -0,0 +1,88 @@
+package base.modelo;
+
+/**
+ * Clase base para los algoritmos de backtracking (caballo, N reinas…).
+ * Añade a AlgoritmoRecursivo una estrategia de búsqueda intercambiable
+ * y un control con presupuesto de nodos y cancelación.
+ */
+public abstract class AlgoritmoBusqueda extends AlgoritmoRecursivo {
+    // Estrategia con la que se recorre el árbol (por defecto, la secuencial de siempre)
+    private EstrategiaBusqueda estrategia = new BusquedaSecuencial();
+
+    // Límite de nodos de cada ejecución y control del que cuelga (para compartir presupuesto)
+    private long limiteNodos = Long.MAX_VALUE;
+    private ControlBusqueda controlPadre;
+
+    // Control de la ejecución en curso (o de la última)
+    private volatile ControlBusqueda control = new ControlBusqueda();
+
+    /**
+     * @param nombre Texto con el nombre del algoritmo (se pasa a AlgoritmoRecursivo).
+     */
+    public AlgoritmoBusqueda(String nombre) {
+        super(nombre);
+    }
+
+    /**
+     * Lanza la estrategia sobre el estado inicial con un control nuevo.
+     * @return el estado con la solución, o null si no se encontró
+     */
+    protected <S extends EstadoBusqueda<S>> S buscar(S estadoInicial) {
+        return estrategia.buscar(estadoInicial, nuevoControl());
+    }
+
+    /**
+     * Prepara el control de una nueva ejecución (límite de nodos y control padre)
+     * para las subclases que lancen la búsqueda por su cuenta.
+     */
+    protected ControlBusqueda nuevoControl() {
+        control = (controlPadre == null)
+                ? new ControlBusqueda(limiteNodos)
+                : controlPadre.derivar(limiteNodos);
+        return control;
+    }
+
+    // -------------------- GETTERS Y SETTERS --------------------
+
+    /** @param estrategia forma de recorrer el árbol (secuencial, iterativa, paralela…) */
+    public void setEstrategia(EstrategiaBusqueda estrategia) {
+        this.estrategia = estrategia;
+    }
+
+    /** @return la estrategia de búsqueda actual */
+    public EstrategiaBusqueda getEstrategia() {
+        return estrategia;
+    }
+
+    /** @param limiteNodos máximo de nodos que puede explorar cada ejecución */
+    public void setLimiteNodos(long limiteNodos) {
+        if (limiteNodos <= 0) {
+            throw new IllegalArgumentException("El límite de nodos debe ser positivo.");
+        }
+        this.limiteNodos = limiteNodos;
+    }
+
+    /**
+     * Hace que las ejecuciones cuelguen de un control común: comparten su
+     * presupuesto de nodos y se detienen si se cancela.
+     */
+    public void setControlPadre(ControlBusqueda controlPadre) {
+        this.controlPadre = controlPadre;
+    }
+
+    /** @return el control de la ejecución en curso (o de la última) */
+    public ControlBusqueda getControl() {
+        return control;
+    }
+
+    /** Pide que la ejecución en curso se detenga cuanto antes. */
+    public void cancelar() {
+        control.cancelar();
+    }
+
+    /** @return nodos explorados por la ejecución en curso (o la última) */
+    @Override
+    public long getNodosExplorados() {
+        return control.getNodos();
+    }
+}
@@ -1,20 +1,27 @@
 package base.modelo;
 
-import java.util.List;
 import java.io.PrintWriter;
 import java.io.IOException;
 
 /**
  * Clase base para cualquier algoritmo recursivo.
- * Guarda un nombre, un parámetro (como tamaño de tablero) y la lista de pasos realizados.
+ * Guarda un nombre, un parámetro (como tamaño de tablero) y el buffer de pasos realizados.
  */
 public abstract class AlgoritmoRecursivo extends ObjetoBase {
     // Aquí se guarda el parámetro principal del algoritmo (por ejemplo, tamaño del tablero o número de discos).
     protected int parametro;
 
-    // Lista donde almacenamos cada paso que hace el algoritmo.
-    // Cada paso es un array de enteros: [fila, columna] o [origen, destino].
-    protected List<int[]> pasos;
+    // Buffer donde almacenamos cada paso que hace el algoritmo.
+    // Cada paso son dos enteros seguidos: [fila, columna] o [origen, destino].
+    protected BufferPasos pasos = new BufferPasos();
+
+    // Si no es null, el algoritmo publica aquí cada paso (también los deshechos)
+    // mientras lo ejecuta, para que una vista lo anime en vivo.
+    protected AnilloPasos anillo;
+
+    // Plan de la próxima ejecución (null = aún sin planificar): lo rellena planificar()
+    // y ejecutar() lo sigue. Las subclases lo descartan al cambiar los parámetros.
+    protected PlanEjecucion plan;
 
     /**
      * Constructor de la clase.
@@ -37,9 +44,75 @@ public abstract class AlgoritmoRecursivo extends ObjetoBase {
     public abstract void ejecutar();
 
     /**
-     * Devuelve la lista de pasos que se han almacenado.
+     * Ejecuta y anota la ejecución (duración, nodos, huella del resultado) en el historial.
+     * Si no se puede escribir en el historial se avisa por consola, pero el resultado vale.
+     * @param historial dónde anotarla (null = sólo ejecutar)
      */
-    public abstract List<int[]> getPasos();
+    public void ejecutarYRegistrar(HistorialEjecuciones historial) {
+        long inicio = System.currentTimeMillis();
+        long t0 = System.nanoTime();
+        ejecutar();
+        long nanos = System.nanoTime() - t0;
+        if (historial == null) return;
+        try {
+            historial.registrar(new HistorialEjecuciones.Ejecucion(getId(), HistorialEjecuciones.VERSION,
+                    parametrosHistorial(), inicio, nanos, getNodosExplorados(), huellaResultado()));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Huella del resultado para el historial: la de getFuente(), que es donde están los
+     * pasos aunque no quepan en getPasos(). Si se calculan al vuelo, se sobrescribe para
+     * devolver {@link HistorialEjecuciones#SIN_HUELLA}.
+     */
+    protected long huellaResultado() {
+        return HistorialEjecuciones.huella(getFuente());
+    }
+
+    /**
+     * Parámetros que identifican la ejecución en el historial; el primero es el que
+     * indexa las consultas. Por defecto, sólo el parámetro principal.
+     */
+    protected int[] parametrosHistorial() {
+        return new int[]{parametro};
+    }
+
+    /** @return nodos explorados por la última ejecución, o -1 si el algoritmo no los cuenta */
+    public long getNodosExplorados() {
+        return -1;
+    }
+
+    /**
+     * Estima memoria y tiempo para los parámetros actuales y elige la estrategia con
+     * la que se ejecutará (ver {@link Planificador}). Por defecto, la materializada y
+     * sin estimaciones: las subclases que puedan crecer mucho lo sobrescriben.
+     * @return el plan, que también queda guardado para ejecutar()
+     */
+    public PlanEjecucion planificar() {
+        plan = new PlanEjecucion(PlanEjecucion.Estrategia.MATERIALIZADA, 0, 0);
+        return plan;
+    }
+
+    /** @return el plan de la próxima ejecución, o null si aún no se ha planificado */
+    public PlanEjecucion getPlan() {
+        return plan;
+    }
+
+    /**
+     * Devuelve el buffer de pasos que se han almacenado.
+     */
+    public abstract BufferPasos getPasos();
+
+    /**
+     * Pasos de la última ejecución estén donde estén: por defecto, los de getPasos().
+     * Los algoritmos cuyos pasos pueden no caber en el heap (o calcularse al vuelo)
+     * lo sobrescriben; las vistas y el servidor leen de aquí.
+     */
+    public FuentePasos getFuente() {
+        return getPasos();
+    }
 
     /**
      * Guarda en un archivo de texto la secuencia de pasos.
@@ -49,10 +122,12 @@ public abstract class AlgoritmoRecursivo extends ObjetoBase {
         // Abrimos (o creamos) un PrintWriter para escribir líneas en un archivo.
         try (PrintWriter writer = new PrintWriter(nombreArchivo)) {
             writer.println("Secuencia de movimientos:");
-            // Recorremos cada vector de la lista de pasos
-            for (int[] vector : getPasos()) {
-                // Convertimos el array a String (p.ej. "[0, 1]") y lo escribimos
-                writer.println(vectorToString(vector));
+            // Recorremos cada paso del buffer reutilizando el mismo array
+            BufferPasos buffer = getPasos();
+            int[] vector = new int[buffer.getAncho()];
+            for (int i = 0; i < buffer.tamano(); i++) {
+                // Convertimos el paso a String (p.ej. "[0, 1]") y lo escribimos
+                writer.println(vectorToString(buffer.copiarPaso(i, vector)));
             }
         } catch (IOException e) {
             // Si hay un error al escribir el archivo, lo mostramos por consola
@@ -79,6 +154,15 @@ public abstract class AlgoritmoRecursivo extends ObjetoBase {
         return sb.toString();
     }
 
+    /**
+     * Conecta (o desconecta, con null) el anillo donde se publican los pasos en vivo.
+     * Sólo debe haber un hilo ejecutando el algoritmo mientras esté conectado.
+     * @param anillo el anillo que drenará la vista.
+     */
+    public void setAnillo(AnilloPasos anillo) {
+        this.anillo = anillo;
+    }
+
     /**
      * Método para obtener el valor actual del parámetro.
      * @return el parámetro (p.ej. tamaño del tablero).
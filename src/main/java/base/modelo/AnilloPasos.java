@@ -0,0 +1,120 @@
+package base.modelo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AnilloPasos: cola circular sin bloqueos de un productor y un consumidor
+ * para ver la búsqueda en vivo mientras ocurre.
+ * • El productor es el hilo del algoritmo: publica eventos COLOCAR y QUITAR.
+ * • El consumidor es la vista: en cada fotograma drena lo que haya.
+ * • Cada evento son 3 enteros (tipo, a, b) en un único int[]: no se crea ningún objeto.
+ * • La capacidad es fija; si la vista va por detrás, el productor espera (contrapresión)
+ *   en vez de acumular memoria, así que la búsqueda avanza al ritmo de la animación.
+ * Los dos contadores sólo crecen; cada lado escribe el suyo con semántica release y
+ * lee el del otro con acquire, que basta para ver los datos del evento ya escritos.
+ */
+public class AnilloPasos {
+    /** Se ocupa la casilla (a, b): caballo o reina. */
+    public static final int COLOCAR = 0;
+    /** Se libera la casilla (a, b) al hacer backtracking. */
+    public static final int QUITAR = 1;
+
+    private static final int ENTEROS_POR_EVENTO = 3;
+    private static final int ESPERAS_ACTIVAS = 100;   // Vueltas antes de dormir al productor
+
+    /** Quien recibe los eventos al drenar. */
+    public interface Consumidor {
+        void evento(int tipo, int a, int b);
+    }
+
+    private final int[] datos;
+    private final int mascara;                       // capacidad - 1 (capacidad potencia de 2)
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong leidos = new AtomicLong();
+    private long leidosVistos;                       // Copia local del productor
+    private volatile boolean terminado;              // El productor no publicará más
+    private volatile boolean abandonado;             // El consumidor ya no drena
+
+    /** @param capacidad eventos que caben sin que el productor espere (se redondea a potencia de 2) */
+    public AnilloPasos(int capacidad) {
+        if (capacidad < 1 || capacidad > (1 << 26)) {
+            throw new IllegalArgumentException("La capacidad debe estar entre 1 y 2^26 eventos.");
+        }
+        int potencia = Integer.highestOneBit(capacidad);
+        if (potencia < capacidad) potencia <<= 1;
+        this.mascara = potencia - 1;
+        this.datos = new int[potencia * ENTEROS_POR_EVENTO];
+    }
+
+    // -------------------- PRODUCTOR --------------------
+
+    /**
+     * Publica un evento; si el anillo está lleno espera a que la vista drene.
+     * @return false si la vista abandonó (el evento se descarta y conviene parar)
+     */
+    public boolean publicar(int tipo, int a, int b) {
+        long e = escritos.get();   // Sólo lo escribe este hilo
+        int vueltas = 0;
+        while (e - leidosVistos > mascara) {
+            if (abandonado) return false;
+            leidosVistos = leidos.getAcquire();
+            if (e - leidosVistos <= mascara) break;
+            if (++vueltas < ESPERAS_ACTIVAS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(100_000);   // 0,1 ms: la vista drena por fotogramas
+            }
+        }
+        int i = (int) (e & mascara) * ENTEROS_POR_EVENTO;
+        datos[i] = tipo;
+        datos[i + 1] = a;
+        datos[i + 2] = b;
+        escritos.setRelease(e + 1);
+        return !abandonado;
+    }
+
+    /** El productor avisa de que ha terminado (la vista sabrá que no llegará nada más). */
+    public void terminar() {
+        terminado = true;
+    }
+
+    // -------------------- CONSUMIDOR --------------------
+
+    /**
+     * Entrega al consumidor como mucho {@code maximo} eventos pendientes, en orden.
+     * @return número de eventos entregados
+     */
+    public int drenar(Consumidor consumidor, int maximo) {
+        long r = leidos.get();     // Sólo lo escribe este hilo
+        long disponibles = escritos.getAcquire() - r;
+        int k = (int) Math.min(disponibles, maximo);
+        for (int j = 0; j < k; j++) {
+            int i = (int) ((r + j) & mascara) * ENTEROS_POR_EVENTO;
+            consumidor.evento(datos[i], datos[i + 1], datos[i + 2]);
+        }
+        leidos.setRelease(r + k);
+        return k;
+    }
+
+    /** @return true si el productor terminó y ya no queda nada por drenar */
+    public boolean isAgotado() {
+        // Se mira primero "terminado": si es true, todo lo publicado ya es visible
+        return terminado && escritos.getAcquire() == leidos.get();
+    }
+
+    /** La vista deja de drenar (por ejemplo, al cerrar la ventana): el productor no esperará más. */
+    public void abandonar() {
+        abandonado = true;
+    }
+
+    /** @return true si la vista abandonó el anillo */
+    public boolean isAbandonado() {
+        return abandonado;
+    }
+
+    /** @return eventos que caben en el anillo */
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+}
@@ -0,0 +1,191 @@
+package base.modelo;
+
+import java.util.Arrays;
+
+/**
+ * BufferPasos: lista creciente de pasos guardada en un único array de int.
+ * • Cada paso ocupa {@code ancho} enteros seguidos (por ejemplo [fila, columna] u [origen, destino]).
+ * • Añadir, leer o truncar no crea objetos: no hay un int[] por paso como en List&lt;int[]&gt;.
+ * • truncar() sirve para deshacer pasos al hacer backtracking.
+ * • Como {@link FuentePasos}, es la versión materializada: todos los pasos en el heap.
+ */
+public class BufferPasos implements FuentePasos {
+    // Tamaño máximo de array que admite la JVM con holgura
+    private static final int MAX_ENTEROS = Integer.MAX_VALUE - 8;
+
+    private final int ancho;   // Enteros por paso
+    private int[] datos;       // Pasos uno tras otro: p0c0, p0c1, p1c0, p1c1…
+    private int tamano;        // Pasos guardados
+
+    /** Buffer de pasos de 2 enteros. */
+    public BufferPasos() {
+        this(2);
+    }
+
+    /** @param ancho enteros que ocupa cada paso */
+    public BufferPasos(int ancho) {
+        this(ancho, 16);
+    }
+
+    /**
+     * @param ancho            enteros que ocupa cada paso
+     * @param capacidadInicial pasos para los que se reserva sitio desde el principio
+     */
+    public BufferPasos(int ancho, int capacidadInicial) {
+        if (ancho < 1) {
+            throw new IllegalArgumentException("Cada paso debe tener al menos un entero.");
+        }
+        if (capacidadInicial < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa.");
+        }
+        this.ancho = ancho;
+        this.datos = new int[Math.multiplyExact(ancho, capacidadInicial)];
+    }
+
+    // -------------------- ESCRITURA --------------------
+
+    /** Añade un paso de dos enteros (el buffer debe tener ancho 2). */
+    public void agregar(int a, int b) {
+        if (ancho != 2) {
+            throw new IllegalStateException("El buffer tiene pasos de " + ancho + " enteros.");
+        }
+        asegurarCapacidad(tamano + 1);
+        int i = tamano * 2;
+        datos[i] = a;
+        datos[i + 1] = b;
+        tamano++;
+    }
+
+    /** Añade un paso copiando los {@code ancho} primeros valores del array. */
+    public void agregar(int[] paso) {
+        asegurarCapacidad(tamano + 1);
+        System.arraycopy(paso, 0, datos, tamano * ancho, ancho);
+        tamano++;
+    }
+
+    /** Sobrescribe un componente de un paso ya existente. */
+    public void establecer(int paso, int componente, int valor) {
+        datos[indice(paso, componente)] = valor;
+    }
+
+    /**
+     * Deja sólo los primeros {@code nuevoTamano} pasos (el backtracking "remove").
+     * La capacidad reservada se conserva.
+     */
+    public void truncar(int nuevoTamano) {
+        if (nuevoTamano < 0 || nuevoTamano > tamano) {
+            throw new IndexOutOfBoundsException("Tamaño " + nuevoTamano + " fuera de 0.." + tamano);
+        }
+        tamano = nuevoTamano;
+    }
+
+    /** Quita el último paso. */
+    public void quitarUltimo() {
+        truncar(tamano - 1);
+    }
+
+    /** Sustituye el contenido por una copia de los pasos de otro buffer del mismo ancho. */
+    public void copiarDesde(BufferPasos otro) {
+        if (otro.ancho != ancho) {
+            throw new IllegalArgumentException("Los buffers tienen pasos de distinto ancho.");
+        }
+        asegurarCapacidad(otro.tamano);
+        System.arraycopy(otro.datos, 0, datos, 0, otro.tamano * ancho);
+        tamano = otro.tamano;
+    }
+
+    /** Vacía el buffer sin liberar la memoria reservada. */
+    public void vaciar() {
+        tamano = 0;
+    }
+
+    /** Reserva sitio para al menos {@code pasos} pasos (evita copias si se conoce el total). */
+    public void reservar(int pasos) {
+        asegurarCapacidad(pasos);
+    }
+
+    /**
+     * Fija el tamaño a {@code pasos}, reservando sitio si hace falta.
+     * Los pasos nuevos quedan a 0 y se rellenan después con {@link #establecer(int, int, int)}.
+     */
+    public void redimensionar(int pasos) {
+        if (pasos < 0) {
+            throw new IllegalArgumentException("El tamaño no puede ser negativo.");
+        }
+        asegurarCapacidad(pasos);
+        if (pasos > tamano) {
+            Arrays.fill(datos, tamano * ancho, pasos * ancho, 0);
+        }
+        tamano = pasos;
+    }
+
+    private void asegurarCapacidad(int pasos) {
+        long necesarios = (long) pasos * ancho;
+        if (necesarios <= datos.length) return;
+        if (necesarios > MAX_ENTEROS) {
+            throw new IllegalStateException("Demasiados pasos para un buffer en memoria: " + pasos);
+        }
+        long nueva = Math.max(necesarios, datos.length + (datos.length >> 1) + ancho);
+        datos = Arrays.copyOf(datos, (int) Math.min(nueva, MAX_ENTEROS));
+    }
+
+    // -------------------- LECTURA --------------------
+
+    /** @return número de pasos guardados */
+    public int tamano() {
+        return tamano;
+    }
+
+    /** @return true si no hay pasos */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /** @return enteros por paso */
+    @Override
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public long totalPasos() {
+        return tamano;
+    }
+
+    @Override
+    public int paso(long indice, int componente) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Paso " + indice + " fuera de 0.." + (tamano - 1));
+        }
+        return get((int) indice, componente);
+    }
+
+    /** @return el componente indicado (0 = primero) del paso indicado */
+    public int get(int paso, int componente) {
+        return datos[indice(paso, componente)];
+    }
+
+    /** Copia un paso en {@code destino} (de al menos {@code ancho} posiciones) y lo devuelve. */
+    public int[] copiarPaso(int paso, int[] destino) {
+        System.arraycopy(datos, indice(paso, 0), destino, 0, ancho);
+        return destino;
+    }
+
+    private int indice(int paso, int componente) {
+        if (paso < 0 || paso >= tamano) {
+            throw new IndexOutOfBoundsException("Paso " + paso + " fuera de 0.." + (tamano - 1));
+        }
+        if (componente < 0 || componente >= ancho) {
+            throw new IndexOutOfBoundsException("Componente " + componente + " fuera de 0.." + (ancho - 1));
+        }
+        return paso * ancho + componente;
+    }
+
+    /** @return una copia independiente con los mismos pasos (sin capacidad sobrante) */
+    public BufferPasos copiar() {
+        BufferPasos copia = new BufferPasos(ancho, tamano);
+        System.arraycopy(datos, 0, copia.datos, 0, tamano * ancho);
+        copia.tamano = tamano;
+        return copia;
+    }
+}
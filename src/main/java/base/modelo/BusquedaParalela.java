@@ -0,0 +1,99 @@
+package base.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * BusquedaParalela: búsqueda en profundidad repartida con un ForkJoinPool (robo de tareas).
+ * • Hasta la profundidad de corte, cada candidato se convierte en una subtarea con su
+ *   propia copia del estado.
+ * • Por debajo del corte, cada subtarea sigue en secuencial.
+ * • La primera solución encontrada detiene al resto de subtareas.
+ * La solución devuelta puede no ser la misma que encontraría la búsqueda secuencial.
+ */
+public class BusquedaParalela implements EstrategiaBusqueda {
+    private final ForkJoinPool pool;
+    private final int profundidadCorte;   // Niveles que se reparten en subtareas
+
+    /** Usa el pool común y reparte los 2 primeros niveles. */
+    public BusquedaParalela() {
+        this(ForkJoinPool.commonPool(), 2);
+    }
+
+    /** @param profundidadCorte niveles (desde el estado inicial) que se parten en subtareas */
+    public BusquedaParalela(int profundidadCorte) {
+        this(ForkJoinPool.commonPool(), profundidadCorte);
+    }
+
+    /**
+     * @param pool             pool donde se ejecutan las subtareas
+     * @param profundidadCorte niveles que se parten en subtareas (≥ 0)
+     */
+    public BusquedaParalela(ForkJoinPool pool, int profundidadCorte) {
+        if (profundidadCorte < 0) {
+            throw new IllegalArgumentException("La profundidad de corte no puede ser negativa.");
+        }
+        this.pool = pool;
+        this.profundidadCorte = profundidadCorte;
+    }
+
+    @Override
+    public <S extends EstadoBusqueda<S>> S buscar(S estado, ControlBusqueda control) {
+        // Control propio de esta búsqueda: lo cancelamos al encontrar la primera solución
+        // sin tocar el control de quien nos llama
+        ControlBusqueda busqueda = control.derivar();
+        AtomicReference<S> solucion = new AtomicReference<>();
+        pool.invoke(new Tarea<>(estado, 0, busqueda, solucion));
+        return solucion.get();
+    }
+
+    /** Subtarea que explora la rama de un estado. */
+    private final class Tarea<S extends EstadoBusqueda<S>> extends RecursiveAction {
+        private final S estado;
+        private final int nivel;
+        private final ControlBusqueda control;
+        private final AtomicReference<S> solucion;
+
+        Tarea(S estado, int nivel, ControlBusqueda control, AtomicReference<S> solucion) {
+            this.estado = estado;
+            this.nivel = nivel;
+            this.control = control;
+            this.solucion = solucion;
+        }
+
+        @Override
+        protected void compute() {
+            if (!control.continuar()) return;
+            if (nivel >= profundidadCorte) {
+                RecorridoProfundidad recorrido = new RecorridoProfundidad(control);
+                boolean encontrada = recorrido.buscar(estado, Integer.MAX_VALUE);
+                recorrido.cerrar();
+                if (encontrada) anotar(estado);
+                return;
+            }
+            control.sumarNodos(1);
+            if (estado.esSolucion()) {
+                anotar(estado);
+                return;
+            }
+            int[] buffer = new int[estado.maxCandidatos()];
+            int k = estado.candidatos(buffer);
+            List<Tarea<S>> hijas = new ArrayList<>(k);
+            for (int i = 0; i < k; i++) {
+                S copia = estado.copiar();
+                copia.aplicar(buffer[i]);
+                hijas.add(new Tarea<>(copia, nivel + 1, control, solucion));
+            }
+            invokeAll(hijas);
+        }
+
+        private void anotar(S encontrada) {
+            if (solucion.compareAndSet(null, encontrada)) {
+                control.cancelar();   // Paramos al resto de subtareas
+            }
+        }
+    }
+}
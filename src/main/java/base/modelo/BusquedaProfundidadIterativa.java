@@ -0,0 +1,45 @@
+package base.modelo;
+
+/**
+ * BusquedaProfundidadIterativa: repite la búsqueda en profundidad con un límite
+ * de profundidad creciente. Encuentra primero las soluciones menos profundas y
+ * sólo guarda en memoria el camino actual.
+ */
+public class BusquedaProfundidadIterativa implements EstrategiaBusqueda {
+    private final int profundidadInicial;   // Primer límite que se prueba
+    private final int incremento;           // Cuánto crece el límite en cada vuelta
+
+    /** Empieza con límite 1 y lo sube de uno en uno. */
+    public BusquedaProfundidadIterativa() {
+        this(1, 1);
+    }
+
+    /**
+     * @param profundidadInicial primer límite de profundidad (≥ 0)
+     * @param incremento         aumento del límite en cada iteración (≥ 1)
+     */
+    public BusquedaProfundidadIterativa(int profundidadInicial, int incremento) {
+        if (profundidadInicial < 0 || incremento < 1) {
+            throw new IllegalArgumentException(
+                    "La profundidad inicial debe ser ≥ 0 y el incremento ≥ 1.");
+        }
+        this.profundidadInicial = profundidadInicial;
+        this.incremento = incremento;
+    }
+
+    @Override
+    public <S extends EstadoBusqueda<S>> S buscar(S estado, ControlBusqueda control) {
+        RecorridoProfundidad recorrido = new RecorridoProfundidad(control);
+        int base = estado.profundidad();
+        try {
+            for (int limite = profundidadInicial; ; limite += incremento) {
+                if (recorrido.buscar(estado, base + limite)) return estado;
+                // Si ninguna rama tocó el límite, el árbol está agotado: no hay solución
+                if (recorrido.isDetenido() || !recorrido.consumirCortado()) return null;
+                if (limite > Integer.MAX_VALUE - incremento - base) return null;
+            }
+        } finally {
+            recorrido.cerrar();
+        }
+    }
+}
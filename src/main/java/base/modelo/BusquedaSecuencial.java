@@ -0,0 +1,16 @@
+package base.modelo;
+
+/**
+ * BusquedaSecuencial: backtracking clásico en profundidad en un solo hilo.
+ * Prueba los candidatos en el orden que da el estado y se queda con la primera solución.
+ */
+public class BusquedaSecuencial implements EstrategiaBusqueda {
+
+    @Override
+    public <S extends EstadoBusqueda<S>> S buscar(S estado, ControlBusqueda control) {
+        RecorridoProfundidad recorrido = new RecorridoProfundidad(control);
+        boolean encontrada = recorrido.buscar(estado, Integer.MAX_VALUE);
+        recorrido.cerrar();
+        return encontrada ? estado : null;
+    }
+}
@@ -0,0 +1,50 @@
+package base.modelo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CacheSoluciones: soluciones ya calculadas, compartidas por toda la aplicación.
+ * • La rellena el precálculo en segundo plano; los problemas la consultan en ejecutar().
+ * • La clave identifica algoritmo y parámetros, p.ej. "nreinas:8" o "caballo:8:0:0".
+ * • Los pasos guardados no se modifican nunca: quien los usa debe copiarlos.
+ */
+public class CacheSoluciones {
+    private static final ConcurrentHashMap<String, BufferPasos> soluciones = new ConcurrentHashMap<>();
+    private static final AtomicLong bytes = new AtomicLong();   // Memoria aproximada ocupada
+
+    private CacheSoluciones() {
+    }
+
+    /** @return la clave "algoritmo:p1:p2…" para unos parámetros */
+    public static String clave(String algoritmo, int... parametros) {
+        StringBuilder sb = new StringBuilder(algoritmo);
+        for (int p : parametros) {
+            sb.append(':').append(p);
+        }
+        return sb.toString();
+    }
+
+    /** Guarda una copia de los pasos bajo la clave (si ya había solución, se conserva la anterior). */
+    public static void guardar(String clave, BufferPasos pasos) {
+        BufferPasos copia = pasos.copiar();
+        if (soluciones.putIfAbsent(clave, copia) == null) {
+            bytes.addAndGet(4L * copia.tamano() * copia.getAncho());
+        }
+    }
+
+    /** @return los pasos guardados (sólo lectura) o null si no hay solución para esa clave */
+    public static BufferPasos obtener(String clave) {
+        return soluciones.get(clave);
+    }
+
+    /** @return true si hay solución guardada para la clave */
+    public static boolean contiene(String clave) {
+        return soluciones.containsKey(clave);
+    }
+
+    /** @return memoria aproximada (en bytes) que ocupan los pasos guardados */
+    public static long getBytes() {
+        return bytes.get();
+    }
+}
@@ -0,0 +1,84 @@
+package base.modelo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ControlBusqueda: presupuesto de nodos y cancelación de una búsqueda.
+ * • Se puede compartir entre varios hilos y varias búsquedas.
+ * • Un control derivado ({@link #derivar(long)}) suma sus nodos también al padre
+ *   y se detiene si el padre se cancela o agota su presupuesto.
+ */
+public class ControlBusqueda {
+    private final ControlBusqueda padre;   // Control del que depende (puede ser null)
+    private final long limiteNodos;        // Máximo de nodos a explorar
+    private final AtomicLong nodos = new AtomicLong();
+    private volatile boolean cancelado;
+
+    /** Control sin límite de nodos. */
+    public ControlBusqueda() {
+        this(null, Long.MAX_VALUE);
+    }
+
+    /** @param limiteNodos máximo de nodos que se pueden explorar */
+    public ControlBusqueda(long limiteNodos) {
+        this(null, limiteNodos);
+    }
+
+    private ControlBusqueda(ControlBusqueda padre, long limiteNodos) {
+        if (limiteNodos <= 0) {
+            throw new IllegalArgumentException("El límite de nodos debe ser positivo.");
+        }
+        this.padre = padre;
+        this.limiteNodos = limiteNodos;
+    }
+
+    /** @return un control hijo sin límite propio que comparte presupuesto y cancelación */
+    public ControlBusqueda derivar() {
+        return new ControlBusqueda(this, Long.MAX_VALUE);
+    }
+
+    /** @return un control hijo con su propio límite, además del de este control */
+    public ControlBusqueda derivar(long limiteNodos) {
+        return new ControlBusqueda(this, limiteNodos);
+    }
+
+    /** Suma nodos explorados a este control y a todos sus antecesores. */
+    public void sumarNodos(long cantidad) {
+        for (ControlBusqueda c = this; c != null; c = c.padre) {
+            c.nodos.addAndGet(cantidad);
+        }
+    }
+
+    /** @return true si la búsqueda puede seguir (nadie ha cancelado ni agotado el presupuesto) */
+    public boolean continuar() {
+        for (ControlBusqueda c = this; c != null; c = c.padre) {
+            if (c.cancelado || c.nodos.get() >= c.limiteNodos) return false;
+        }
+        return true;
+    }
+
+    /** Pide a todas las búsquedas que usan este control (o sus hijos) que paren. */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    /** @return true si se ha llamado a {@link #cancelar()} sobre este control */
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    /** @return true si este control ha gastado todo su presupuesto */
+    public boolean isAgotado() {
+        return nodos.get() >= limiteNodos;
+    }
+
+    /** @return nodos explorados hasta ahora */
+    public long getNodos() {
+        return nodos.get();
+    }
+
+    /** @return el límite de nodos de este control */
+    public long getLimiteNodos() {
+        return limiteNodos;
+    }
+}
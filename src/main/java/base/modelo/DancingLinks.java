@@ -0,0 +1,308 @@
+package base.modelo;
+
+import java.util.Arrays;
+
+/**
+ * DancingLinks: motor de cobertura exacta (Algoritmo X de Knuth con enlaces danzantes).
+ * • Columnas primarias: cada una debe quedar cubierta exactamente una vez.
+ * • Columnas secundarias: como mucho una vez (sirven para "no pueden coincidir",
+ *   por ejemplo las diagonales de las N Reinas).
+ * • Los nodos viven en arrays de int (izq, der, arriba, abajo, columna, fila):
+ *   no hay un objeto por nodo y cubrir/descubrir sólo reescribe enteros.
+ * • En cada nivel se ramifica por la columna primaria con menos filas vivas,
+ *   así un hueco sin opciones se detecta en cuanto aparece.
+ *
+ * Uso: se añaden las filas con {@link #agregarFila(int...)}, se fijan las que ya
+ * forman parte de la solución con {@link #fijarFila(int)} y se llama a
+ * {@link #contar(ControlBusqueda)} o {@link #buscarPrimera(ControlBusqueda)}.
+ * Al terminar una búsqueda la estructura queda como estaba, así que se puede repetir.
+ */
+public class DancingLinks {
+    private static final int LOTE = 1024;   // Nodos entre consultas al control
+
+    private final int primarias;
+    private final int columnas;             // Primarias + secundarias
+    private final int raiz;                 // Cabecera de la lista de columnas primarias
+
+    // Nodos: 0..columnas-1 son cabeceras de columna, "raiz" la cabecera general, luego las filas
+    private int[] izq, der, arriba, abajo, columna, fila;
+    private int nodos;
+    private final int[] tamano;             // Filas vivas en cada columna
+    private final boolean[] cubierta;       // Columnas ya cubiertas por filas fijadas
+
+    private int[] primeroDeFila = new int[16];   // Primer nodo de cada fila
+    private int filas;
+    private final BufferPasos fijadas = new BufferPasos(1);
+
+    // Estado de la búsqueda en curso
+    private int[] elegidas;                 // Fila elegida en cada nivel
+    private ControlBusqueda control;
+    private int pendientes;
+    private boolean detenido;
+
+    /**
+     * @param primarias   columnas que hay que cubrir exactamente una vez (0..primarias-1)
+     * @param secundarias columnas que se cubren como mucho una vez
+     *                    (primarias..primarias+secundarias-1)
+     */
+    public DancingLinks(int primarias, int secundarias) {
+        if (primarias < 0 || secundarias < 0) {
+            throw new IllegalArgumentException("El número de columnas no puede ser negativo.");
+        }
+        this.primarias = primarias;
+        this.columnas = primarias + secundarias;
+        this.raiz = columnas;
+        int capacidad = columnas + 1 + 4 * 16;
+        izq = new int[capacidad];
+        der = new int[capacidad];
+        arriba = new int[capacidad];
+        abajo = new int[capacidad];
+        columna = new int[capacidad];
+        fila = new int[capacidad];
+        tamano = new int[columnas];
+        cubierta = new boolean[columnas];
+
+        // Cabeceras: cada columna empieza vacía (arriba y abajo apuntan a sí misma)
+        for (int c = 0; c <= columnas; c++) {
+            arriba[c] = abajo[c] = c;
+            columna[c] = c;
+            fila[c] = -1;
+            izq[c] = der[c] = c;   // Las secundarias se quedan fuera de la lista de la raíz
+        }
+        // Lista circular raíz ↔ primarias
+        int anterior = raiz;
+        for (int c = 0; c < primarias; c++) {
+            der[anterior] = c;
+            izq[c] = anterior;
+            anterior = c;
+        }
+        der[anterior] = raiz;
+        izq[raiz] = anterior;
+        nodos = columnas + 1;
+    }
+
+    // -------------------- CONSTRUCCIÓN --------------------
+
+    /**
+     * Añade una fila (una opción) que cubre las columnas indicadas.
+     * @return el número de fila, que es el que devuelve {@link #buscarPrimera(ControlBusqueda)}
+     */
+    public int agregarFila(int... cols) {
+        if (cols.length == 0) {
+            throw new IllegalArgumentException("Una fila debe cubrir al menos una columna.");
+        }
+        asegurarNodos(nodos + cols.length);
+        if (filas == primeroDeFila.length) {
+            primeroDeFila = Arrays.copyOf(primeroDeFila, filas * 2);
+        }
+        int primero = nodos;
+        for (int k = 0; k < cols.length; k++) {
+            int c = cols[k];
+            if (c < 0 || c >= columnas) {
+                throw new IllegalArgumentException("Columna " + c + " fuera de 0.." + (columnas - 1));
+            }
+            int x = nodos++;
+            columna[x] = c;
+            fila[x] = filas;
+            // Al final de la columna c
+            arriba[x] = arriba[c];
+            abajo[x] = c;
+            abajo[arriba[c]] = x;
+            arriba[c] = x;
+            tamano[c]++;
+            // Al final de la fila (lista circular)
+            if (k == 0) {
+                izq[x] = der[x] = x;
+            } else {
+                izq[x] = x - 1;
+                der[x] = primero;
+                der[x - 1] = x;
+                izq[primero] = x;
+            }
+        }
+        primeroDeFila[filas] = primero;
+        return filas++;
+    }
+
+    /**
+     * Da por elegida una fila antes de buscar (por ejemplo, una reina ya colocada).
+     * @throws IllegalArgumentException si choca con otra fila fijada
+     */
+    public void fijarFila(int f) {
+        if (f < 0 || f >= filas) {
+            throw new IllegalArgumentException("Fila " + f + " fuera de 0.." + (filas - 1));
+        }
+        int primero = primeroDeFila[f];
+        int x = primero;
+        do {
+            if (cubierta[columna[x]]) {
+                throw new IllegalArgumentException(
+                        "La fila " + f + " choca con otra fila ya fijada (columna " + columna[x] + ").");
+            }
+            x = der[x];
+        } while (x != primero);
+        // Se cubren sus columnas igual que si la búsqueda la hubiera elegido
+        x = primero;
+        do {
+            cubierta[columna[x]] = true;
+            cubrir(columna[x]);
+            x = der[x];
+        } while (x != primero);
+        fijadas.agregar(new int[] {f});
+    }
+
+    private void asegurarNodos(int necesarios) {
+        if (necesarios <= izq.length) return;
+        int nueva = Math.max(necesarios, izq.length * 2);
+        izq = Arrays.copyOf(izq, nueva);
+        der = Arrays.copyOf(der, nueva);
+        arriba = Arrays.copyOf(arriba, nueva);
+        abajo = Arrays.copyOf(abajo, nueva);
+        columna = Arrays.copyOf(columna, nueva);
+        fila = Arrays.copyOf(fila, nueva);
+    }
+
+    // -------------------- BÚSQUEDA --------------------
+
+    /**
+     * Cuenta todas las formas de completar la cobertura respetando las filas fijadas.
+     * @param control presupuesto y cancelación (si se detiene, la cuenta es parcial)
+     */
+    public long contar(ControlBusqueda control) {
+        prepararBusqueda(control);
+        long total = contarDesde(0);
+        terminarBusqueda();
+        return total;
+    }
+
+    /**
+     * Busca una cobertura completa.
+     * @return las filas de la solución (las fijadas primero), o null si no hay o se detuvo
+     */
+    public int[] buscarPrimera(ControlBusqueda control) {
+        prepararBusqueda(control);
+        int profundidad = buscarDesde(0);
+        terminarBusqueda();
+        if (profundidad < 0) return null;
+        int[] solucion = new int[fijadas.tamano() + profundidad];
+        for (int i = 0; i < fijadas.tamano(); i++) {
+            solucion[i] = fijadas.get(i, 0);
+        }
+        System.arraycopy(elegidas, 0, solucion, fijadas.tamano(), profundidad);
+        return solucion;
+    }
+
+    /** @return true si la última búsqueda se detuvo por presupuesto o cancelación */
+    public boolean isDetenido() {
+        return detenido;
+    }
+
+    private void prepararBusqueda(ControlBusqueda control) {
+        this.control = control;
+        // Como mucho una fila por columna primaria
+        this.elegidas = new int[primarias + 1];
+        this.pendientes = 0;
+        this.detenido = false;
+    }
+
+    private void terminarBusqueda() {
+        if (pendientes > 0) control.sumarNodos(pendientes);
+        pendientes = 0;
+        control = null;
+    }
+
+    private long contarDesde(int nivel) {
+        if (der[raiz] == raiz) return 1;     // Todas las primarias cubiertas
+        if (!contarNodo()) return 0;
+        int c = columnaMasEstrecha();
+        if (tamano[c] == 0) return 0;        // Un hueco sin opciones: rama muerta
+        long total = 0;
+        cubrir(c);
+        for (int r = abajo[c]; r != c && !detenido; r = abajo[r]) {
+            for (int j = der[r]; j != r; j = der[j]) cubrir(columna[j]);
+            total += contarDesde(nivel + 1);
+            for (int j = izq[r]; j != r; j = izq[j]) descubrir(columna[j]);
+        }
+        descubrir(c);
+        return total;
+    }
+
+    /** @return número de filas elegidas en la solución, o -1 si no la hay por aquí */
+    private int buscarDesde(int nivel) {
+        if (der[raiz] == raiz) return nivel;
+        if (!contarNodo()) return -1;
+        int c = columnaMasEstrecha();
+        if (tamano[c] == 0) return -1;
+        int encontrada = -1;
+        cubrir(c);
+        for (int r = abajo[c]; r != c && encontrada < 0 && !detenido; r = abajo[r]) {
+            elegidas[nivel] = fila[r];
+            for (int j = der[r]; j != r; j = der[j]) cubrir(columna[j]);
+            encontrada = buscarDesde(nivel + 1);
+            // Se deshace siempre: la estructura debe quedar intacta para la próxima búsqueda
+            for (int j = izq[r]; j != r; j = izq[j]) descubrir(columna[j]);
+        }
+        descubrir(c);
+        return encontrada;
+    }
+
+    /** Heurística S de Knuth: la columna primaria con menos filas vivas. */
+    private int columnaMasEstrecha() {
+        int mejor = der[raiz];
+        for (int c = der[mejor]; c != raiz; c = der[c]) {
+            if (tamano[c] < tamano[mejor]) {
+                mejor = c;
+                if (tamano[c] <= 1) break;
+            }
+        }
+        return mejor;
+    }
+
+    /** Quita la columna c y todas las filas que la usan de las demás columnas. */
+    private void cubrir(int c) {
+        der[izq[c]] = der[c];
+        izq[der[c]] = izq[c];
+        for (int i = abajo[c]; i != c; i = abajo[i]) {
+            for (int j = der[i]; j != i; j = der[j]) {
+                abajo[arriba[j]] = abajo[j];
+                arriba[abajo[j]] = arriba[j];
+                tamano[columna[j]]--;
+            }
+        }
+    }
+
+    /** Deshace {@link #cubrir(int)} en el orden inverso exacto ("los enlaces bailan"). */
+    private void descubrir(int c) {
+        for (int i = arriba[c]; i != c; i = arriba[i]) {
+            for (int j = izq[i]; j != i; j = izq[j]) {
+                tamano[columna[j]]++;
+                abajo[arriba[j]] = j;
+                arriba[abajo[j]] = j;
+            }
+        }
+        der[izq[c]] = c;
+        izq[der[c]] = c;
+    }
+
+    private boolean contarNodo() {
+        if (detenido) return false;
+        if (++pendientes >= LOTE) {
+            control.sumarNodos(pendientes);
+            pendientes = 0;
+            if (!control.continuar()) detenido = true;
+        }
+        return !detenido;
+    }
+
+    // -------------------- GETTERS --------------------
+
+    /** @return número de filas añadidas */
+    public int getFilas() {
+        return filas;
+    }
+
+    /** @return número de columnas (primarias + secundarias) */
+    public int getColumnas() {
+        return columnas;
+    }
+}
@@ -0,0 +1,38 @@
+package base.modelo;
+
+/**
+ * Estado de un problema de backtracking, tal como lo recorren las estrategias de búsqueda.
+ * • El estado es mutable: {@link #aplicar(int)} avanza un paso y {@link #deshacer(int)} lo revierte.
+ * • Cada paso posible se identifica con un entero (un índice de movimiento, una columna…).
+ * • {@link #copiar()} permite a las estrategias paralelas repartir ramas entre hilos.
+ *
+ * @param <S> el propio tipo del estado (para que {@link #copiar()} devuelva el tipo concreto)
+ */
+public interface EstadoBusqueda<S extends EstadoBusqueda<S>> {
+
+    /** @return true si el estado actual ya es una solución completa */
+    boolean esSolucion();
+
+    /** @return el máximo número de candidatos que puede generar {@link #candidatos(int[])} */
+    int maxCandidatos();
+
+    /**
+     * Escribe en {@code destino}, en el orden en que deben probarse, los pasos posibles
+     * desde el estado actual.
+     * @param destino array de al menos {@link #maxCandidatos()} posiciones
+     * @return cuántos candidatos se han escrito
+     */
+    int candidatos(int[] destino);
+
+    /** Avanza un paso con el candidato indicado. */
+    void aplicar(int candidato);
+
+    /** Revierte el último {@link #aplicar(int)} hecho con ese mismo candidato. */
+    void deshacer(int candidato);
+
+    /** @return cuántos pasos se han aplicado desde el estado inicial */
+    int profundidad();
+
+    /** @return una copia independiente de este estado */
+    S copiar();
+}
@@ -0,0 +1,17 @@
+package base.modelo;
+
+/**
+ * Estrategia para recorrer el árbol de un {@link EstadoBusqueda}:
+ * secuencial, por profundización iterativa, en paralelo…
+ */
+public interface EstrategiaBusqueda {
+
+    /**
+     * Busca una solución partiendo del estado dado.
+     * @param estado  estado inicial; las estrategias secuenciales lo dejan en la solución
+     * @param control presupuesto de nodos y cancelación compartidos
+     * @return el estado que contiene la solución, o null si no se encontró
+     *         (no existe, se agotó el presupuesto o se canceló)
+     */
+    <S extends EstadoBusqueda<S>> S buscar(S estado, ControlBusqueda control);
+}
@@ -0,0 +1,20 @@
+package base.modelo;
+
+/**
+ * FuentePasos: secuencia de pasos de sólo lectura con índices long.
+ * • {@link BufferPasos} la implementa con los pasos en memoria.
+ * • Otras implementaciones los calculan al vuelo (fórmula cerrada) o los leen de
+ *   disco, para secuencias que no caben en un array.
+ * Cada paso tiene {@link #getAncho()} componentes, como en BufferPasos.
+ */
+public interface FuentePasos {
+
+    /** @return número de pasos */
+    long totalPasos();
+
+    /** @return enteros por paso */
+    int getAncho();
+
+    /** @return el componente indicado (0 = primero) del paso indicado */
+    int paso(long indice, int componente);
+}
@@ -0,0 +1,462 @@
+package base.modelo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * HistorialEjecuciones: diario binario de solo-añadir con una entrada por ejecución
+ * (algoritmo, parámetros, versión, inicio, duración, nodos y huella del resultado),
+ * para comparar tiempos sin releer los ficheros de texto de resultados, que además
+ * se pisan entre ejecuciones con el mismo nombre.
+ * • historial.bin: cabecera y registros [longitud][datos][CRC32]. Un registro cortado
+ *   (la JVM murió escribiéndolo) no pasa el CRC y se descarta al reabrir.
+ * • historial.idx: índice de entradas fijas de {@link #BYTES_ENTRADA} bytes con lo que
+ *   miran las consultas (posición, algoritmo, primer parámetro, versión, duración, nodos).
+ *   Se carga entero en memoria en columnas; las consultas sólo leen del diario los
+ *   registros que devuelven. Si falta o se quedó atrás, se completa desde el diario.
+ * Pensado para un único proceso escribiendo (los demás no verían sus entradas nuevas).
+ */
+public class HistorialEjecuciones implements Closeable {
+    // "HIST" y "HIDX" + número de formato
+    private static final int MAGICO_DIARIO = 0x48495354;
+    private static final int MAGICO_INDICE = 0x48494458;
+    private static final int FORMATO = 1;
+    private static final int BYTES_CABECERA = 8;
+    // posición (8) + algoritmo (4) + parámetro (4) + versión (4) + nanos (8) + nodos (8)
+    public static final int BYTES_ENTRADA = 36;
+    // Un registro más largo sólo puede ser basura de una escritura cortada
+    private static final int MAX_REGISTRO = 1 << 16;
+
+    /** Versión que se anota en cada ejecución: -Drecursivos.version o la del JAR. */
+    public static final String VERSION = versionActual();
+    /**
+     * Huella de un resultado que no se ha resumido porque sus pasos se calculan al vuelo
+     * (recorrerlos costaría tanto como generarlos). {@link #huella} nunca la devuelve.
+     */
+    public static final long SIN_HUELLA = 0;
+
+    private static HistorialEjecuciones predeterminado;
+
+    private final FileChannel diario;
+    private final FileChannel indice;
+
+    // Índice en memoria, por columnas (entrada i = ejecución i)
+    private int entradas;
+    private long[] posiciones = new long[64];
+    private int[] algoritmos = new int[64];      // hashCode del nombre
+    private int[] parametros = new int[64];      // Primer parámetro (N, discos…)
+    private int[] versiones = new int[64];       // hashCode de la versión
+    private long[] nanos = new long[64];
+    private long[] nodos = new long[64];
+    // Nombres de cada hashCode, para devolver texto sin leer el diario
+    private final Map<Integer, String> nombres = new HashMap<>();
+
+    /** Una ejecución del historial. */
+    public static final class Ejecucion {
+        private final String algoritmo;
+        private final String version;
+        private final int[] parametros;
+        private final long inicio;       // Milisegundos desde 1970
+        private final long nanos;
+        private final long nodos;        // -1 si el algoritmo no cuenta nodos
+        private final long huella;       // FNV-1a de los pasos del resultado, o SIN_HUELLA
+
+        public Ejecucion(String algoritmo, String version, int[] parametros,
+                         long inicio, long nanos, long nodos, long huella) {
+            this.algoritmo = algoritmo;
+            this.version = version;
+            this.parametros = parametros.clone();
+            this.inicio = inicio;
+            this.nanos = nanos;
+            this.nodos = nodos;
+            this.huella = huella;
+        }
+
+        public String getAlgoritmo() { return algoritmo; }
+        public String getVersion() { return version; }
+        public int[] getParametros() { return parametros.clone(); }
+        public long getInicio() { return inicio; }
+        public long getNanos() { return nanos; }
+        public long getNodos() { return nodos; }
+        public long getHuella() { return huella; }
+
+        @Override
+        public String toString() {
+            return algoritmo + " " + Arrays.toString(parametros) + " [" + version + "] "
+                    + Planificador.formatearSegundos(nanos / 1e9)
+                    + (nodos >= 0 ? ", " + nodos + " nodos" : "")
+                    + (huella == SIN_HUELLA ? ", sin huella" : String.format(", huella %016x", huella));
+        }
+    }
+
+    /** Resumen de las ejecuciones de una versión (para ver la tendencia entre versiones). */
+    public static final class Tendencia {
+        private final String version;
+        private final int ejecuciones;
+        private final long nanosMinimo;
+        private final double nanosMedio;
+        private final double nodosMedio;   // -1 si no hay nodos
+
+        Tendencia(String version, int ejecuciones, long nanosMinimo, double nanosMedio, double nodosMedio) {
+            this.version = version;
+            this.ejecuciones = ejecuciones;
+            this.nanosMinimo = nanosMinimo;
+            this.nanosMedio = nanosMedio;
+            this.nodosMedio = nodosMedio;
+        }
+
+        public String getVersion() { return version; }
+        public int getEjecuciones() { return ejecuciones; }
+        public long getNanosMinimo() { return nanosMinimo; }
+        public double getNanosMedio() { return nanosMedio; }
+        public double getNodosMedio() { return nodosMedio; }
+
+        @Override
+        public String toString() {
+            return version + ": " + ejecuciones + " ejecuciones, mínimo "
+                    + Planificador.formatearSegundos(nanosMinimo / 1e9) + ", media "
+                    + Planificador.formatearSegundos(nanosMedio / 1e9)
+                    + (nodosMedio >= 0 ? String.format(", %,.0f nodos de media", nodosMedio) : "");
+        }
+    }
+
+    private HistorialEjecuciones(FileChannel diario, FileChannel indice) {
+        this.diario = diario;
+        this.indice = indice;
+    }
+
+    /**
+     * Historial del directorio de trabajo (donde se guardan los resultados), abierto
+     * la primera vez que se pide.
+     * @return el historial, o null si no se puede abrir (se avisa por consola)
+     */
+    public static synchronized HistorialEjecuciones predeterminado() {
+        if (predeterminado == null) {
+            try {
+                predeterminado = abrir(Paths.get("historial.bin"));
+            } catch (IOException | IllegalArgumentException e) {
+                e.printStackTrace();
+            }
+        }
+        return predeterminado;
+    }
+
+    /**
+     * Abre (o crea) el diario y su índice (mismo nombre con extensión .idx).
+     * Descarta los registros cortados y pone el índice al día.
+     * @throws IllegalArgumentException si el fichero no es un historial
+     */
+    public static HistorialEjecuciones abrir(Path archivo) throws IOException {
+        String nombre = archivo.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        Path archivoIndice = archivo.resolveSibling(
+                (punto > 0 ? nombre.substring(0, punto) : nombre) + ".idx");
+        FileChannel diario = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel indice = null;
+        try {
+            indice = FileChannel.open(archivoIndice, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            prepararCabecera(diario, MAGICO_DIARIO, archivo);
+            prepararCabecera(indice, MAGICO_INDICE, archivoIndice);
+            HistorialEjecuciones h = new HistorialEjecuciones(diario, indice);
+            h.cargar();
+            return h;
+        } catch (IOException | RuntimeException e) {
+            diario.close();
+            if (indice != null) indice.close();
+            throw e;
+        }
+    }
+
+    /** Escribe la cabecera en un fichero vacío o comprueba la que tiene. */
+    private static void prepararCabecera(FileChannel canal, int magico, Path archivo) throws IOException {
+        if (canal.size() < BYTES_CABECERA) {
+            canal.truncate(0);
+            escribir(canal, 0, ByteBuffer.allocate(BYTES_CABECERA).putInt(magico).putInt(FORMATO).flip());
+            return;
+        }
+        ByteBuffer cabecera = leer(canal, 0, BYTES_CABECERA);
+        if (cabecera.getInt() != magico || cabecera.getInt() != FORMATO) {
+            throw new IllegalArgumentException(archivo + " no es un historial de ejecuciones.");
+        }
+    }
+
+    /**
+     * Carga el índice y lo completa con los registros del diario que le falten
+     * (o quita los que apunten a registros cortados).
+     */
+    private void cargar() throws IOException {
+        long tamanoDiario = diario.size();
+        int guardadas = (int) ((indice.size() - BYTES_CABECERA) / BYTES_ENTRADA);
+        ByteBuffer buf = leer(indice, BYTES_CABECERA, (long) guardadas * BYTES_ENTRADA);
+        long siguiente = BYTES_CABECERA;   // Dónde empieza el primer registro sin indexar
+        for (int i = 0; i < guardadas; i++) {
+            long posicion = buf.getLong();
+            int algoritmo = buf.getInt(), parametro = buf.getInt(), version = buf.getInt();
+            long ns = buf.getLong(), nd = buf.getLong();
+            if (posicion != siguiente || posicion + 4 > tamanoDiario) break;
+            int longitud = leer(diario, posicion, 4).getInt();
+            if (posicion + 8 + longitud > tamanoDiario) break;
+            anotar(posicion, algoritmo, parametro, version, ns, nd);
+            siguiente = posicion + 8 + longitud;
+        }
+        // Entradas del índice que no cuadran (índice más nuevo que el diario, o roto): fuera
+        indice.truncate(BYTES_CABECERA + (long) entradas * BYTES_ENTRADA);
+
+        // Registros del diario que el índice no tenía (se cerró sin escribirlo)
+        while (siguiente < tamanoDiario) {
+            Ejecucion e = leerRegistro(siguiente, tamanoDiario);
+            if (e == null) break;
+            int longitud = leer(diario, siguiente, 4).getInt();
+            indexar(siguiente, e);
+            siguiente += 8 + longitud;
+        }
+        // Lo que queda es una escritura cortada
+        diario.truncate(siguiente);
+        for (int i = 0; i < entradas; i++) {
+            if (!nombres.containsKey(algoritmos[i]) || !nombres.containsKey(versiones[i])) {
+                Ejecucion e = leerRegistro(posiciones[i], siguiente);
+                if (e == null) continue;
+                nombres.putIfAbsent(e.algoritmo.hashCode(), e.algoritmo);
+                nombres.putIfAbsent(e.version.hashCode(), e.version);
+            }
+        }
+    }
+
+    // -------------------- ESCRITURA --------------------
+
+    /**
+     * Añade una ejecución al final del diario y del índice, y fuerza ambos a disco.
+     */
+    public synchronized void registrar(Ejecucion e) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream datos = new DataOutputStream(bytes);
+        datos.writeUTF(e.algoritmo);
+        datos.writeUTF(e.version);
+        datos.writeLong(e.inicio);
+        datos.writeLong(e.nanos);
+        datos.writeLong(e.nodos);
+        datos.writeLong(e.huella);
+        datos.writeInt(e.parametros.length);
+        for (int p : e.parametros) {
+            datos.writeInt(p);
+        }
+        byte[] cuerpo = bytes.toByteArray();
+        if (cuerpo.length > MAX_REGISTRO) {
+            throw new IllegalArgumentException("Ejecución demasiado grande para el historial.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(cuerpo);
+        ByteBuffer registro = ByteBuffer.allocate(8 + cuerpo.length)
+                .putInt(cuerpo.length).put(cuerpo).putInt((int) crc.getValue());
+        long posicion = diario.size();
+        escribir(diario, posicion, registro.flip());
+        // El diario primero: si se corta aquí, el índice se rehace al reabrir
+        diario.force(false);
+        indexar(posicion, e);
+        indice.force(false);
+    }
+
+    /** Anota la entrada en memoria y la añade al fichero de índice. */
+    private void indexar(long posicion, Ejecucion e) throws IOException {
+        int algoritmo = e.algoritmo.hashCode(), version = e.version.hashCode();
+        int parametro = e.parametros.length > 0 ? e.parametros[0] : 0;
+        nombres.putIfAbsent(algoritmo, e.algoritmo);
+        nombres.putIfAbsent(version, e.version);
+        ByteBuffer entrada = ByteBuffer.allocate(BYTES_ENTRADA).putLong(posicion)
+                .putInt(algoritmo).putInt(parametro).putInt(version)
+                .putLong(e.nanos).putLong(e.nodos);
+        escribir(indice, BYTES_CABECERA + (long) entradas * BYTES_ENTRADA, entrada.flip());
+        anotar(posicion, algoritmo, parametro, version, e.nanos, e.nodos);
+    }
+
+    private void anotar(long posicion, int algoritmo, int parametro, int version, long ns, long nd) {
+        if (entradas == posiciones.length) {
+            int capacidad = entradas * 2;
+            posiciones = Arrays.copyOf(posiciones, capacidad);
+            algoritmos = Arrays.copyOf(algoritmos, capacidad);
+            parametros = Arrays.copyOf(parametros, capacidad);
+            versiones = Arrays.copyOf(versiones, capacidad);
+            nanos = Arrays.copyOf(nanos, capacidad);
+            nodos = Arrays.copyOf(nodos, capacidad);
+        }
+        posiciones[entradas] = posicion;
+        algoritmos[entradas] = algoritmo;
+        parametros[entradas] = parametro;
+        versiones[entradas] = version;
+        nanos[entradas] = ns;
+        nodos[entradas] = nd;
+        entradas++;
+    }
+
+    // -------------------- CONSULTAS --------------------
+
+    /** @return número de ejecuciones anotadas */
+    public synchronized int tamano() {
+        return entradas;
+    }
+
+    /** @return los nombres de algoritmo que aparecen en el historial */
+    public synchronized List<String> getAlgoritmos() {
+        List<String> lista = new ArrayList<>();
+        for (int i = 0; i < entradas; i++) {
+            String nombre = nombres.get(algoritmos[i]);
+            if (nombre != null && !lista.contains(nombre)) lista.add(nombre);
+        }
+        return lista;
+    }
+
+    /**
+     * Las ejecuciones más lentas de un algoritmo con un primer parámetro dado
+     * (por ejemplo, las casillas iniciales del caballo que más tardan con N = 50).
+     * Se ordena con el índice; del diario sólo se leen las devueltas.
+     * @param parametro primer parámetro (N o discos)
+     * @param cuantas   máximo de ejecuciones devueltas
+     */
+    public synchronized List<Ejecucion> masLentas(String algoritmo, int parametro, int cuantas)
+            throws IOException {
+        List<Integer> elegidas = filtrar(algoritmo, parametro);
+        elegidas.sort((a, b) -> Long.compare(nanos[b], nanos[a]));
+        List<Ejecucion> lista = new ArrayList<>();
+        for (int i : elegidas) {
+            if (lista.size() >= cuantas) break;
+            Ejecucion e = leerRegistro(posiciones[i], diario.size());
+            // El hashCode coincide; el nombre también tiene que coincidir
+            if (e != null && e.algoritmo.equals(algoritmo)) lista.add(e);
+        }
+        return lista;
+    }
+
+    /**
+     * Tiempos y nodos de un algoritmo y parámetro por versión, en el orden en que
+     * aparece cada versión (para ver si una versión nueva es más rápida o más lenta).
+     */
+    public synchronized List<Tendencia> tendencia(String algoritmo, int parametro) {
+        Map<Integer, long[]> porVersion = new LinkedHashMap<>();   // ejecuciones, mínimo, suma ns, suma nodos, con nodos
+        for (int i : filtrar(algoritmo, parametro)) {
+            long[] s = porVersion.computeIfAbsent(versiones[i], v -> new long[]{0, Long.MAX_VALUE, 0, 0, 0});
+            s[0]++;
+            s[1] = Math.min(s[1], nanos[i]);
+            s[2] += nanos[i];
+            if (nodos[i] >= 0) {
+                s[3] += nodos[i];
+                s[4]++;
+            }
+        }
+        List<Tendencia> lista = new ArrayList<>();
+        for (Map.Entry<Integer, long[]> v : porVersion.entrySet()) {
+            long[] s = v.getValue();
+            lista.add(new Tendencia(nombres.getOrDefault(v.getKey(), "?"), (int) s[0], s[1],
+                    (double) s[2] / s[0], s[4] > 0 ? (double) s[3] / s[4] : -1));
+        }
+        return lista;
+    }
+
+    /** @return las entradas del índice con ese algoritmo y primer parámetro */
+    private List<Integer> filtrar(String algoritmo, int parametro) {
+        int clave = algoritmo.hashCode();
+        List<Integer> elegidas = new ArrayList<>();
+        for (int i = 0; i < entradas; i++) {
+            if (algoritmos[i] == clave && parametros[i] == parametro) elegidas.add(i);
+        }
+        return elegidas;
+    }
+
+    /** @return todas las ejecuciones, de la más antigua a la más reciente */
+    public synchronized List<Ejecucion> todas() throws IOException {
+        List<Ejecucion> lista = new ArrayList<>(entradas);
+        long tamano = diario.size();
+        for (int i = 0; i < entradas; i++) {
+            Ejecucion e = leerRegistro(posiciones[i], tamano);
+            if (e != null) lista.add(e);
+        }
+        return Collections.unmodifiableList(lista);
+    }
+
+    // -------------------- LECTURA --------------------
+
+    /** @return el registro en esa posición, o null si está cortado o no pasa el CRC */
+    private Ejecucion leerRegistro(long posicion, long tamanoDiario) throws IOException {
+        if (posicion + 8 > tamanoDiario) return null;
+        int longitud = leer(diario, posicion, 4).getInt();
+        if (longitud < 0 || longitud > MAX_REGISTRO || posicion + 8 + longitud > tamanoDiario) return null;
+        ByteBuffer buf = leer(diario, posicion + 4, longitud + 4L);
+        byte[] cuerpo = new byte[longitud];
+        buf.get(cuerpo);
+        CRC32 crc = new CRC32();
+        crc.update(cuerpo);
+        if (buf.getInt() != (int) crc.getValue()) return null;
+        DataInputStream datos = new DataInputStream(new ByteArrayInputStream(cuerpo));
+        String algoritmo = datos.readUTF();
+        String version = datos.readUTF();
+        long inicio = datos.readLong(), ns = datos.readLong(), nd = datos.readLong(), huella = datos.readLong();
+        int[] params = new int[datos.readInt()];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = datos.readInt();
+        }
+        return new Ejecucion(algoritmo, version, params, inicio, ns, nd, huella);
+    }
+
+    private static ByteBuffer leer(FileChannel canal, long posicion, long bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) bytes);
+        while (buf.hasRemaining()) {
+            if (canal.read(buf, posicion + buf.position()) < 0) break;
+        }
+        return buf.flip();
+    }
+
+    private static void escribir(FileChannel canal, long posicion, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            canal.write(buf, posicion + buf.position());
+        }
+    }
+
+    /**
+     * @return huella FNV-1a de 64 bits de unos pasos (mismo resultado = misma huella),
+     *         nunca {@link #SIN_HUELLA}
+     */
+    public static long huella(FuentePasos pasos) {
+        long h = 0xcbf29ce484222325L;
+        int ancho = pasos.getAncho();
+        for (long i = 0; i < pasos.totalPasos(); i++) {
+            for (int c = 0; c < ancho; c++) {
+                h = (h ^ pasos.paso(i, c)) * 0x100000001b3L;
+            }
+        }
+        return h == SIN_HUELLA ? 1 : h;
+    }
+
+    private static String versionActual() {
+        String propia = System.getProperty("recursivos.version");
+        if (propia != null) return propia;
+        String jar = HistorialEjecuciones.class.getPackage().getImplementationVersion();
+        return jar != null ? jar : "desarrollo";
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            diario.close();
+        } finally {
+            indice.close();
+        }
+    }
+}
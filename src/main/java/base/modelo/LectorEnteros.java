@@ -0,0 +1,121 @@
+package base.modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * LectorEnteros: lee un fichero de texto línea a línea extrayendo sólo los enteros.
+ * • Lee por bloques con NIO sobre un buffer directo fijo: memoria constante sea cual
+ *   sea el tamaño del fichero.
+ * • No crea ningún String por línea: los dígitos se convierten a int sobre la marcha.
+ * • Cualquier carácter que no sea dígito (o '-' delante de un dígito) hace de separador,
+ *   así que sirve para "[0, 1]", "Punto de inicio: [3, 4]" o filas de un tablero.
+ */
+public class LectorEnteros implements Closeable {
+    private static final int TAMANO_BLOQUE = 1 << 16;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BLOQUE);
+    private boolean finFichero;
+    private long linea;     // Líneas leídas completas
+
+    /** Abre el fichero para lectura. */
+    public LectorEnteros(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        buffer.flip(); // Empieza vacío
+    }
+
+    /**
+     * Lee la siguiente línea y guarda sus enteros en {@code destino}.
+     * Si la línea tiene más enteros que huecos, se cuentan pero no se guardan.
+     * @return número de enteros de la línea, o -1 si ya no quedan líneas
+     * @throws IOException si falla la lectura o un número no cabe en un int
+     */
+    public int leerLinea(int[] destino) throws IOException {
+        int cuenta = 0;
+        long valor = 0;
+        boolean enNumero = false, negativo = false, leidoAlgo = false, guion = false;
+        while (true) {
+            int b = siguienteByte();
+            if (b < 0) {
+                if (!leidoAlgo) return -1;
+                if (enNumero) cuenta = guardar(destino, cuenta, negativo ? -valor : valor);
+                linea++;
+                return cuenta;
+            }
+            leidoAlgo = true;
+            if (b >= '0' && b <= '9') {
+                if (!enNumero) {
+                    enNumero = true;
+                    negativo = guion;
+                    valor = 0;
+                }
+                valor = valor * 10 + (b - '0');
+                if (valor > Integer.MAX_VALUE) {
+                    throw new IOException("Número demasiado grande en la línea " + (linea + 1));
+                }
+            } else {
+                if (enNumero) {
+                    cuenta = guardar(destino, cuenta, negativo ? -valor : valor);
+                    enNumero = false;
+                }
+                if (b == '\n') {
+                    linea++;
+                    return cuenta;
+                }
+            }
+            guion = (b == '-');
+        }
+    }
+
+    /**
+     * Descarta el resto de la línea actual (por ejemplo, una cabecera).
+     * @return false si ya no quedaban líneas
+     */
+    public boolean saltarLinea() throws IOException {
+        boolean leidoAlgo = false;
+        int b;
+        while ((b = siguienteByte()) >= 0) {
+            leidoAlgo = true;
+            if (b == '\n') break;
+        }
+        if (leidoAlgo) linea++;
+        return leidoAlgo;
+    }
+
+    private static int guardar(int[] destino, int cuenta, long valor) {
+        if (cuenta < destino.length) destino[cuenta] = (int) valor;
+        return cuenta + 1;
+    }
+
+    private int siguienteByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (finFichero) return -1;
+            buffer.clear();
+            int leidos;
+            do {
+                leidos = canal.read(buffer);
+            } while (leidos == 0);
+            buffer.flip();
+            if (leidos < 0) {
+                finFichero = true;
+                return -1;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /** @return número de líneas leídas hasta ahora (la última leída, empezando en 1) */
+    public long getLinea() {
+        return linea;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
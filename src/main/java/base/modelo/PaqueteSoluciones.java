@@ -0,0 +1,284 @@
+package base.modelo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * PaqueteSoluciones: respuestas precalculadas al compilar (ver
+ * base.controlador.GeneradorPaquete) que viajan en el classpath como
+ * {@value #RECURSO}, para responder sin buscar a las peticiones más habituales.
+ * • Caballo: un recorrido cerrado por cada N par y, para N impar, un recorrido desde
+ *   cada casilla inicial posible del octante 0 ≤ x ≤ y ≤ (N-1)/2 (las demás salen
+ *   por simetría). Cada salto ocupa 3 bits (cuál de los 8 movimientos es).
+ * • N Reinas: la primera solución en orden lexicográfico (la que da el backtracking)
+ *   y el número total de soluciones de cada N.
+ * Formato: cabecera (mágico, formato, entradas), directorio ordenado de entradas
+ * [clave][posición][longitud], los datos y un CRC32 de todo lo anterior.
+ * Se carga la primera vez que se consulta: si está en un directorio se proyecta en
+ * memoria (FileChannel.map); dentro de un JAR se lee entero. Sin paquete (o si no pasa
+ * el CRC) todas las consultas dicen "no está" y se busca como siempre.
+ * Con -Drecursivos.paquete=false no se usa (así lo genera el propio generador).
+ */
+public class PaqueteSoluciones {
+    public static final String RECURSO = "/paquete-soluciones.bin";
+    public static final String PROPIEDAD = "recursivos.paquete";
+    // "RPAQ" + número de formato
+    private static final int MAGICO = 0x52504151;
+    private static final int FORMATO = 1;
+    private static final int BYTES_CABECERA = 12;
+    // clave (8) + posición (4) + longitud (4)
+    private static final int BYTES_ENTRADA = 16;
+
+    // Tipos de entrada (parte alta de la clave)
+    private static final int CUENTA_NREINAS = 1;
+    private static final int PRIMERA_NREINAS = 2;
+    private static final int CICLO_CABALLO = 3;
+    private static final int ABIERTO_CABALLO = 4;
+
+    // Los 8 saltos del caballo; en el paquete, cada salto es su índice aquí
+    private static final int[] DX = {1, 2, 2, 1, -1, -2, -2, -1};
+    private static final int[] DY = {2, 1, -1, -2, -2, -1, 1, 2};
+
+    private static PaqueteSoluciones cargado;
+    private static boolean intentado;
+
+    // Directorio por columnas (entrada i), ordenado por clave
+    private final ByteBuffer datos;
+    private final long[] claves;
+    private final int[] posiciones;
+
+    private PaqueteSoluciones(ByteBuffer datos) {
+        this.datos = datos;
+        if (datos.getInt(0) != MAGICO || datos.getInt(4) != FORMATO) {
+            throw new IllegalStateException("No es un paquete de soluciones de este formato.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos.duplicate().position(0).limit(datos.capacity() - 4));
+        if ((int) crc.getValue() != datos.getInt(datos.capacity() - 4)) {
+            throw new IllegalStateException("El paquete de soluciones está dañado (CRC).");
+        }
+        int entradas = datos.getInt(8);
+        claves = new long[entradas];
+        posiciones = new int[entradas];
+        for (int i = 0; i < entradas; i++) {
+            int p = BYTES_CABECERA + i * BYTES_ENTRADA;
+            claves[i] = datos.getLong(p);
+            posiciones[i] = datos.getInt(p + 8);
+            if ((long) posiciones[i] + datos.getInt(p + 12) > datos.capacity() - 4) {
+                throw new IllegalStateException("La entrada " + i + " se sale del paquete.");
+            }
+        }
+    }
+
+    // -------------------- CONSULTAS --------------------
+
+    /** @return el número de soluciones de N Reinas, o -1 si no está en el paquete */
+    public static long cuentaNReinas(int n) {
+        PaqueteSoluciones p = paquete();
+        int i = p == null ? -1 : p.buscar(CUENTA_NREINAS, n, 0);
+        return i < 0 ? -1 : p.datos.getLong(p.posiciones[i]);
+    }
+
+    /** @return la primera solución de N Reinas (columna de cada fila), o null si no está */
+    public static int[] primeraNReinas(int n) {
+        PaqueteSoluciones p = paquete();
+        int i = p == null ? -1 : p.buscar(PRIMERA_NREINAS, n, 0);
+        if (i < 0) return null;
+        int[] columnas = new int[n];
+        for (int f = 0; f < n; f++) {
+            columnas[f] = p.datos.get(p.posiciones[i] + f);
+        }
+        return columnas;
+    }
+
+    /** @return el recorrido cerrado de este N (casillas x*N + y), o null si no está */
+    public static int[] cicloCaballo(int n) {
+        PaqueteSoluciones p = paquete();
+        int i = p == null ? -1 : p.buscar(CICLO_CABALLO, n, 0);
+        return i < 0 ? null : p.recorrido(i, n);
+    }
+
+    /** @return el recorrido abierto que sale de (x, y) tal cual, o null si no está */
+    public static int[] abiertoCaballo(int n, int x, int y) {
+        PaqueteSoluciones p = paquete();
+        int i = p == null ? -1 : p.buscar(ABIERTO_CABALLO, n, x * n + y);
+        return i < 0 ? null : p.recorrido(i, n);
+    }
+
+    /** @return true si el paquete tiene algún recorrido del caballo para este N */
+    public static boolean tieneCaballo(int n) {
+        PaqueteSoluciones p = paquete();
+        if (p == null) return false;
+        if (p.buscar(CICLO_CABALLO, n, 0) >= 0) return true;
+        // Los abiertos de este N van seguidos: basta ver si la siguiente clave es de este N
+        int i = p.buscar(ABIERTO_CABALLO, n, 0);
+        if (i >= 0) return true;
+        int siguiente = -i - 1;
+        return siguiente < p.claves.length
+                && (p.claves[siguiente] >>> 32) == (((long) ABIERTO_CABALLO << 16) | n);
+    }
+
+    /** @return true si hay paquete y se ha podido cargar */
+    public static boolean isDisponible() {
+        return paquete() != null;
+    }
+
+    private int buscar(int tipo, int n, int extra) {
+        return Arrays.binarySearch(claves, clave(tipo, n, extra));
+    }
+
+    private static long clave(int tipo, int n, int extra) {
+        return ((long) tipo << 48) | ((long) n << 32) | (extra & 0xffffffffL);
+    }
+
+    /** Decodifica un recorrido: casilla inicial (short) y un salto de 3 bits por casilla. */
+    private int[] recorrido(int entrada, int n) {
+        int p = posiciones[entrada];
+        int[] celdas = new int[n * n];
+        int celda = datos.getShort(p) & 0xffff;
+        int x = celda / n, y = celda % n;
+        celdas[0] = celda;
+        for (int i = 1; i < celdas.length; i++) {
+            long bit = 3L * (i - 1);
+            // Los 3 bits pueden caer entre dos bytes
+            int dos = (datos.get(p + 2 + (int) (bit >>> 3)) & 0xff)
+                    | ((bit & 7) > 5 ? (datos.get(p + 3 + (int) (bit >>> 3)) & 0xff) << 8 : 0);
+            int salto = (dos >>> (bit & 7)) & 7;
+            x += DX[salto];
+            y += DY[salto];
+            celdas[i] = x * n + y;
+        }
+        return celdas;
+    }
+
+    // -------------------- CARGA --------------------
+
+    /** @return el paquete (cargándolo la primera vez), o null si no hay o no se usa */
+    private static synchronized PaqueteSoluciones paquete() {
+        if (intentado) return cargado;
+        intentado = true;
+        if (!Boolean.parseBoolean(System.getProperty(PROPIEDAD, "true"))) return null;
+        URL url = PaqueteSoluciones.class.getResource(RECURSO);
+        if (url == null) return null;
+        try {
+            cargado = new PaqueteSoluciones(leer(url));
+        } catch (IOException | RuntimeException e) {
+            // Sin paquete se busca como siempre: sólo se avisa
+            System.err.println("No se pudo cargar " + RECURSO + ": " + e.getMessage());
+        }
+        return cargado;
+    }
+
+    /** Proyecta el archivo en memoria si es un archivo suelto; si no (JAR), lo lee entero. */
+    private static ByteBuffer leer(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel canal = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                // La proyección sigue valiendo después de cerrar el canal
+                return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream entrada = url.openStream()) {
+            return ByteBuffer.wrap(entrada.readAllBytes());
+        }
+    }
+
+    // -------------------- ESCRITURA --------------------
+
+    /** Reúne las entradas (en cualquier orden) y escribe el paquete ordenado por clave. */
+    public static final class Escritor {
+        private final Map<Long, byte[]> entradas = new TreeMap<>();
+
+        public void agregarCuentaNReinas(int n, long soluciones) {
+            agregar(CUENTA_NREINAS, n, 0, ByteBuffer.allocate(8).putLong(soluciones).array());
+        }
+
+        /** @param columnas columna de la reina de cada fila */
+        public void agregarPrimeraNReinas(int n, int[] columnas) {
+            byte[] bytes = new byte[n];
+            for (int f = 0; f < n; f++) {
+                bytes[f] = (byte) columnas[f];
+            }
+            agregar(PRIMERA_NREINAS, n, 0, bytes);
+        }
+
+        /** @param celdas recorrido cerrado (x*N + y por casilla) */
+        public void agregarCicloCaballo(int n, int[] celdas) {
+            agregar(CICLO_CABALLO, n, 0, codificar(n, celdas));
+        }
+
+        /** @param celdas recorrido abierto (x*N + y por casilla), guardado por su casilla inicial */
+        public void agregarAbiertoCaballo(int n, int[] celdas) {
+            agregar(ABIERTO_CABALLO, n, celdas[0], codificar(n, celdas));
+        }
+
+        private void agregar(int tipo, int n, int extra, byte[] bytes) {
+            entradas.put(clave(tipo, n, extra), bytes);
+        }
+
+        /** @return casilla inicial y el índice (3 bits) de cada salto */
+        private static byte[] codificar(int n, int[] celdas) {
+            if (celdas.length != n * n || n * n > 0xffff) {
+                throw new IllegalArgumentException("El recorrido debe tener " + n * n + " casillas (N ≤ 255).");
+            }
+            byte[] bytes = new byte[2 + (int) ((3L * (celdas.length - 1) + 7) / 8)];
+            bytes[0] = (byte) (celdas[0] >>> 8);
+            bytes[1] = (byte) celdas[0];
+            for (int i = 1; i < celdas.length; i++) {
+                int dx = celdas[i] / n - celdas[i - 1] / n, dy = celdas[i] % n - celdas[i - 1] % n;
+                int salto = 0;
+                while (salto < 8 && (DX[salto] != dx || DY[salto] != dy)) salto++;
+                if (salto == 8) {
+                    throw new IllegalArgumentException("La casilla " + i + " no está a un salto de caballo.");
+                }
+                long bit = 3L * (i - 1);
+                int b = 2 + (int) (bit >>> 3);
+                int valor = salto << (bit & 7);
+                bytes[b] |= (byte) valor;
+                if ((bit & 7) > 5) bytes[b + 1] |= (byte) (valor >>> 8);
+            }
+            return bytes;
+        }
+
+        /** Escribe el paquete completo (sustituye el archivo si existía). */
+        public void escribir(Path archivo) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream salida = new DataOutputStream(bytes);
+            salida.writeInt(MAGICO);
+            salida.writeInt(FORMATO);
+            salida.writeInt(entradas.size());
+            int posicion = BYTES_CABECERA + entradas.size() * BYTES_ENTRADA;
+            for (Map.Entry<Long, byte[]> e : entradas.entrySet()) {
+                salida.writeLong(e.getKey());
+                salida.writeInt(posicion);
+                salida.writeInt(e.getValue().length);
+                posicion += e.getValue().length;
+            }
+            for (byte[] datos : entradas.values()) {
+                salida.write(datos);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            salida.writeInt((int) crc.getValue());
+            salida.flush();
+            Path padre = archivo.toAbsolutePath().getParent();
+            if (padre != null) Files.createDirectories(padre);
+            Files.write(archivo, bytes.toByteArray());
+        }
+    }
+}
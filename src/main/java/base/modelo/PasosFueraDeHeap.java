@@ -0,0 +1,175 @@
+package base.modelo;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+
+/**
+ * PasosFueraDeHeap: como {@link BufferPasos}, pero con los pasos en memoria nativa
+ * (API de memoria externa: {@link Arena} y {@link MemorySegment}) en vez de en un int[].
+ * • Índices long: no hay límite de 2^31 enteros, sólo el de la memoria de la máquina.
+ * • Bloques de {@link #PASOS_POR_BLOQUE} pasos que se reservan según hacen falta: crecer
+ *   no copia lo ya escrito (un array habría que duplicarlo) y la memoria se pide poco a poco.
+ * • El recolector no recorre ni mueve los pasos: miles de millones de movimientos de
+ *   Hanoi no alargan sus pausas ni cuentan contra -Xmx.
+ * • La memoria se libera con {@link #close()}; si nadie lo llama, cuando el objeto deja
+ *   de ser alcanzable (la Arena se cierra desde un Cleaner).
+ * Un solo hilo escribe con agregar(); varios pueden rellenar a la vez tramos distintos
+ * con establecer() después de redimensionar(), como en BufferPasos.
+ */
+public class PasosFueraDeHeap implements FuentePasos, AutoCloseable {
+    // 2^20 pasos por bloque: 8 MB con pasos de 2 enteros
+    public static final int PASOS_POR_BLOQUE = 1 << 20;
+    private static final int BITS_BLOQUE = 20;
+    private static final Cleaner LIMPIADOR = Cleaner.create();
+
+    private final int ancho;              // Enteros por paso
+    private final Arena arena;            // Dueña de todos los bloques
+    private final Cleaner.Cleanable limpieza;
+    private MemorySegment[] bloques = new MemorySegment[16];
+    private int reservados;               // Bloques ya pedidos a la Arena
+    private long tamano;                  // Pasos guardados
+    private long usados;                  // Máximo de pasos que ha llegado a haber (lo demás está a 0)
+
+    /** @param ancho enteros que ocupa cada paso */
+    public PasosFueraDeHeap(int ancho) {
+        if (ancho < 1) {
+            throw new IllegalArgumentException("Cada paso debe tener al menos un entero.");
+        }
+        this.ancho = ancho;
+        this.arena = Arena.ofShared();
+        // La acción no puede apuntar a this: sólo a la Arena
+        Arena propia = arena;
+        this.limpieza = LIMPIADOR.register(this, propia::close);
+    }
+
+    // -------------------- ESCRITURA --------------------
+
+    /** Añade un paso de dos enteros (el almacén debe tener ancho 2). */
+    public void agregar(int a, int b) {
+        if (ancho != 2) {
+            throw new IllegalStateException("El almacén tiene pasos de " + ancho + " enteros.");
+        }
+        asegurarCapacidad(tamano + 1);
+        MemorySegment bloque = bloques[(int) (tamano >>> BITS_BLOQUE)];
+        long i = (tamano & (PASOS_POR_BLOQUE - 1)) * 2;
+        bloque.setAtIndex(ValueLayout.JAVA_INT, i, a);
+        bloque.setAtIndex(ValueLayout.JAVA_INT, i + 1, b);
+        tamano++;
+        usados = Math.max(usados, tamano);
+    }
+
+    /** Añade un paso copiando los {@code ancho} primeros valores del array. */
+    public void agregar(int[] paso) {
+        asegurarCapacidad(tamano + 1);
+        MemorySegment bloque = bloques[(int) (tamano >>> BITS_BLOQUE)];
+        long i = (tamano & (PASOS_POR_BLOQUE - 1)) * ancho;
+        for (int c = 0; c < ancho; c++) {
+            bloque.setAtIndex(ValueLayout.JAVA_INT, i + c, paso[c]);
+        }
+        tamano++;
+        usados = Math.max(usados, tamano);
+    }
+
+    /** Cambia un componente de un paso ya existente. */
+    public void establecer(long paso, int componente, int valor) {
+        comprobar(paso, componente);
+        bloques[(int) (paso >>> BITS_BLOQUE)].setAtIndex(ValueLayout.JAVA_INT,
+                (paso & (PASOS_POR_BLOQUE - 1)) * ancho + componente, valor);
+    }
+
+    /**
+     * Fija el número de pasos: los nuevos quedan a 0 y los que sobran se descartan
+     * (sus bloques se conservan para volver a crecer). Sirve para rellenar después
+     * los tramos en paralelo con establecer().
+     */
+    public void redimensionar(long pasos) {
+        if (pasos < 0) {
+            throw new IllegalArgumentException("El número de pasos no puede ser negativo.");
+        }
+        asegurarCapacidad(pasos);
+        // Lo que se usó antes de un truncar() tiene restos: se pone a 0 (lo nunca usado ya lo está)
+        long sucios = Math.min(pasos, usados);
+        for (long p = tamano; p < sucios; ) {
+            int b = (int) (p >>> BITS_BLOQUE);
+            long fin = Math.min(sucios, ((long) b + 1) << BITS_BLOQUE);
+            long desde = (p & (PASOS_POR_BLOQUE - 1)) * ancho * Integer.BYTES;
+            bloques[b].asSlice(desde, (fin - p) * ancho * Integer.BYTES).fill((byte) 0);
+            p = fin;
+        }
+        tamano = pasos;
+        usados = Math.max(usados, tamano);
+    }
+
+    /** Descarta los pasos a partir de {@code nuevoTamano} (para deshacer al volver atrás). */
+    public void truncar(long nuevoTamano) {
+        if (nuevoTamano < 0 || nuevoTamano > tamano) {
+            throw new IndexOutOfBoundsException("Tamaño " + nuevoTamano + " fuera de 0.." + tamano);
+        }
+        tamano = nuevoTamano;
+    }
+
+    /** Deja el almacén vacío (conserva la memoria ya reservada). */
+    public void vaciar() {
+        tamano = 0;
+    }
+
+    private void asegurarCapacidad(long pasos) {
+        long necesarios = (pasos + PASOS_POR_BLOQUE - 1) >>> BITS_BLOQUE;
+        if (necesarios > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Demasiados pasos (" + pasos + ").");
+        }
+        if (necesarios > bloques.length) {
+            bloques = Arrays.copyOf(bloques, (int) Math.max(necesarios, 2L * bloques.length));
+        }
+        long bytesBloque = (long) PASOS_POR_BLOQUE * ancho * Integer.BYTES;
+        while (reservados < necesarios) {
+            // La Arena los entrega a cero
+            bloques[reservados++] = arena.allocate(bytesBloque, Integer.BYTES);
+        }
+    }
+
+    // -------------------- LECTURA --------------------
+
+    @Override
+    public long totalPasos() {
+        return tamano;
+    }
+
+    @Override
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public int paso(long indice, int componente) {
+        comprobar(indice, componente);
+        return bloques[(int) (indice >>> BITS_BLOQUE)].getAtIndex(ValueLayout.JAVA_INT,
+                (indice & (PASOS_POR_BLOQUE - 1)) * ancho + componente);
+    }
+
+    /** @return bytes de memoria nativa reservados (bloques enteros) */
+    public long getBytesReservados() {
+        return (long) reservados * PASOS_POR_BLOQUE * ancho * Integer.BYTES;
+    }
+
+    private void comprobar(long paso, int componente) {
+        if (paso < 0 || paso >= tamano) {
+            throw new IndexOutOfBoundsException("Paso " + paso + " fuera de 0.." + (tamano - 1));
+        }
+        if (componente < 0 || componente >= ancho) {
+            throw new IndexOutOfBoundsException("Componente " + componente + " fuera de 0.." + (ancho - 1));
+        }
+    }
+
+    /** Libera la memoria nativa; después no se puede leer ni escribir. */
+    @Override
+    public void close() {
+        tamano = usados = 0;
+        reservados = 0;
+        bloques = new MemorySegment[0];
+        limpieza.clean();
+    }
+}
@@ -0,0 +1,291 @@
+package base.modelo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * PasosMapeados: los pasos de un archivo de guardarResultado, leídos del disco al pedirlos.
+ * • El archivo se mapea en memoria por trozos (un mapeo no pasa de 2 GB): abrirlo no lee
+ *   nada, el sistema trae cada página cuando la reproducción o un salto llega a ella,
+ *   así que un archivo de Hanoi de varios GB se abre al instante y el heap no crece.
+ * • Líneas de ancho fijo (Hanoi siempre, "[o, d]\n"): el paso i está en
+ *   inicio + i × anchoLinea, sin índice. Se comprueba con una muestra de líneas repartidas.
+ * • Líneas de ancho variable (Caballo con N ≥ 11): se recorre el archivo una vez
+ *   guardando dónde empieza una de cada {@link #LINEAS_POR_MARCA} líneas; para llegar a
+ *   un paso se salta a la marca anterior y se avanza desde ahí.
+ * • El último paso leído se guarda ya convertido: pedir sus componentes uno a uno, o
+ *   avanzar al siguiente, no vuelve a buscar la línea.
+ * Formato: cabecera libre (p. ej. "Punto de inicio: [x, y]") hasta la línea
+ * "Secuencia de movimientos:", y después un paso "[a, b, ...]" por línea.
+ */
+public class PasosMapeados implements FuentePasos {
+    private static final String MARCA_DATOS = "Secuencia de movimientos:";
+    // Tamaño de cada mapeo (por debajo del límite de 2 GB de un MappedByteBuffer)
+    private static final int BITS_TROZO = 30;
+    private static final long TAMANO_TROZO = 1L << BITS_TROZO;
+    // Bytes en los que se busca la marca de datos antes de rendirse
+    private static final int MAX_CABECERA = 1 << 16;
+    // Líneas que se comprueban antes de dar por bueno el ancho fijo
+    private static final int MUESTRAS_ANCHO_FIJO = 1024;
+    // Una marca del índice cada tantas líneas: índice de total/256 longs
+    private static final int LINEAS_POR_MARCA = 256;
+
+    private final MappedByteBuffer[] trozos;
+    private final long tamanoArchivo;
+    private final String cabecera;     // Lo que hay antes de los pasos
+    private final long inicioDatos;    // Primer byte del primer paso
+    private final int ancho;           // Enteros por paso
+    private long total;
+
+    // Ancho fijo: bytes por línea (0 = ancho variable, se usa el índice)
+    private final int anchoLinea;
+    // Ancho variable: marcas[k] = primer byte de la línea k × LINEAS_POR_MARCA
+    private long[] marcas;
+
+    // Último paso leído, ya convertido, y dónde empieza el siguiente
+    private long indiceCacheado = -1;
+    private final int[] cacheado;
+    private long siguienteOffset;
+
+    /**
+     * Mapea el archivo y averigua dónde empiezan los pasos y cuántos hay.
+     * @throws IOException si no se puede leer o no tiene el formato de guardarResultado
+     */
+    public PasosMapeados(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            tamanoArchivo = canal.size();
+            int numTrozos = (int) ((tamanoArchivo + TAMANO_TROZO - 1) >>> BITS_TROZO);
+            trozos = new MappedByteBuffer[numTrozos];
+            for (int t = 0; t < numTrozos; t++) {
+                long base = (long) t << BITS_TROZO;
+                trozos[t] = canal.map(FileChannel.MapMode.READ_ONLY, base,
+                        Math.min(TAMANO_TROZO, tamanoArchivo - base));
+            }
+        }
+        // Al cerrar el canal los mapeos siguen valiendo: no queda nada abierto
+
+        // 1) Cabecera: hasta la línea "Secuencia de movimientos:"
+        long inicio = -1;
+        long linea = 0;
+        StringBuilder texto = new StringBuilder();
+        while (linea < tamanoArchivo && linea < MAX_CABECERA) {
+            long fin = finDeLinea(linea);
+            String s = leerTexto(linea, fin);
+            if (s.trim().equals(MARCA_DATOS)) {
+                inicio = Math.min(fin + 1, tamanoArchivo);
+                break;
+            }
+            texto.append(s).append('\n');
+            linea = fin + 1;
+        }
+        if (inicio < 0) {
+            throw new IOException("No es un archivo de resultado: falta la línea \"" + MARCA_DATOS + "\".");
+        }
+        cabecera = texto.toString();
+        inicioDatos = inicio;
+
+        // 2) Primer paso: da el número de componentes y el ancho de línea candidato
+        if (inicioDatos >= tamanoArchivo) {
+            ancho = 2;
+            total = 0;
+            anchoLinea = 0;
+            marcas = new long[0];
+            cacheado = new int[ancho];
+            return;
+        }
+        long finPrimera = finDeLinea(inicioDatos);
+        int[] primero = new int[16];
+        ancho = convertir(inicioDatos, finPrimera, primero);
+        if (ancho == 0) {
+            throw new IOException("El primer paso no tiene números (byte " + inicioDatos + ").");
+        }
+        cacheado = new int[ancho];
+
+        // 3) ¿Todas las líneas miden lo mismo? Si no, índice disperso
+        int candidato = (int) (finPrimera + 1 - inicioDatos);
+        if (anchoFijo(candidato)) {
+            anchoLinea = candidato;
+            total = (tamanoArchivo - inicioDatos) / candidato;
+            marcas = null;
+        } else {
+            anchoLinea = 0;
+            indexar();
+        }
+    }
+
+    /** @return el texto que precede a los pasos (sin la línea "Secuencia de movimientos:") */
+    public String getCabecera() {
+        return cabecera;
+    }
+
+    /** @return true si los pasos se localizan por aritmética, sin índice */
+    public boolean isAnchoFijo() {
+        return anchoLinea > 0;
+    }
+
+    @Override
+    public long totalPasos() {
+        return total;
+    }
+
+    @Override
+    public int getAncho() {
+        return ancho;
+    }
+
+    @Override
+    public synchronized int paso(long indice, int componente) {
+        if (indice < 0 || indice >= total) {
+            throw new IndexOutOfBoundsException("Paso " + indice + " fuera de 0.." + (total - 1));
+        }
+        if (componente < 0 || componente >= ancho) {
+            throw new IndexOutOfBoundsException("Componente " + componente + " fuera de 0.." + (ancho - 1));
+        }
+        if (indice != indiceCacheado) {
+            cargar(indice);
+        }
+        return cacheado[componente];
+    }
+
+    /** Busca la línea del paso y la deja convertida en {@code cacheado}. */
+    private void cargar(long indice) {
+        long offset;
+        if (anchoLinea > 0) {
+            offset = inicioDatos + indice * anchoLinea;
+        } else if (indiceCacheado >= 0 && indice > indiceCacheado
+                && indice - indiceCacheado <= LINEAS_POR_MARCA) {
+            // Avance corto (la reproducción normal): desde el último paso leído
+            offset = saltarPasos(siguienteOffset, indice - indiceCacheado - 1);
+        } else {
+            int marca = (int) (indice / LINEAS_POR_MARCA);
+            offset = saltarPasos(marcas[marca], indice - (long) marca * LINEAS_POR_MARCA);
+        }
+        long fin = finDeLinea(offset);
+        if (convertir(offset, fin, cacheado) != ancho) {
+            throw new IllegalStateException("El paso " + indice + " no tiene " + ancho + " componentes.");
+        }
+        indiceCacheado = indice;
+        siguienteOffset = fin + 1;
+    }
+
+    /** @return el offset del paso que hay {@code cuantos} pasos después del que empieza en offset */
+    private long saltarPasos(long offset, long cuantos) {
+        offset = siguientePaso(offset);
+        for (long i = 0; i < cuantos; i++) {
+            offset = siguientePaso(finDeLinea(offset) + 1);
+        }
+        return offset;
+    }
+
+    /** @return el primer offset desde el indicado donde empieza una línea con números */
+    private long siguientePaso(long offset) {
+        while (offset < tamanoArchivo) {
+            long fin = finDeLinea(offset);
+            if (tieneDigitos(offset, fin)) return offset;
+            offset = fin + 1;
+        }
+        return offset;
+    }
+
+    /**
+     * Comprueba el ancho fijo: el tamaño encaja y una muestra de líneas repartidas por
+     * todo el archivo (incluida la última) acaba justo donde debe.
+     */
+    private boolean anchoFijo(int anchoLinea) {
+        long datos = tamanoArchivo - inicioDatos;
+        if (datos % anchoLinea != 0) return false;
+        long lineas = datos / anchoLinea;
+        long salto = Math.max(1, lineas / MUESTRAS_ANCHO_FIJO);
+        for (long i = 0; i < lineas; i += salto) {
+            if (!lineaExacta(inicioDatos + i * anchoLinea, anchoLinea)) return false;
+        }
+        return lineaExacta(inicioDatos + (lineas - 1) * anchoLinea, anchoLinea);
+    }
+
+    /** @return true si en offset hay una línea con números de exactamente ese ancho */
+    private boolean lineaExacta(long offset, int anchoLinea) {
+        long fin = offset + anchoLinea - 1;
+        return byteEn(fin) == '\n' && finDeLinea(offset) == fin && tieneDigitos(offset, fin);
+    }
+
+    /**
+     * Recorre los datos una vez contando los pasos (total) y anotando una marca
+     * cada LINEAS_POR_MARCA (marcas).
+     */
+    private void indexar() {
+        long[] m = new long[16];
+        long cuenta = 0;
+        long offset = inicioDatos;
+        while (offset < tamanoArchivo) {
+            long fin = finDeLinea(offset);
+            if (tieneDigitos(offset, fin)) {
+                if (cuenta % LINEAS_POR_MARCA == 0) {
+                    int k = (int) (cuenta / LINEAS_POR_MARCA);
+                    if (k == m.length) m = Arrays.copyOf(m, m.length * 2);
+                    m[k] = offset;
+                }
+                cuenta++;
+            }
+            offset = fin + 1;
+        }
+        marcas = Arrays.copyOf(m, (int) ((cuenta + LINEAS_POR_MARCA - 1) / LINEAS_POR_MARCA));
+        total = cuenta;
+    }
+
+    // -------------------- LECTURA DE BYTES --------------------
+
+    private int byteEn(long pos) {
+        return trozos[(int) (pos >>> BITS_TROZO)].get((int) (pos & (TAMANO_TROZO - 1)));
+    }
+
+    /** @return la posición del '\n' que cierra la línea (o tamanoArchivo si es la última sin él) */
+    private long finDeLinea(long offset) {
+        long p = offset;
+        while (p < tamanoArchivo && byteEn(p) != '\n') p++;
+        return p;
+    }
+
+    private boolean tieneDigitos(long desde, long hasta) {
+        for (long p = desde; p < hasta; p++) {
+            int b = byteEn(p);
+            if (b >= '0' && b <= '9') return true;
+        }
+        return false;
+    }
+
+    /**
+     * Extrae los enteros de [desde, hasta), como LectorEnteros: cualquier otro carácter
+     * separa. Si hay más enteros que huecos, se cuentan pero no se guardan.
+     * @return número de enteros de la línea
+     */
+    private int convertir(long desde, long hasta, int[] destino) {
+        int cuenta = 0;
+        int valor = 0;
+        boolean enNumero = false;
+        for (long p = desde; p <= hasta; p++) {
+            int b = p < hasta ? byteEn(p) : ' ';
+            if (b >= '0' && b <= '9') {
+                valor = enNumero ? valor * 10 + (b - '0') : b - '0';
+                enNumero = true;
+            } else if (enNumero) {
+                if (cuenta < destino.length) destino[cuenta] = valor;
+                cuenta++;
+                enNumero = false;
+            }
+        }
+        return cuenta;
+    }
+
+    private String leerTexto(long desde, long hasta) {
+        byte[] bytes = new byte[(int) (hasta - desde)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) byteEn(desde + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
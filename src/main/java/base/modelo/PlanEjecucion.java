@@ -0,0 +1,134 @@
+package base.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PlanEjecucion: lo que decide {@link Planificador} antes de lanzar un problema.
+ * • Qué estrategia se usa para obtener los pasos y cuánta memoria y tiempo se espera.
+ * • Si se puede escribir el archivo de resultado (tamaño y espacio en disco).
+ * • Pila que necesita la recursión, para lanzarla en un hilo con sitio suficiente.
+ * • Avisos para el usuario (el plan es viable, pero algo va a ser lento o se omite),
+ *   o el motivo por el que ninguna estrategia cabe.
+ */
+public class PlanEjecucion {
+
+    /** Cómo se obtienen y se guardan los pasos. */
+    public enum Estrategia {
+        /** Búsqueda o generación normal, con todos los pasos en un {@link BufferPasos}. */
+        MATERIALIZADA,
+        /** Fórmula cerrada: sin búsqueda; si hay muchos pasos, se calculan al pedirlos. */
+        CALCULADA,
+        /** Todos los pasos guardados, pero en memoria nativa ({@link PasosFueraDeHeap}): no caben en el heap. */
+        FUERA_DE_HEAP
+    }
+
+    private final Estrategia estrategia;
+    private final long bytesMemoria;     // Heap estimado para los pasos y estados
+    private final double segundos;       // Tiempo estimado (ejecutar y guardar el resultado)
+    private final String rechazo;        // null = viable
+    private final List<String> avisos = new ArrayList<>();
+    private long bytesArchivo;           // Tamaño del archivo de resultado (0 = no hay)
+    private boolean guardarArchivo;      // false = no cabe en el disco
+    private long pila;                   // Bytes de pila para la recursión (0 = la normal)
+
+    /** Plan viable con la estrategia y las estimaciones indicadas. */
+    public PlanEjecucion(Estrategia estrategia, long bytesMemoria, double segundos) {
+        this(estrategia, bytesMemoria, segundos, null);
+    }
+
+    private PlanEjecucion(Estrategia estrategia, long bytesMemoria, double segundos, String rechazo) {
+        this.estrategia = estrategia;
+        this.bytesMemoria = bytesMemoria;
+        this.segundos = segundos;
+        this.rechazo = rechazo;
+    }
+
+    /** @return un plan que no se puede ejecutar, con el motivo para el usuario */
+    public static PlanEjecucion rechazado(String motivo, long bytesMemoria) {
+        return new PlanEjecucion(null, bytesMemoria, 0, motivo);
+    }
+
+    /** Añade un aviso para el usuario. */
+    public void avisar(String aviso) {
+        avisos.add(aviso);
+    }
+
+    /** Anota el archivo de resultado: su tamaño y si se va a escribir. */
+    public void setArchivo(long bytes, boolean guardar) {
+        this.bytesArchivo = bytes;
+        this.guardarArchivo = guardar;
+    }
+
+    /** Anota la pila que necesita la recursión (0 = basta la de cualquier hilo). */
+    public void setPila(long bytes) {
+        this.pila = bytes;
+    }
+
+    // -------------------- GETTERS --------------------
+
+    public boolean isViable() {
+        return rechazo == null;
+    }
+
+    public Estrategia getEstrategia() {
+        return estrategia;
+    }
+
+    public long getBytesMemoria() {
+        return bytesMemoria;
+    }
+
+    public double getSegundos() {
+        return segundos;
+    }
+
+    public long getBytesArchivo() {
+        return bytesArchivo;
+    }
+
+    public boolean isGuardarArchivo() {
+        return guardarArchivo;
+    }
+
+    public long getPila() {
+        return pila;
+    }
+
+    public String getRechazo() {
+        return rechazo;
+    }
+
+    public List<String> getAvisos() {
+        return Collections.unmodifiableList(avisos);
+    }
+
+    /** @return resumen en varias líneas, para mostrarlo en un diálogo */
+    public String describir() {
+        StringBuilder sb = new StringBuilder();
+        if (!isViable()) {
+            sb.append(rechazo).append('\n');
+            sb.append("Memoria necesaria: ").append(Planificador.formatearBytes(bytesMemoria))
+              .append(" (libres: ").append(Planificador.formatearBytes(Planificador.memoriaLibre()))
+              .append(")");
+            return sb.toString();
+        }
+        sb.append("Estrategia: ").append(estrategia.name().toLowerCase()).append('\n');
+        sb.append("Memoria estimada: ").append(Planificador.formatearBytes(bytesMemoria)).append('\n');
+        sb.append("Tiempo estimado: ").append(Planificador.formatearSegundos(segundos));
+        if (bytesArchivo > 0) {
+            sb.append('\n').append("Archivo de resultado: ").append(Planificador.formatearBytes(bytesArchivo))
+              .append(guardarArchivo ? "" : " (no se guardará)");
+        }
+        for (String aviso : avisos) {
+            sb.append('\n').append("• ").append(aviso);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return describir();
+    }
+}
@@ -0,0 +1,167 @@
+package base.modelo;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Planificador: datos de la máquina y utilidades comunes para que cada problema
+ * construya su {@link PlanEjecucion} antes de lanzarse (ver AlgoritmoRecursivo.planificar()).
+ * • Memoria: sólo se cuenta con una parte del heap libre, el resto queda para la
+ *   interfaz y el recolector.
+ * • Núcleos: los generadores paralelos reparten el tiempo entre ellos.
+ * • Pila: una recursión muy profunda se lanza en un hilo con la pila a medida, en vez
+ *   de limitar el tamaño del problema a lo que cabe en la pila por defecto.
+ */
+public class Planificador {
+    // Parte del heap libre que puede ocupar un problema
+    private static final double FRACCION_HEAP = 0.6;
+    // Parte de la memoria física libre que pueden ocupar pasos fuera del heap
+    private static final double FRACCION_FISICA = 0.6;
+    // Parte del disco libre que puede ocupar un archivo de resultado
+    private static final double FRACCION_DISCO = 0.9;
+    // A partir de aquí se avisa al usuario de que va a tardar
+    public static final double SEGUNDOS_AVISO = 20;
+    // Niveles de recursión que caben sin problemas en la pila por defecto de un hilo
+    private static final int PROFUNDIDAD_SEGURA = 4096;
+    // Pila que ocupa cada nivel de RecorridoProfundidad (medido, con margen)
+    private static final int BYTES_POR_NIVEL_RECORRIDO = 256;
+
+    private Planificador() {
+    }
+
+    /** @return bytes de heap que aún se pueden reservar */
+    public static long memoriaLibre() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.maxMemory() - (rt.totalMemory() - rt.freeMemory());
+    }
+
+    /** @return true si los bytes indicados caben con holgura en el heap libre */
+    public static boolean cabeEnMemoria(long bytes) {
+        return bytes <= memoriaLibre() * FRACCION_HEAP;
+    }
+
+    /** @return bytes de memoria física libres en la máquina (0 si no se sabe) */
+    public static long memoriaFisicaLibre() {
+        OperatingSystemMXBean so = ManagementFactory.getOperatingSystemMXBean();
+        if (so instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) so).getFreeMemorySize();
+        }
+        return 0;
+    }
+
+    /**
+     * La memoria nativa de una Arena cuenta contra -XX:MaxDirectMemorySize, que si no
+     * se indica vale lo mismo que -Xmx: para ir más allá del heap hay que subirlo.
+     * @return bytes de memoria directa que aún se pueden reservar
+     */
+    public static long memoriaDirectaLibre() {
+        long limite = Runtime.getRuntime().maxMemory();
+        try {
+            String valor = ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class)
+                    .getVMOption("MaxDirectMemorySize").getValue();
+            if (Long.parseLong(valor) > 0) limite = Long.parseLong(valor);
+        } catch (RuntimeException e) {
+            // JVM sin la opción: se supone el valor por defecto
+        }
+        long usada = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) usada = pool.getMemoryUsed();
+        }
+        return Math.max(0, limite - usada);
+    }
+
+    /**
+     * @return true si los bytes indicados caben con holgura en memoria nativa (fuera del
+     *         heap): en la física libre y en el límite de memoria directa de la JVM
+     */
+    public static boolean cabeFueraDeHeap(long bytes) {
+        return bytes <= memoriaFisicaLibre() * FRACCION_FISICA
+                && bytes <= memoriaDirectaLibre() * FRACCION_HEAP;
+    }
+
+    /** @return núcleos disponibles para los cálculos en paralelo */
+    public static int nucleos() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /** @return cantidad × bytesPorUnidad, o Long.MAX_VALUE si no cabe en un long */
+    public static long bytes(long cantidad, long bytesPorUnidad) {
+        long alto = Math.multiplyHigh(cantidad, bytesPorUnidad);
+        long producto = cantidad * bytesPorUnidad;
+        return (alto != 0 || producto < 0) ? Long.MAX_VALUE : producto;
+    }
+
+    /** @return true si un archivo de ese tamaño cabe en el disco de la carpeta indicada */
+    public static boolean cabeEnDisco(Path carpeta, long bytes) {
+        try {
+            Path absoluta = carpeta.toAbsolutePath();
+            return bytes <= Files.getFileStore(absoluta).getUsableSpace() * FRACCION_DISCO;
+        } catch (IOException e) {
+            // No se sabe: se intenta y, si falla, lo dirá guardarResultado
+            return true;
+        }
+    }
+
+    /**
+     * Pila necesaria para que las estrategias de búsqueda (recursivas) bajen hasta
+     * la profundidad indicada.
+     * @return 0 si basta la pila por defecto
+     */
+    public static long pilaRecorrido(long profundidad) {
+        return profundidad <= PROFUNDIDAD_SEGURA ? 0 : 2 * profundidad * BYTES_POR_NIVEL_RECORRIDO;
+    }
+
+    /**
+     * Ejecuta la tarea con la pila indicada: en el propio hilo si es 0, o en un hilo
+     * nuevo con esa pila, esperando a que termine.
+     * Las excepciones de la tarea se relanzan en el hilo que llama.
+     */
+    public static void ejecutarConPila(long pila, String nombre, Runnable tarea) {
+        if (pila <= 0) {
+            tarea.run();
+            return;
+        }
+        AtomicReference<RuntimeException> fallo = new AtomicReference<>();
+        Thread hilo = Thread.ofPlatform().name(nombre).stackSize(pila).start(() -> {
+            try {
+                tarea.run();
+            } catch (RuntimeException e) {
+                fallo.set(e);
+            }
+        });
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando a " + nombre + ".", e);
+        }
+        if (fallo.get() != null) throw fallo.get();
+    }
+
+    /** @return los bytes en la unidad más cómoda (B, KB, MB, GB, TB, PB, EB) */
+    public static String formatearBytes(long bytes) {
+        String[] unidades = {"B", "KB", "MB", "GB", "TB", "PB", "EB"};
+        double v = bytes;
+        int u = 0;
+        while (v >= 1024 && u < unidades.length - 1) {
+            v /= 1024;
+            u++;
+        }
+        return u == 0 ? bytes + " B" : String.format("%.1f %s", v, unidades[u]);
+    }
+
+    /** @return el tiempo en la unidad más cómoda (ms, s, min, h, días, años) */
+    public static String formatearSegundos(double segundos) {
+        if (segundos < 1) return String.format("%.0f ms", segundos * 1000);
+        if (segundos < 120) return String.format("%.1f s", segundos);
+        if (segundos < 7200) return String.format("%.0f min", segundos / 60);
+        if (segundos < 172800) return String.format("%.0f h", segundos / 3600);
+        if (segundos < 3.15e7 * 2) return String.format("%.0f días", segundos / 86400);
+        return String.format("%.0f años", segundos / 3.15e7);
+    }
+}
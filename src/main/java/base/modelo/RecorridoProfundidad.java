@@ -0,0 +1,91 @@
+package base.modelo;
+
+/**
+ * Recorrido en profundidad reutilizado por las estrategias de búsqueda.
+ * • Guarda un buffer de candidatos por nivel para no crear arrays en cada nodo.
+ * • Suma los nodos al {@link ControlBusqueda} por lotes, para no pelear por el
+ *   contador compartido en cada nodo cuando hay varios hilos.
+ */
+final class RecorridoProfundidad {
+    private static final int LOTE = 1024;   // Nodos que se acumulan antes de avisar al control
+
+    private final ControlBusqueda control;
+    private int[][] candidatos = new int[16][];
+    private int pendientes;       // Nodos aún no sumados al control
+    private boolean detenido;     // El control pidió parar
+    private boolean cortado;      // Alguna rama llegó al límite de profundidad
+
+    RecorridoProfundidad(ControlBusqueda control) {
+        this.control = control;
+    }
+
+    /**
+     * Busca una solución sin pasar de la profundidad indicada.
+     * Si la encuentra, el estado se queda en ella (no se deshace el camino).
+     */
+    <S extends EstadoBusqueda<S>> boolean buscar(S estado, int profundidadMaxima) {
+        return dfs(estado, 0, profundidadMaxima);
+    }
+
+    private <S extends EstadoBusqueda<S>> boolean dfs(S estado, int nivel, int profundidadMaxima) {
+        if (estado.esSolucion()) return true;
+        if (!contarNodo()) return false;
+        if (estado.profundidad() >= profundidadMaxima) {
+            cortado = true;
+            return false;
+        }
+        int[] buffer = buffer(nivel, estado.maxCandidatos());
+        int k = estado.candidatos(buffer);
+        for (int i = 0; i < k; i++) {
+            int c = buffer[i];
+            estado.aplicar(c);
+            if (dfs(estado, nivel + 1, profundidadMaxima)) return true;
+            estado.deshacer(c);   // backtracking
+            if (detenido) return false;
+        }
+        return false;
+    }
+
+    /** Cuenta un nodo; cada {@link #LOTE} nodos consulta al control si hay que parar. */
+    private boolean contarNodo() {
+        if (detenido) return false;
+        if (++pendientes >= LOTE) {
+            control.sumarNodos(pendientes);
+            pendientes = 0;
+            if (!control.continuar()) detenido = true;
+        }
+        return !detenido;
+    }
+
+    private int[] buffer(int nivel, int tamano) {
+        if (nivel >= candidatos.length) {
+            int[][] mayor = new int[Math.max(candidatos.length * 2, nivel + 1)][];
+            System.arraycopy(candidatos, 0, mayor, 0, candidatos.length);
+            candidatos = mayor;
+        }
+        if (candidatos[nivel] == null || candidatos[nivel].length < tamano) {
+            candidatos[nivel] = new int[tamano];
+        }
+        return candidatos[nivel];
+    }
+
+    /** Suma al control los nodos que quedaban pendientes. */
+    void cerrar() {
+        if (pendientes > 0) {
+            control.sumarNodos(pendientes);
+            pendientes = 0;
+        }
+    }
+
+    /** @return true si la búsqueda se detuvo por cancelación o presupuesto */
+    boolean isDetenido() {
+        return detenido;
+    }
+
+    /** @return true si alguna rama se podó por el límite de profundidad; lo reinicia */
+    boolean consumirCortado() {
+        boolean c = cortado;
+        cortado = false;
+        return c;
+    }
+}
@@ -0,0 +1,47 @@
+package base.modelo;
+
+/**
+ * ResultadoVerificacion: veredicto de comprobar un fichero de resultados.
+ * Guarda si es válido, un mensaje explicativo y cuántos pasos se revisaron.
+ */
+public class ResultadoVerificacion {
+    private final boolean valido;
+    private final String mensaje;
+    private final long pasos;
+
+    private ResultadoVerificacion(boolean valido, String mensaje, long pasos) {
+        this.valido = valido;
+        this.mensaje = mensaje;
+        this.pasos = pasos;
+    }
+
+    /** @return un resultado válido tras revisar {@code pasos} pasos */
+    public static ResultadoVerificacion correcto(long pasos, String mensaje) {
+        return new ResultadoVerificacion(true, mensaje, pasos);
+    }
+
+    /** @return un resultado inválido indicando la línea donde se detectó el fallo */
+    public static ResultadoVerificacion error(long linea, long pasos, String mensaje) {
+        return new ResultadoVerificacion(false, "Línea " + linea + ": " + mensaje, pasos);
+    }
+
+    /** @return true si el fichero pasó todas las comprobaciones */
+    public boolean isValido() {
+        return valido;
+    }
+
+    /** @return explicación del resultado */
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    /** @return pasos revisados hasta terminar (o hasta el error) */
+    public long getPasos() {
+        return pasos;
+    }
+
+    @Override
+    public String toString() {
+        return (valido ? "OK: " : "ERROR: ") + mensaje + " (" + pasos + " pasos revisados)";
+    }
+}
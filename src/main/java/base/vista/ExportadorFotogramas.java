@@ -0,0 +1,203 @@
+package base.vista;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * ExportadorFotogramas: guarda una animación como secuencia de PNG sin abrir ventanas.
+ * • Los fotogramas se reparten en bloques consecutivos que se pintan y codifican en
+ *   paralelo, un bloque por tarea: así se aprovechan todos los núcleos.
+ * • Cada bloque crea su propia {@link Escena} y la lleva hasta su primer fotograma
+ *   (avanzar sólo aplica pasos, es barato), y reutiliza una única imagen.
+ * • El PNG se codifica aquí mismo leyendo los píxeles de la imagen: un solo filtro
+ *   ("arriba", ideal para dibujos planos) y deflate rápido. El codificador de ImageIO
+ *   prueba los cinco filtros en cada fila y tarda bastante más que el propio dibujo.
+ * • Los archivos se llaman prefijo_000000.png, prefijo_000001.png… en la carpeta indicada.
+ */
+public class ExportadorFotogramas {
+    // Fotogramas por bloque: suficientes para amortizar el avance inicial de cada escena
+    private static final int FOTOGRAMAS_POR_BLOQUE = 32;
+    private static final byte[] FIRMA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int FILTRO_ARRIBA = 2;
+
+    /**
+     * Estado de una animación que se puede pintar fuera de pantalla.
+     * Cada hilo trabaja con su propia instancia.
+     */
+    public interface Escena {
+        /** @return número de fotogramas (normalmente pasos + 1: el primero es el estado inicial) */
+        int totalFotogramas();
+
+        /** Lleva la escena al fotograma indicado (siempre hacia delante). */
+        void avanzar(int fotograma);
+
+        /** Pinta el estado actual en un área de ancho×alto. */
+        void dibujar(Graphics2D g, int ancho, int alto);
+    }
+
+    private ExportadorFotogramas() {
+    }
+
+    /**
+     * Exporta todos los fotogramas de la animación.
+     * @param escenas crea una escena nueva en el fotograma 0 (se llama una vez por bloque)
+     * @param carpeta carpeta de salida (se crea si no existe)
+     * @param prefijo inicio del nombre de cada archivo
+     * @return número de fotogramas escritos
+     */
+    public static int exportar(Supplier<? extends Escena> escenas, int ancho, int alto,
+                               Path carpeta, String prefijo) throws IOException {
+        if (ancho < 1 || alto < 1) {
+            throw new IllegalArgumentException("El tamaño de la imagen debe ser positivo.");
+        }
+        Files.createDirectories(carpeta);
+
+        int total = escenas.get().totalFotogramas();
+        int bloques = (total + FOTOGRAMAS_POR_BLOQUE - 1) / FOTOGRAMAS_POR_BLOQUE;
+        AtomicInteger escritos = new AtomicInteger();
+        try {
+            IntStream.range(0, bloques).parallel().forEach(b -> {
+                int inicio = b * FOTOGRAMAS_POR_BLOQUE;
+                int fin = Math.min(total, inicio + FOTOGRAMAS_POR_BLOQUE);
+                Escena escena = escenas.get();
+                BufferedImage imagen = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = imagen.createGraphics();
+                CodificadorPng codificador = new CodificadorPng(imagen);
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                try {
+                    for (int f = inicio; f < fin; f++) {
+                        escena.avanzar(f);
+                        escena.dibujar(g, ancho, alto);
+                        Path archivo = carpeta.resolve(String.format("%s_%06d.png", prefijo, f));
+                        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivo), 1 << 16)) {
+                            codificador.escribir(salida);
+                        }
+                        escritos.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    codificador.cerrar();
+                    g.dispose();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return escritos.get();
+    }
+
+    /**
+     * Codificador PNG mínimo (RGB de 8 bits, sin entrelazado) para una imagen TYPE_INT_RGB.
+     * Reutiliza el compresor y los buffers entre fotogramas; no es seguro entre hilos.
+     */
+    private static final class CodificadorPng {
+        private final int[] pixeles;
+        private final int ancho, alto;
+        private final byte[] fila, anterior;             // Fila actual y anterior en RGB
+        private final byte[] filtrada;                   // Byte de filtro + fila filtrada
+        private final Deflater compresor = new Deflater(Deflater.BEST_SPEED);
+        private final CRC32 crc = new CRC32();
+        private final PilaBytes datos = new PilaBytes();  // IDAT comprimido
+
+        CodificadorPng(BufferedImage imagen) {
+            this.pixeles = ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+            this.ancho = imagen.getWidth();
+            this.alto = imagen.getHeight();
+            this.fila = new byte[ancho * 3];
+            this.anterior = new byte[ancho * 3];
+            this.filtrada = new byte[ancho * 3 + 1];
+            this.filtrada[0] = FILTRO_ARRIBA;
+        }
+
+        void escribir(OutputStream salida) throws IOException {
+            // Filas con filtro "arriba": cada byte menos el de la fila anterior (casi todo 0)
+            datos.reset();
+            compresor.reset();
+            Arrays.fill(anterior, (byte) 0);
+            try (DeflaterOutputStream z = new DeflaterOutputStream(datos, compresor, 1 << 16)) {
+                for (int y = 0; y < alto; y++) {
+                    int base = y * ancho;
+                    for (int x = 0, i = 0; x < ancho; x++, i += 3) {
+                        int rgb = pixeles[base + x];
+                        fila[i] = (byte) (rgb >> 16);
+                        fila[i + 1] = (byte) (rgb >> 8);
+                        fila[i + 2] = (byte) rgb;
+                    }
+                    for (int i = 0; i < fila.length; i++) {
+                        filtrada[i + 1] = (byte) (fila[i] - anterior[i]);
+                    }
+                    z.write(filtrada);
+                    System.arraycopy(fila, 0, anterior, 0, fila.length);
+                }
+            }
+
+            DataOutputStream d = new DataOutputStream(salida);
+            d.write(FIRMA_PNG);
+            byte[] cabecera = new byte[13];
+            escribirEntero(cabecera, 0, ancho);
+            escribirEntero(cabecera, 4, alto);
+            cabecera[8] = 8;    // Bits por canal
+            cabecera[9] = 2;    // Color RGB
+            // Compresión, filtro y entrelazado: 0 (los únicos estándar / sin entrelazar)
+            trozo(d, "IHDR", cabecera, cabecera.length);
+            trozo(d, "IDAT", datos.buffer(), datos.size());
+            trozo(d, "IEND", new byte[0], 0);
+            d.flush();
+        }
+
+        private void trozo(DataOutputStream d, String tipo, byte[] contenido, int longitud)
+                throws IOException {
+            byte[] t = tipo.getBytes(StandardCharsets.US_ASCII);
+            d.writeInt(longitud);
+            d.write(t);
+            d.write(contenido, 0, longitud);
+            crc.reset();
+            crc.update(t);
+            crc.update(contenido, 0, longitud);
+            d.writeInt((int) crc.getValue());
+        }
+
+        private static void escribirEntero(byte[] b, int pos, int v) {
+            b[pos] = (byte) (v >>> 24);
+            b[pos + 1] = (byte) (v >>> 16);
+            b[pos + 2] = (byte) (v >>> 8);
+            b[pos + 3] = (byte) v;
+        }
+
+        void cerrar() {
+            compresor.end();
+        }
+    }
+
+    /** ByteArrayOutputStream que deja leer su array sin copiarlo. */
+    private static final class PilaBytes extends ByteArrayOutputStream {
+        PilaBytes() {
+            super(1 << 16);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
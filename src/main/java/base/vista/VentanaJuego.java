@@ -9,6 +9,7 @@ public abstract class VentanaJuego extends JFrame {
     protected JButton btnReload;      // 🔃
     protected JButton btnSimular;
     protected JButton btnVolverMenu;
+    protected JPanel panelBotones;    // Las subclases pueden añadir sus propios controles
 
     public VentanaJuego(String titulo) {
         super(titulo);
@@ -20,7 +21,7 @@ public abstract class VentanaJuego extends JFrame {
     }
 
     private void initComponentesBase() {
-        JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        panelBotones = new JPanel(new FlowLayout(FlowLayout.CENTER));
 
         // 1) 🔃 Recargar / volver a pedir N
         btnReload = new JButton("🔃");
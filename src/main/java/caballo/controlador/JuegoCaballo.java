@@ -0,0 +1,58 @@
+package caballo.controlador;
+
+import base.controlador.Juego;
+import base.modelo.PasosMapeados;
+import caballo.modelo.ProblemaCaballo;
+
+/**
+ * Descriptor del Problema del Caballo para el menú. Las constantes de LanzadorCaballo
+ * y ProblemaCaballo se copian al compilar, así que leerlas no carga esas clases.
+ */
+public class JuegoCaballo implements Juego {
+
+    @Override
+    public String getNombre() {
+        return "Problema del Caballo";
+    }
+
+    @Override
+    public String getDescripcion() {
+        return "Recorrer todas las casillas con un caballo, sin repetir ninguna";
+    }
+
+    @Override
+    public String getParametro() {
+        return LanzadorCaballo.PREGUNTA;
+    }
+
+    @Override
+    public int getMinimo() {
+        return LanzadorCaballo.MIN_N;
+    }
+
+    @Override
+    public int getMaximo() {
+        return ProblemaCaballo.MAX_N;
+    }
+
+    @Override
+    public int getOrden() {
+        return 10;
+    }
+
+    @Override
+    public void lanzar() {
+        LanzadorCaballo.ejecutarSimulacion();
+    }
+
+    /** Los recorridos guardados empiezan por la casilla inicial. */
+    @Override
+    public boolean reproduce(String cabecera) {
+        return cabecera.startsWith("Punto de inicio");
+    }
+
+    @Override
+    public void abrirResultado(PasosMapeados pasos) {
+        LanzadorCaballo.abrirResultado(pasos);
+    }
+}
@@ -1,19 +1,26 @@
 package caballo.controlador;
 
 import base.controlador.Dialogos;
+import base.modelo.PasosMapeados;
+import base.modelo.PlanEjecucion;
 import caballo.modelo.ProblemaCaballo;
+import caballo.modelo.VerificadorCaballo;
 import caballo.vista.VentanaCaballo;
 import ui.vista.MenuRecursivo;
 
+import javax.swing.JOptionPane;
+
 /**
  * Ahora ya NO ejecutamos el algoritmo en el lanzador, sino que
  * dejamos que la ventana lo haga cuando el usuario pulse “Iniciar”.
  */
 public class LanzadorCaballo {
+    // Constantes (se copian al compilar en JuegoCaballo, que no carga esta clase)
+    public static final String PREGUNTA = "Introduce el tamaño del tablero (N):";
+    public static final int MIN_N = 5;
+
     public static void ejecutarSimulacion() {
-        Integer n = Dialogos.pedirEntero(
-                "Introduce el tamaño del tablero (N):", 5, 69
-        );
+        Integer n = Dialogos.pedirEntero(PREGUNTA, MIN_N, ProblemaCaballo.MAX_N);
         if (n == null) {
             new MenuRecursivo().mostrarMenu();
             return;
@@ -21,8 +28,36 @@ public class LanzadorCaballo {
 
         ProblemaCaballo problema = new ProblemaCaballo();
         problema.setParametros(n);
+        // Con tableros grandes, una variante atascada no bloquea: compiten varias
+        problema.setPortafolio(true);
+        // Memoria y pila para N² niveles de recursión, antes de abrir la ventana
+        PlanEjecucion plan = problema.planificar();
+        if (!Dialogos.confirmarPlan(plan)) {
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
 
         // Lanzamos la ventana: en ella el usuario elegirá la casilla y pulsará "Iniciar"
         new VentanaCaballo("Problema del Caballo", problema).mostrar();
     }
+
+    /**
+     * Reproduce un recorrido ya guardado, sin volver a buscarlo.
+     * N sale del número de casillas (N²). Antes se comprueba que cada paso sea un salto
+     * a una casilla del tablero sin repetir: la ventana indexa el tablero con ellos.
+     */
+    public static void abrirResultado(PasosMapeados pasos) {
+        long total = pasos.totalPasos();
+        int n = (int) Math.round(Math.sqrt(total));
+        String motivo = (n < 1 || n > ProblemaCaballo.MAX_N)
+                ? "El archivo tiene " + total + " casillas: no es un recorrido completo."
+                : VerificadorCaballo.motivoNoValido(pasos, n);
+        if (motivo != null) {
+            JOptionPane.showMessageDialog(null, motivo,
+                    "Archivo no válido", JOptionPane.ERROR_MESSAGE);
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
+        new VentanaCaballo("Problema del Caballo (" + n + "x" + n + ", archivo)", pasos, n).mostrar();
+    }
 }
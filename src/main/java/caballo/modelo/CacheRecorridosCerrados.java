@@ -0,0 +1,201 @@
+package caballo.modelo;
+
+import base.modelo.BufferPasos;
+import base.modelo.BusquedaSecuencial;
+import base.modelo.ControlBusqueda;
+import base.modelo.PaqueteSoluciones;
+import caballo.modelo.EstadoCaballo.Desempate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * CacheRecorridosCerrados: recorridos ya conocidos por tamaño de tablero, para
+ * responder a otra casilla inicial sin volver a buscar.
+ * • Recorrido cerrado (el último salto vuelve a atacar la casilla inicial): es un ciclo
+ *   que pasa por todas las casillas, así que empezar en cualquiera es sólo rotarlo,
+ *   O(N²). Se construye uno por N la primera vez que se pide.
+ * • Recorridos abiertos: se guardan los que encuentra la búsqueda normal. Con las 8
+ *   simetrías del tablero (y recorriéndolos al revés) cada uno sirve para hasta 16
+ *   casillas iniciales. Es lo único que hay para N impar, donde no existen cerrados.
+ * • Antes de construir o buscar nada se mira el {@link PaqueteSoluciones}: trae el
+ *   ciclo de cada N par y, para N impar, recorridos desde todas las casillas del
+ *   octante, que por simetría cubren el tablero entero.
+ * Las casillas se guardan como x*N + y.
+ */
+public class CacheRecorridosCerrados {
+    // Reinicios para construir el ciclo antes de rendirse, y presupuesto de cada uno (× N²)
+    private static final int MAX_INTENTOS_CICLO = 400;
+    private static final long PRESUPUESTO_INTENTO = 4;
+    // Recorridos abiertos que se guardan por N
+    private static final int MAX_ABIERTOS_POR_N = 16;
+    // Marca de "se intentó y no se encontró ciclo" (para no repetir la construcción)
+    private static final int[] SIN_CICLO = new int[0];
+
+    private static final Map<Integer, int[]> CICLOS = new ConcurrentHashMap<>();
+    private static final Map<Integer, List<int[]>> ABIERTOS = new ConcurrentHashMap<>();
+
+    private CacheRecorridosCerrados() {
+    }
+
+    /**
+     * Copia en destino un recorrido desde (x, y) sacado de la caché, sin buscar.
+     * Si hace falta (y N lo admite), primero construye el ciclo de este N.
+     * @param control presupuesto y cancelación para construir el ciclo
+     * @return true si había recorrido; false si hay que buscarlo
+     */
+    public static boolean recorrido(int n, int x, int y, ControlBusqueda control, BufferPasos destino) {
+        int[] ciclo = ciclo(n, control);
+        if (ciclo != null) {
+            rotar(ciclo, n, x * n + y, destino);
+            return true;
+        }
+        // Sin ciclo: el del paquete que sale de una casilla simétrica de (x, y)
+        for (int simetria = 0; simetria < 8; simetria++) {
+            int celda = simetrica(x * n + y, n, simetria);
+            int[] empaquetado = PaqueteSoluciones.abiertoCaballo(n, celda / n, celda % n);
+            if (empaquetado != null && transformar(empaquetado, n, x, y, destino)) return true;
+        }
+        // O uno conocido que, por simetría, empiece o acabe en (x, y)
+        List<int[]> abiertos = ABIERTOS.get(n);
+        if (abiertos != null) {
+            for (int[] abierto : abiertos) {
+                if (transformar(abierto, n, x, y, destino)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return el ciclo de este N (construyéndolo si hace falta), o null si no existe,
+     *         no se encontró o el control se detuvo antes
+     */
+    public static int[] ciclo(int n, ControlBusqueda control) {
+        if (!admiteCiclo(n)) return null;
+        int[] ciclo = CICLOS.get(n);
+        if (ciclo == null) {
+            // El del paquete, si lo trae; si no, se construye
+            ciclo = PaqueteSoluciones.cicloCaballo(n);
+            if (ciclo == null) ciclo = construirCiclo(n, control);
+            if (ciclo == null) return null;   // Detenido: se reintentará en la próxima llamada
+            ciclo = guardarCiclo(n, ciclo);
+        }
+        return ciclo == SIN_CICLO ? null : ciclo;
+    }
+
+    /**
+     * Anota un recorrido completo encontrado por la búsqueda normal.
+     * Si resulta ser cerrado y aún no había ciclo para este N, pasa a ser el ciclo.
+     */
+    public static void registrar(int n, BufferPasos pasos) {
+        if (pasos.tamano() != n * n) return;
+        int[] celdas = new int[n * n];
+        for (int i = 0; i < celdas.length; i++) {
+            celdas[i] = pasos.get(i, 0) * n + pasos.get(i, 1);
+        }
+        if (admiteCiclo(n) && salto(celdas[celdas.length - 1], celdas[0], n)) {
+            int[] previo = CICLOS.get(n);
+            if (previo == null || previo == SIN_CICLO) CICLOS.put(n, celdas);
+            return;
+        }
+        List<int[]> abiertos = ABIERTOS.computeIfAbsent(n, k -> new CopyOnWriteArrayList<>());
+        if (abiertos.size() < MAX_ABIERTOS_POR_N) abiertos.add(celdas);
+    }
+
+    /** Sólo hay recorridos cerrados en tableros pares de lado 6 o más (Schwenk). */
+    public static boolean admiteCiclo(int n) {
+        return n >= 6 && n % 2 == 0;
+    }
+
+    private static int[] guardarCiclo(int n, int[] ciclo) {
+        int[] previo = CICLOS.putIfAbsent(n, ciclo);
+        return previo != null ? previo : ciclo;
+    }
+
+    /**
+     * Warnsdorff con la condición de cierre y reinicios cortos: cada intento cambia
+     * casilla de partida (todas valen: el ciclo se rota luego), desempate y rotación.
+     * @return el ciclo, SIN_CICLO si se agotaron los intentos, o null si el control se detuvo
+     */
+    private static int[] construirCiclo(int n, ControlBusqueda control) {
+        SplittableRandom azar = new SplittableRandom(n);
+        Desempate[] desempates = Desempate.values();
+        for (int intento = 0; intento < MAX_INTENTOS_CICLO; intento++) {
+            if (!control.continuar()) return null;
+            // El primer intento, desde una esquina con la tabla sin rotar (el más habitual)
+            int x = intento == 0 ? 0 : azar.nextInt(n);
+            int y = intento == 0 ? 0 : azar.nextInt(n);
+            EstadoCaballo estado = new EstadoCaballo(n, x, y, intento,
+                    desempates[intento % desempates.length], intento + 1);
+            estado.setCerrado(true);
+            EstadoCaballo solucion = new BusquedaSecuencial().buscar(
+                    estado, control.derivar(PRESUPUESTO_INTENTO * n * n));
+            if (solucion != null) {
+                int[] ciclo = new int[n * n];
+                for (int i = 0; i < ciclo.length; i++) {
+                    ciclo[i] = solucion.getX(i) * n + solucion.getY(i);
+                }
+                return ciclo;
+            }
+        }
+        return control.continuar() ? SIN_CICLO : null;
+    }
+
+    /** Copia el ciclo empezando por la casilla indicada. */
+    private static void rotar(int[] ciclo, int n, int inicio, BufferPasos destino) {
+        int k = 0;
+        while (ciclo[k] != inicio) k++;
+        destino.vaciar();
+        destino.reservar(ciclo.length);
+        for (int i = 0; i < ciclo.length; i++) {
+            int celda = ciclo[(k + i) % ciclo.length];
+            destino.agregar(celda / n, celda % n);
+        }
+    }
+
+    /**
+     * Busca una simetría que lleve el inicio (o el final, recorriéndolo al revés)
+     * del recorrido abierto a (x, y) y, si la hay, copia el recorrido transformado.
+     */
+    private static boolean transformar(int[] abierto, int n, int x, int y, BufferPasos destino) {
+        int ultimo = abierto.length - 1;
+        for (int simetria = 0; simetria < 8; simetria++) {
+            for (int extremo : new int[]{0, ultimo}) {
+                if (simetrica(abierto[extremo], n, simetria) != x * n + y) continue;
+                destino.vaciar();
+                destino.reservar(abierto.length);
+                for (int i = 0; i <= ultimo; i++) {
+                    int celda = simetrica(abierto[extremo == 0 ? i : ultimo - i], n, simetria);
+                    destino.agregar(celda / n, celda % n);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Imagen de una casilla por una de las 8 simetrías del cuadrado:
+     * bit 2 = trasponer, bit 0 = invertir filas, bit 1 = invertir columnas.
+     */
+    private static int simetrica(int celda, int n, int simetria) {
+        int a = celda / n, b = celda % n;
+        if ((simetria & 4) != 0) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        if ((simetria & 1) != 0) a = n - 1 - a;
+        if ((simetria & 2) != 0) b = n - 1 - b;
+        return a * n + b;
+    }
+
+    /** @return true si hay salto de caballo entre las dos casillas */
+    private static boolean salto(int c1, int c2, int n) {
+        int dx = Math.abs(c1 / n - c2 / n), dy = Math.abs(c1 % n - c2 % n);
+        return (dx == 1 && dy == 2) || (dx == 2 && dy == 1);
+    }
+}
@@ -0,0 +1,323 @@
+package caballo.modelo;
+
+import base.modelo.AnilloPasos;
+import base.modelo.EstadoBusqueda;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * EstadoCaballo: estado de la búsqueda del recorrido del caballo.
+ * • tablero[x][y] = número de paso en que se visitó la casilla, -1 si está libre.
+ * • Cada candidato es el índice (0..7) del salto en los arrays dx/dy.
+ * • Los candidatos se ordenan con la regla de Warnsdorff: primero la casilla
+ *   con menos salidas libres. A igualdad decide el {@link Desempate} (por defecto,
+ *   el orden de dx/dy, que se puede rotar para empezar por otro salto).
+ * • Con {@link #setCerrado(boolean)} sólo valen recorridos cerrados: el último salto
+ *   debe volver a atacar la casilla inicial.
+ * • Poda de callejones (la de MotorBitboardCaballo, pero incremental): las salidas
+ *   libres de cada casilla y cuántas casillas libres tienen 0 y 1 salidas se actualizan
+ *   en cada salto, así que comprobar en cada nodo que no hay casillas aisladas ni dos
+ *   finales obligados cuesta lo mismo que mirar los 8 vecinos.
+ */
+public class EstadoCaballo implements EstadoBusqueda<EstadoCaballo> {
+    private static final int[] DX = {2,1,-1,-2,-2,-1,1,2};
+    private static final int[] DY = {1,2,2,1,-1,-2,-2,-1};
+
+    /** Cómo se ordenan los candidatos con el mismo número de salidas. */
+    public enum Desempate {
+        /** En el orden de la tabla de saltos (rotada). */
+        ORDEN_TABLA,
+        /** Primero la casilla más alejada del centro (regla de Roth). */
+        LEJOS_DEL_CENTRO,
+        /** Primero la casilla más cercana al centro. */
+        CERCA_DEL_CENTRO,
+        /** Al azar, según la semilla. */
+        ALEATORIO
+    }
+
+    private final int n;
+    private final int[][] tablero;
+    private final int[] recorridoX, recorridoY;   // Casillas en orden de visita
+    private int mov;                              // Casillas visitadas hasta ahora
+    private final int[] grados = new int[8];      // Auxiliar para ordenar candidatos
+    private final int[] claves = new int[8];      // Auxiliar: criterio de desempate
+    private final int rotacion;                   // Primer salto de la tabla que se prueba
+    private final Desempate desempate;
+    private final SplittableRandom azar;          // Sólo para Desempate.ALEATORIO
+    private AnilloPasos anillo;                   // Pasos en vivo (las copias no publican)
+    private boolean abandonado;                   // La vista dejó el anillo: no hay que seguir
+    private boolean cerrado;                      // true = la última casilla debe atacar a la inicial
+    // Poda de callejones: salidas libres de cada casilla (x*N + y) y, de las casillas libres,
+    // cuántas tienen 0 y 1 salidas
+    private final int[] salidas;
+    private int libresSinSalida, libresConUnaSalida;
+
+    /** Estado inicial: sólo la casilla (startX, startY) visitada. */
+    public EstadoCaballo(int n, int startX, int startY) {
+        this(n, startX, startY, 0, Desempate.ORDEN_TABLA, 0);
+    }
+
+    /**
+     * Estado inicial con otra variante de Warnsdorff.
+     * @param rotacion  salto de la tabla dx/dy por el que se empieza (0..7)
+     * @param desempate criterio para candidatos con igual número de salidas
+     * @param semilla   semilla del desempate aleatorio
+     */
+    public EstadoCaballo(int n, int startX, int startY,
+                         int rotacion, Desempate desempate, long semilla) {
+        this.n = n;
+        this.rotacion = Math.floorMod(rotacion, 8);
+        this.desempate = desempate;
+        this.azar = new SplittableRandom(semilla);
+        this.tablero = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(tablero[i], -1);
+        }
+        this.recorridoX = new int[n * n];
+        this.recorridoY = new int[n * n];
+        this.salidas = new int[n * n];
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                int g = 0;
+                for (int i = 0; i < 8; i++) {
+                    if (dentro(x + DX[i], y + DY[i])) g++;
+                }
+                salidas[x * n + y] = g;
+                contarLibre(g, 1);
+            }
+        }
+        ocupar(startX, startY);
+        tablero[startX][startY] = 0;
+        recorridoX[0] = startX;
+        recorridoY[0] = startY;
+        mov = 1;
+    }
+
+    private EstadoCaballo(EstadoCaballo otro) {
+        this.n = otro.n;
+        this.tablero = new int[n][];
+        for (int i = 0; i < n; i++) {
+            tablero[i] = otro.tablero[i].clone();
+        }
+        this.recorridoX = otro.recorridoX.clone();
+        this.recorridoY = otro.recorridoY.clone();
+        this.salidas = otro.salidas.clone();
+        this.libresSinSalida = otro.libresSinSalida;
+        this.libresConUnaSalida = otro.libresConUnaSalida;
+        this.mov = otro.mov;
+        this.rotacion = otro.rotacion;
+        this.desempate = otro.desempate;
+        this.azar = otro.azar.split();
+        this.cerrado = otro.cerrado;
+        this.abandonado = otro.abandonado;
+    }
+
+    @Override
+    public boolean esSolucion() {
+        return mov == n * n && (!cerrado || vuelveAlInicio(recorridoX[mov - 1], recorridoY[mov - 1]));
+    }
+
+    @Override
+    public int maxCandidatos() {
+        return 8;
+    }
+
+    @Override
+    public int candidatos(int[] destino) {
+        // Sin candidatos la búsqueda se deshace sola, sea cual sea su control
+        if (abandonado) return 0;
+        int x = recorridoX[mov - 1], y = recorridoY[mov - 1];
+        if (!sigueViable(x, y)) return 0;
+        int k = 0;
+        // Recorrido cerrado: la casilla inicial debe conservar una vecina libre para el final.
+        // Si sólo le queda una, no se puede ocupar salvo que sea el último salto.
+        boolean ultimaVuelta = cerrado && mov + 1 < n * n
+                && getDegree(recorridoX[0], recorridoY[0]) == 1;
+        for (int r = 0; r < 8; r++) {
+            int i = (r + rotacion) & 7;
+            int nx = x + DX[i], ny = y + DY[i];
+            if (libre(nx, ny) && !(ultimaVuelta && vuelveAlInicio(nx, ny))) {
+                // Inserción estable por (grado, desempate): a igualdad se respeta el orden de la tabla
+                int g = getDegree(nx, ny);
+                int c = claveDesempate(nx, ny);
+                int j = k;
+                while (j > 0 && (grados[j - 1] > g || (grados[j - 1] == g && claves[j - 1] > c))) {
+                    grados[j] = grados[j - 1];
+                    claves[j] = claves[j - 1];
+                    destino[j] = destino[j - 1];
+                    j--;
+                }
+                grados[j] = g;
+                claves[j] = c;
+                destino[j] = i;
+                k++;
+            }
+        }
+        return k;
+    }
+
+    @Override
+    public void aplicar(int candidato) {
+        int nx = recorridoX[mov - 1] + DX[candidato];
+        int ny = recorridoY[mov - 1] + DY[candidato];
+        ocupar(nx, ny);
+        tablero[nx][ny] = mov;
+        recorridoX[mov] = nx;
+        recorridoY[mov] = ny;
+        mov++;
+        if (anillo != null && !anillo.publicar(AnilloPasos.COLOCAR, nx, ny)) abandonar();
+    }
+
+    @Override
+    public void deshacer(int candidato) {
+        mov--;
+        tablero[recorridoX[mov]][recorridoY[mov]] = -1;
+        liberar(recorridoX[mov], recorridoY[mov]);
+        if (anillo != null && !anillo.publicar(AnilloPasos.QUITAR, recorridoX[mov], recorridoY[mov])) {
+            abandonar();
+        }
+    }
+
+    /** La vista ya no mira: se deja de publicar y de ofrecer candidatos. */
+    private void abandonar() {
+        anillo = null;
+        abandonado = true;
+    }
+
+    @Override
+    public int profundidad() {
+        return mov;
+    }
+
+    @Override
+    public EstadoCaballo copiar() {
+        return new EstadoCaballo(this);
+    }
+
+    /**
+     * Poda de callejones sin salida (las reglas de MotorBitboardCaballo.sigueViable):
+     * • Una casilla libre sin salidas que no es vecina del caballo es inalcanzable.
+     * • Una casilla libre con una sola salida sólo puede ser la última del recorrido
+     *   (salvo que sea vecina del caballo y se salte a ella ahora); sólo hay una última.
+     * • Un vecino sin salidas obliga a saltar a él y terminar allí.
+     * Los recuentos globales ya están al día: sólo se miran los vecinos del caballo.
+     */
+    private boolean sigueViable(int x, int y) {
+        int ceros = 0, unos = 0;
+        for (int i = 0; i < 8; i++) {
+            int nx = x + DX[i], ny = y + DY[i];
+            if (!libre(nx, ny)) continue;
+            int g = salidas[nx * n + ny];
+            if (g == 0) ceros++;
+            else if (g == 1) unos++;
+        }
+        if (libresSinSalida > ceros) return false;
+        int finales = libresConUnaSalida - unos;
+        if (finales > 1) return false;
+        if (ceros > 1) return false;
+        if (ceros == 1) return n * n - mov == 1;
+        if (unos > 0) finales += unos - 1;
+        return finales <= 1;
+    }
+
+    /** La casilla deja de estar libre: sus vecinas pierden una salida. */
+    private void ocupar(int x, int y) {
+        contarLibre(salidas[x * n + y], -1);
+        for (int i = 0; i < 8; i++) {
+            int nx = x + DX[i], ny = y + DY[i];
+            if (!dentro(nx, ny)) continue;
+            int c = nx * n + ny;
+            boolean esLibre = tablero[nx][ny] == -1;
+            if (esLibre) contarLibre(salidas[c], -1);
+            salidas[c]--;
+            if (esLibre) contarLibre(salidas[c], 1);
+        }
+    }
+
+    /** Deshace {@link #ocupar}: la casilla vuelve a estar libre (tablero ya a -1). */
+    private void liberar(int x, int y) {
+        for (int i = 0; i < 8; i++) {
+            int nx = x + DX[i], ny = y + DY[i];
+            if (!dentro(nx, ny)) continue;
+            int c = nx * n + ny;
+            boolean esLibre = tablero[nx][ny] == -1;
+            if (esLibre) contarLibre(salidas[c], -1);
+            salidas[c]++;
+            if (esLibre) contarLibre(salidas[c], 1);
+        }
+        contarLibre(salidas[x * n + y], 1);
+    }
+
+    /** Suma (o resta) una casilla libre con g salidas a los recuentos de la poda. */
+    private void contarLibre(int g, int signo) {
+        if (g == 0) libresSinSalida += signo;
+        else if (g == 1) libresConUnaSalida += signo;
+    }
+
+    /** Valor secundario de orden (menor = antes) para candidatos con el mismo grado. */
+    private int claveDesempate(int x, int y) {
+        // Distancia al centro (al cuadrado, con coordenadas dobladas para que sea entera)
+        int cx = 2 * x - (n - 1), cy = 2 * y - (n - 1);
+        switch (desempate) {
+            case LEJOS_DEL_CENTRO: return -(cx * cx + cy * cy);
+            case CERCA_DEL_CENTRO: return cx * cx + cy * cy;
+            case ALEATORIO:        return azar.nextInt();
+            default:               return 0;
+        }
+    }
+
+    /** @return true si desde (x, y) se salta a la casilla inicial */
+    private boolean vuelveAlInicio(int x, int y) {
+        int ax = Math.abs(x - recorridoX[0]), ay = Math.abs(y - recorridoY[0]);
+        return (ax == 1 && ay == 2) || (ax == 2 && ay == 1);
+    }
+
+    private boolean dentro(int x, int y) {
+        return x >= 0 && y >= 0 && x < n && y < n;
+    }
+
+    private boolean libre(int x, int y) {
+        return dentro(x, y) && tablero[x][y] == -1;
+    }
+
+    /** Número de salidas libres desde (x, y). */
+    private int getDegree(int x, int y) {
+        return salidas[x * n + y];
+    }
+
+    /**
+     * Publica cada salto y cada vuelta atrás en el anillo (null = no publicar).
+     * Las copias de {@link #copiar()} no lo heredan: el anillo admite un único productor.
+     * Si la vista lo abandona, el estado deja de dar candidatos y la búsqueda termina.
+     */
+    public void setAnillo(AnilloPasos anillo) {
+        this.anillo = anillo;
+    }
+
+    /** Exige (o no) que el recorrido sea cerrado. Las copias lo heredan. */
+    public void setCerrado(boolean cerrado) {
+        this.cerrado = cerrado;
+    }
+
+    // -------------------- GETTERS --------------------
+
+    /** @return la matriz con el número de paso de cada casilla (-1 si no se visitó) */
+    public int[][] getTablero() {
+        return tablero;
+    }
+
+    /** @return cuántas casillas se han visitado */
+    public int getVisitadas() {
+        return mov;
+    }
+
+    /** @return la fila de la casilla visitada en el paso indicado */
+    public int getX(int paso) {
+        return recorridoX[paso];
+    }
+
+    /** @return la columna de la casilla visitada en el paso indicado */
+    public int getY(int paso) {
+        return recorridoY[paso];
+    }
+}
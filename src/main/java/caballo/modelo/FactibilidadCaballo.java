@@ -0,0 +1,113 @@
+package caballo.modelo;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FactibilidadCaballo: descarta en microsegundos casillas iniciales desde las que
+ * no puede haber recorrido, antes de lanzar una búsqueda que lo demostraría explorando
+ * un árbol exponencial.
+ * • Paridad: cada salto cambia de color. Con N impar hay una casilla más del color de
+ *   las esquinas ((x + y) par) y un recorrido de N² casillas empieza y acaba en él.
+ * • Conexión: todas las casillas tienen que ser alcanzables desde la inicial (en 3×3
+ *   el centro queda aislado, en 2×2 no hay saltos). No depende de la casilla inicial,
+ *   así que el grafo de cada N se analiza una sola vez.
+ * • Finales obligados: una casilla (que no sea la inicial) con una sola salida tiene
+ *   que ser la última; si hay dos, no hay recorrido.
+ * • Tableros pequeños: en 4×4 no hay recorrido desde ninguna casilla aunque pase todo
+ *   lo anterior (resultado conocido, confirmado por MotorBitboardCaballo).
+ * Son condiciones necesarias: pasar las comprobaciones no garantiza que haya recorrido
+ * (eso lo decide la búsqueda, que además poda callejones durante la marcha, ver EstadoCaballo).
+ */
+public class FactibilidadCaballo {
+    private static final int[] DX = {2, 1, -1, -2, -2, -1, 1, 2};
+    private static final int[] DY = {1, 2, 2, 1, -1, -2, -2, -1};
+    // Grafo de saltos ya analizado de cada N
+    private static final Map<Integer, Grafo> GRAFOS = new ConcurrentHashMap<>();
+
+    private FactibilidadCaballo() {
+    }
+
+    /**
+     * @return el motivo por el que no hay recorrido desde (x, y), o null si no se ha
+     *         podido descartar
+     */
+    public static String motivoSinRecorrido(int n, int x, int y) {
+        if (n < 1 || x < 0 || y < 0 || x >= n || y >= n) {
+            throw new IllegalArgumentException("La casilla (" + x + ", " + y
+                    + ") no está en un tablero de " + n + "x" + n + ".");
+        }
+        if (n == 1) return null;
+        if (n % 2 == 1 && (x + y) % 2 == 1) {
+            return "En un tablero impar el recorrido empieza y acaba en el color de las esquinas, "
+                    + "y (" + x + ", " + y + ") es del otro.";
+        }
+        String conexion = motivoConexion(n, x, y);
+        if (conexion != null) return conexion;
+        if (n == 4) {
+            return "En un tablero de 4x4 no hay recorrido desde ninguna casilla.";
+        }
+        return null;
+    }
+
+    /** @return true si no se ha podido descartar (x, y) */
+    public static boolean esPosible(int n, int x, int y) {
+        return motivoSinRecorrido(n, x, y) == null;
+    }
+
+    /** Conexión y casillas de una salida del grafo de saltos de un N (no dependen de la casilla inicial). */
+    private static final class Grafo {
+        private final boolean conexo;
+        private final int[] unaSalida;
+
+        Grafo(boolean conexo, int[] unaSalida) {
+            this.conexo = conexo;
+            this.unaSalida = unaSalida;
+        }
+    }
+
+    /** Comprueba la conexión y los finales obligados con el grafo de este N (calculado una vez). */
+    private static String motivoConexion(int n, int x, int y) {
+        Grafo grafo = GRAFOS.computeIfAbsent(n, FactibilidadCaballo::analizar);
+        if (!grafo.conexo) {
+            return "Hay casillas a las que el caballo no llega desde (" + x + ", " + y + ").";
+        }
+        int finales = 0;
+        for (int c : grafo.unaSalida) {
+            if (c != x * n + y) finales++;
+        }
+        if (finales > 1) {
+            return "Hay " + finales + " casillas con una sola salida: todas tendrían que ser la última.";
+        }
+        return null;
+    }
+
+    /** Recorrido en anchura desde la casilla 0 contando las salidas de cada casilla. */
+    private static Grafo analizar(int n) {
+        boolean[] vista = new boolean[n * n];
+        int[] cola = new int[n * n];      // Cada casilla entra una vez: basta un array
+        int cabeza = 0, alcanzadas = 0;
+        int[] unaSalida = new int[n * n];
+        int unos = 0;
+        vista[0] = true;
+        cola[alcanzadas++] = 0;
+        while (cabeza < alcanzadas) {
+            int c = cola[cabeza++];
+            int cx = c / n, cy = c % n, salidas = 0;
+            for (int i = 0; i < 8; i++) {
+                int nx = cx + DX[i], ny = cy + DY[i];
+                if (nx < 0 || ny < 0 || nx >= n || ny >= n) continue;
+                salidas++;
+                int v = nx * n + ny;
+                if (!vista[v]) {
+                    vista[v] = true;
+                    cola[alcanzadas++] = v;
+                }
+            }
+            if (salidas == 1) unaSalida[unos++] = c;
+        }
+        // El grafo no es dirigido: si desde la casilla 0 no se llega a todas, desde ninguna
+        return new Grafo(alcanzadas == n * n, Arrays.copyOf(unaSalida, unos));
+    }
+}
@@ -0,0 +1,270 @@
+package caballo.modelo;
+
+import base.modelo.BufferPasos;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MotorBitboardCaballo: motor exhaustivo del recorrido del caballo para tableros N×N con N ≤ 8.
+ * • El conjunto de casillas visitadas cabe en un único {@code long} (bit = fila*N + columna).
+ * • Los saltos posibles desde cada casilla se precalculan en 64 máscaras de ataque,
+ *   en lugar de recorrer {@code int[][] tablero} con los arrays dx/dy.
+ * • Cuenta todos los recorridos abiertos y cerrados desde cada casilla, repartiendo
+ *   el trabajo entre núcleos, para servir de oráculo frente al resolvedor heurístico.
+ * • También los enumera uno a uno ({@link #enumerar}) con la misma recursión.
+ */
+public class MotorBitboardCaballo {
+    private static final int[] DX = {2, 1, -1, -2, -2, -1, 1, 2};
+    private static final int[] DY = {1, 2, 2, 1, -1, -2, -2, -1};
+
+    private final int n;
+    private final int total;         // n*n casillas
+    private final long[] ataques;    // ataques[c] = casillas alcanzables desde c
+
+    /**
+     * Resultado de contar los recorridos desde una casilla.
+     * • abiertos: recorridos que visitan todas las casillas (incluye los cerrados).
+     * • cerrados: recorridos cuya última casilla vuelve a atacar a la inicial.
+     */
+    public static final class Cuenta {
+        private final int x, y;
+        private final long abiertos, cerrados;
+
+        public Cuenta(int x, int y, long abiertos, long cerrados) {
+            this.x = x;
+            this.y = y;
+            this.abiertos = abiertos;
+            this.cerrados = cerrados;
+        }
+
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public long getAbiertos() { return abiertos; }
+        public long getCerrados() { return cerrados; }
+
+        @Override
+        public String toString() {
+            return "(" + x + "," + y + "): " + abiertos + " recorridos, " + cerrados + " cerrados";
+        }
+    }
+
+    /** @param n tamaño del tablero (1..8) */
+    public MotorBitboardCaballo(int n) {
+        if (n < 1 || n > 8) {
+            throw new IllegalArgumentException("El motor bitboard admite tableros de 1x1 a 8x8.");
+        }
+        this.n = n;
+        this.total = n * n;
+        this.ataques = new long[total];
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                long m = 0;
+                for (int k = 0; k < 8; k++) {
+                    int nx = x + DX[k], ny = y + DY[k];
+                    if (nx >= 0 && ny >= 0 && nx < n && ny < n) {
+                        m |= 1L << (nx * n + ny);
+                    }
+                }
+                ataques[x * n + y] = m;
+            }
+        }
+    }
+
+    /** @return la máscara de casillas alcanzables desde (x, y) */
+    public long getAtaques(int x, int y) {
+        return ataques[x * n + y];
+    }
+
+    /** Máscara con las n*n casillas del tablero a 1. */
+    private long tableroCompleto() {
+        return total == 64 ? -1L : (1L << total) - 1;
+    }
+
+    // -------------------- EXISTENCIA (ORÁCULO RÁPIDO) --------------------
+
+    /**
+     * Indica si existe algún recorrido completo empezando en (x, y).
+     * Se detiene en el primero, probando antes las casillas con menos salidas.
+     */
+    public boolean existeRecorrido(int x, int y) {
+        int inicio = x * n + y;
+        long libres = tableroCompleto() & ~(1L << inicio);
+        return existeDesde(inicio, libres);
+    }
+
+    private boolean existeDesde(int actual, long libres) {
+        if (libres == 0) return true;
+        if (!sigueViable(actual, libres)) return false;
+        long candidatos = ataques[actual] & libres;
+        // Orden de Warnsdorff: primero el vecino con menos salidas libres
+        while (candidatos != 0) {
+            int mejor = -1, mejorGrado = Integer.MAX_VALUE;
+            long resto = candidatos;
+            while (resto != 0) {
+                int c = Long.numberOfTrailingZeros(resto);
+                resto &= resto - 1;
+                int g = Long.bitCount(ataques[c] & libres);
+                if (g < mejorGrado) {
+                    mejorGrado = g;
+                    mejor = c;
+                }
+            }
+            candidatos &= ~(1L << mejor);
+            if (existeDesde(mejor, libres & ~(1L << mejor))) return true;
+        }
+        return false;
+    }
+
+    // -------------------- CONTEO EXHAUSTIVO --------------------
+
+    /** Cuenta todos los recorridos (abiertos y cerrados) que empiezan en (x, y). */
+    public Cuenta contar(int x, int y) {
+        int inicio = x * n + y;
+        long[] acumulado = new long[2];
+        long libres = tableroCompleto() & ~(1L << inicio);
+        contarDesde(inicio, inicio, libres, acumulado, null, null);
+        return new Cuenta(x, y, acumulado[0], acumulado[1]);
+    }
+
+    /**
+     * Recorre uno a uno todos los recorridos (abiertos y cerrados) que empiezan en (x, y),
+     * en el mismo orden en que los cuenta {@link #contar(int, int)}.
+     * @param visitante recibe cada recorrido como casillas fila*N + columna, de la primera
+     *                  a la última. El array se reutiliza: hay que copiarlo para guardarlo.
+     *                  Es cerrado si {@link #getAtaques} de la última incluye la primera.
+     * @return los recorridos encontrados (abiertos y cerrados), igual que contar()
+     */
+    public Cuenta enumerar(int x, int y, Consumer<int[]> visitante) {
+        int inicio = x * n + y;
+        long[] acumulado = new long[2];
+        int[] camino = new int[total];
+        camino[0] = inicio;
+        long libres = tableroCompleto() & ~(1L << inicio);
+        contarDesde(inicio, inicio, libres, acumulado, camino, visitante);
+        return new Cuenta(x, y, acumulado[0], acumulado[1]);
+    }
+
+    /**
+     * Cuenta los recorridos desde todas las casillas en paralelo.
+     * El trabajo se parte por (casilla inicial, primer salto) para repartirlo mejor entre núcleos.
+     * @return matriz N×N con la cuenta de cada casilla inicial
+     */
+    public Cuenta[][] contarTodas() {
+        // Una tarea por cada pareja (inicio, primer salto)
+        List<int[]> tareas = new ArrayList<>();
+        for (int inicio = 0; inicio < total; inicio++) {
+            long primeros = ataques[inicio];
+            if (total == 1) tareas.add(new int[]{inicio, -1});
+            while (primeros != 0) {
+                int c = Long.numberOfTrailingZeros(primeros);
+                primeros &= primeros - 1;
+                tareas.add(new int[]{inicio, c});
+            }
+        }
+
+        long[] abiertos = new long[total];
+        long[] cerrados = new long[total];
+        tareas.parallelStream().forEach(t -> {
+            int inicio = t[0], primero = t[1];
+            long[] acumulado = new long[2];
+            if (primero < 0) {
+                acumulado[0] = 1; // Tablero 1x1: la casilla inicial ya es un recorrido
+            } else {
+                long libres = tableroCompleto() & ~(1L << inicio) & ~(1L << primero);
+                contarDesde(inicio, primero, libres, acumulado, null, null);
+            }
+            synchronized (abiertos) {
+                abiertos[inicio] += acumulado[0];
+                cerrados[inicio] += acumulado[1];
+            }
+        });
+
+        Cuenta[][] resultado = new Cuenta[n][n];
+        for (int c = 0; c < total; c++) {
+            resultado[c / n][c % n] = new Cuenta(c / n, c % n, abiertos[c], cerrados[c]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Búsqueda exhaustiva sobre máscaras de bits.
+     * @param inicio    casilla inicial (para saber si el recorrido cierra)
+     * @param actual    casilla donde está el caballo
+     * @param libres    casillas aún sin visitar
+     * @param acumulado [0] = recorridos completos, [1] = de ellos, cerrados
+     * @param camino    casillas visitadas en orden (sólo al enumerar; si no, null)
+     * @param visitante recibe el camino de cada recorrido completo (null: sólo contar)
+     */
+    private void contarDesde(int inicio, int actual, long libres, long[] acumulado,
+                             int[] camino, Consumer<int[]> visitante) {
+        if (libres == 0) {
+            acumulado[0]++;
+            if ((ataques[actual] & (1L << inicio)) != 0) acumulado[1]++;
+            if (visitante != null) visitante.accept(camino);
+            return;
+        }
+        if (!sigueViable(actual, libres)) return;
+        long candidatos = ataques[actual] & libres;
+        while (candidatos != 0) {
+            int c = Long.numberOfTrailingZeros(candidatos);
+            candidatos &= candidatos - 1;
+            // La casilla que ocupa el salto es la siguiente a las ya visitadas
+            if (camino != null) camino[total - Long.bitCount(libres)] = c;
+            contarDesde(inicio, c, libres & ~(1L << c), acumulado, camino, visitante);
+        }
+    }
+
+    /**
+     * Poda de callejones sin salida sobre las casillas libres.
+     * • Una casilla libre con una sola salida libre sólo puede ser la última del recorrido
+     *   (salvo que sea vecina del caballo y se salte a ella ahora).
+     * • Una casilla libre sin salidas que no es vecina del caballo es inalcanzable.
+     * • Como sólo hay una última casilla, dos finales obligados hacen imposible el recorrido.
+     */
+    private boolean sigueViable(int actual, long libres) {
+        long vecinos = ataques[actual] & libres;
+        int restantes = Long.bitCount(libres);
+        int ceros = 0, unos = 0, finales = 0;
+        long resto = libres;
+        while (resto != 0) {
+            int v = Long.numberOfTrailingZeros(resto);
+            resto &= resto - 1;
+            int g = Long.bitCount(ataques[v] & libres);
+            if ((vecinos & (1L << v)) != 0) {
+                if (g == 0) ceros++;
+                else if (g == 1) unos++;
+            } else if (g == 0) {
+                return false;
+            } else if (g == 1 && ++finales > 1) {
+                return false;
+            }
+        }
+        // Un vecino sin salidas obliga a saltar a él y terminar allí
+        if (ceros > 1) return false;
+        if (ceros == 1) return restantes == 1;
+        // De los vecinos con una salida, todos menos el siguiente salto acaban como finales
+        if (unos > 0) finales += unos - 1;
+        return finales <= 1;
+    }
+
+    /**
+     * Comprueba que una secuencia de casillas [fila, columna] sea un recorrido completo válido.
+     * Útil para contrastar la salida del resolvedor heurístico.
+     */
+    public boolean esRecorridoValido(BufferPasos recorrido) {
+        if (recorrido.tamano() != total) return false;
+        long visitadas = 0;
+        int anterior = -1;
+        for (int i = 0; i < total; i++) {
+            int x = recorrido.get(i, 0), y = recorrido.get(i, 1);
+            if (x < 0 || y < 0 || x >= n || y >= n) return false;
+            int c = x * n + y;
+            if ((visitadas & (1L << c)) != 0) return false;
+            if (anterior >= 0 && (ataques[anterior] & (1L << c)) == 0) return false;
+            visitadas |= 1L << c;
+            anterior = c;
+        }
+        return true;
+    }
+}
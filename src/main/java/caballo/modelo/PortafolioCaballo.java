@@ -0,0 +1,103 @@
+package caballo.modelo;
+
+import base.modelo.BusquedaSecuencial;
+import base.modelo.ControlBusqueda;
+import base.modelo.Planificador;
+import caballo.modelo.EstadoCaballo.Desempate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * PortafolioCaballo: lanza a la vez varias variantes de Warnsdorff sobre la misma
+ * casilla inicial y se queda con la primera que termina.
+ * • Variantes completas: distintos desempates y rotaciones de la tabla de saltos.
+ *   Si una de ellas agota el árbol sin encontrar recorrido, queda demostrado que no existe.
+ * • Reinicios aleatorios: desempate al azar con un presupuesto de nodos que crece
+ *   en cada intento (no demuestran nada, pero escapan pronto de los atascos).
+ * La carrera vive dentro de un ejecutor con try-with-resources: al salir, las variantes
+ * perdedoras ya se han cancelado y han terminado.
+ */
+public class PortafolioCaballo {
+    // Presupuesto del primer reinicio aleatorio, en múltiplos de N×N
+    private static final long PRESUPUESTO_INICIAL_REINICIO = 4;
+
+    private PortafolioCaballo() {
+    }
+
+    /**
+     * Busca un recorrido desde (x, y) con todas las variantes en paralelo.
+     * @param control control de quien llama (presupuesto y cancelación compartidos)
+     * @return el estado con el recorrido, o null si no existe o se agotó el presupuesto
+     */
+    public static EstadoCaballo resolver(int n, int x, int y, ControlBusqueda control) {
+        // Control propio de la carrera: se cancela al haber ganador sin tocar el de quien llama
+        ControlBusqueda carrera = control.derivar();
+
+        List<Callable<Optional<EstadoCaballo>>> variantes = new ArrayList<>();
+        variantes.add(completa(new EstadoCaballo(n, x, y), carrera));
+        variantes.add(completa(new EstadoCaballo(n, x, y, 0, Desempate.LEJOS_DEL_CENTRO, 0), carrera));
+        variantes.add(completa(new EstadoCaballo(n, x, y, 4, Desempate.ORDEN_TABLA, 0), carrera));
+        variantes.add(completa(new EstadoCaballo(n, x, y, 2, Desempate.CERCA_DEL_CENTRO, 0), carrera));
+        variantes.add(reinicios(n, x, y, carrera));
+
+        // Un hilo de plataforma por variante: el sistema operativo las reparte entre núcleos.
+        // Cada variante baja N² niveles de recursión: con tableros grandes, pila a medida
+        Thread.Builder.OfPlatform hilos = Thread.ofPlatform().name("portafolio-caballo-", 0).daemon();
+        long pila = Planificador.pilaRecorrido((long) n * n);
+        if (pila > 0) hilos.stackSize(pila);
+        try (ExecutorService ejecutor = Executors.newThreadPerTaskExecutor(hilos.factory())) {
+            try {
+                return ejecutor.invokeAny(variantes).orElse(null);
+            } finally {
+                // Las búsquedas no miran la interrupción del hilo, sino el control: hay que
+                // cancelarlo antes de que close() espere a que terminen las perdedoras
+                carrera.cancelar();
+            }
+        } catch (ExecutionException e) {
+            // Todas las variantes se detuvieron sin respuesta (presupuesto o cancelación)
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Variante que recorre todo el árbol: si termina sin recorrido y sin que la paren,
+     * devuelve Optional.empty() como prueba de que no hay solución.
+     */
+    private static Callable<Optional<EstadoCaballo>> completa(EstadoCaballo estado,
+                                                              ControlBusqueda carrera) {
+        return () -> {
+            ControlBusqueda propio = carrera.derivar();
+            EstadoCaballo solucion = new BusquedaSecuencial().buscar(estado, propio);
+            if (solucion != null) return Optional.of(solucion);
+            if (!propio.continuar()) throw new CancellationException("variante detenida");
+            return Optional.empty();
+        };
+    }
+
+    /** Variante de reinicios aleatorios con presupuesto creciente (×2 en cada intento). */
+    private static Callable<Optional<EstadoCaballo>> reinicios(int n, int x, int y,
+                                                               ControlBusqueda carrera) {
+        return () -> {
+            long presupuesto = PRESUPUESTO_INICIAL_REINICIO * n * n;
+            for (long semilla = 1; carrera.continuar(); semilla++) {
+                ControlBusqueda intento = carrera.derivar(presupuesto);
+                EstadoCaballo estado = new EstadoCaballo(n, x, y,
+                        (int) semilla, Desempate.ALEATORIO, semilla);
+                EstadoCaballo solucion = new BusquedaSecuencial().buscar(estado, intento);
+                if (solucion != null) return Optional.of(solucion);
+                if (presupuesto < Long.MAX_VALUE / 2) presupuesto *= 2;
+            }
+            throw new CancellationException("reinicios detenidos");
+        };
+    }
+}
@@ -1,8 +1,12 @@
 package caballo.modelo;
 
-import base.modelo.AlgoritmoRecursivo;
-import java.util.ArrayList;
-import java.util.List;
+import base.modelo.AlgoritmoBusqueda;
+import base.modelo.BufferPasos;
+import base.modelo.CacheSoluciones;
+import base.modelo.ControlBusqueda;
+import base.modelo.PaqueteSoluciones;
+import base.modelo.PlanEjecucion;
+import base.modelo.Planificador;
 import java.util.Arrays;
 import java.io.PrintWriter;
 import java.io.IOException;
@@ -10,19 +14,35 @@ import java.io.IOException;
 /**
  * ProblemaCaballo: recorre todas las casillas de un tablero N×N con
  * un caballo, visitando cada casilla exactamente una vez.
+ * El backtracking (con la regla de Warnsdorff) lo recorre la estrategia de
+ * AlgoritmoBusqueda sobre un {@link EstadoCaballo}.
+ * Antes de buscar se mira {@link CacheRecorridosCerrados}: con un recorrido cerrado
+ * de este N, cualquier casilla inicial se responde rotándolo. Para N = 5..69 esa caché
+ * ya trae los recorridos del {@link PaqueteSoluciones}: no se busca nada.
+ * Y antes de todo, {@link FactibilidadCaballo}: una casilla inicial sin recorrido posible
+ * (paridad, conexión) se responde al momento sin buscar.
  */
-public class ProblemaCaballo extends AlgoritmoRecursivo {
+public class ProblemaCaballo extends AlgoritmoBusqueda {
+    // Tablero máximo: la ventana pone un botón por casilla (40.000 con 200×200)
+    public static final int MAX_N = 200;
+    // Memoria por casilla: estado de búsqueda y buffers de candidatos de cada variante
+    // de la cartera (6 como mucho), más el botón de la ventana
+    private static final int BYTES_CASILLA = 6 * 64 + 2048;
+    // Coste medido por casilla del recorrido con Warnsdorff (casi nunca hay vuelta atrás)
+    private static final double NS_POR_CASILLA = 20_000;
+    // Con N par, la primera vez se construye además el recorrido cerrado (varios reinicios)
+    private static final double FACTOR_CICLO = 3;
+    // Presupuesto del ensayo de admiteEnVivo: Warnsdorff que no se atasca apenas retrocede
+    // (el mismo primer intento que hace GeneradorPaquete)
+    private static final long NODOS_EN_VIVO_POR_CASILLA = 50;
+
     private int n;
     private int[][] tablero;
-    private List<int[]> pasos;
     private int startX, startY;
-
-    private int[] dx = {2,1,-1,-2,-2,-1,1,2};
-    private int[] dy = {1,2,2,1,-1,-2,-2,-1};
+    private boolean portafolio;   // true = varias variantes de Warnsdorff compiten en paralelo
 
     public ProblemaCaballo() {
         super("Problema del Caballo");
-        pasos = new ArrayList<>();
     }
 
     @Override
@@ -33,6 +53,33 @@ public class ProblemaCaballo extends AlgoritmoRecursivo {
         for (int i = 0; i < n; i++) {
             Arrays.fill(tablero[i], -1);
         }
+        plan = null;
+    }
+
+    /**
+     * planificar: la búsqueda baja una llamada por casilla (N² niveles de recursión),
+     * así que con tableros grandes se lanza en un hilo con la pila a medida.
+     */
+    @Override
+    public PlanEjecucion planificar() {
+        long casillas = (long) n * n;
+        long bytes = casillas * BYTES_CASILLA;
+        if (!Planificador.cabeEnMemoria(bytes)) {
+            plan = PlanEjecucion.rechazado("El tablero de " + n + "x" + n + " no cabe en memoria.", bytes);
+            return plan;
+        }
+        // Las variantes de la cartera compiten a la vez: con menos núcleos, se turnan
+        double reparto = portafolio ? Math.max(1.0, 5.0 / Planificador.nucleos()) : 1;
+        double ciclo = CacheRecorridosCerrados.admiteCiclo(n) ? FACTOR_CICLO : 1;
+        // Con el recorrido en el paquete sólo se copia (o se rota): no hay búsqueda
+        double segundos = PaqueteSoluciones.tieneCaballo(n) ? 0
+                : casillas * NS_POR_CASILLA * reparto * ciclo / 1e9;
+        plan = new PlanEjecucion(PlanEjecucion.Estrategia.MATERIALIZADA, bytes, segundos);
+        plan.setPila(Planificador.pilaRecorrido(casillas));
+        if (plan.getSegundos() > Planificador.SEGUNDOS_AVISO) {
+            plan.avisar("Tardará unos " + Planificador.formatearSegundos(plan.getSegundos()) + ".");
+        }
+        return plan;
     }
 
     /** Fija la casilla de inicio seleccionada por el usuario. */
@@ -41,47 +88,103 @@ public class ProblemaCaballo extends AlgoritmoRecursivo {
         this.startY = y;
     }
 
+    /**
+     * admiteEnVivo: en vivo se ve una sola búsqueda de Warnsdorff (sin paquete, caché ni
+     * cartera), y desde algunas casillas se atasca durante minutos aunque el plan dé 0 s.
+     * Así que, con el plan viable, se ensaya antes esa misma búsqueda sin publicar nada
+     * (es determinista: la de verdad recorrerá los mismos nodos) y sólo se admite si acaba
+     * en {@value #NODOS_EN_VIVO_POR_CASILLA} nodos por casilla. Necesita la casilla inicial.
+     */
+    public boolean admiteEnVivo() {
+        if (plan == null) planificar();
+        if (!plan.isViable()) return false;
+        // Sin recorrido posible no se busca nada: en vivo sólo se ve la casilla inicial
+        if (!FactibilidadCaballo.esPosible(n, startX, startY)) return true;
+        boolean[] acaba = new boolean[1];
+        Planificador.ejecutarConPila(plan.getPila(), "caballo-ensayo", () -> {
+            ControlBusqueda ensayo = new ControlBusqueda(NODOS_EN_VIVO_POR_CASILLA * n * n);
+            acaba[0] = getEstrategia().buscar(new EstadoCaballo(n, startX, startY), ensayo) != null;
+        });
+        return acaba[0];
+    }
+
+    /** En el historial, cada casilla inicial por separado: (N, x, y). */
+    @Override
+    protected int[] parametrosHistorial() {
+        return new int[]{n, startX, startY};
+    }
+
+    /**
+     * Activa la búsqueda en cartera: en vez de una sola estrategia, compiten
+     * varias variantes de Warnsdorff (ver {@link PortafolioCaballo}) y gana la primera.
+     */
+    public void setPortafolio(boolean portafolio) {
+        this.portafolio = portafolio;
+    }
+
     @Override
     public void ejecutar() {
-        // Marca la casilla inicial y arranca el backtracking
-        tablero[startX][startY] = 0;
-        pasos.add(new int[]{startX, startY});
-        resolver(startX, startY, 1);
+        // Si el precálculo ya resolvió esta casilla, reutilizamos su recorrido
+        // (salvo en vivo: ahí lo que se quiere ver es la búsqueda)
+        BufferPasos precalculado = (anillo == null) ? CacheSoluciones.obtener(claveCache()) : null;
+        if (precalculado != null) {
+            pasos.copiarDesde(precalculado);
+        } else {
+            // La recursión baja N² niveles: con tableros grandes, en un hilo con pila a medida
+            if (plan == null) planificar();
+            Planificador.ejecutarConPila(plan.getPila(), "caballo-busqueda", this::resolver);
+        }
+        // El tablero se reconstruye a partir de los pasos
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(tablero[i], -1);
+        }
+        for (int paso = 0; paso < pasos.tamano(); paso++) {
+            tablero[pasos.get(paso, 0)][pasos.get(paso, 1)] = paso;
+        }
     }
 
-    private boolean resolver(int x, int y, int mov) {
-        if (mov == n * n) return true;
-        Integer[] idx = {0,1,2,3,4,5,6,7};
-        Arrays.sort(idx, (a,b) ->
-                getDegree(x+dx[a], y+dy[a])
-                        - getDegree(x+dx[b], y+dy[b])
-        );
-        for (int i : idx) {
-            int nx = x + dx[i], ny = y + dy[i];
-            if (nx>=0 && ny>=0 && nx<n && ny<n && tablero[nx][ny]==-1) {
-                tablero[nx][ny] = mov;
-                pasos.add(new int[]{nx, ny});
-                if (resolver(nx, ny, mov+1)) return true;
-                // backtrack
-                tablero[nx][ny] = -1;
-                pasos.remove(pasos.size()-1);
-            }
+    /** Busca el recorrido (en vivo, en la caché de recorridos o con la búsqueda) y lo deja en pasos. */
+    private void resolver() {
+        if (!FactibilidadCaballo.esPosible(n, startX, startY)) {
+            // Sin recorrido posible: ni se busca (la búsqueda tardaría en demostrarlo)
+            guardarRecorrido(null);
+        } else if (anillo != null) {
+            // En vivo sólo puede publicar una búsqueda: sin cartera de variantes
+            EstadoCaballo inicial = new EstadoCaballo(n, startX, startY);
+            inicial.setAnillo(anillo);
+            guardarRecorrido(buscar(inicial));
+        } else if (!CacheRecorridosCerrados.recorrido(n, startX, startY, nuevoControl(), pasos)) {
+            // No hay ciclo ni recorrido simétrico: parte de la casilla inicial y deja
+            // que la estrategia haga el backtracking
+            guardarRecorrido(portafolio
+                    ? PortafolioCaballo.resolver(n, startX, startY, nuevoControl())
+                    : buscar(new EstadoCaballo(n, startX, startY)));
+            // Lo encontrado sirve para otras casillas iniciales (por simetría)
+            CacheRecorridosCerrados.registrar(n, pasos);
         }
-        return false;
     }
 
-    private int getDegree(int x, int y) {
-        int cnt = 0;
-        for (int i = 0; i < 8; i++) {
-            int nx = x + dx[i], ny = y + dy[i];
-            if (nx>=0 && ny>=0 && nx<n && ny<n && tablero[nx][ny]==-1)
-                cnt++;
+    /** Copia a pasos el recorrido encontrado (o sólo la casilla inicial si no lo hay). */
+    private void guardarRecorrido(EstadoCaballo solucion) {
+        pasos.vaciar();
+        pasos.reservar(n * n);
+        if (solucion == null) {
+            // Sin recorrido completo: sólo queda la casilla inicial
+            pasos.agregar(startX, startY);
+        } else {
+            for (int paso = 0; paso < solucion.getVisitadas(); paso++) {
+                pasos.agregar(solucion.getX(paso), solucion.getY(paso));
+            }
         }
-        return cnt;
+    }
+
+    /** @return la clave de este problema (N y casilla inicial) en CacheSoluciones */
+    public String claveCache() {
+        return CacheSoluciones.clave("caballo", n, startX, startY);
     }
 
     @Override
-    public List<int[]> getPasos() {
+    public BufferPasos getPasos() {
         return pasos;
     }
 
@@ -93,8 +196,9 @@ public class ProblemaCaballo extends AlgoritmoRecursivo {
         try (PrintWriter w = new PrintWriter(nombreArchivo)) {
             w.println("Punto de inicio: [" + startX + ", " + startY + "]");
             w.println("Secuencia de movimientos:");
-            for (int[] v : getPasos()) {
-                w.println(vectorToString(v));
+            int[] v = new int[2];
+            for (int i = 0; i < pasos.tamano(); i++) {
+                w.println(vectorToString(pasos.copiarPaso(i, v)));
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,169 @@
+package caballo.modelo;
+
+import base.modelo.FuentePasos;
+import base.modelo.LectorEnteros;
+import base.modelo.ResultadoVerificacion;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * VerificadorCaballo: comprueba en streaming los ficheros del problema del caballo.
+ * • guardarResultado: punto de inicio y una casilla [fila, columna] por paso.
+ * • guardarTablero: matriz N×N con el número de paso de cada casilla.
+ * En ambos casos se exige que cada paso sea un salto de caballo y que se visiten
+ * las N×N casillas una sola vez. La memoria sólo depende de N, no del fichero.
+ * {@link #motivoNoValido} hace lo mismo con pasos ya abiertos (p. ej. para reproducirlos).
+ */
+public class VerificadorCaballo {
+
+    /** Comprueba un fichero escrito por {@link ProblemaCaballo#guardarResultado(String)}. */
+    public static ResultadoVerificacion verificarRecorrido(Path archivo, int n) throws IOException {
+        validarN(n);
+        boolean[] visitadas = new boolean[n * n];
+        int[] valores = new int[3];
+        long pasos = 0;
+        int prevX = -1, prevY = -1;
+
+        try (LectorEnteros lector = new LectorEnteros(archivo)) {
+            // 1) "Punto de inicio: [x, y]"
+            if (lector.leerLinea(valores) != 2) {
+                return ResultadoVerificacion.error(lector.getLinea(), 0,
+                        "falta el punto de inicio [fila, columna]");
+            }
+            int startX = valores[0], startY = valores[1];
+            // 2) "Secuencia de movimientos:"
+            lector.saltarLinea();
+            // 3) Una casilla por línea
+            int k;
+            while ((k = lector.leerLinea(valores)) >= 0) {
+                if (k == 0) continue;
+                if (k != 2) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                            "se esperaban 2 valores [fila, columna] y hay " + k);
+                }
+                int x = valores[0], y = valores[1];
+                if (x < 0 || y < 0 || x >= n || y >= n) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                            "casilla fuera del tablero [" + x + ", " + y + "]");
+                }
+                if (pasos == 0 && (x != startX || y != startY)) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                            "el recorrido no empieza en el punto de inicio");
+                }
+                if (pasos > 0 && !esSalto(prevX, prevY, x, y)) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                            "de [" + prevX + ", " + prevY + "] a [" + x + ", " + y + "] no es un salto de caballo");
+                }
+                if (visitadas[x * n + y]) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                            "la casilla [" + x + ", " + y + "] se repite");
+                }
+                visitadas[x * n + y] = true;
+                prevX = x;
+                prevY = y;
+                pasos++;
+            }
+            if (pasos != (long) n * n) {
+                return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                        "se visitan " + pasos + " casillas de " + n * n);
+            }
+        }
+        return ResultadoVerificacion.correcto(pasos, "recorrido completo de " + n + "x" + n);
+    }
+
+    /** Comprueba un fichero escrito por {@link ProblemaCaballo#guardarTablero(String)}. */
+    public static ResultadoVerificacion verificarTablero(Path archivo, int n) throws IOException {
+        validarN(n);
+        int total = n * n;
+        int[] casillaDePaso = new int[total];   // Paso → casilla (fila*n + columna)
+        java.util.Arrays.fill(casillaDePaso, -1);
+        int[] fila = new int[n + 1];
+        int filasLeidas = 0;
+
+        try (LectorEnteros lector = new LectorEnteros(archivo)) {
+            lector.saltarLinea(); // Cabecera
+            int k;
+            while ((k = lector.leerLinea(fila)) >= 0) {
+                if (k == 0) continue;
+                if (k != n || filasLeidas >= n) {
+                    return ResultadoVerificacion.error(lector.getLinea(), filasLeidas,
+                            "se esperaba una fila de " + n + " casillas");
+                }
+                for (int col = 0; col < n; col++) {
+                    int paso = fila[col];
+                    if (paso < 0 || paso >= total) {
+                        return ResultadoVerificacion.error(lector.getLinea(), filasLeidas,
+                                "casilla sin visitar o con paso fuera de rango (" + paso + ")");
+                    }
+                    if (casillaDePaso[paso] >= 0) {
+                        return ResultadoVerificacion.error(lector.getLinea(), filasLeidas,
+                                "el paso " + paso + " aparece dos veces");
+                    }
+                    casillaDePaso[paso] = filasLeidas * n + col;
+                }
+                filasLeidas++;
+            }
+            if (filasLeidas != n) {
+                return ResultadoVerificacion.error(lector.getLinea(), filasLeidas,
+                        "el tablero tiene " + filasLeidas + " filas de " + n);
+            }
+        }
+        // Cada paso debe ser un salto de caballo desde el anterior
+        for (int paso = 1; paso < total; paso++) {
+            int a = casillaDePaso[paso - 1], b = casillaDePaso[paso];
+            if (!esSalto(a / n, a % n, b / n, b % n)) {
+                // Línea del fichero: la cabecera más la fila de la casilla
+                return ResultadoVerificacion.error(2 + b / n, total,
+                        "del paso " + (paso - 1) + " al " + paso + " no hay salto de caballo");
+            }
+        }
+        return ResultadoVerificacion.correcto(total, "tablero completo de " + n + "x" + n);
+    }
+
+    /**
+     * Comprueba unos pasos ya abiertos antes de indexar el tablero con ellos.
+     * @return el motivo por el que no son un recorrido completo de N×N, o null si lo son
+     */
+    public static String motivoNoValido(FuentePasos recorrido, int n) {
+        validarN(n);
+        if (recorrido.getAncho() != 2 || recorrido.totalPasos() != (long) n * n) {
+            return "El archivo tiene " + recorrido.totalPasos() + " casillas: no es un recorrido completo.";
+        }
+        boolean[] visitadas = new boolean[n * n];
+        int prevX = -1, prevY = -1;
+        for (int paso = 0; paso < n * n; paso++) {
+            int x, y;
+            try {
+                x = recorrido.paso(paso, 0);
+                y = recorrido.paso(paso, 1);
+            } catch (IllegalStateException e) {
+                return e.getMessage();
+            }
+            if (x < 0 || y < 0 || x >= n || y >= n) {
+                return "Paso " + paso + ": casilla fuera del tablero [" + x + ", " + y + "].";
+            }
+            if (paso > 0 && !esSalto(prevX, prevY, x, y)) {
+                return "Paso " + paso + ": de [" + prevX + ", " + prevY + "] a [" + x + ", " + y
+                        + "] no es un salto de caballo.";
+            }
+            if (visitadas[x * n + y]) {
+                return "Paso " + paso + ": la casilla [" + x + ", " + y + "] se repite.";
+            }
+            visitadas[x * n + y] = true;
+            prevX = x;
+            prevY = y;
+        }
+        return null;
+    }
+
+    private static boolean esSalto(int x1, int y1, int x2, int y2) {
+        int dx = Math.abs(x1 - x2), dy = Math.abs(y1 - y2);
+        return (dx == 1 && dy == 2) || (dx == 2 && dy == 1);
+    }
+
+    private static void validarN(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("El tamaño del tablero debe ser positivo.");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package caballo.vista;
+
+import base.modelo.BufferPasos;
+import base.vista.ExportadorFotogramas;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * DibujoCaballo: pinta el tablero del caballo sobre cualquier Graphics con el mismo
+ * aspecto que la rejilla de botones de {@link VentanaCaballo}: casillas blancas y
+ * grises, número de paso en rojo en las ya visitadas y ♞ en la casilla actual.
+ * • orden[x][y] = paso en que se visitó la casilla, -1 si no se ha visitado.
+ */
+public class DibujoCaballo {
+    private static final Color GRIS = new Color(160, 160, 160);
+    private static final String CABALLO = "♞";
+
+    private DibujoCaballo() {
+    }
+
+    /**
+     * Pinta el tablero en un área de ancho×alto.
+     * @param actualX fila del caballo (-1 si no se dibuja)
+     */
+    public static void dibujar(Graphics g, int ancho, int alto, int n,
+                               int[][] orden, int actualX, int actualY) {
+        // Rejilla como la del GridLayout: el tablero ocupa toda el área
+        int celdaW = Math.max(1, ancho / n), celdaH = Math.max(1, alto / n);
+        Font numeros = new Font("Dialog", Font.BOLD, Math.max(1, Math.min(14, celdaH / 2)));
+        Font pieza = new Font("Dialog", Font.BOLD, Math.max(1, Math.min(16, celdaH * 2 / 3)));
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, ancho, alto);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int x = j * celdaW, y = i * celdaH;
+                g.setColor((i + j) % 2 == 0 ? Color.WHITE : GRIS);
+                g.fillRect(x, y, celdaW, celdaH);
+                String texto;
+                if (i == actualX && j == actualY) {
+                    g.setFont(pieza);
+                    g.setColor(Color.BLACK);
+                    texto = CABALLO;
+                } else if (orden[i][j] >= 0) {
+                    g.setFont(numeros);
+                    g.setColor(Color.RED);
+                    texto = String.valueOf(orden[i][j]);
+                } else {
+                    continue;
+                }
+                FontMetrics fm = g.getFontMetrics();
+                g.drawString(texto, x + (celdaW - fm.stringWidth(texto)) / 2,
+                        y + (celdaH + fm.getAscent() - fm.getDescent()) / 2);
+            }
+        }
+    }
+
+    /** Escena para exportar: el fotograma k muestra el caballo en el paso k del recorrido. */
+    public static ExportadorFotogramas.Escena escena(int n, BufferPasos pasos) {
+        return new ExportadorFotogramas.Escena() {
+            private final int[][] orden = new int[n][n];
+            private int visitadas;
+            {
+                for (int[] fila : orden) {
+                    Arrays.fill(fila, -1);
+                }
+            }
+
+            @Override
+            public int totalFotogramas() {
+                return pasos.tamano();
+            }
+
+            @Override
+            public void avanzar(int fotograma) {
+                for (; visitadas <= fotograma; visitadas++) {
+                    orden[pasos.get(visitadas, 0)][pasos.get(visitadas, 1)] = visitadas;
+                }
+            }
+
+            @Override
+            public void dibujar(Graphics2D g, int ancho, int alto) {
+                int k = visitadas - 1;
+                DibujoCaballo.dibujar(g, ancho, alto, n, orden, pasos.get(k, 0), pasos.get(k, 1));
+            }
+        };
+    }
+}
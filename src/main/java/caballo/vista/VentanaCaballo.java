@@ -2,13 +2,17 @@ package caballo.vista;
 
 import base.vista.VentanaJuego;
 import caballo.controlador.LanzadorCaballo;
+import caballo.modelo.FactibilidadCaballo;
+import base.modelo.AnilloPasos;
+import base.modelo.ControlBusqueda;
+import base.modelo.FuentePasos;
+import base.modelo.HistorialEjecuciones;
 import caballo.modelo.ProblemaCaballo;
 import ui.vista.MenuRecursivo;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.util.List;
 
 /**
  * VentanaCaballo: grid de botones estilo tablero de ajedrez,
@@ -16,17 +20,32 @@ import java.util.List;
  * Incluye:
  *  • 🔃 (recargar) para volver a pedir N
  *  • Iniciar (simulación paso a paso)
+ *  • En vivo: en vez de reproducir el recorrido ya calculado, se ve la búsqueda
+ *    mientras ocurre (saltos y vueltas atrás) a través de un {@link AnilloPasos}
  *  • Volver al Menú
  * Los números fijos se pintan en rojo vivo.
+ * Sin problema (recorrido leído de un archivo de resultado) la casilla de inicio es
+ * la del archivo y "Iniciar" sólo lo reproduce: no se busca ni se guarda nada.
  */
 public class VentanaCaballo extends VentanaJuego {
-    private final ProblemaCaballo problema;
+    private final ProblemaCaballo problema;   // null = reproducción de un archivo
     private final int n;
     private final JButton[][] casillas;
     private int startX = -1, startY = -1;
     private Timer timer;
     private int stepIndex;
-    private final List<int[]> pasos;
+    private final FuentePasos pasos;
+
+    // Modo en vivo
+    private static final int CAPACIDAD_ANILLO = 4096;
+    private static final int EVENTOS_POR_FOTOGRAMA = 40;   // A 30 fps, unos 1200 saltos/s
+    private final JCheckBox chkEnVivo = new JCheckBox("En vivo");
+    private AnilloPasos anillo;
+    // Control del que cuelga la búsqueda en vivo: se crea antes de lanzar el hilo para
+    // poder cancelarla aunque éste aún no haya empezado a buscar
+    private ControlBusqueda controlVivo;
+    private int[] pilaX, pilaY;     // Casillas del camino que se está probando
+    private int profundidad;
 
     public VentanaCaballo(String titulo, ProblemaCaballo problema) {
         super(titulo);
@@ -37,6 +56,25 @@ public class VentanaCaballo extends VentanaJuego {
         initComponents();
     }
 
+    /**
+     * Constructor para reproducir un recorrido ya guardado.
+     * @param recorrido las N² casillas [x, y] en orden (p. ej. un archivo mapeado), ya
+     *                  comprobadas con VerificadorCaballo.motivoNoValido: aquí se indexa con ellas
+     */
+    public VentanaCaballo(String titulo, FuentePasos recorrido, int n) {
+        super(titulo);
+        this.problema = null;
+        this.n        = n;
+        this.pasos    = recorrido;
+        this.casillas = new JButton[n][n];
+        initComponents();
+        // La casilla de inicio es la primera del archivo
+        startX = recorrido.paso(0, 0);
+        startY = recorrido.paso(0, 1);
+        casillas[startX][startY].setBackground(Color.ORANGE);
+        chkEnVivo.setVisible(false);
+    }
+
     @Override
     protected void initComponents() {
         // 1) Tablero central: N×N botones en patrón ajedrez
@@ -52,6 +90,8 @@ public class VentanaCaballo extends VentanaJuego {
                         : new Color(160,160,160));
                 final int fx = i, fy = j;
                 b.addActionListener(e -> {
+                    // Reproduciendo un archivo: la casilla de inicio ya está fijada
+                    if (problema == null) return;
                     // restaurar color de la casilla previa
                     if (startX >= 0) {
                         JButton old = casillas[startX][startY];
@@ -70,6 +110,8 @@ public class VentanaCaballo extends VentanaJuego {
 
         // 2) Configurar botón "Iniciar"
         btnSimular.setText("Iniciar");
+        chkEnVivo.setToolTipText("Ver la búsqueda mientras ocurre, con sus vueltas atrás");
+        panelBotones.add(chkEnVivo, 2);
         btnSimular.addActionListener(e -> {
             if (startX < 0) {
                 JOptionPane.showMessageDialog(this,
@@ -77,71 +119,201 @@ public class VentanaCaballo extends VentanaJuego {
                         "Error", JOptionPane.WARNING_MESSAGE);
                 return;
             }
+            if (timer != null && timer.isRunning()) timer.stop();
+            if (problema == null) {
+                reproducir();
+                return;
+            }
+            // Casillas sin recorrido posible: se dice al momento, sin buscar
+            String motivo = FactibilidadCaballo.motivoSinRecorrido(n, startX, startY);
+            if (motivo != null) {
+                JOptionPane.showMessageDialog(this,
+                        "No tiene solución completa desde esa casilla.\n" + motivo,
+                        "Sin solución", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
             problema.setStart(startX, startY);
-            problema.ejecutar();
+            // En vivo sólo si esa búsqueda acaba; si se atascaría, se resuelve
+            // como siempre (paquete, caché, cartera) y se reproduce el recorrido
+            if (chkEnVivo.isSelected() && problema.admiteEnVivo()) {
+                iniciarEnVivo();
+                return;
+            }
+            problema.setControlPadre(null);   // Por si quedaba el de una búsqueda en vivo
+            problema.ejecutarYRegistrar(HistorialEjecuciones.predeterminado());
 
             // si no hay tour completo
-            if (pasos.size() != n * n) {
+            if (pasos.totalPasos() != (long) n * n) {
                 JOptionPane.showMessageDialog(this,
                         "No tiene solución completa desde esa casilla.",
                         "Sin solución", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-
-            // limpiar textos anteriores
-            for (JButton[] fila: casillas) {
-                for (JButton btn: fila) {
-                    btn.setText("");
-                    btn.setForeground(Color.BLACK);
-                }
-            }
-
-            stepIndex = 0;
-            timer = new Timer(300, ev -> {
-                // convertir anterior en número rojo
-                if (stepIndex > 0) {
-                    int[] prev = pasos.get(stepIndex - 1);
-                    JButton p = casillas[prev[0]][prev[1]];
-                    p.setText(String.valueOf(stepIndex - 1));
-                    p.setForeground(Color.RED);
-                    p.setFont(p.getFont().deriveFont(Font.BOLD, 14f));
-                    for (ActionListener al : p.getActionListeners()) {
-                        p.removeActionListener(al);
-                    }
-                }
-                // pintar caballo en casilla actual
-                if (stepIndex < pasos.size()) {
-                    int[] cur = pasos.get(stepIndex);
-                    JButton c = casillas[cur[0]][cur[1]];
-                    c.setText("♞");
-                    c.setForeground(Color.BLACK);
-                    c.setFont(c.getFont().deriveFont(Font.BOLD, 16f));
-                } else {
-                    // ───────────→ TERMINA SIMULACIÓN ←───────────
-                    timer.stop();
-                    // == Guarda los archivos ==
-                    String movFile = "resultadoCaballo_" + n + "x" + n + "("+startX+","+startY+")" +  ".txt";
-                    String tabFile = "tableroFinalCaballo_" + n + "x" + n + "("+startX+","+startY+")" +".txt";
-                    problema.guardarResultado(movFile);
-                    problema.guardarTablero(tabFile);
-                }
-                stepIndex++;
-            });
-            timer.start();
+            reproducir();
         });
 
         // 3) Configurar botón "Volver al Menú"
         btnVolverMenu.setText("Volver al Menú");
         btnVolverMenu.addActionListener(e -> {
             if (timer != null && timer.isRunning()) timer.stop();
+            detenerEnVivo();
             dispose();
             new MenuRecursivo().mostrarMenu();
         });
     }
 
+    /**
+     * Anima el recorrido de pasos casilla a casilla y, al terminar, guarda los
+     * archivos (salvo si el recorrido ya venía de uno).
+     */
+    private void reproducir() {
+        // limpiar textos anteriores
+        for (JButton[] fila: casillas) {
+            for (JButton btn: fila) {
+                btn.setText("");
+                btn.setForeground(Color.BLACK);
+            }
+        }
+
+        stepIndex = 0;
+        timer = new Timer(300, ev -> {
+            // convertir anterior en número rojo
+            if (stepIndex > 0) {
+                JButton p = casillas[pasos.paso(stepIndex - 1, 0)][pasos.paso(stepIndex - 1, 1)];
+                p.setText(String.valueOf(stepIndex - 1));
+                p.setForeground(Color.RED);
+                p.setFont(p.getFont().deriveFont(Font.BOLD, 14f));
+                for (ActionListener al : p.getActionListeners()) {
+                    p.removeActionListener(al);
+                }
+            }
+            // pintar caballo en casilla actual
+            if (stepIndex < pasos.totalPasos()) {
+                JButton c = casillas[pasos.paso(stepIndex, 0)][pasos.paso(stepIndex, 1)];
+                c.setText("♞");
+                c.setForeground(Color.BLACK);
+                c.setFont(c.getFont().deriveFont(Font.BOLD, 16f));
+            } else {
+                // ───────────→ TERMINA SIMULACIÓN ←───────────
+                timer.stop();
+                if (problema != null) guardarArchivos();
+            }
+            stepIndex++;
+        });
+        timer.start();
+    }
+
+    /** == Guarda los archivos == */
+    private void guardarArchivos() {
+        String movFile = "resultadoCaballo_" + n + "x" + n + "("+startX+","+startY+")" +  ".txt";
+        String tabFile = "tableroFinalCaballo_" + n + "x" + n + "("+startX+","+startY+")" +".txt";
+        problema.guardarResultado(movFile);
+        problema.guardarTablero(tabFile);
+    }
+
+    // -------------------- MODO EN VIVO --------------------
+
+    /**
+     * Lanza la búsqueda en otro hilo publicando en un anillo; un Timer de Swing
+     * lo drena en cada fotograma y pinta cada salto y cada vuelta atrás.
+     * Si la vista va más lenta que la búsqueda, ésta espera (el anillo tiene tamaño fijo).
+     */
+    private void iniciarEnVivo() {
+        if (timer != null && timer.isRunning()) timer.stop();
+        detenerEnVivo();
+        for (JButton[] fila: casillas) {
+            for (JButton btn: fila) {
+                btn.setText("");
+                btn.setForeground(Color.BLACK);
+            }
+        }
+        btnSimular.setEnabled(false);
+
+        pilaX = new int[n * n];
+        pilaY = new int[n * n];
+        pilaX[0] = startX;
+        pilaY[0] = startY;
+        profundidad = 1;
+        pintarCaballo(startX, startY);
+
+        AnilloPasos propio = new AnilloPasos(CAPACIDAD_ANILLO);
+        anillo = propio;
+        problema.setStart(startX, startY);
+        problema.setAnillo(propio);
+        controlVivo = new ControlBusqueda();
+        problema.setControlPadre(controlVivo);
+        Thread hilo = new Thread(() -> {
+            try {
+                problema.ejecutar();
+            } finally {
+                propio.terminar();
+            }
+        }, "caballo-en-vivo");
+        hilo.setDaemon(true);
+        hilo.start();
+
+        timer = new Timer(1000 / 30, ev -> {
+            propio.drenar(this::eventoEnVivo, EVENTOS_POR_FOTOGRAMA);
+            if (propio.isAgotado()) {
+                timer.stop();
+                problema.setAnillo(null);
+                problema.setControlPadre(null);
+                anillo = null;
+                btnSimular.setEnabled(true);
+                if (pasos.totalPasos() != (long) n * n) {
+                    JOptionPane.showMessageDialog(this,
+                            "No tiene solución completa desde esa casilla.",
+                            "Sin solución", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                guardarArchivos();
+            }
+        });
+        timer.start();
+    }
+
+    /** Aplica al tablero un evento de la búsqueda. */
+    private void eventoEnVivo(int tipo, int x, int y) {
+        if (tipo == AnilloPasos.COLOCAR) {
+            // La casilla que deja el caballo se queda con su número
+            JButton p = casillas[pilaX[profundidad - 1]][pilaY[profundidad - 1]];
+            p.setText(String.valueOf(profundidad - 1));
+            p.setForeground(Color.RED);
+            p.setFont(p.getFont().deriveFont(Font.BOLD, 14f));
+            pilaX[profundidad] = x;
+            pilaY[profundidad] = y;
+            profundidad++;
+            pintarCaballo(x, y);
+        } else if (tipo == AnilloPasos.QUITAR) {
+            // Vuelta atrás: la casilla se vacía y el caballo regresa a la anterior
+            profundidad--;
+            casillas[x][y].setText("");
+            pintarCaballo(pilaX[profundidad - 1], pilaY[profundidad - 1]);
+        }
+    }
+
+    private void pintarCaballo(int x, int y) {
+        JButton c = casillas[x][y];
+        c.setText("♞");
+        c.setForeground(Color.BLACK);
+        c.setFont(c.getFont().deriveFont(Font.BOLD, 16f));
+    }
+
+    /** Si hay una búsqueda en vivo, la para y suelta a su hilo si estaba esperando. */
+    private void detenerEnVivo() {
+        if (anillo == null) return;
+        anillo.abandonar();
+        // El control sigue colgado del problema: si el hilo aún no buscaba, nace cancelado
+        controlVivo.cancelar();
+        problema.setAnillo(null);
+        anillo = null;
+        btnSimular.setEnabled(true);
+    }
+
     @Override
     protected void onReload() {
         if (timer != null && timer.isRunning()) timer.stop();
+        detenerEnVivo();
         dispose();
         LanzadorCaballo.ejecutarSimulacion();
     }
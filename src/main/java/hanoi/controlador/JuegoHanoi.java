@@ -0,0 +1,58 @@
+package hanoi.controlador;
+
+import base.controlador.Juego;
+import base.modelo.PasosMapeados;
+import hanoi.modelo.ProblemaTorresHanoi;
+
+/**
+ * Descriptor de las Torres de Hanoi para el menú. Las constantes de LanzadorTorresHanoi
+ * y ProblemaTorresHanoi se copian al compilar, así que leerlas no carga esas clases.
+ */
+public class JuegoHanoi implements Juego {
+
+    @Override
+    public String getNombre() {
+        return "Torres de Hanoi";
+    }
+
+    @Override
+    public String getDescripcion() {
+        return "Pasar la torre de discos de la primera varilla a la tercera";
+    }
+
+    @Override
+    public String getParametro() {
+        return LanzadorTorresHanoi.PREGUNTA;
+    }
+
+    @Override
+    public int getMinimo() {
+        return LanzadorTorresHanoi.MIN_DISCOS;
+    }
+
+    @Override
+    public int getMaximo() {
+        return ProblemaTorresHanoi.MAX_DISCOS;
+    }
+
+    @Override
+    public int getOrden() {
+        return 20;
+    }
+
+    @Override
+    public void lanzar() {
+        LanzadorTorresHanoi.ejecutarSimulacion();
+    }
+
+    /** Los movimientos guardados no llevan nada antes de "Secuencia de movimientos:". */
+    @Override
+    public boolean reproduce(String cabecera) {
+        return cabecera.isEmpty();
+    }
+
+    @Override
+    public void abrirResultado(PasosMapeados pasos) {
+        LanzadorTorresHanoi.abrirResultado(pasos);
+    }
+}
@@ -1,16 +1,24 @@
 package hanoi.controlador;
 
 import base.controlador.Dialogos;
+import base.modelo.PasosMapeados;
+import base.modelo.HistorialEjecuciones;
+import base.modelo.PlanEjecucion;
 import hanoi.modelo.ProblemaTorresHanoi;
+import hanoi.modelo.VerificadorHanoi;
 import hanoi.vista.VentanaTorresHanoi;
 import ui.vista.MenuRecursivo;
 
+import javax.swing.JOptionPane;
+
 public class LanzadorTorresHanoi {
+    // Constantes (se copian al compilar en JuegoHanoi, que no carga esta clase)
+    public static final String PREGUNTA = "Introduce el número de discos:";
+    public static final int MIN_DISCOS = 1;
+
     public static void ejecutarSimulacion() {
-        // Pedimos número de discos entre 1 y, por ejemplo, 28
-        Integer n = Dialogos.pedirEntero(
-                "Introduce el número de discos:", 1, 28
-        );
+        // Pedimos número de discos: el plan decide después cómo (y si) caben
+        Integer n = Dialogos.pedirEntero(PREGUNTA, MIN_DISCOS, ProblemaTorresHanoi.MAX_DISCOS);
         if (n == null) {
             new MenuRecursivo().mostrarMenu();
             return;
@@ -18,11 +26,43 @@ public class LanzadorTorresHanoi {
 
         ProblemaTorresHanoi problema = new ProblemaTorresHanoi();
         problema.setParametros(n);
-        problema.ejecutar();
+        // Memoria, tiempo y disco antes de empezar: con muchos discos los movimientos
+        // no se guardan, se calculan al mostrarlos
+        PlanEjecucion plan = problema.planificar();
+        if (!Dialogos.confirmarPlan(plan)) {
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
+        problema.ejecutarYRegistrar(HistorialEjecuciones.predeterminado());
 
-        String resultadoFile = "resultadoHanoi_" + n + "discos.txt";
-        problema.guardarResultado(resultadoFile);
+        if (plan.isGuardarArchivo()) {
+            String resultadoFile = "resultadoHanoi_" + n + "discos.txt";
+            problema.guardarResultado(resultadoFile);
+        }
 
         new VentanaTorresHanoi("Torres de Hanoi", problema).mostrar();
     }
+
+    /**
+     * Reproduce un archivo de resultado ya guardado, sin volver a ejecutar nada.
+     * El número de discos sale del de movimientos (2^n - 1), y los movimientos se
+     * comprueban antes de abrir la ventana (su Timer no sabría qué hacer con uno ilegal).
+     */
+    public static void abrirResultado(PasosMapeados pasos) {
+        long total = pasos.totalPasos();
+        int discos = Long.numberOfTrailingZeros(total + 1);
+        // Con 2^n - 1 pasos, además, cada movimiento tiene que ser legal y acabar en la
+        // torre 3 (entonces es la solución mínima, la que usa "Ir al paso…")
+        String motivo = (pasos.getAncho() != 2 || total < 1 || Long.bitCount(total + 1) != 1
+                || discos > ProblemaTorresHanoi.MAX_DISCOS)
+                ? "El archivo tiene " + total + " movimientos: no es una solución completa de Hanoi."
+                : VerificadorHanoi.motivoNoValido(pasos, discos);
+        if (motivo != null) {
+            JOptionPane.showMessageDialog(null, motivo,
+                    "Archivo no válido", JOptionPane.ERROR_MESSAGE);
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
+        new VentanaTorresHanoi("Torres de Hanoi (" + discos + " discos, archivo)", pasos, discos).mostrar();
+    }
 }
@@ -0,0 +1,161 @@
+package hanoi.modelo;
+
+import base.modelo.BufferPasos;
+import base.modelo.PasosFueraDeHeap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * GeneradorHanoiParalelo: genera los 2^n - 1 movimientos de Hanoi sin recursión,
+ * repartidos en tramos independientes que se rellenan en paralelo.
+ * • El movimiento k (1..2^n-1) se calcula directamente con su número en binario:
+ *   sale de la varilla (k &amp; (k-1)) % 3 y llega a ((k | (k-1)) + 1) % 3.
+ *   Con n par esas fórmulas llevan la torre a la varilla del medio, así que se
+ *   intercambian las etiquetas 2 y 3 para que siempre acabe en la torre 3.
+ * • Como cada movimiento no depende de los anteriores, cada hilo rellena su tramo
+ *   del buffer (o del fichero mapeado) sin hablar con los demás.
+ */
+public class GeneradorHanoiParalelo {
+    // Máximo de discos cuyos movimientos caben en un BufferPasos (2 enteros por paso)
+    public static final int MAX_DISCOS_MEMORIA = 29;
+    // Máximo de discos para el fichero (2^40 movimientos ya son 7 TB)
+    public static final int MAX_DISCOS_ARCHIVO = 40;
+
+    // Movimientos por tramo: suficientes para que el reparto no cueste más que el trabajo
+    private static final int TRAMO_MEMORIA = 1 << 16;
+    // Movimientos por tramo mapeado (×7 bytes, muy por debajo del límite de 2 GB de un mapeo)
+    private static final long TRAMO_ARCHIVO = 1L << 24;
+
+    private static final byte[] CABECERA =
+            "Secuencia de movimientos:\n".getBytes(StandardCharsets.US_ASCII);
+    // Cada línea del fichero es "[o, d]\n": 7 bytes fijos, así se sabe dónde empieza cada tramo
+    private static final int BYTES_LINEA = 7;
+
+    private GeneradorHanoiParalelo() {
+    }
+
+    /**
+     * Rellena {@code destino} con los movimientos [origen, destino] de n discos
+     * de la torre 1 a la 3, en el mismo orden que la versión recursiva.
+     */
+    public static void generar(int n, BufferPasos destino) {
+        if (n < 1 || n > MAX_DISCOS_MEMORIA) {
+            throw new IllegalArgumentException(
+                    "El número de discos debe estar entre 1 y " + MAX_DISCOS_MEMORIA + ".");
+        }
+        if (destino.getAncho() != 2) {
+            throw new IllegalArgumentException("El buffer debe tener pasos de 2 enteros.");
+        }
+        int total = (1 << n) - 1;
+        int[] etiquetas = etiquetas(n);
+        // Se reserva todo de una vez: los hilos sólo escriben en posiciones ya existentes
+        destino.redimensionar(total);
+        int tramos = (total + TRAMO_MEMORIA - 1) / TRAMO_MEMORIA;
+        IntStream.range(0, tramos).parallel().forEach(t -> {
+            int inicio = t * TRAMO_MEMORIA;
+            int fin = Math.min(total, inicio + TRAMO_MEMORIA);
+            for (int paso = inicio; paso < fin; paso++) {
+                long k = paso + 1L;
+                destino.establecer(paso, 0, etiquetas[(int) ((k & (k - 1)) % 3)]);
+                destino.establecer(paso, 1, etiquetas[(int) (((k | (k - 1)) + 1) % 3)]);
+            }
+        });
+    }
+
+    /**
+     * Como {@link #generar(int, BufferPasos)}, en memoria nativa: sin el límite de
+     * 2^31 enteros de un array, así que vale para cualquier número de discos que quepa.
+     */
+    public static void generar(int n, PasosFueraDeHeap destino) {
+        if (n < 1 || n > PasosHanoi.MAX_DISCOS) {
+            throw new IllegalArgumentException(
+                    "El número de discos debe estar entre 1 y " + PasosHanoi.MAX_DISCOS + ".");
+        }
+        if (destino.getAncho() != 2) {
+            throw new IllegalArgumentException("El almacén debe tener pasos de 2 enteros.");
+        }
+        long total = (1L << n) - 1;
+        int[] etiquetas = etiquetas(n);
+        destino.redimensionar(total);
+        // Tramos del tamaño de un bloque: cada hilo escribe en un solo segmento
+        long tramo = PasosFueraDeHeap.PASOS_POR_BLOQUE;
+        LongStream.range(0, (total + tramo - 1) / tramo).parallel().forEach(t -> {
+            long inicio = t * tramo;
+            long fin = Math.min(total, inicio + tramo);
+            for (long paso = inicio; paso < fin; paso++) {
+                long k = paso + 1;
+                destino.establecer(paso, 0, etiquetas[(int) ((k & (k - 1)) % 3)]);
+                destino.establecer(paso, 1, etiquetas[(int) (((k | (k - 1)) + 1) % 3)]);
+            }
+        });
+    }
+
+    /**
+     * Escribe los movimientos de n discos en el formato de guardarResultado
+     * ("Secuencia de movimientos:" y una línea [origen, destino] por paso),
+     * mapeando el fichero por tramos que se rellenan en paralelo.
+     * No hace falta tener los movimientos en memoria.
+     */
+    public static void generarEnArchivo(int n, Path archivo) throws IOException {
+        if (n < 1 || n > MAX_DISCOS_ARCHIVO) {
+            throw new IllegalArgumentException(
+                    "El número de discos debe estar entre 1 y " + MAX_DISCOS_ARCHIVO + ".");
+        }
+        long total = (1L << n) - 1;
+        byte[][] lineas = lineas(etiquetas(n));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECERA.length).put(CABECERA);
+            int tramos = (int) ((total + TRAMO_ARCHIVO - 1) / TRAMO_ARCHIVO);
+            try {
+                IntStream.range(0, tramos).parallel().forEach(t -> {
+                    long inicio = t * TRAMO_ARCHIVO;
+                    long fin = Math.min(total, inicio + TRAMO_ARCHIVO);
+                    try {
+                        MappedByteBuffer tramo = canal.map(FileChannel.MapMode.READ_WRITE,
+                                CABECERA.length + inicio * BYTES_LINEA, (fin - inicio) * BYTES_LINEA);
+                        for (long k = inicio + 1; k <= fin; k++) {
+                            int origen = (int) ((k & (k - 1)) % 3);
+                            int destino = (int) (((k | (k - 1)) + 1) % 3);
+                            tramo.put(lineas[origen * 3 + destino]);
+                        }
+                        tramo.force();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * @return para cada varilla de las fórmulas (0, 1, 2) su número de torre (1..3):
+     *         0 → 1 siempre; con n impar 1 → 2 y 2 → 3, con n par al revés
+     */
+    static int[] etiquetas(int n) {
+        return (n % 2 == 1) ? new int[] {1, 2, 3} : new int[] {1, 3, 2};
+    }
+
+    /** Las 9 líneas "[o, d]\n" posibles ya en bytes, indexadas por varilla origen*3 + destino. */
+    private static byte[][] lineas(int[] etiquetas) {
+        byte[][] lineas = new byte[9][];
+        for (int o = 0; o < 3; o++) {
+            for (int d = 0; d < 3; d++) {
+                lineas[o * 3 + d] = ("[" + etiquetas[o] + ", " + etiquetas[d] + "]\n")
+                        .getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+        return lineas;
+    }
+}
@@ -0,0 +1,70 @@
+package hanoi.modelo;
+
+import base.modelo.FuentePasos;
+
+/**
+ * PasosHanoi: los 2^n - 1 movimientos de Hanoi sin guardarlos en ningún sitio.
+ * Cada movimiento [origen, destino] se calcula al pedirlo con la misma fórmula que
+ * {@link GeneradorHanoiParalelo}, así que ocupa lo mismo con 5 discos que con 60.
+ */
+public class PasosHanoi implements FuentePasos {
+    // Con más discos el número de movimiento ya no cabe en un long
+    public static final int MAX_DISCOS = 62;
+
+    private final long total;
+    private final int[] etiquetas;
+
+    /** @param n número de discos (1..62) */
+    public PasosHanoi(int n) {
+        if (n < 1 || n > MAX_DISCOS) {
+            throw new IllegalArgumentException(
+                    "El número de discos debe estar entre 1 y " + MAX_DISCOS + ".");
+        }
+        this.total = (1L << n) - 1;
+        this.etiquetas = GeneradorHanoiParalelo.etiquetas(n);
+    }
+
+    /**
+     * Estado de las torres tras los k primeros movimientos de la solución mínima, sin
+     * aplicarlos: el disco d (1 = el menor) se ha movido (k + 2^(d-1)) / 2^d veces y
+     * siempre gira en el mismo sentido (varilla interna +2 si d es impar, +1 si es par).
+     * Como la solución mínima es única, vale para cualquier secuencia legal de 2^n - 1 pasos.
+     * @param torres  torres[t][i] = disco i-ésimo desde abajo de la torre t (1..3)
+     * @param alturas alturas[t] = discos en la torre t
+     */
+    public static void estadoTras(int n, long k, int[][] torres, int[] alturas) {
+        int[] etiquetas = GeneradorHanoiParalelo.etiquetas(n);
+        alturas[1] = alturas[2] = alturas[3] = 0;
+        // De mayor a menor, para que cada torre quede apilada desde abajo
+        for (int d = n; d >= 1; d--) {
+            long veces = (k + (1L << (d - 1))) >>> d;
+            int varilla = (int) ((d % 2 == 1 ? 2 * (veces % 3) : veces) % 3);
+            int t = etiquetas[varilla];
+            torres[t][alturas[t]++] = d;
+        }
+    }
+
+    @Override
+    public long totalPasos() {
+        return total;
+    }
+
+    @Override
+    public int getAncho() {
+        return 2;
+    }
+
+    @Override
+    public int paso(long indice, int componente) {
+        if (indice < 0 || indice >= total) {
+            throw new IndexOutOfBoundsException("Paso " + indice + " fuera de 0.." + (total - 1));
+        }
+        long k = indice + 1;
+        switch (componente) {
+            case 0: return etiquetas[(int) ((k & (k - 1)) % 3)];
+            case 1: return etiquetas[(int) (((k | (k - 1)) + 1) % 3)];
+            default:
+                throw new IndexOutOfBoundsException("Componente " + componente + " fuera de 0..1");
+        }
+    }
+}
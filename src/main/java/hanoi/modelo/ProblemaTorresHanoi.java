@@ -1,8 +1,15 @@
 package hanoi.modelo;
 
 import base.modelo.AlgoritmoRecursivo;
-import java.util.ArrayList;
-import java.util.List;
+import base.modelo.BufferPasos;
+import base.modelo.CacheSoluciones;
+import base.modelo.FuentePasos;
+import base.modelo.HistorialEjecuciones;
+import base.modelo.PasosFueraDeHeap;
+import base.modelo.PlanEjecucion;
+import base.modelo.Planificador;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Stack;
 
 /**
@@ -11,8 +18,24 @@ import java.util.Stack;
  * • Hereda de AlgoritmoRecursivo → ObjetoBase, por lo que debe implementar representar()
  */
 public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
+    // A partir de aquí los movimientos se generan en paralelo con la fórmula cerrada
+    private static final int UMBRAL_PARALELO = 16;
+    // Máximo de discos: con más, el número de movimiento no cabe en un long
+    public static final int MAX_DISCOS = PasosHanoi.MAX_DISCOS;
+    // Coste medido por movimiento y núcleo: en el buffer y en el archivo de resultado
+    private static final double NS_MOVIMIENTO_MEMORIA = 10;
+    private static final double NS_MOVIMIENTO_ARCHIVO = 20;
+    // Bytes por movimiento: 2 int en el buffer y una línea "[o, d]\n" en el archivo
+    private static final int BYTES_MOVIMIENTO_MEMORIA = 8;
+    private static final int BYTES_MOVIMIENTO_ARCHIVO = 7;
+
     // ------------------ ATRIBUTOS ------------------
     private int n;  // Número de discos que vamos a mover
+    // Movimientos que no están en pasos: calculados al vuelo (CALCULADA) o en memoria
+    // nativa (FUERA_DE_HEAP); null = están en pasos
+    private FuentePasos calculados;
+    // Memoria nativa de la última ejecución FUERA_DE_HEAP (se libera al cambiar de parámetros)
+    private PasosFueraDeHeap fueraDeHeap;
 
     // Pilas que representan cada torre:
     // • torreOrigen contiene inicialmente todos los discos
@@ -24,11 +47,10 @@ public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
     /**
      * Constructor:
      * • Llama a super() para darle un nombre al algoritmo
-     * • Inicializa la lista de pasos vacía
+     * • El buffer de movimientos [origen, destino] lo crea AlgoritmoRecursivo
      */
     public ProblemaTorresHanoi() {
         super("Torres de Hanoi");
-        pasos = new ArrayList<>();  // Lista de movimientos [origen, destino]
     }
 
     // ------------- setParametros(int n) -------------
@@ -38,9 +60,15 @@ public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
         if (n < 1) {
             throw new IllegalArgumentException("Debe haber al menos 1 disco.");
         }
+        if (n > MAX_DISCOS) {
+            throw new IllegalArgumentException("Como mucho " + MAX_DISCOS + " discos.");
+        }
         // 2) Guardar n en este objeto y en el atributo heredado 'parametro'
         this.n = n;
         this.parametro = n;
+        this.plan = null;
+        this.calculados = null;
+        liberarFueraDeHeap();
 
         // 3) Crear y llenar la pila de origen con discos de mayor a menor
         torreOrigen   = new Stack<>();
@@ -52,14 +80,107 @@ public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
         }
     }
 
+    // ------------- planificar() -------------
+    /**
+     * Los 2^n - 1 movimientos ocupan 8 bytes cada uno en el buffer: si no caben en el
+     * heap pero sí en la memoria física libre, se guardan fuera del heap; si tampoco,
+     * se calculan al vuelo con la fórmula cerrada (no hace falta guardarlos).
+     * El archivo de resultado (7 bytes por movimiento) sólo se escribe si cabe en el disco.
+     */
+    @Override
+    public PlanEjecucion planificar() {
+        long movimientos = (1L << n) - 1;
+        int nucleos = (n >= UMBRAL_PARALELO) ? Planificador.nucleos() : 1;
+        long bytesArchivo = Planificador.bytes(movimientos, BYTES_MOVIMIENTO_ARCHIVO);
+        boolean guardar = n <= GeneradorHanoiParalelo.MAX_DISCOS_ARCHIVO
+                && Planificador.cabeEnDisco(Paths.get("."), bytesArchivo);
+        double segundosArchivo = guardar ? movimientos * NS_MOVIMIENTO_ARCHIVO / nucleos / 1e9 : 0;
+
+        long bytesBuffer = Planificador.bytes(movimientos, BYTES_MOVIMIENTO_MEMORIA);
+        if (n <= GeneradorHanoiParalelo.MAX_DISCOS_MEMORIA && Planificador.cabeEnMemoria(bytesBuffer)) {
+            plan = new PlanEjecucion(PlanEjecucion.Estrategia.MATERIALIZADA, bytesBuffer,
+                    movimientos * NS_MOVIMIENTO_MEMORIA / nucleos / 1e9 + segundosArchivo);
+        } else if (Planificador.cabeFueraDeHeap(bytesBuffer)) {
+            plan = new PlanEjecucion(PlanEjecucion.Estrategia.FUERA_DE_HEAP, bytesBuffer,
+                    movimientos * NS_MOVIMIENTO_MEMORIA / nucleos / 1e9 + segundosArchivo);
+            plan.avisar("Los movimientos no caben en el heap: se guardan en memoria nativa ("
+                    + Planificador.formatearBytes(bytesBuffer) + ").");
+        } else {
+            plan = new PlanEjecucion(PlanEjecucion.Estrategia.CALCULADA, 0, segundosArchivo);
+            plan.avisar("Los movimientos no caben en memoria ("
+                    + Planificador.formatearBytes(bytesBuffer) + "): se calculan al mostrarlos.");
+        }
+        plan.setArchivo(bytesArchivo, guardar);
+        if (!guardar) {
+            plan.avisar("El archivo de resultado no cabe en el disco: no se guardará.");
+        }
+        if (plan.getSegundos() > Planificador.SEGUNDOS_AVISO) {
+            plan.avisar("Tardará unos " + Planificador.formatearSegundos(plan.getSegundos()) + ".");
+        }
+        return plan;
+    }
+
     // ------------- ejecutar() -------------
     @Override
     public void ejecutar() {
+        calculados = null;
+        // Si el precálculo ya generó los movimientos para n discos, los reutilizamos
+        BufferPasos precalculado = CacheSoluciones.obtener(claveCache());
+        if (precalculado != null) {
+            pasos.copiarDesde(precalculado);
+            torresResueltas();
+            return;
+        }
+        if (plan == null) planificar();
+        if (plan.getEstrategia() == PlanEjecucion.Estrategia.CALCULADA) {
+            // Nada que generar: cada movimiento sale de su número cuando se pida
+            pasos.vaciar();
+            calculados = new PasosHanoi(n);
+            torresResueltas();
+            return;
+        }
+        if (plan.getEstrategia() == PlanEjecucion.Estrategia.FUERA_DE_HEAP) {
+            // Como en paralelo, pero sobre bloques nativos: sin el límite de un int[]
+            pasos.vaciar();
+            if (fueraDeHeap == null) fueraDeHeap = new PasosFueraDeHeap(2);
+            GeneradorHanoiParalelo.generar(n, fueraDeHeap);
+            calculados = fueraDeHeap;
+            torresResueltas();
+            return;
+        }
+        // Con muchos discos no se simulan las pilas: cada movimiento sale de su número
+        // y los tramos se rellenan en paralelo sobre el buffer ya dimensionado
+        if (n >= UMBRAL_PARALELO) {
+            GeneradorHanoiParalelo.generar(n, pasos);
+            torresResueltas();
+            return;
+        }
+        // Sabemos que harán falta 2^n - 1 movimientos: reservamos el buffer de una vez
+        pasos.vaciar();
+        pasos.reservar((1 << n) - 1);
         // Arranca el proceso recursivo: mueve n discos de torreOrigen a torreDestino
         moverDiscos(n, torreOrigen, torreDestino, torreAuxiliar,
                 /*numOrigen=*/1, /*numDestino=*/3, /*numAuxiliar=*/2);
     }
 
+    /** Libera la memoria nativa de la ejecución anterior (su getFuente() deja de valer). */
+    private void liberarFueraDeHeap() {
+        if (fueraDeHeap != null) {
+            fueraDeHeap.close();
+            fueraDeHeap = null;
+        }
+    }
+
+    /** Estado final: todos los discos en la torre destino. */
+    private void torresResueltas() {
+        torreOrigen.clear();
+        torreAuxiliar.clear();
+        torreDestino.clear();
+        for (int i = n; i >= 1; i--) {
+            torreDestino.push(i);
+        }
+    }
+
     /**
      * moverDiscos: método recursivo que implementa el algoritmo de las Torres de Hanoi
      *
@@ -89,7 +210,7 @@ public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
                 );
             }
             destino.push(disco);  // Colocamos disco en la pila destino
-            pasos.add(new int[]{numOrigen, numDestino});  // Registramos el movimiento
+            pasos.agregar(numOrigen, numDestino);  // Registramos el movimiento
             return;  // Salimos del método
         }
 
@@ -111,7 +232,7 @@ public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
             );
         }
         destino.push(disco);
-        pasos.add(new int[]{numOrigen, numDestino});  // Registramos este movimiento
+        pasos.agregar(numOrigen, numDestino);  // Registramos este movimiento
 
         // Paso 3: mover los n-1 discos de auxiliar a destino
         moverDiscos(n - 1,
@@ -123,10 +244,49 @@ public class ProblemaTorresHanoi extends AlgoritmoRecursivo {
                 numOrigen);
     }
 
+    /**
+     * Guarda los movimientos en el formato de siempre. Como la solución mínima es única,
+     * en vez de recorrer el buffer se escribe directamente con el generador paralelo.
+     */
+    @Override
+    public void guardarResultado(String nombreArchivo) {
+        if (getFuente().totalPasos() != (1L << n) - 1) {
+            super.guardarResultado(nombreArchivo);   // Aún sin ejecutar: lo que haya
+            return;
+        }
+        try {
+            GeneradorHanoiParalelo.generarEnArchivo(n, Paths.get(nombreArchivo));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** @return la clave de este problema en CacheSoluciones */
+    public String claveCache() {
+        return CacheSoluciones.clave("hanoi", n);
+    }
+
     // ------------- getPasos() -------------
+    /**
+     * Devuelve el buffer de movimientos registrados.
+     * Con las estrategias CALCULADA y FUERA_DE_HEAP está vacío: los movimientos están
+     * en {@link #getFuente()}.
+     */
+    @Override
+    public BufferPasos getPasos() {
+        return pasos;
+    }
+
+    /** @return los movimientos de la última ejecución: en el heap, fuera de él o calculados al vuelo */
+    @Override
+    public FuentePasos getFuente() {
+        return calculados != null ? calculados : pasos;
+    }
+
+    /** Con CALCULADA no hay movimientos guardados que resumir: el historial lo anota sin huella. */
     @Override
-    public List<int[]> getPasos() {
-        return pasos;  // Devuelve la lista de movimientos registrados
+    protected long huellaResultado() {
+        return calculados instanceof PasosHanoi ? HistorialEjecuciones.SIN_HUELLA : super.huellaResultado();
     }
 
     /**
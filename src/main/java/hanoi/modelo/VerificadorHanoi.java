@@ -0,0 +1,111 @@
+package hanoi.modelo;
+
+import base.modelo.FuentePasos;
+import base.modelo.LectorEnteros;
+import base.modelo.ResultadoVerificacion;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * VerificadorHanoi: comprueba en streaming un fichero de guardarResultado de Hanoi.
+ * • Cada torre se guarda como una máscara de bits de sus discos (bit i = disco i+1),
+ *   así que el disco de arriba es el bit más bajo y la memoria es constante.
+ * • Comprueba que cada movimiento saca un disco de una torre no vacía y no lo pone
+ *   sobre uno más pequeño, y que al final todos los discos están en la torre 3.
+ * {@link #motivoNoValido} hace lo mismo con movimientos ya abiertos (p. ej. para reproducirlos).
+ */
+public class VerificadorHanoi {
+
+    /**
+     * @param archivo fichero con "Secuencia de movimientos:" y una línea [origen, destino] por paso
+     * @param discos  número de discos con que se generó (1..63)
+     */
+    public static ResultadoVerificacion verificar(Path archivo, int discos) throws IOException {
+        if (discos < 1 || discos > 63) {
+            throw new IllegalArgumentException("El número de discos debe estar entre 1 y 63.");
+        }
+        long[] torres = new long[4];                 // Índices 1..3
+        torres[1] = (1L << discos) - 1;              // Todos en la torre origen
+        int[] valores = new int[3];
+        long pasos = 0;
+
+        try (LectorEnteros lector = new LectorEnteros(archivo)) {
+            lector.saltarLinea(); // Cabecera
+            int k;
+            while ((k = lector.leerLinea(valores)) >= 0) {
+                if (k == 0) continue; // Línea en blanco
+                if (k != 2) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                            "se esperaban 2 valores [origen, destino] y hay " + k);
+                }
+                String motivo = mover(torres, valores[0], valores[1]);
+                if (motivo != null) {
+                    return ResultadoVerificacion.error(lector.getLinea(), pasos, motivo);
+                }
+                pasos++;
+            }
+            if (torres[3] != (1L << discos) - 1) {
+                return ResultadoVerificacion.error(lector.getLinea(), pasos,
+                        "al terminar no están todos los discos en la torre 3");
+            }
+        }
+        long optimo = (1L << discos) - 1;
+        return ResultadoVerificacion.correcto(pasos, "solución legal con " + discos + " discos"
+                + (pasos == optimo ? " (mínima)" : " (no mínima: la óptima tiene " + optimo + " pasos)"));
+    }
+
+    /**
+     * Comprueba unos movimientos ya abiertos antes de aplicarlos en la ventana: los
+     * rehace sobre torres de prueba, así que la reproducción no puede salirse de las
+     * torres ni encontrarse un movimiento ilegal a medias.
+     * @return el motivo por el que no son una solución de Hanoi con esos discos, o null si lo son
+     */
+    public static String motivoNoValido(FuentePasos movimientos, int discos) {
+        if (discos < 1 || discos > 63) {
+            throw new IllegalArgumentException("El número de discos debe estar entre 1 y 63.");
+        }
+        if (movimientos.getAncho() != 2) {
+            return "El archivo no tiene movimientos [origen, destino].";
+        }
+        long[] torres = new long[4];
+        torres[1] = (1L << discos) - 1;
+        for (long paso = 0; paso < movimientos.totalPasos(); paso++) {
+            String motivo;
+            try {
+                motivo = mover(torres, movimientos.paso(paso, 0), movimientos.paso(paso, 1));
+            } catch (IllegalStateException e) {
+                return e.getMessage();
+            }
+            if (motivo != null) {
+                return "Paso " + paso + ": " + motivo + ".";
+            }
+        }
+        if (torres[3] != (1L << discos) - 1) {
+            return "Al terminar no están todos los discos en la torre 3.";
+        }
+        return null;
+    }
+
+    /**
+     * Aplica un movimiento a las torres (máscaras de bits) si es legal.
+     * @return por qué no lo es, o null si se ha aplicado
+     */
+    private static String mover(long[] torres, int origen, int destino) {
+        if (origen < 1 || origen > 3 || destino < 1 || destino > 3 || origen == destino) {
+            return "movimiento inválido [" + origen + ", " + destino + "]";
+        }
+        long torreOrigen = torres[origen];
+        if (torreOrigen == 0) {
+            return "la torre " + origen + " está vacía";
+        }
+        long disco = torreOrigen & -torreOrigen;     // El de arriba (el más pequeño)
+        long torreDestino = torres[destino];
+        if (torreDestino != 0 && (torreDestino & -torreDestino) < disco) {
+            return "disco " + (Long.numberOfTrailingZeros(disco) + 1)
+                    + " sobre el disco " + (Long.numberOfTrailingZeros(torreDestino) + 1);
+        }
+        torres[origen] = torreOrigen & ~disco;
+        torres[destino] = torreDestino | disco;
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package hanoi.vista;
+
+import base.modelo.FuentePasos;
+import base.vista.ExportadorFotogramas;
+import hanoi.modelo.PasosHanoi;
+
+import java.awt.*;
+import java.util.Random;
+
+/**
+ * DibujoHanoi: pinta las tres torres sobre cualquier Graphics, sea el panel de
+ * la ventana o una imagen sin pantalla para exportar la animación.
+ * • torres[t][i] = disco i-ésimo (desde abajo) de la torre t (1..3); alturas[t] = discos en ella.
+ * • Los colores de los discos salen de una semilla: con la misma semilla, los mismos colores.
+ */
+public class DibujoHanoi {
+    private static final int ALTO_DISCO = 20;
+    private static final int MARGEN = 50;
+    /** Con más discos hay más de 2^31 fotogramas: no se numeran con un int. */
+    public static final int MAX_DISCOS_ANIMACION = 30;
+
+    private DibujoHanoi() {
+    }
+
+    /** @return un color para cada disco 1..n (índice 0 sin usar), generados con la semilla */
+    public static Color[] colores(int n, long semilla) {
+        Random random = new Random(semilla);
+        Color[] colores = new Color[n + 1];
+        for (int d = 1; d <= n; d++) {
+            colores[d] = new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+        }
+        return colores;
+    }
+
+    /** Pinta fondo, varillas y discos en un área de ancho×alto. */
+    public static void dibujar(Graphics g, int ancho, int alto,
+                               int[][] torres, int[] alturas, Color[] colores) {
+        // Fondo blanco
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, ancho, alto);
+
+        int towerW = ancho / 3;
+        int baseY = alto - MARGEN;
+
+        // Dibujar varillas
+        g.setColor(Color.BLACK);
+        for (int i = 0; i < 3; i++) {
+            int x = towerW * i + towerW / 2;
+            g.drawLine(x, baseY, x, MARGEN);
+        }
+
+        // Dibujar discos en cada torre
+        for (int num = 1; num <= 3; num++) {
+            int xC = towerW * (num - 1) + towerW / 2;
+            for (int i = 0; i < alturas[num]; i++) {
+                int disco = torres[num][i];
+                int discW = 30 + disco * 20;
+                int x = xC - discW / 2;
+                int y = baseY - ALTO_DISCO * (i + 1);
+                g.setColor(colores[disco]);
+                g.fillRect(x, y, discW, ALTO_DISCO);
+                g.setColor(Color.BLACK);
+                g.drawRect(x, y, discW, ALTO_DISCO);
+            }
+        }
+    }
+
+    /**
+     * Escena para exportar: el fotograma k muestra las torres tras los k primeros movimientos.
+     * Para llegar al primer fotograma de un bloque no se repiten los movimientos anteriores:
+     * el estado tras k movimientos sale directamente de {@link PasosHanoi#estadoTras}
+     * (la solución mínima es única, así que vale para cualquier fuente de pasos completa).
+     * @param semillaColores semilla de {@link #colores(int, long)}
+     * @throws IllegalArgumentException si hay más discos que {@link #MAX_DISCOS_ANIMACION}
+     */
+    public static ExportadorFotogramas.Escena escena(int n, FuentePasos pasos, long semillaColores) {
+        if (n > MAX_DISCOS_ANIMACION) {
+            throw new IllegalArgumentException("Con " + n + " discos la animación tendría 2^" + n
+                    + " fotogramas: como mucho se exportan " + MAX_DISCOS_ANIMACION + " discos.");
+        }
+        Color[] colores = colores(n, semillaColores);
+        return new ExportadorFotogramas.Escena() {
+            private final int[][] torres = new int[4][n];
+            private final int[] alturas = new int[4];
+            private int aplicados;
+            {
+                for (int i = 0; i < n; i++) {
+                    torres[1][i] = n - i;
+                }
+                alturas[1] = n;
+            }
+
+            @Override
+            public int totalFotogramas() {
+                return Math.toIntExact(pasos.totalPasos() + 1);
+            }
+
+            @Override
+            public void avanzar(int fotograma) {
+                // Un salto cuesta n discos; aplicar los movimientos, uno por movimiento
+                if (fotograma - aplicados > n) {
+                    PasosHanoi.estadoTras(n, fotograma, torres, alturas);
+                    aplicados = fotograma;
+                    return;
+                }
+                for (; aplicados < fotograma; aplicados++) {
+                    int origen = pasos.paso(aplicados, 0), destino = pasos.paso(aplicados, 1);
+                    torres[destino][alturas[destino]++] = torres[origen][--alturas[origen]];
+                }
+            }
+
+            @Override
+            public void dibujar(Graphics2D g, int ancho, int alto) {
+                DibujoHanoi.dibujar(g, ancho, alto, torres, alturas, colores);
+            }
+        };
+    }
+}
@@ -1,7 +1,10 @@
 package hanoi.vista;
 
 import base.vista.VentanaJuego;
+import base.controlador.Dialogos;
 import hanoi.controlador.LanzadorTorresHanoi;
+import base.modelo.FuentePasos;
+import hanoi.modelo.PasosHanoi;
 import hanoi.modelo.ProblemaTorresHanoi;
 import ui.vista.MenuRecursivo;
 
@@ -9,27 +12,30 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Random;
 
 /**
  * VentanaTorresHanoi: ventana que muestra paso a paso el movimiento
  * de los discos en el problema de las Torres de Hanoi.
  * • Hereda de VentanaJuego, que ya proporciona los botones “🔃”, “Simular” y “Volver al Menú”.
+ * • Los movimientos pueden venir de un problema recién ejecutado o de un archivo de
+ *   resultado ya guardado (PasosMapeados), sin volver a ejecutar nada.
+ * • "Ir al paso…" coloca las torres en cualquier punto con la fórmula cerrada y la
+ *   reproducción sigue desde ahí: sólo se leen los movimientos que se ven.
  */
 public class VentanaTorresHanoi extends VentanaJuego {
-    private final ProblemaTorresHanoi problema;   // Modelo con la lógica recursiva
+    private final int discos;
     private HanoiPanel hanoiPanel;                // Panel donde se dibujan las torres
     private Timer timer;                          // Temporizador para animar cada paso
-    private int stepIndex = 0;                    // Índice del paso actual en la lista
-    private final List<int[]> pasos;              // Lista de movimientos [origen, destino]
+    private final JButton btnIrAPaso = new JButton("Ir al paso…");
+    private long stepIndex = 0;                   // Índice del paso actual
+    // Movimientos [origen, destino]: en memoria o calculados al vuelo según el plan
+    private final FuentePasos pasos;
 
-    // Representación interna de las tres torres como listas de discos
-    private final List<Integer> torreOrigen;
-    private final List<Integer> torreAuxiliar;
-    private final List<Integer> torreDestino;
+    // Representación interna de las tres torres (índices 1..3) como pilas de discos:
+    // torres[t][i] = disco i-ésimo desde abajo, alturas[t] = discos en la torre
+    private final int[][] torres;
+    private final int[] alturas = new int[4];
 
     /**
      * Constructor:
@@ -37,18 +43,25 @@ public class VentanaTorresHanoi extends VentanaJuego {
      * @param problema Instancia del modelo ya preparado (setParametros + ejecutar ya llamados)
      */
     public VentanaTorresHanoi(String titulo, ProblemaTorresHanoi problema) {
+        this(titulo, problema.getFuente(), problema.getParametro());
+    }
+
+    /**
+     * Constructor para reproducir movimientos ya guardados:
+     * @param pasos  movimientos [origen, destino] (p. ej. un archivo mapeado)
+     * @param discos número de discos con que se generaron
+     */
+    public VentanaTorresHanoi(String titulo, FuentePasos pasos, int discos) {
         super(titulo);
-        this.problema = problema;
-        this.pasos    = problema.getPasos();
+        this.pasos  = pasos;
+        this.discos = discos;
 
         // Inicializar las torres con discos en la torre origen
-        int n = problema.getParametro();
-        torreOrigen   = new ArrayList<>();
-        torreAuxiliar = new ArrayList<>();
-        torreDestino  = new ArrayList<>();
-        for (int i = n; i >= 1; i--) {
-            torreOrigen.add(i);
+        torres = new int[4][discos];
+        for (int i = 0; i < discos; i++) {
+            torres[1][i] = discos - i;
         }
+        alturas[1] = discos;
 
         initComponents();
     }
@@ -63,6 +76,11 @@ public class VentanaTorresHanoi extends VentanaJuego {
         btnSimular.setText("Iniciar Simulación");
         btnSimular.addActionListener(e -> iniciarSimulacion());
 
+        // Salto: sólo con la secuencia completa (la única legal de 2^n - 1 pasos es la mínima)
+        btnIrAPaso.setEnabled(pasos.totalPasos() == (1L << discos) - 1);
+        btnIrAPaso.addActionListener(e -> irAPaso());
+        panelBotones.add(btnIrAPaso, 2);
+
         // 3) Botón “Volver al Menú”
         btnVolverMenu.setText("Volver al Menú");
         btnVolverMenu.addActionListener(e -> {
@@ -85,18 +103,23 @@ public class VentanaTorresHanoi extends VentanaJuego {
     }
 
     /**
-     * Arranca un Timer que cada segundo ejecuta un paso de la lista:
+     * Arranca un Timer que cada segundo ejecuta un paso:
      * • Aplica el movimiento en la vista interna.
      * • Repinta el panel.
      */
     private void iniciarSimulacion() {
-        stepIndex = 0;
+        if (timer != null && timer.isRunning()) timer.stop();
+        if (stepIndex >= pasos.totalPasos()) {
+            // Ya había terminado: se vuelve a empezar desde la torre origen
+            PasosHanoi.estadoTras(discos, 0, torres, alturas);
+            stepIndex = 0;
+            hanoiPanel.repaint();
+        }
         timer = new Timer(1000, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (stepIndex < pasos.size()) {
-                    int[] movimiento = pasos.get(stepIndex);
-                    aplicarMovimiento(movimiento[0], movimiento[1]);
+                if (stepIndex < pasos.totalPasos()) {
+                    aplicarMovimiento(pasos.paso(stepIndex, 0), pasos.paso(stepIndex, 1));
                     hanoiPanel.repaint();
                     stepIndex++;
                 } else {
@@ -107,86 +130,46 @@ public class VentanaTorresHanoi extends VentanaJuego {
         timer.start();
     }
 
+    /**
+     * Pide un número de paso y deja las torres como quedan tras él, sin aplicar los
+     * anteriores. Si la simulación estaba en marcha, sigue desde ahí.
+     */
+    private void irAPaso() {
+        Long k = Dialogos.pedirLargo("Ir al paso (0 - " + pasos.totalPasos() + "):",
+                0, pasos.totalPasos());
+        if (k == null) return;
+        PasosHanoi.estadoTras(discos, k, torres, alturas);
+        stepIndex = k;
+        hanoiPanel.repaint();
+    }
+
     /**
      * Mueve un disco de una torre a otra en las listas internas:
      * • Comprueba que el movimiento sea legal (no poner disco grande sobre uno pequeño).
      */
     private void aplicarMovimiento(int numOrigen, int numDestino) {
-        List<Integer> origen  = getTorre(numOrigen);
-        List<Integer> destino = getTorre(numDestino);
-        if (!origen.isEmpty()) {
-            int disco = origen.remove(origen.size() - 1);
-            if (!destino.isEmpty() && destino.get(destino.size() - 1) < disco) {
+        if (alturas[numOrigen] > 0) {
+            int disco = torres[numOrigen][alturas[numOrigen] - 1];
+            if (alturas[numDestino] > 0 && torres[numDestino][alturas[numDestino] - 1] < disco) {
                 throw new IllegalStateException(
                         "Movimiento ilegal: disco " + disco +
-                                " sobre disco " + destino.get(destino.size() - 1)
+                                " sobre disco " + torres[numDestino][alturas[numDestino] - 1]
                 );
             }
-            destino.add(disco);
+            alturas[numOrigen]--;
+            torres[numDestino][alturas[numDestino]++] = disco;
         }
     }
 
-    /** Devuelve la lista que corresponde al número de torre: 1→origen, 2→auxiliar, 3→destino */
-    private List<Integer> getTorre(int num) {
-        switch (num) {
-            case 1: return torreOrigen;
-            case 2: return torreAuxiliar;
-            case 3: return torreDestino;
-            default: return null;
-        }
-    }
-
-    /** Panel interno que dibuja las torres y los discos */
+    /** Panel interno que dibuja las torres y los discos (el dibujo lo hace DibujoHanoi) */
     private class HanoiPanel extends JPanel {
-        private final HashMap<Integer,Color> colorMap = new HashMap<>();
-        private final Random random = new Random();
+        // Colores al azar en cada ventana, como siempre
+        private final Color[] colores = DibujoHanoi.colores(discos, new Random().nextLong());
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            // Fondo blanco
-            g.setColor(Color.WHITE);
-            g.fillRect(0,0,getWidth(),getHeight());
-
-            int w = getWidth(), h = getHeight();
-            int towerW = w / 3;
-            int baseY = h - 50;
-            int discH = 20;
-
-            // Dibujar varillas
-            g.setColor(Color.BLACK);
-            for (int i = 0; i < 3; i++) {
-                int x = towerW*i + towerW/2;
-                g.drawLine(x, baseY, x, 50);
-            }
-
-            // Dibujar discos en cada torre
-            dibujarTorre(g, torreOrigen,   1, towerW, baseY, discH);
-            dibujarTorre(g, torreAuxiliar, 2, towerW, baseY, discH);
-            dibujarTorre(g, torreDestino,  3, towerW, baseY, discH);
-        }
-
-        private void dibujarTorre(Graphics g,
-                                  List<Integer> torre,
-                                  int num,
-                                  int towerW,
-                                  int baseY,
-                                  int discH) {
-            int xC = towerW*(num-1) + towerW/2;
-            for (int i = 0; i < torre.size(); i++) {
-                int disco = torre.get(i);
-                int discW = 30 + disco*20;
-                int x = xC - discW/2;
-                int y = baseY - discH*(i+1);
-                colorMap.computeIfAbsent(disco,
-                        d -> new Color(random.nextInt(256),
-                                random.nextInt(256),
-                                random.nextInt(256)));
-                g.setColor(colorMap.get(disco));
-                g.fillRect(x,y,discW,discH);
-                g.setColor(Color.BLACK);
-                g.drawRect(x,y,discW,discH);
-            }
+            DibujoHanoi.dibujar(g, getWidth(), getHeight(), torres, alturas, colores);
         }
     }
 }
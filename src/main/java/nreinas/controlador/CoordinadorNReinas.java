@@ -0,0 +1,228 @@
+package nreinas.controlador;
+
+import nreinas.modelo.ContadorNReinas;
+import nreinas.modelo.DiarioUnidades;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CoordinadorNReinas: reparte la cuenta de N Reinas entre varios procesos.
+ * • El árbol se parte en las unidades de {@link ContadorNReinas} (prefijos de filas).
+ * • Cada trabajador ({@link TrabajadorNReinas}) se conecta por TCP, recibe N y el
+ *   tamaño del prefijo, y después va pidiendo unidades y devolviendo sus cuentas.
+ * • Si un trabajador muere o se cuelga, su unidad en curso vuelve a la cola y la
+ *   hace otro; una unidad sólo se suma una vez.
+ * • Con un diario ({@link DiarioUnidades}) el propio coordinador puede morir y
+ *   reanudarse sin repetir las unidades ya sumadas.
+ *
+ * Protocolo (DataInput/DataOutput, big-endian):
+ *   trabajador → MAGIA; coordinador → n, filasPrefijo;
+ *   después, repetido: coordinador → índice (-1 = fin); trabajador → índice, cuenta (long).
+ */
+public class CoordinadorNReinas {
+    static final int MAGIA = 0x4E524549;             // "NREI"
+    static final int FIN = -1;
+    private static final int PUERTO_POR_DEFECTO = 7070;
+    // Tiempo máximo sin respuesta antes de dar por muerto a un trabajador
+    private static final int ESPERA_RESPUESTA_MS = (int) TimeUnit.HOURS.toMillis(1);
+
+    private final ContadorNReinas contador;
+    private final ServerSocket servidor;
+    private final DiarioUnidades diario;               // Puede ser null
+    private final BlockingDeque<Integer> pendientes = new LinkedBlockingDeque<>();
+    private final boolean[] sumada;
+    private final AtomicLong total = new AtomicLong();
+    private final CountDownLatch restantes;
+    private final ExecutorService conexiones = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Process> locales = new ArrayList<>();
+
+    /**
+     * @param n             tamaño del tablero
+     * @param filasPrefijo  filas que fija cada unidad (más filas = más unidades, más pequeñas)
+     * @param puerto        puerto TCP en que escuchan los trabajadores (0 = cualquiera libre)
+     * @param archivoDiario diario para reanudar, o null para no usarlo
+     */
+    public CoordinadorNReinas(int n, int filasPrefijo, int puerto, Path archivoDiario)
+            throws IOException {
+        this.contador = new ContadorNReinas(n, filasPrefijo);
+        int unidades = contador.getNumeroUnidades();
+        this.sumada = new boolean[unidades];
+        this.diario = (archivoDiario == null) ? null
+                : DiarioUnidades.abrir(archivoDiario, n, filasPrefijo, unidades);
+        int yaHechas = 0;
+        for (int i = 0; i < unidades; i++) {
+            if (diario != null && diario.estaCompletada(i)) {
+                sumada[i] = true;
+                yaHechas++;
+            } else {
+                pendientes.add(i);
+            }
+        }
+        if (diario != null) total.set(diario.sumaCompletadas());
+        this.restantes = new CountDownLatch(unidades - yaHechas);
+        this.servidor = new ServerSocket();
+        servidor.bind(new InetSocketAddress(puerto));
+    }
+
+    /**
+     * Uso: CoordinadorNReinas N [--prefijo filas] [--puerto p] [--locales k] [--diario archivo]
+     * • --locales k arranca k trabajadores en esta misma máquina.
+     * • Los de otras máquinas se lanzan con: TrabajadorNReinas host puerto [hilos]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: CoordinadorNReinas N [--prefijo filas] [--puerto p]"
+                    + " [--locales k] [--diario archivo]");
+            System.exit(2);
+        }
+        int n = Integer.parseInt(args[0]);
+        int prefijo = Math.min(n, 3);
+        int puerto = PUERTO_POR_DEFECTO;
+        int locales = 0;
+        Path diario = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--prefijo": prefijo = Integer.parseInt(args[i + 1]); break;
+                case "--puerto":  puerto = Integer.parseInt(args[i + 1]); break;
+                case "--locales": locales = Integer.parseInt(args[i + 1]); break;
+                case "--diario":  diario = Paths.get(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        CoordinadorNReinas coordinador = new CoordinadorNReinas(n, prefijo, puerto, diario);
+        System.out.println("Coordinador de " + n + " reinas en el puerto " + coordinador.getPuerto()
+                + ": " + coordinador.getUnidadesPendientes() + " unidades pendientes de "
+                + coordinador.contador.getNumeroUnidades());
+        coordinador.lanzarTrabajadoresLocales(locales);
+        long inicio = System.nanoTime();
+        long soluciones = coordinador.contar();
+        System.out.println("Soluciones para N=" + n + ": " + soluciones
+                + " (" + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+    }
+
+    /**
+     * Acepta trabajadores hasta que todas las unidades están sumadas.
+     * @return número total de soluciones
+     */
+    public long contar() throws IOException, InterruptedException {
+        Thread aceptador = Thread.ofVirtual().name("coordinador-aceptar").start(this::aceptar);
+        try {
+            restantes.await();
+        } finally {
+            servidor.close();          // Despierta a accept() y deja de admitir trabajadores
+            aceptador.join();
+            conexiones.shutdown();
+            conexiones.awaitTermination(1, TimeUnit.MINUTES);
+            for (Process p : locales) {
+                p.waitFor(1, TimeUnit.MINUTES);
+            }
+            if (diario != null) diario.close();
+        }
+        return total.get();
+    }
+
+    /**
+     * Arranca k trabajadores en JVMs nuevas de esta máquina, con el mismo java y classpath.
+     * Cada uno usa un hilo: el sistema operativo los reparte entre núcleos.
+     */
+    public void lanzarTrabajadoresLocales(int k) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+        for (int i = 0; i < k; i++) {
+            ProcessBuilder pb = new ProcessBuilder(java, "-cp", classpath,
+                    TrabajadorNReinas.class.getName(), "localhost",
+                    String.valueOf(getPuerto()), "1");
+            pb.inheritIO();   // Sus mensajes salen por la misma consola
+            locales.add(pb.start());
+        }
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                conexiones.execute(() -> atender(socket));
+            } catch (IOException e) {
+                if (!servidor.isClosed()) e.printStackTrace();
+            }
+        }
+    }
+
+    /** Conversación con un trabajador: le da unidades hasta que no queden o se caiga. */
+    private void atender(Socket socket) {
+        Integer unidad = null;
+        try (socket) {
+            socket.setSoTimeout(ESPERA_RESPUESTA_MS);
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (entrada.readInt() != MAGIA) return;    // No es un trabajador nuestro
+            salida.writeInt(contador.getN());
+            salida.writeInt(contador.getFilasPrefijo());
+            salida.flush();
+
+            while (restantes.getCount() > 0) {
+                // Espera corta: si otro trabajador devuelve una unidad, la recoge éste
+                unidad = pendientes.poll(1, TimeUnit.SECONDS);
+                if (unidad == null) continue;
+                salida.writeInt(unidad);
+                salida.flush();
+                int indice = entrada.readInt();
+                long cuenta = entrada.readLong();
+                if (indice != unidad) {
+                    throw new IOException("El trabajador respondió la unidad " + indice
+                            + " en vez de la " + unidad);
+                }
+                sumar(indice, cuenta);
+                unidad = null;
+            }
+            salida.writeInt(FIN);
+            salida.flush();
+        } catch (IOException e) {
+            System.err.println("Trabajador " + socket.getRemoteSocketAddress() + " perdido: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Lo que tenía a medias vuelve al principio de la cola para otro trabajador
+            if (unidad != null) pendientes.addFirst(unidad);
+        }
+    }
+
+    /** Suma una unidad terminada (sólo la primera vez que llega) y la anota en el diario. */
+    private synchronized void sumar(int indice, long cuenta) throws IOException {
+        if (sumada[indice]) return;
+        if (diario != null) diario.registrar(indice, cuenta);
+        sumada[indice] = true;
+        total.addAndGet(cuenta);
+        restantes.countDown();
+    }
+
+    // -------------------- GETTERS --------------------
+
+    /** @return el puerto en que escucha (útil si se pidió el 0) */
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    /** @return unidades que aún no se han sumado */
+    public long getUnidadesPendientes() {
+        return restantes.getCount();
+    }
+}
@@ -0,0 +1,47 @@
+package nreinas.controlador;
+
+import base.controlador.Juego;
+import nreinas.modelo.ProblemaNReinas;
+
+/**
+ * Descriptor del Problema de las N Reinas para el menú. Las constantes de LanzadorNReinas
+ * y ProblemaNReinas se copian al compilar, así que leerlas no carga esas clases.
+ * No reproduce archivos: sólo se guarda el tablero final, no una secuencia de pasos.
+ */
+public class JuegoNReinas implements Juego {
+
+    @Override
+    public String getNombre() {
+        return "Problema de las N Reinas";
+    }
+
+    @Override
+    public String getDescripcion() {
+        return "Colocar N reinas en un tablero N×N sin que se ataquen";
+    }
+
+    @Override
+    public String getParametro() {
+        return LanzadorNReinas.PREGUNTA;
+    }
+
+    @Override
+    public int getMinimo() {
+        return LanzadorNReinas.MIN_N;
+    }
+
+    @Override
+    public int getMaximo() {
+        return ProblemaNReinas.MAX_N;
+    }
+
+    @Override
+    public int getOrden() {
+        return 30;
+    }
+
+    @Override
+    public void lanzar() {
+        LanzadorNReinas.ejecutarSimulacion();
+    }
+}
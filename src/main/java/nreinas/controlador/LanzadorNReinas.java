@@ -1,17 +1,23 @@
 package nreinas.controlador;
 
 import base.controlador.Dialogos;
+import base.modelo.HistorialEjecuciones;
+import base.modelo.PlanEjecucion;
+import nreinas.modelo.EnumeradorIndexado;
 import nreinas.modelo.ProblemaNReinas;
+import nreinas.vista.GaleriaNReinas;
 import nreinas.vista.VentanaNReinas;
 import ui.vista.MenuRecursivo;
 import javax.swing.JOptionPane;
 
 public class LanzadorNReinas {
+    // Constantes (se copian al compilar en JuegoNReinas, que no carga esta clase)
+    public static final String PREGUNTA = "Introduce el tamaño del tablero (N):";
+    public static final int MIN_N = 1;
+
     public static void ejecutarSimulacion() {
-        // Para N Reinas, rango mínimo 4 (o 1), máximo digamos 20
-        Integer n = Dialogos.pedirEntero(
-                "Introduce el tamaño del tablero (N):", 1, 20
-        );
+        // Para N Reinas, rango mínimo 4 (o 1); el plan decide si se busca o se construye
+        Integer n = Dialogos.pedirEntero(PREGUNTA, MIN_N, ProblemaNReinas.MAX_N);
         if (n == null) {
             new MenuRecursivo().mostrarMenu();
             return;
@@ -26,11 +32,28 @@ public class LanzadorNReinas {
 
         ProblemaNReinas problema = new ProblemaNReinas();
         problema.setParametros(n);
-        problema.ejecutar();
+        PlanEjecucion plan = problema.planificar();
+        if (!Dialogos.confirmarPlan(plan)) {
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
+        problema.ejecutarYRegistrar(HistorialEjecuciones.predeterminado());
 
-        String tableroFile = "tableroFinalNReinas_" + n + "x" + n + ".txt";
-        problema.guardarTableroFinal(tableroFile);
+        if (plan.isGuardarArchivo()) {
+            String tableroFile = "tableroFinalNReinas_" + n + "x" + n + ".txt";
+            problema.guardarTableroFinal(tableroFile);
+        }
 
         new VentanaNReinas("Problema de las N Reinas", problema).mostrar();
     }
+
+    /** Pide N y abre la galería con todas sus soluciones. */
+    public static void ejecutarGaleria() {
+        Integer n = Dialogos.pedirEntero(PREGUNTA, MIN_N, EnumeradorIndexado.MAX_N);
+        if (n == null) {
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
+        new GaleriaNReinas(n).mostrar();
+    }
 }
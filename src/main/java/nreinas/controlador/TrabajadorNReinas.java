@@ -0,0 +1,70 @@
+package nreinas.controlador;
+
+import nreinas.modelo.ContadorNReinas;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * TrabajadorNReinas: proceso que cuenta unidades de N Reinas para un {@link CoordinadorNReinas}.
+ * • Abre una conexión por hilo; cada conexión cuenta sus unidades de una en una.
+ * • No guarda estado: si se mata, el coordinador reparte su unidad a otro.
+ * Uso: TrabajadorNReinas host puerto [hilos]
+ */
+public class TrabajadorNReinas {
+
+    private TrabajadorNReinas() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Uso: TrabajadorNReinas host puerto [hilos]");
+            System.exit(2);
+        }
+        String host = args[0];
+        int puerto = Integer.parseInt(args[1]);
+        int hilos = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
+        // El cálculo es CPU puro: hilos de plataforma, uno por núcleo
+        Thread[] conexiones = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            conexiones[i] = Thread.ofPlatform().name("trabajador-" + i).start(() -> {
+                try {
+                    trabajar(host, puerto);
+                } catch (IOException e) {
+                    System.err.println("Conexión con el coordinador perdida: " + e);
+                }
+            });
+        }
+        for (Thread t : conexiones) {
+            t.join();
+        }
+    }
+
+    /** Atiende una conexión con el coordinador hasta que éste indique que no quedan unidades. */
+    public static void trabajar(String host, int puerto) throws IOException {
+        try (Socket socket = new Socket(host, puerto)) {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            salida.writeInt(CoordinadorNReinas.MAGIA);
+            salida.flush();
+            int n = entrada.readInt();
+            int filasPrefijo = entrada.readInt();
+            // Las unidades se generan igual en los dos lados: basta con enviar el índice
+            ContadorNReinas contador = new ContadorNReinas(n, filasPrefijo);
+
+            int unidad;
+            while ((unidad = entrada.readInt()) != CoordinadorNReinas.FIN) {
+                long cuenta = contador.contarUnidad(unidad);
+                salida.writeInt(unidad);
+                salida.writeLong(cuenta);
+                salida.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package nreinas.modelo;
+
+import base.modelo.ControlBusqueda;
+import base.modelo.DancingLinks;
+
+/**
+ * CompletadorNReinas: completa un tablero de N Reinas que ya tiene reinas fijas,
+ * expresado como cobertura exacta sobre {@link DancingLinks}.
+ * • Una fila del problema por casilla (f, c).
+ * • Columnas primarias: las N filas y las N columnas del tablero (una reina en cada una).
+ * • Columnas secundarias: las 2N-1 diagonales y las 2N-1 antidiagonales (como mucho una).
+ * Al cubrir una casilla desaparecen de golpe todas las que ataca, y la búsqueda
+ * ramifica por la fila o columna del tablero con menos casillas libres.
+ */
+public class CompletadorNReinas {
+    private final int n;
+    private final DancingLinks dlx;
+
+    public CompletadorNReinas(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("El tablero debe tener al menos una casilla.");
+        }
+        this.n = n;
+        this.dlx = new DancingLinks(2 * n, 2 * (2 * n - 1));
+        // La fila del DLX de la casilla (f, c) es f*n + c
+        for (int f = 0; f < n; f++) {
+            for (int c = 0; c < n; c++) {
+                dlx.agregarFila(f, n + c,
+                        2 * n + f + c,                        // Diagonal ↙
+                        2 * n + (2 * n - 1) + f - c + n - 1); // Diagonal ↘
+            }
+        }
+    }
+
+    /**
+     * Deja una reina fija en (fila, columna).
+     * @throws IllegalArgumentException si está fuera del tablero o ataca a otra reina fija
+     */
+    public void fijar(int fila, int columna) {
+        if (fila < 0 || fila >= n || columna < 0 || columna >= n) {
+            throw new IllegalArgumentException(
+                    "La casilla (" + fila + ", " + columna + ") está fuera del tablero.");
+        }
+        try {
+            dlx.fijarFila(fila * n + columna);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "La reina en (" + fila + ", " + columna + ") ataca a otra ya colocada.", e);
+        }
+    }
+
+    /** @return número de formas de completar el tablero con las reinas fijas */
+    public long contar(ControlBusqueda control) {
+        return dlx.contar(control);
+    }
+
+    /**
+     * @return la columna de la reina de cada fila (fijas incluidas),
+     *         o null si no se puede completar o se detuvo la búsqueda
+     */
+    public int[] completar(ControlBusqueda control) {
+        int[] filasDlx = dlx.buscarPrimera(control);
+        if (filasDlx == null) return null;
+        int[] columnas = new int[n];
+        for (int f : filasDlx) {
+            columnas[f / n] = f % n;
+        }
+        return columnas;
+    }
+
+    /** @return true si la última búsqueda se detuvo por presupuesto o cancelación */
+    public boolean isDetenido() {
+        return dlx.isDetenido();
+    }
+}
@@ -0,0 +1,272 @@
+package nreinas.modelo;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * ConjuntoSoluciones: todas las soluciones de N Reinas guardadas como un trie de
+ * prefijos comunes, nivel a nivel, en arrays primitivos.
+ * • Nivel f = fila f del tablero. Cada nodo guarda sólo su columna (un byte).
+ * • Los hijos de un nodo son contiguos en el nivel siguiente; finHijos[f][i] es
+ *   donde acaban los del nodo i (empiezan donde acaban los del nodo i-1).
+ * • Todas las soluciones llegan a la última fila, así que el nodo i del último nivel
+ *   ES la solución i (en orden lexicográfico): el acceso por índice sube desde la
+ *   hoja buscando cada padre con una búsqueda binaria en finHijos.
+ * Memoria: 1 byte por nodo más 4 por nodo interno, sin objetos por solución. Con N=15
+ * (2.279.184 soluciones) ocupa unos 80 MB, frente a ~190 MB de una List<int[]>.
+ */
+public class ConjuntoSoluciones implements Iterable<int[]> {
+    private final int n;
+    private final byte[][] columna;     // columna[f][i]: columna del nodo i de la fila f
+    private final int[][] finHijos;     // finHijos[f][i]: fin (exclusivo) de los hijos del nodo i
+    private final int[] nodos;          // Nodos por nivel
+
+    private ConjuntoSoluciones(int n, byte[][] columna, int[][] finHijos, int[] nodos) {
+        this.n = n;
+        this.columna = columna;
+        this.finHijos = finHijos;
+        this.nodos = nodos;
+    }
+
+    /**
+     * Enumera y guarda todas las soluciones de un tablero N×N.
+     * @param n tamaño del tablero (1..31; en la práctica, hasta donde quepa en memoria)
+     */
+    public static ConjuntoSoluciones construir(int n) {
+        ContadorNReinas contador = new ContadorNReinas(n);
+        Constructor constructor = new Constructor(n);
+        // Las unidades van en orden y cada una enumera en orden: el total sale ordenado
+        for (int u = 0; u < contador.getNumeroUnidades(); u++) {
+            contador.enumerarUnidad(u, constructor::agregar);
+        }
+        return constructor.construir();
+    }
+
+    // -------------------- CONSULTAS --------------------
+
+    /** @return número de soluciones */
+    public long tamano() {
+        return n == 0 ? 0 : nodos[n - 1];
+    }
+
+    /** @return el tamaño del tablero */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Solución número {@code indice} en orden lexicográfico.
+     * @param destino array de al menos N posiciones donde se escribe (columna de cada fila)
+     * @return destino
+     */
+    public int[] get(long indice, int[] destino) {
+        if (indice < 0 || indice >= tamano()) {
+            throw new IndexOutOfBoundsException("Solución " + indice + " fuera de 0.." + (tamano() - 1));
+        }
+        int nodo = (int) indice;
+        destino[n - 1] = columna[n - 1][nodo];
+        for (int f = n - 2; f >= 0; f--) {
+            nodo = padre(f, nodo);
+            destino[f] = columna[f][nodo];
+        }
+        return destino;
+    }
+
+    /** @return una copia nueva de la solución número {@code indice} */
+    public int[] get(long indice) {
+        return get(indice, new int[n]);
+    }
+
+    /** @return true si la colocación (columna de cada fila) es una de las soluciones */
+    public boolean contiene(int[] columnas) {
+        return indiceDe(columnas) >= 0;
+    }
+
+    /** @return la posición de la solución en orden lexicográfico, o -1 si no está */
+    public long indiceDe(int[] columnas) {
+        if (columnas.length != n || n == 0) return -1;
+        int inicio = 0, fin = nodos[0];
+        int nodo = -1;
+        for (int f = 0; f < n; f++) {
+            // Los hijos están ordenados por columna: búsqueda binaria
+            nodo = buscarColumna(columna[f], inicio, fin, columnas[f]);
+            if (nodo < 0) return -1;
+            if (f < n - 1) {
+                inicio = (nodo == 0) ? 0 : finHijos[f][nodo - 1];
+                fin = finHijos[f][nodo];
+            }
+        }
+        return nodo;
+    }
+
+    /**
+     * Recorre todas las soluciones en orden pasando siempre el mismo array
+     * (no crea nada por solución; el consumidor no debe guardarlo).
+     */
+    public void recorrer(Consumer<int[]> consumidor) {
+        Cursor cursor = new Cursor();
+        while (cursor.avanzar()) {
+            consumidor.accept(cursor.actual);
+        }
+    }
+
+    /** Itera las soluciones en orden; cada una es un array nuevo. */
+    @Override
+    public Iterator<int[]> iterator() {
+        return new Iterator<int[]>() {
+            private final Cursor cursor = new Cursor();
+            private boolean preparado;
+            private boolean hay;
+
+            @Override
+            public boolean hasNext() {
+                if (!preparado) {
+                    hay = cursor.avanzar();
+                    preparado = true;
+                }
+                return hay;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                preparado = false;
+                return cursor.actual.clone();
+            }
+        };
+    }
+
+    /** @return bytes que ocupan los arrays del trie (aproximado) */
+    public long getBytes() {
+        long bytes = 0;
+        for (int f = 0; f < n; f++) {
+            bytes += columna[f].length;
+            if (f < n - 1) bytes += 4L * finHijos[f].length;
+        }
+        return bytes;
+    }
+
+    /** Padre (en la fila f) del nodo hijo de la fila f+1: el primero cuyos hijos acaban después. */
+    private int padre(int f, int hijo) {
+        int[] fin = finHijos[f];
+        int lo = 0, hi = nodos[f] - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (fin[mid] > hijo) hi = mid; else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    private static int buscarColumna(byte[] cols, int inicio, int fin, int buscada) {
+        int lo = inicio, hi = fin - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cols[mid] < buscada) lo = mid + 1;
+            else if (cols[mid] > buscada) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /** Recorrido en orden: un nodo actual por nivel, se avanza la hoja y se corrigen los padres. */
+    private final class Cursor {
+        private final int[] nodo = new int[n];
+        private final int[] actual = new int[n];
+        private long siguiente;   // Índice de la próxima hoja
+
+        boolean avanzar() {
+            if (siguiente >= tamano()) return false;
+            if (siguiente == 0) {
+                get(0, actual);
+                nodo[n - 1] = 0;
+                for (int f = n - 2; f >= 0; f--) nodo[f] = padre(f, nodo[f + 1]);
+            } else {
+                nodo[n - 1]++;
+                actual[n - 1] = columna[n - 1][nodo[n - 1]];
+                // Sólo cambia de padre el nivel cuyos hijos se han acabado
+                for (int f = n - 2; f >= 0 && nodo[f + 1] >= finHijos[f][nodo[f]]; f--) {
+                    nodo[f]++;
+                    actual[f] = columna[f][nodo[f]];
+                }
+            }
+            siguiente++;
+            return true;
+        }
+    }
+
+    // -------------------- CONSTRUCCIÓN --------------------
+
+    /**
+     * Monta el trie a partir de soluciones que llegan en orden lexicográfico estricto.
+     * De cada solución sólo se añaden los nodos a partir del prefijo común con la anterior.
+     */
+    public static final class Constructor {
+        private final int n;
+        private final byte[][] columna;
+        private final int[][] finHijos;
+        private final int[] nodos;
+        private final int[] anterior;
+        private boolean primera = true;
+
+        public Constructor(int n) {
+            if (n < 1 || n > 31) {
+                throw new IllegalArgumentException("N debe estar entre 1 y 31.");
+            }
+            this.n = n;
+            this.columna = new byte[n][16];
+            this.finHijos = new int[n][16];
+            this.nodos = new int[n];
+            this.anterior = new int[n];
+        }
+
+        /** Añade una solución (columna de cada fila); debe ser mayor que la anterior. */
+        public void agregar(int[] columnas) {
+            if (columnas.length != n) {
+                throw new IllegalArgumentException("La solución debe tener " + n + " filas.");
+            }
+            int comun = 0;
+            if (!primera) {
+                while (comun < n && columnas[comun] == anterior[comun]) comun++;
+                if (comun == n || columnas[comun] < anterior[comun]) {
+                    throw new IllegalArgumentException(
+                            "Las soluciones deben llegar en orden lexicográfico y sin repetir.");
+                }
+            }
+            for (int f = comun; f < n; f++) {
+                int i = nodos[f];
+                if (i == columna[f].length) crecer(f);
+                columna[f][i] = (byte) columnas[f];
+                nodos[f]++;
+                // El nuevo nodo es hijo del último nodo del nivel de arriba
+                if (f > 0) finHijos[f - 1][nodos[f - 1] - 1] = nodos[f];
+                anterior[f] = columnas[f];
+            }
+            primera = false;
+        }
+
+        private void crecer(int f) {
+            long nueva = Math.max(16, (long) columna[f].length * 3 / 2);
+            if (nueva > Integer.MAX_VALUE - 8) {
+                if (columna[f].length >= Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Demasiadas soluciones para un array por nivel.");
+                }
+                nueva = Integer.MAX_VALUE - 8;
+            }
+            columna[f] = Arrays.copyOf(columna[f], (int) nueva);
+            if (f < n - 1) finHijos[f] = Arrays.copyOf(finHijos[f], (int) nueva);
+        }
+
+        /** @return el conjunto con los arrays recortados a su tamaño justo */
+        public ConjuntoSoluciones construir() {
+            byte[][] cols = new byte[n][];
+            int[][] fines = new int[n][];
+            for (int f = 0; f < n; f++) {
+                cols[f] = Arrays.copyOf(columna[f], nodos[f]);
+                fines[f] = (f < n - 1) ? Arrays.copyOf(finHijos[f], nodos[f]) : new int[0];
+            }
+            return new ConjuntoSoluciones(n, cols, fines, nodos.clone());
+        }
+    }
+}
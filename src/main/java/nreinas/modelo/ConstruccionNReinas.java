@@ -0,0 +1,50 @@
+package nreinas.modelo;
+
+/**
+ * ConstruccionNReinas: una solución de N Reinas sin buscar, para cualquier N ≥ 4
+ * (y N = 1), con la construcción explícita clásica de pares e impares:
+ * • Se listan las columnas pares (2, 4, 6…) y luego las impares (1, 3, 5…), en base 1.
+ * • Si N mod 6 = 2: en los impares se intercambian 1 y 3 y el 5 pasa al final.
+ * • Si N mod 6 = 3: el 2 pasa al final de los pares y el 1 y el 3 al final de los impares.
+ * La reina de la fila i va en la columna i-ésima de la lista. Es O(N), así que sirve
+ * para tableros en los que el backtracking tardaría horas.
+ */
+public class ConstruccionNReinas {
+
+    private ConstruccionNReinas() {
+    }
+
+    /** @return columnas[fila] (base 0) de una solución para N reinas */
+    public static int[] columnas(int n) {
+        if (n < 4 && n != 1) {
+            throw new IllegalArgumentException("No hay solución para N = " + n + ".");
+        }
+        int resto = n % 6;
+        int[] lista = new int[n];
+        int k = 0;
+        // Pares
+        for (int c = 2; c <= n; c += 2) {
+            if (resto == 3 && c == 2) continue;
+            lista[k++] = c;
+        }
+        if (resto == 3) lista[k++] = 2;
+        // Impares
+        if (resto == 2) {
+            lista[k++] = 3;
+            lista[k++] = 1;
+            for (int c = 7; c <= n; c += 2) lista[k++] = c;
+            lista[k++] = 5;
+        } else if (resto == 3) {
+            for (int c = 5; c <= n; c += 2) lista[k++] = c;
+            lista[k++] = 1;
+            lista[k++] = 3;
+        } else {
+            for (int c = 1; c <= n; c += 2) lista[k++] = c;
+        }
+        // De base 1 a base 0
+        for (int i = 0; i < n; i++) {
+            lista[i]--;
+        }
+        return lista;
+    }
+}
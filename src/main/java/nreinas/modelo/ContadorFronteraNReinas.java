@@ -0,0 +1,324 @@
+package nreinas.modelo;
+
+import base.modelo.Planificador;
+
+import java.util.stream.IntStream;
+
+/**
+ * ContadorFronteraNReinas: cuenta las soluciones de las N Reinas partiendo el tablero
+ * por una fila frontera (encuentro a mitad de camino).
+ * • Abajo: se enumeran una sola vez todas las colocaciones de las últimas k filas y se
+ *   agrupan por el conjunto de columnas que ocupan (la "frontera").
+ * • Arriba: el backtracking con máscaras llega hasta la frontera y, en vez de bajar las
+ *   k filas que quedan, pregunta a la tabla cuántas colocaciones de abajo usan justo
+ *   las columnas libres y no chocan con sus diagonales.
+ * • La pregunta es por bits: en cada grupo hay, por cada bit de diagonal, el conjunto
+ *   (en un bitset) de colocaciones que lo pisan. Se quitan los conjuntos de las diagonales
+ *   ocupadas arriba y se cuentan los bits que quedan: 64 colocaciones por operación.
+ * • Simetría de espejo: sólo se recorren las reinas de la primera fila en la mitad
+ *   izquierda y se cuentan dos veces (la columna central, una).
+ * Más filas frontera = menos trabajo arriba y una tabla más grande: k se elige con el heap
+ * libre (ver {@link #elegirFilas(int)}). Es un modo sólo de conteo: no da las soluciones.
+ */
+public class ContadorFronteraNReinas {
+    // Bytes por colocación de abajo mientras se construye la tabla (sus dos máscaras)
+    private static final int BYTES_COLOCACION = 8;
+    // Sin tabla que merezca la pena (demasiado pequeña para ahorrar nada)
+    private static final int MIN_N = 6;
+
+    private final int n;
+    private final int k;              // Filas de abajo que resuelve la tabla
+    private final int corte;          // Primera fila de la frontera (n - k)
+    private final int todas;          // Máscara con los n bits bajos a 1
+    private final long[][] binomios;  // Para numerar los conjuntos de k columnas
+
+    // Tabla, por grupo (conjunto de columnas numerado de 0 a C(n, k) - 1):
+    private int[] palabras;          // Longitud de cada bitset (palabras de 64 bits)
+    private long[] desplazamiento;   // Dónde empiezan sus bitsets en bits[]
+    private int[] unionIzq, unionDer; // Diagonales que pisa alguna de sus colocaciones
+    private long[] bits;              // [todas][una fila por bit de unionIzq][una por bit de unionDer]
+    private long colocaciones;        // Colocaciones de abajo guardadas
+    private int maxPalabras;          // Bitset más largo (tamaño del acumulador de cada hilo)
+
+    /** Crea el contador eligiendo las filas frontera según el heap libre. */
+    public ContadorFronteraNReinas(int n) {
+        this(n, elegirFilas(n));
+    }
+
+    /**
+     * @param n     tamaño del tablero (1..31)
+     * @param filas filas de abajo que resuelve la tabla (1..n-1; 0 = sin tabla, sólo con N pequeño)
+     */
+    public ContadorFronteraNReinas(int n, int filas) {
+        if (n < 1 || n > 31) {
+            throw new IllegalArgumentException("N debe estar entre 1 y 31.");
+        }
+        if (filas < 0 || filas > n - 1) {
+            throw new IllegalArgumentException("Las filas frontera deben estar entre 0 y " + (n - 1) + ".");
+        }
+        this.n = n;
+        this.k = filas;
+        this.corte = n - filas;
+        this.todas = (int) ((1L << n) - 1);
+        this.binomios = new long[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            binomios[i][0] = 1;
+            for (int j = 1; j <= i; j++) {
+                binomios[i][j] = binomios[i - 1][j - 1] + binomios[i - 1][j];
+            }
+        }
+    }
+
+    /**
+     * Filas frontera para este N: la mitad del tablero (así arriba y abajo cuestan
+     * parecido), o menos si la tabla no cabe en el heap libre. Se cuentan antes las
+     * colocaciones de cada k (parando en cuanto se pasan de lo que cabe).
+     * @return filas frontera; 0 si N es tan pequeño que no compensa
+     */
+    public static int elegirFilas(int n) {
+        if (n < MIN_N) return 0;
+        int elegidas = 0;
+        for (int filas = 1; filas <= n / 2; filas++) {
+            long tope = Planificador.memoriaLibre() / BYTES_COLOCACION;
+            long cuantas = contarColocaciones(n, filas, tope);
+            if (cuantas > tope || !Planificador.cabeEnMemoria(bytesTabla(n, filas, cuantas))) break;
+            elegidas = filas;
+        }
+        return elegidas;
+    }
+
+    /** Memoria estimada (por arriba) de la tabla con esas colocaciones. */
+    static long bytesTabla(int n, int filas, long colocaciones) {
+        long grupos = binomio(n, filas);
+        long palabras = colocaciones / 64 + grupos;   // Cada grupo redondea hacia arriba
+        long filasBitset = 1 + 2L * Math.min(n, 2 * filas);
+        return Planificador.bytes(colocaciones, BYTES_COLOCACION)
+                + Planificador.bytes(grupos, 24)
+                + Planificador.bytes(palabras * filasBitset, 8);
+    }
+
+    private static long binomio(int n, int k) {
+        long r = 1;
+        for (int i = 1; i <= k; i++) {
+            r = r * (n - k + i) / i;
+        }
+        return r;
+    }
+
+    /** @return colocaciones sin ataques de reinas en las primeras filas (o tope + 1 si hay más) */
+    private static long contarColocaciones(int n, int filas, long tope) {
+        long[] cuenta = new long[1];
+        contarColocaciones(n, (int) ((1L << n) - 1), filas, 0, 0, 0, 0, cuenta, tope);
+        return cuenta[0];
+    }
+
+    private static void contarColocaciones(int n, int todas, int filas, int fila,
+                                           int cols, int izq, int der, long[] cuenta, long tope) {
+        if (fila == filas) {
+            cuenta[0]++;
+            return;
+        }
+        int libres = todas & ~(cols | izq | der);
+        while (libres != 0 && cuenta[0] <= tope) {
+            int bit = libres & -libres;
+            libres -= bit;
+            contarColocaciones(n, todas, filas, fila + 1, cols | bit,
+                    ((izq | bit) << 1) & todas, (der | bit) >>> 1, cuenta, tope);
+        }
+    }
+
+    // -------------------- TABLA DE ABAJO --------------------
+
+    /** Enumera las colocaciones de las k filas de abajo y monta los bitsets de cada grupo. */
+    private void construirTabla() {
+        int grupos = (int) binomios[n][k];
+        // 1) Cuántas colocaciones hay de cada grupo, para dejarlas contiguas
+        int[] inicio = new int[grupos + 1];
+        abajo(0, 0, 0, 0, 0, 0, inicio, null, null);
+        long total = 0;
+        for (int g = 0; g < grupos; g++) {
+            int m = inicio[g];
+            inicio[g] = (int) total;
+            total += m;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Demasiadas colocaciones para la tabla (" + total + ").");
+        }
+        inicio[grupos] = (int) total;
+        colocaciones = total;
+
+        // 2) Sus máscaras de diagonales, ya agrupadas
+        int[] izqs = new int[(int) total], ders = new int[(int) total];
+        int[] cursor = inicio.clone();
+        abajo(0, 0, 0, 0, 0, 0, cursor, izqs, ders);
+
+        // 3) Bitsets de cada grupo: sólo filas para las diagonales que aparecen
+        palabras = new int[grupos];
+        desplazamiento = new long[grupos];
+        unionIzq = new int[grupos];
+        unionDer = new int[grupos];
+        long totalPalabras = 0;
+        for (int g = 0; g < grupos; g++) {
+            int ui = 0, ud = 0;
+            for (int i = inicio[g]; i < inicio[g + 1]; i++) {
+                ui |= izqs[i];
+                ud |= ders[i];
+            }
+            unionIzq[g] = ui;
+            unionDer[g] = ud;
+            palabras[g] = (inicio[g + 1] - inicio[g] + 63) >>> 6;
+            maxPalabras = Math.max(maxPalabras, palabras[g]);
+            desplazamiento[g] = totalPalabras;
+            totalPalabras += (long) palabras[g] * (1 + Integer.bitCount(ui) + Integer.bitCount(ud));
+        }
+        if (totalPalabras > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("La tabla no cabe en un array (" + totalPalabras + " palabras).");
+        }
+        bits = new long[(int) totalPalabras];
+        for (int g = 0; g < grupos; g++) {
+            int w = palabras[g];
+            int base = (int) desplazamiento[g];
+            int filasIzq = Integer.bitCount(unionIzq[g]);
+            for (int i = inicio[g]; i < inicio[g + 1]; i++) {
+                int q = i - inicio[g];
+                long bit = 1L << q;
+                int palabra = q >>> 6;
+                bits[base + palabra] |= bit;                     // Fila "todas"
+                for (int m = izqs[i]; m != 0; m &= m - 1) {
+                    int fila = 1 + Integer.bitCount(unionIzq[g] & ((m & -m) - 1));
+                    bits[base + fila * w + palabra] |= bit;
+                }
+                for (int m = ders[i]; m != 0; m &= m - 1) {
+                    int fila = 1 + filasIzq + Integer.bitCount(unionDer[g] & ((m & -m) - 1));
+                    bits[base + fila * w + palabra] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Backtracking de las k filas de abajo (j = fila relativa a la frontera).
+     * En cada colocación anota qué bits de las máscaras de diagonales de arriba, vistas
+     * en la fila frontera, la atacarían: la reina (corte + j, c) cae en la diagonal ↘
+     * de arriba c - j y en la ↙ c + j.
+     * Sin destino sólo cuenta por grupo; con destino, guarda las máscaras.
+     */
+    private void abajo(int j, int cols, int izq, int der, int pisaIzq, int pisaDer,
+                       int[] cursor, int[] izqs, int[] ders) {
+        if (j == k) {
+            int g = numerar(cols);
+            if (izqs == null) {
+                cursor[g]++;
+            } else {
+                int i = cursor[g]++;
+                izqs[i] = pisaIzq;
+                ders[i] = pisaDer;
+            }
+            return;
+        }
+        int libres = todas & ~(cols | izq | der);
+        while (libres != 0) {
+            int bit = libres & -libres;
+            libres -= bit;
+            int c = Integer.numberOfTrailingZeros(bit);
+            abajo(j + 1, cols | bit, ((izq | bit) << 1) & todas, (der | bit) >>> 1,
+                    c - j >= 0 ? pisaIzq | (1 << (c - j)) : pisaIzq,
+                    c + j < n ? pisaDer | (1 << (c + j)) : pisaDer,
+                    cursor, izqs, ders);
+        }
+    }
+
+    /** @return el número (0..C(n,k)-1) del conjunto de k columnas, en el sistema combinatorio */
+    private int numerar(int columnas) {
+        long r = 0;
+        int i = 1;
+        for (int m = columnas; m != 0; m &= m - 1, i++) {
+            r += binomios[Integer.numberOfTrailingZeros(m)][i];
+        }
+        return (int) r;
+    }
+
+    // -------------------- CONTEO --------------------
+
+    /** @return número total de soluciones (la tabla se construye en la primera llamada) */
+    public long contar() {
+        if (k > 0 && bits == null) construirTabla();
+        // Primera fila: mitad izquierda por dos, y la central (N impar) una vez
+        return IntStream.range(0, (n + 1) / 2).parallel()
+                .mapToLong(c -> {
+                    int bit = 1 << c;
+                    long cuenta = arriba(1, bit, (bit << 1) & todas, bit >>> 1, new long[maxPalabras]);
+                    return (n % 2 == 1 && c == n / 2) ? cuenta : 2 * cuenta;
+                })
+                .sum();
+    }
+
+    /** Backtracking de arriba hasta la frontera, donde se cuenta con la tabla. */
+    private long arriba(int fila, int cols, int izq, int der, long[] acumulado) {
+        if (fila == corte) return k == 0 ? 1 : juntar(cols, izq, der, acumulado);
+        long total = 0;
+        int libres = todas & ~(cols | izq | der);
+        while (libres != 0) {
+            int bit = libres & -libres;
+            libres -= bit;
+            total += arriba(fila + 1, cols | bit, ((izq | bit) << 1) & todas, (der | bit) >>> 1, acumulado);
+        }
+        return total;
+    }
+
+    /**
+     * Colocaciones de abajo con las columnas libres que no pisan las diagonales de arriba.
+     * @param acumulado auxiliar del hilo (maxPalabras huecos): colocaciones que siguen valiendo
+     */
+    private long juntar(int cols, int izq, int der, long[] acumulado) {
+        int g = numerar(todas & ~cols);
+        int w = palabras[g];
+        if (w == 0) return 0;
+        int base = (int) desplazamiento[g];
+        int ui = unionIzq[g], ud = unionDer[g];
+        int filasIzq = Integer.bitCount(ui);
+        System.arraycopy(bits, base, acumulado, 0, w);
+        // Se quita, fila a fila, cada diagonal ocupada arriba que pisa alguna colocación del grupo
+        for (int d = izq & ui; d != 0; d &= d - 1) {
+            quitar(acumulado, base + (1 + Integer.bitCount(ui & ((d & -d) - 1))) * w, w);
+        }
+        for (int d = der & ud; d != 0; d &= d - 1) {
+            quitar(acumulado, base + (1 + filasIzq + Integer.bitCount(ud & ((d & -d) - 1))) * w, w);
+        }
+        long cuenta = 0;
+        for (int p = 0; p < w; p++) {
+            cuenta += Long.bitCount(acumulado[p]);
+        }
+        return cuenta;
+    }
+
+    /** acumulado &= ~bits[desde .. desde + w) */
+    private void quitar(long[] acumulado, int desde, int w) {
+        for (int p = 0; p < w; p++) {
+            acumulado[p] &= ~bits[desde + p];
+        }
+    }
+
+    // -------------------- GETTERS --------------------
+
+    /** @return el tamaño del tablero */
+    public int getN() {
+        return n;
+    }
+
+    /** @return filas de abajo que resuelve la tabla */
+    public int getFilasFrontera() {
+        return k;
+    }
+
+    /** @return colocaciones de abajo guardadas en la tabla (0 si aún no se ha construido) */
+    public long getColocaciones() {
+        return colocaciones;
+    }
+
+    /** @return bytes que ocupa la tabla (0 si aún no se ha construido) */
+    public long getBytesTabla() {
+        if (bits == null) return 0;
+        return 8L * bits.length + 24L * palabras.length;
+    }
+}
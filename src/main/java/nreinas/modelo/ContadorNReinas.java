@@ -0,0 +1,180 @@
+package nreinas.modelo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * ContadorNReinas: cuenta (o enumera) todas las soluciones de las N Reinas
+ * repartiendo la búsqueda en unidades de trabajo numeradas.
+ * • Cada unidad es un prefijo válido de las primeras filas (la columna de la reina en cada una).
+ * • Al acabar una unidad se anota su cuenta parcial en un {@link DiarioUnidades},
+ *   de modo que una ejecución reiniciada continúa desde el último punto de control.
+ * • La búsqueda dentro de cada unidad usa máscaras de bits (columnas y diagonales).
+ */
+public class ContadorNReinas {
+    private final int n;              // Tamaño del tablero
+    private final int filasPrefijo;   // Filas que fija cada unidad de trabajo
+    private final int todas;          // Máscara con los n bits bajos a 1
+    private final List<int[]> unidades = new ArrayList<>(); // Prefijos numerados
+
+    /** Crea el contador con el número de filas de prefijo por defecto (3, o N si es menor). */
+    public ContadorNReinas(int n) {
+        this(n, Math.min(n, 3));
+    }
+
+    /**
+     * @param n            tamaño del tablero (1..31)
+     * @param filasPrefijo filas que fija cada unidad (1..n)
+     */
+    public ContadorNReinas(int n, int filasPrefijo) {
+        if (n < 1 || n > 31) {
+            throw new IllegalArgumentException("N debe estar entre 1 y 31.");
+        }
+        if (filasPrefijo < 1 || filasPrefijo > n) {
+            throw new IllegalArgumentException("El prefijo debe tener entre 1 y " + n + " filas.");
+        }
+        this.n = n;
+        this.filasPrefijo = filasPrefijo;
+        this.todas = (1 << n) - 1;
+        generarUnidades(0, 0, 0, 0, new int[filasPrefijo]);
+    }
+
+    /** Recorre las primeras filas y guarda, en orden, cada prefijo sin ataques. */
+    private void generarUnidades(int fila, int cols, int diagIzq, int diagDer, int[] prefijo) {
+        if (fila == filasPrefijo) {
+            unidades.add(prefijo.clone());
+            return;
+        }
+        for (int col = 0; col < n; col++) {
+            int bit = 1 << col;
+            if (((cols | diagIzq | diagDer) & bit) != 0) continue;
+            prefijo[fila] = col;
+            generarUnidades(fila + 1, cols | bit, (diagIzq | bit) << 1, (diagDer | bit) >>> 1, prefijo);
+        }
+    }
+
+    // -------------------- GETTERS --------------------
+
+    /** @return el tamaño del tablero */
+    public int getN() {
+        return n;
+    }
+
+    /** @return las filas fijadas por cada unidad */
+    public int getFilasPrefijo() {
+        return filasPrefijo;
+    }
+
+    /** @return el número total de unidades de trabajo */
+    public int getNumeroUnidades() {
+        return unidades.size();
+    }
+
+    /** @return una copia del prefijo (columna por fila) de la unidad indicada */
+    public int[] getUnidad(int indice) {
+        return unidades.get(indice).clone();
+    }
+
+    // -------------------- UNIDADES SUELTAS --------------------
+
+    /** Cuenta las soluciones que empiezan por el prefijo de la unidad indicada. */
+    public long contarUnidad(int indice) {
+        return recorrerUnidad(indice, null);
+    }
+
+    /**
+     * Cuenta y entrega cada solución de una unidad.
+     * @param consumidor recibe una copia de la solución (columna de la reina en cada fila)
+     */
+    public long enumerarUnidad(int indice, Consumer<int[]> consumidor) {
+        return recorrerUnidad(indice, consumidor);
+    }
+
+    private long recorrerUnidad(int indice, Consumer<int[]> consumidor) {
+        int[] prefijo = unidades.get(indice);
+        int[] reinas = new int[n];
+        int cols = 0, diagIzq = 0, diagDer = 0;
+        // Reconstruimos las máscaras aplicando el prefijo fila a fila
+        for (int fila = 0; fila < filasPrefijo; fila++) {
+            int bit = 1 << prefijo[fila];
+            reinas[fila] = prefijo[fila];
+            cols |= bit;
+            diagIzq = (diagIzq | bit) << 1;
+            diagDer = (diagDer | bit) >>> 1;
+        }
+        return contarDesde(filasPrefijo, cols, diagIzq, diagDer, reinas, consumidor);
+    }
+
+    /**
+     * Backtracking con máscaras: en cada fila sólo se prueban las columnas libres.
+     * @return número de soluciones que completan el tablero desde esta fila
+     */
+    private long contarDesde(int fila, int cols, int diagIzq, int diagDer,
+                             int[] reinas, Consumer<int[]> consumidor) {
+        if (fila == n) {
+            if (consumidor != null) consumidor.accept(reinas.clone());
+            return 1;
+        }
+        long total = 0;
+        int libres = todas & ~(cols | diagIzq | diagDer);
+        while (libres != 0) {
+            int bit = libres & -libres; // Columna libre más baja
+            libres -= bit;
+            reinas[fila] = Integer.numberOfTrailingZeros(bit);
+            total += contarDesde(fila + 1, cols | bit,
+                    (diagIzq | bit) << 1, (diagDer | bit) >>> 1, reinas, consumidor);
+        }
+        return total;
+    }
+
+    // -------------------- EJECUCIÓN CON PUNTOS DE CONTROL --------------------
+
+    /**
+     * Cuenta todas las soluciones anotando cada unidad terminada en el diario.
+     * Si el diario ya existe, sólo se procesan las unidades pendientes.
+     * @param archivoDiario ruta del diario de solo-añadir
+     * @return número total de soluciones
+     */
+    public long contar(Path archivoDiario) throws IOException {
+        return procesar(archivoDiario, null);
+    }
+
+    /**
+     * Igual que {@link #contar(Path)} pero entregando cada solución encontrada.
+     * Las unidades se recorren en paralelo, así que el consumidor debe ser seguro entre hilos.
+     * Tras un reinicio sólo se entregan las soluciones de las unidades pendientes.
+     */
+    public long enumerar(Path archivoDiario, Consumer<int[]> consumidor) throws IOException {
+        return procesar(archivoDiario, consumidor);
+    }
+
+    private long procesar(Path archivoDiario, Consumer<int[]> consumidor) throws IOException {
+        try (DiarioUnidades diario = DiarioUnidades.abrir(
+                archivoDiario, n, filasPrefijo, unidades.size())) {
+            long yaContadas = diario.sumaCompletadas();
+            try {
+                long nuevas = IntStream.range(0, unidades.size())
+                        .filter(i -> !diario.estaCompletada(i))
+                        .parallel()
+                        .mapToLong(i -> {
+                            long cuenta = recorrerUnidad(i, consumidor);
+                            try {
+                                diario.registrar(i, cuenta);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            return cuenta;
+                        })
+                        .sum();
+                return yaContadas + nuevas;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
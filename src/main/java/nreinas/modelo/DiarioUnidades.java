@@ -0,0 +1,139 @@
+package nreinas.modelo;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * DiarioUnidades: fichero local de solo-añadir donde se anotan las unidades
+ * de trabajo ya terminadas y su cuenta parcial.
+ * • Primera línea: cabecera con N, filas del prefijo y número de unidades.
+ * • Resto de líneas: "indice cuenta", una por unidad completada.
+ * Si la JVM muere a mitad de una escritura, la última línea incompleta se descarta
+ * al reabrir el diario, así que nunca se pierde más que la unidad en curso (si la
+ * cortada es la cabecera, el diario se vuelve a crear vacío).
+ */
+public class DiarioUnidades implements Closeable {
+    private final FileChannel canal;   // Canal abierto en modo añadir
+    private final long[] cuentas;      // Cuenta de cada unidad, -1 si aún está pendiente
+
+    private DiarioUnidades(FileChannel canal, long[] cuentas) {
+        this.canal = canal;
+        this.cuentas = cuentas;
+    }
+
+    /**
+     * Abre (o crea) el diario para una configuración concreta.
+     * @param archivo      ruta del diario
+     * @param n            tamaño del tablero
+     * @param filasPrefijo filas que fija cada unidad de trabajo
+     * @param unidades     número total de unidades
+     * @return el diario con las unidades ya completadas cargadas
+     * @throws IOException si no se puede leer o escribir el fichero
+     */
+    public static DiarioUnidades abrir(Path archivo, int n, int filasPrefijo, int unidades)
+            throws IOException {
+        String cabecera = "# diario N-Reinas n=" + n + " prefijo=" + filasPrefijo
+                + " unidades=" + unidades;
+        long[] cuentas = new long[unidades];
+        Arrays.fill(cuentas, -1);
+
+        long bytesValidos = 0;
+        if (Files.exists(archivo) && Files.size(archivo) > 0) {
+            try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.US_ASCII)) {
+                String primera = lector.readLine();
+                long tamano = Files.size(archivo);
+                // Cabecera sin '\n' final: se cortó al crearlo, así que no hay nada que
+                // conservar y el diario se rehace (bytesValidos se queda en 0)
+                boolean cabeceraEntera = primera != null && primera.length() + 1 <= tamano;
+                if (cabeceraEntera && !cabecera.equals(primera)) {
+                    throw new IllegalArgumentException(
+                            "El diario " + archivo + " pertenece a otra configuración: " + primera);
+                }
+                if (cabeceraEntera) bytesValidos = primera.length() + 1;
+                String linea;
+                while (cabeceraEntera && (linea = lector.readLine()) != null) {
+                    // Una línea sin '\n' final es una escritura cortada: la ignoramos
+                    if (bytesValidos + linea.length() + 1 > tamano) break;
+                    String[] partes = linea.trim().split(" ");
+                    if (partes.length != 2) break;
+                    try {
+                        int indice = Integer.parseInt(partes[0]);
+                        long cuenta = Long.parseLong(partes[1]);
+                        if (indice < 0 || indice >= unidades || cuenta < 0) break;
+                        cuentas[indice] = cuenta;
+                    } catch (NumberFormatException ex) {
+                        break;
+                    }
+                    bytesValidos += linea.length() + 1;
+                }
+            }
+        }
+
+        FileChannel canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (bytesValidos == 0) {
+            canal.truncate(0);
+            escribir(canal, cabecera + "\n");
+        } else {
+            // Quitamos cualquier resto de una escritura interrumpida
+            canal.truncate(bytesValidos);
+        }
+        canal.position(canal.size());
+        return new DiarioUnidades(canal, cuentas);
+    }
+
+    /** @return true si la unidad ya figura como terminada en el diario */
+    public synchronized boolean estaCompletada(int indice) {
+        return cuentas[indice] >= 0;
+    }
+
+    /** @return la suma de las cuentas de todas las unidades terminadas */
+    public synchronized long sumaCompletadas() {
+        long suma = 0;
+        for (long c : cuentas) {
+            if (c > 0) suma += c;
+        }
+        return suma;
+    }
+
+    /** @return cuántas unidades constan como terminadas */
+    public synchronized int unidadesCompletadas() {
+        int total = 0;
+        for (long c : cuentas) {
+            if (c >= 0) total++;
+        }
+        return total;
+    }
+
+    /**
+     * Anota una unidad terminada y fuerza la escritura a disco (punto de control).
+     * @param indice número de la unidad
+     * @param cuenta soluciones encontradas en ella
+     */
+    public synchronized void registrar(int indice, long cuenta) throws IOException {
+        if (cuentas[indice] >= 0) return; // Ya estaba anotada
+        escribir(canal, indice + " " + cuenta + "\n");
+        canal.force(false);
+        cuentas[indice] = cuenta;
+    }
+
+    private static void escribir(FileChannel canal, String texto) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(texto.getBytes(StandardCharsets.US_ASCII));
+        while (buf.hasRemaining()) {
+            canal.write(buf);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+}
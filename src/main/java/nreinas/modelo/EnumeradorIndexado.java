@@ -0,0 +1,148 @@
+package nreinas.modelo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * EnumeradorIndexado: da la solución número i de las N Reinas (orden lexicográfico)
+ * sin guardar todas, a diferencia de {@link ConjuntoSoluciones}.
+ * • Reparte la búsqueda en las unidades de un {@link ContadorNReinas} (prefijos de
+ *   {@link #FILAS_PREFIJO} filas, de unas decenas a unos miles de soluciones cada una).
+ * • Primero cuenta cada unidad y guarda la suma acumulada: con ella, una búsqueda binaria
+ *   dice en qué unidad cae cada índice.
+ * • La unidad se enumera entera cuando se pide y se guarda como "página" (un byte por
+ *   reina) en una caché LRU de {@link #PAGINAS_EN_CACHE} páginas: las soluciones vecinas,
+ *   que es lo que pide una galería al desplazarse, salen de la misma página.
+ * El recuento va por bloques ({@link #contarBloque()}) y las unidades se cuentan en orden,
+ * así que las soluciones con índice conocido son siempre un prefijo 0..getConocidas()-1
+ * que crece mientras se cuenta: se puede ir mostrando sin esperar al total.
+ * Un hilo cuenta y otro (u otros) consulta con get(); no hace falta más sincronización.
+ */
+public class EnumeradorIndexado {
+    // Con más, la lista de prefijos y las páginas crecen demasiado (N=20 ya son 39.029 millones)
+    public static final int MAX_N = 20;
+    public static final int FILAS_PREFIJO = 5;
+    public static final int UNIDADES_POR_BLOQUE = 256;
+    public static final int PAGINAS_EN_CACHE = 32;
+
+    private final int n;
+    private final ContadorNReinas contador;
+    private final long[] acumulado;          // acumulado[u]: soluciones de las unidades 0..u-1
+    private volatile int contadas;           // Unidades con acumulado[u+1] ya escrito
+
+    // Páginas: unidad -> soluciones seguidas, n bytes cada una (la menos usada sale primero)
+    private final Map<Integer, byte[]> paginas =
+            new LinkedHashMap<Integer, byte[]>(PAGINAS_EN_CACHE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> mayor) {
+                    return size() > PAGINAS_EN_CACHE;
+                }
+            };
+
+    /** @param n tamaño del tablero (1..{@link #MAX_N}) */
+    public EnumeradorIndexado(int n) {
+        if (n < 1 || n > MAX_N) {
+            throw new IllegalArgumentException("N debe estar entre 1 y " + MAX_N + ".");
+        }
+        this.n = n;
+        this.contador = new ContadorNReinas(n, Math.min(n, FILAS_PREFIJO));
+        this.acumulado = new long[contador.getNumeroUnidades() + 1];
+    }
+
+    // -------------------- RECUENTO --------------------
+
+    /**
+     * Cuenta las {@link #UNIDADES_POR_BLOQUE} unidades siguientes (en paralelo) y las publica.
+     * Sólo debe llamarlo un hilo.
+     * @return false si ya estaban todas contadas
+     */
+    public boolean contarBloque() {
+        int desde = contadas;
+        int total = contador.getNumeroUnidades();
+        if (desde >= total) return false;
+        int hasta = Math.min(total, desde + UNIDADES_POR_BLOQUE);
+        long[] cuentas = new long[hasta - desde];
+        IntStream.range(desde, hasta).parallel()
+                .forEach(u -> cuentas[u - desde] = contador.contarUnidad(u));
+        for (int u = desde; u < hasta; u++) {
+            acumulado[u + 1] = acumulado[u] + cuentas[u - desde];
+        }
+        // La escritura volátil publica los acumulados de arriba a quien lea 'contadas'
+        contadas = hasta;
+        return true;
+    }
+
+    /** @return true si ya se han contado todas las unidades */
+    public boolean isCompleto() {
+        return contadas == contador.getNumeroUnidades();
+    }
+
+    /** @return soluciones cuyo índice ya se conoce (el total cuando isCompleto()) */
+    public long getConocidas() {
+        return acumulado[contadas];
+    }
+
+    /** @return fracción de unidades contadas (0..1) */
+    public double getProgreso() {
+        int total = contador.getNumeroUnidades();
+        return total == 0 ? 1 : (double) contadas / total;
+    }
+
+    /** @return el tamaño del tablero */
+    public int getN() {
+        return n;
+    }
+
+    // -------------------- CONSULTA --------------------
+
+    /**
+     * Solución número {@code indice} en orden lexicográfico.
+     * @param destino array de al menos N posiciones donde se escribe (columna de cada fila)
+     * @return destino
+     * @throws IndexOutOfBoundsException si el índice no está entre las ya contadas
+     */
+    public int[] get(long indice, int[] destino) {
+        int hechas = contadas;
+        if (indice < 0 || indice >= acumulado[hechas]) {
+            throw new IndexOutOfBoundsException("Solución " + indice + " fuera de 0.." + (acumulado[hechas] - 1));
+        }
+        // Última unidad que empieza en o antes del índice (y no está vacía)
+        int lo = 0, hi = hechas - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (acumulado[mid] <= indice) lo = mid; else hi = mid - 1;
+        }
+        byte[] pagina = pagina(lo);
+        int desde = (int) (indice - acumulado[lo]) * n;
+        for (int f = 0; f < n; f++) {
+            destino[f] = pagina[desde + f];
+        }
+        return destino;
+    }
+
+    /** @return una copia nueva de la solución número {@code indice} */
+    public int[] get(long indice) {
+        return get(indice, new int[n]);
+    }
+
+    /** Página de la unidad: la de la caché o, si no está, la enumera ahora. */
+    private byte[] pagina(int unidad) {
+        synchronized (paginas) {
+            byte[] pagina = paginas.get(unidad);
+            if (pagina != null) return pagina;
+        }
+        byte[] pagina = new byte[(int) (acumulado[unidad + 1] - acumulado[unidad]) * n];
+        int[] escritas = {0};
+        // Cada unidad enumera en orden lexicográfico
+        contador.enumerarUnidad(unidad, solucion -> {
+            for (int f = 0; f < n; f++) {
+                pagina[escritas[0]++] = (byte) solucion[f];
+            }
+        });
+        synchronized (paginas) {
+            paginas.put(unidad, pagina);
+        }
+        return pagina;
+    }
+}
@@ -0,0 +1,121 @@
+package nreinas.modelo;
+
+import base.modelo.AnilloPasos;
+import base.modelo.EstadoBusqueda;
+
+/**
+ * EstadoNReinas: estado de la búsqueda de las N Reinas, fila a fila.
+ * • board[fila][col] = 1 si hay reina, 0 si está libre.
+ * • Cada candidato es la columna donde se coloca la reina de la fila actual.
+ */
+public class EstadoNReinas implements EstadoBusqueda<EstadoNReinas> {
+    private final int n;
+    private final int[][] board;
+    private int row;   // Siguiente fila por rellenar
+    private AnilloPasos anillo;   // Pasos en vivo (las copias no publican)
+    private boolean abandonado;   // La vista dejó el anillo: no hay que seguir
+
+    /** Estado inicial: tablero N×N vacío. */
+    public EstadoNReinas(int n) {
+        this.n = n;
+        this.board = new int[n][n];
+    }
+
+    private EstadoNReinas(EstadoNReinas otro) {
+        this.n = otro.n;
+        this.board = new int[n][];
+        for (int i = 0; i < n; i++) {
+            board[i] = otro.board[i].clone();
+        }
+        this.row = otro.row;
+        this.abandonado = otro.abandonado;
+    }
+
+    @Override
+    public boolean esSolucion() {
+        return row == n;
+    }
+
+    @Override
+    public int maxCandidatos() {
+        return n;
+    }
+
+    @Override
+    public int candidatos(int[] destino) {
+        // Sin candidatos la búsqueda se deshace sola, sea cual sea su control
+        if (abandonado) return 0;
+        // Columnas de la fila actual donde la reina no queda atacada, de izquierda a derecha
+        int k = 0;
+        for (int col = 0; col < n; col++) {
+            if (isSafe(row, col)) destino[k++] = col;
+        }
+        return k;
+    }
+
+    @Override
+    public void aplicar(int col) {
+        board[row][col] = 1; // Colocamos la reina
+        if (anillo != null && !anillo.publicar(AnilloPasos.COLOCAR, row, col)) abandonar();
+        row++;
+    }
+
+    @Override
+    public void deshacer(int col) {
+        row--;
+        board[row][col] = 0; // Quitamos la reina (backtracking)
+        if (anillo != null && !anillo.publicar(AnilloPasos.QUITAR, row, col)) abandonar();
+    }
+
+    /** La vista ya no mira: se deja de publicar y de ofrecer candidatos. */
+    private void abandonar() {
+        anillo = null;
+        abandonado = true;
+    }
+
+    @Override
+    public int profundidad() {
+        return row;
+    }
+
+    @Override
+    public EstadoNReinas copiar() {
+        return new EstadoNReinas(this);
+    }
+
+    /**
+     * isSafe: comprueba que no haya otra reina en la misma columna o diagonales.
+     * @param row fila donde queremos colocar
+     * @param col columna donde queremos colocar
+     * @return true si está libre de ataques
+     */
+    private boolean isSafe(int row, int col) {
+        // 1) Verificar columna hacia arriba
+        for (int i = 0; i < row; i++) {
+            if (board[i][col] == 1) return false;
+        }
+        // 2) Verificar diagonal superior izquierda
+        for (int i = row - 1, j = col - 1; i >= 0 && j >= 0; i--, j--) {
+            if (board[i][j] == 1) return false;
+        }
+        // 3) Verificar diagonal superior derecha
+        for (int i = row - 1, j = col + 1; i >= 0 && j < n; i--, j++) {
+            if (board[i][j] == 1) return false;
+        }
+        return true; // Si pasa todas, es seguro
+    }
+
+    /**
+     * Publica cada reina colocada o quitada en el anillo (null = no publicar).
+     * Las copias no lo heredan: el anillo admite un único productor.
+     * Si la vista lo abandona, el estado deja de dar candidatos y la búsqueda termina.
+     */
+    public void setAnillo(AnilloPasos anillo) {
+        this.anillo = anillo;
+    }
+
+    /** @return la matriz con 0 y 1 de este estado */
+    public int[][] getTablero() {
+        return board;
+    }
+}
@@ -1,26 +1,43 @@
 package nreinas.modelo;
 
-import base.modelo.AlgoritmoRecursivo;
-import java.util.ArrayList;
-import java.util.List;
+import base.modelo.AlgoritmoBusqueda;
+import base.modelo.AnilloPasos;
+import base.modelo.BufferPasos;
+import base.modelo.CacheSoluciones;
+import base.modelo.PaqueteSoluciones;
+import base.modelo.PlanEjecucion;
+import base.modelo.Planificador;
 import java.util.Arrays;
 import java.io.PrintWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * ProblemaNReinas: resuelve el clásico problema de colocar N reinas en un tablero
  * de N×N de modo que no se ataquen entre sí.
- * • Hereda de AlgoritmoRecursivo → ObjetoBase, así que debe implementar representar()
+ * • Hereda de AlgoritmoBusqueda → AlgoritmoRecursivo → ObjetoBase, así que debe implementar representar()
  */
-public class ProblemaNReinas extends AlgoritmoRecursivo {
+public class ProblemaNReinas extends AlgoritmoBusqueda {
+    // Tablero máximo: con más, en pantalla cada casilla ocupa menos de un píxel
+    public static final int MAX_N = 1000;
+    // Nodos que explora el backtracking (columnas de izquierda a derecha) hasta la
+    // primera solución, medidos para N = 0..31. Crecen a saltos: N=30 cuesta más que N=31.
+    private static final long[] NODOS_PRIMERA_SOLUCION = {
+            0, 1, 0, 0, 8, 5, 31, 9, 113, 41, 102, 52, 261, 111, 1899, 1359,
+            10052, 5374, 41299, 2545, 199635, 8562, 1737188, 25428, 411608, 48683,
+            397699, 454213, 3006298, 1532239, 56429619, 13186250};
+    // Coste medido por nodo (comprobar la casilla recorre la fila, la columna y las diagonales)
+    private static final double NS_POR_NODO = 800;
+    // Si la búsqueda tardaría más, se usa la construcción explícita
+    private static final double SEGUNDOS_MAX_BUSQUEDA = 2;
+
     private int n;           // Tamaño del tablero (N)
     private int[][] board;   // Matriz: 0 = casilla vacía, 1 = reina colocada
-    private List<int[]> pasos; // Lista de posiciones donde se colocan las reinas
+    private final BufferPasos fijas = new BufferPasos();   // Reinas dadas de antemano (fila, columna)
 
-    /** Constructor: indica el nombre al padre y crea la lista vacía de pasos */
+    /** Constructor: indica el nombre al padre (el buffer de pasos lo crea AlgoritmoRecursivo) */
     public ProblemaNReinas() {
         super("Problema de las N Reinas");  // Le decimos a ObjetoBase el nombre
-        pasos = new ArrayList<>();          // Inicializamos la lista de pasos
     }
 
     /**
@@ -41,80 +58,185 @@ public class ProblemaNReinas extends AlgoritmoRecursivo {
         for (int i = 0; i < n; i++) {
             Arrays.fill(board[i], 0);
         }
+        fijas.vaciar();        // Las reinas fijas eran de otro tablero
+        plan = null;
     }
 
     /**
-     * ejecutar: lanza el backtracking empezando por la fila 0.
+     * planificar: la memoria es el tablero (N² enteros, aquí y en el estado de búsqueda);
+     * el tiempo, el de la búsqueda según los nodos medidos. Si la búsqueda tardaría
+     * demasiado (o N es mayor que lo medido) se coloca con {@link ConstruccionNReinas}.
      */
     @Override
-    public void ejecutar() {
-        // Si solve(0) devuelve false, no hay solución (muy raro para N>=4)
-        if (!solve(0)) {
-            System.out.println(
-                    "No se encontró solución para un tablero de " + n + "x" + n);
+    public PlanEjecucion planificar() {
+        long bytes = 8L * n * n;
+        if (!Planificador.cabeEnMemoria(bytes)) {
+            plan = PlanEjecucion.rechazado("El tablero de " + n + "x" + n + " no cabe en memoria.", bytes);
+            return plan;
+        }
+        double segundosBusqueda = segundosBusqueda();
+        if (!fijas.estaVacio() || CacheSoluciones.contiene(claveCache())
+                || PaqueteSoluciones.primeraNReinas(n) != null) {
+            // Dancing Links con reinas fijas, o ya precalculada (aquí o en el paquete)
+            plan = new PlanEjecucion(PlanEjecucion.Estrategia.MATERIALIZADA, bytes, 0);
+        } else if (segundosBusqueda <= SEGUNDOS_MAX_BUSQUEDA) {
+            plan = new PlanEjecucion(PlanEjecucion.Estrategia.MATERIALIZADA, bytes, segundosBusqueda);
+        } else {
+            plan = new PlanEjecucion(PlanEjecucion.Estrategia.CALCULADA, bytes, 0);
+            plan.avisar("La búsqueda tardaría "
+                    + (Double.isInfinite(segundosBusqueda) ? "demasiado"
+                            : "unos " + Planificador.formatearSegundos(segundosBusqueda))
+                    + ": se usa la construcción explícita.");
         }
+        // Tablero final en texto: 3 caracteres por casilla más los saltos de línea
+        long bytesArchivo = 3L * n * n + n + 43;
+        boolean guardar = Planificador.cabeEnDisco(Paths.get("."), bytesArchivo);
+        plan.setArchivo(bytesArchivo, guardar);
+        if (!guardar) {
+            plan.avisar("El tablero final no cabe en el disco: no se guardará.");
+        }
+        return plan;
+    }
+
+    /** @return lo que tardaría el backtracking en dar la primera solución (infinito si no se ha medido) */
+    private double segundosBusqueda() {
+        return (n < NODOS_PRIMERA_SOLUCION.length)
+                ? NODOS_PRIMERA_SOLUCION[n] * NS_POR_NODO / 1e9 : Double.POSITIVE_INFINITY;
     }
 
     /**
-     * solve: método recursivo que coloca reinas fila a fila.
-     * @param row índice de la fila donde intentamos colocar una reina
-     * @return true si coloca todas con éxito, false para backtracking
+     * admiteEnVivo: en vivo se ve el backtracking de verdad (sin caché ni paquete), así
+     * que sólo se admite si esa búsqueda entra en el tiempo que el plan daría por bueno.
+     * Con reinas fijas se completa con Dancing Links, que no depende de eso.
      */
-    private boolean solve(int row) {
-        // Caso base: ya colocamos reinas en todas las filas
-        if (row == n) {
-            // Limpiamos la lista de pasos para llenarla con la solución final
-            pasos.clear();
-            // Recorrer la matriz y guardar cada posición de reina en pasos
-            for (int r = 0; r < n; r++) {
-                for (int c = 0; c < n; c++) {
-                    if (board[r][c] == 1) {
-                        pasos.add(new int[]{r, c});
-                    }
-                }
-            }
-            return true; // ¡Éxito!
-        }
-        // Intentar colocar una reina en cada columna de esta fila
-        for (int col = 0; col < n; col++) {
-            // isSafe devuelve true si es seguro poner reina aquí
-            if (isSafe(row, col)) {
-                board[row][col] = 1; // Colocamos la reina
-                // Llamada recursiva para la siguiente fila
-                if (solve(row + 1)) {
-                    return true;      // Si la siguiente fila funciona, acabamos
-                }
-                board[row][col] = 0; // Si no funciona, quitamos la reina (backtracking)
-            }
+    public boolean admiteEnVivo() {
+        return !fijas.estaVacio() || segundosBusqueda() <= SEGUNDOS_MAX_BUSQUEDA;
+    }
+
+    /**
+     * colocarFija: deja una reina ya puesta antes de resolver; ejecutar() y
+     * contarCompletaciones() sólo buscarán soluciones que la respeten.
+     * @throws IllegalArgumentException si está fuera del tablero o ataca a otra reina fija
+     */
+    public void colocarFija(int fila, int columna) {
+        // Se comprueba ya, para avisar del error en el momento de colocarla
+        CompletadorNReinas completador = nuevoCompletador();
+        completador.fijar(fila, columna);
+        fijas.agregar(fila, columna);
+    }
+
+    /** Quita todas las reinas fijas (vuelve a resolverse desde el tablero vacío). */
+    public void quitarFijas() {
+        fijas.vaciar();
+    }
+
+    /** @return las reinas fijas (fila, columna) */
+    public BufferPasos getFijas() {
+        return fijas;
+    }
+
+    /**
+     * contarCompletaciones: cuántas soluciones respetan las reinas fijas.
+     * Usa Dancing Links, que descarta de golpe todas las casillas atacadas.
+     * Respeta el límite de nodos y la cancelación de AlgoritmoBusqueda.
+     */
+    public long contarCompletaciones() {
+        return nuevoCompletador().contar(nuevoControl());
+    }
+
+    /** Completador de Dancing Links con las reinas fijas ya colocadas. */
+    private CompletadorNReinas nuevoCompletador() {
+        CompletadorNReinas completador = new CompletadorNReinas(n);
+        for (int i = 0; i < fijas.tamano(); i++) {
+            completador.fijar(fijas.get(i, 0), fijas.get(i, 1));
         }
-        return false; // No hay posición válida en esta fila, retrocedemos
+        return completador;
     }
 
     /**
-     * isSafe: comprueba que no haya otra reina en la misma columna o diagonales.
-     * @param row fila donde queremos colocar
-     * @param col columna donde queremos colocar
-     * @return true si está libre de ataques
+     * ejecutar: lanza el backtracking empezando por la fila 0.
+     * La búsqueda la recorre la estrategia de AlgoritmoBusqueda sobre un {@link EstadoNReinas}.
+     * Si el precálculo ya resolvió este N, se reutiliza su solución; si no, la del
+     * {@link PaqueteSoluciones} (la misma que daría la búsqueda, hasta N = 33).
+     * Con reinas fijas se completa el tablero con Dancing Links.
+     * Si el plan es CALCULADA, las reinas salen de la construcción explícita; en vivo,
+     * también si no {@link #admiteEnVivo()} (y se publican para que la vista las vea).
      */
-    private boolean isSafe(int row, int col) {
-        // 1) Verificar columna hacia arriba
-        for (int i = 0; i < row; i++) {
-            if (board[i][col] == 1) return false;
+    @Override
+    public void ejecutar() {
+        // En vivo no se usa la caché: lo que se quiere ver es la búsqueda
+        BufferPasos precalculado = (fijas.estaVacio() && anillo == null)
+                ? CacheSoluciones.obtener(claveCache()) : null;
+        int[] empaquetada = (fijas.estaVacio() && anillo == null && precalculado == null)
+                ? PaqueteSoluciones.primeraNReinas(n) : null;
+        if (!fijas.estaVacio()) {
+            int[] columnas = nuevoCompletador().completar(nuevoControl());
+            // Si no se puede, el resultado es un tablero vacío (no el de la ejecución anterior)
+            pasos.vaciar();
+            if (columnas == null) {
+                System.out.println("Las reinas fijas no se pueden completar en un tablero de "
+                        + n + "x" + n);
+            } else {
+                for (int r = 0; r < n; r++) {
+                    pasos.agregar(r, columnas[r]);
+                }
+            }
+        } else if (precalculado != null) {
+            pasos.copiarDesde(precalculado);
+        } else if (empaquetada != null) {
+            pasos.vaciar();
+            pasos.reservar(n);
+            for (int r = 0; r < n; r++) {
+                pasos.agregar(r, empaquetada[r]);
+            }
+        } else if (anillo != null ? !admiteEnVivo() : (plan != null ? plan : planificar())
+                .getEstrategia() == PlanEjecucion.Estrategia.CALCULADA) {
+            // Sin búsqueda: la reina de cada fila va donde dice la construcción
+            int[] columnas = ConstruccionNReinas.columnas(n);
+            pasos.vaciar();
+            pasos.reservar(n);
+            for (int r = 0; r < n; r++) {
+                pasos.agregar(r, columnas[r]);
+                if (anillo != null && !anillo.publicar(AnilloPasos.COLOCAR, r, columnas[r])) break;
+            }
+        } else {
+            EstadoNReinas inicial = new EstadoNReinas(n);
+            inicial.setAnillo(anillo);
+            EstadoNReinas solucion = buscar(inicial);
+            pasos.vaciar();
+            // Si no hay solución (muy raro para N>=4) o se agotó el presupuesto de nodos
+            if (solucion == null) {
+                System.out.println(
+                        "No se encontró solución para un tablero de " + n + "x" + n);
+            } else {
+                // Guardamos cada posición de reina de la solución en pasos
+                int[][] tableroSolucion = solucion.getTablero();
+                for (int r = 0; r < n; r++) {
+                    for (int c = 0; c < n; c++) {
+                        if (tableroSolucion[r][c] == 1) {
+                            pasos.agregar(r, c);
+                        }
+                    }
+                }
+            }
         }
-        // 2) Verificar diagonal superior izquierda
-        for (int i = row - 1, j = col - 1; i >= 0 && j >= 0; i--, j--) {
-            if (board[i][j] == 1) return false;
+        // Reconstruimos la matriz a partir de las posiciones
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(board[i], 0);
         }
-        // 3) Verificar diagonal superior derecha
-        for (int i = row - 1, j = col + 1; i >= 0 && j < n; i--, j++) {
-            if (board[i][j] == 1) return false;
+        for (int i = 0; i < pasos.tamano(); i++) {
+            board[pasos.get(i, 0)][pasos.get(i, 1)] = 1;
         }
-        return true; // Si pasa todas, es seguro
     }
 
-    /** Devuelve la lista de posiciones de las reinas colocadas (fila, columna). */
+    /** @return la clave de este problema en CacheSoluciones */
+    public String claveCache() {
+        return CacheSoluciones.clave("nreinas", n);
+    }
+
+    /** Devuelve el buffer de posiciones de las reinas colocadas (fila, columna). */
     @Override
-    public List<int[]> getPasos() {
+    public BufferPasos getPasos() {
         return pasos;
     }
 
@@ -143,6 +265,44 @@ public class ProblemaNReinas extends AlgoritmoRecursivo {
         }
     }
 
+    /**
+     * contarSoluciones: cuenta todas las soluciones de este tablero.
+     * El avance se anota en un diario de solo-añadir; si el diario ya existe
+     * (por ejemplo, tras morir la JVM) la cuenta se reanuda desde el último punto de control.
+     * Si el {@link PaqueteSoluciones} trae la cuenta de este N, no se cuenta nada.
+     * @param archivoDiario ruta o nombre del fichero de diario
+     * @return número total de soluciones
+     */
+    public long contarSoluciones(String archivoDiario) throws IOException {
+        // Las cuentas publicadas (N ≤ 27) vienen en el paquete
+        long conocida = PaqueteSoluciones.cuentaNReinas(n);
+        if (conocida >= 0) return conocida;
+        return new ContadorNReinas(n).contar(Paths.get(archivoDiario));
+    }
+
+    /**
+     * contarSolucionesFrontera: cuenta todas las soluciones sin diario, con la tabla de
+     * las últimas filas de {@link ContadorFronteraNReinas} (tantas como quepan en el heap).
+     * Más rápido que contarSoluciones para N = 14..22, pero si se interrumpe empieza de cero.
+     * @return número total de soluciones
+     */
+    public long contarSolucionesFrontera() {
+        if (n > 31) {
+            throw new IllegalStateException("Sólo se cuentan soluciones con N hasta 31.");
+        }
+        return new ContadorFronteraNReinas(n).contar();
+    }
+
+    /**
+     * todasLasSoluciones: enumera y guarda todas las soluciones de este tablero en
+     * un {@link ConjuntoSoluciones} compacto (trie de prefijos comunes).
+     * Sirve para recorrerlas, pedir la k-ésima o comprobar si una colocación es solución
+     * sin volver a buscar. Pensado para N moderados (hasta ~17 con un heap normal).
+     */
+    public ConjuntoSoluciones todasLasSoluciones() {
+        return ConjuntoSoluciones.construir(n);
+    }
+
     /**
      * representar: obligatorio por ObjetoBase.
      * Devuelve un texto descriptivo de este problema.
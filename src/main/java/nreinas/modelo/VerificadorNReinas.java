@@ -0,0 +1,69 @@
+package nreinas.modelo;
+
+import base.modelo.LectorEnteros;
+import base.modelo.ResultadoVerificacion;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * VerificadorNReinas: comprueba en streaming un fichero de guardarTableroFinal.
+ * Exige una reina por fila y que ninguna comparta columna ni diagonal con otra.
+ */
+public class VerificadorNReinas {
+
+    /**
+     * @param archivo fichero con la cabecera y N filas de N valores 0/1
+     * @param n       tamaño del tablero
+     */
+    public static ResultadoVerificacion verificarTablero(Path archivo, int n) throws IOException {
+        if (n < 1) {
+            throw new IllegalArgumentException("El tamaño del tablero debe ser positivo.");
+        }
+        boolean[] columnas = new boolean[n];
+        boolean[] diagonales = new boolean[2 * n - 1];       // fila - columna + n - 1
+        boolean[] antidiagonales = new boolean[2 * n - 1];   // fila + columna
+        int[] valores = new int[n + 1];
+        int fila = 0;
+
+        try (LectorEnteros lector = new LectorEnteros(archivo)) {
+            lector.saltarLinea(); // Cabecera "(0: celda libre, 1: reina)"
+            int k;
+            while ((k = lector.leerLinea(valores)) >= 0) {
+                if (k == 0) continue;
+                if (k != n || fila >= n) {
+                    return ResultadoVerificacion.error(lector.getLinea(), fila,
+                            "se esperaba una fila de " + n + " casillas");
+                }
+                int reina = -1;
+                for (int col = 0; col < n; col++) {
+                    if (valores[col] == 1) {
+                        if (reina >= 0) {
+                            return ResultadoVerificacion.error(lector.getLinea(), fila,
+                                    "hay dos reinas en la fila " + fila);
+                        }
+                        reina = col;
+                    } else if (valores[col] != 0) {
+                        return ResultadoVerificacion.error(lector.getLinea(), fila,
+                                "valor " + valores[col] + " no es 0 ni 1");
+                    }
+                }
+                if (reina < 0) {
+                    return ResultadoVerificacion.error(lector.getLinea(), fila,
+                            "la fila " + fila + " no tiene reina");
+                }
+                int d = fila - reina + n - 1, a = fila + reina;
+                if (columnas[reina] || diagonales[d] || antidiagonales[a]) {
+                    return ResultadoVerificacion.error(lector.getLinea(), fila,
+                            "la reina [" + fila + ", " + reina + "] está atacada");
+                }
+                columnas[reina] = diagonales[d] = antidiagonales[a] = true;
+                fila++;
+            }
+            if (fila != n) {
+                return ResultadoVerificacion.error(lector.getLinea(), fila,
+                        "el tablero tiene " + fila + " filas de " + n);
+            }
+        }
+        return ResultadoVerificacion.correcto(n, n + " reinas sin ataques en " + n + "x" + n);
+    }
+}
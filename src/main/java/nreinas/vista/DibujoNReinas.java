@@ -0,0 +1,91 @@
+package nreinas.vista;
+
+import base.modelo.BufferPasos;
+import base.vista.ExportadorFotogramas;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * DibujoNReinas: pinta el tablero de N Reinas sobre cualquier Graphics
+ * (el panel de la ventana o una imagen para exportar).
+ * • columnaDeFila[r] = columna de la reina de la fila r, o -1 si la fila está vacía.
+ */
+public class DibujoNReinas {
+    private static final String REINA = "\u2655";  // ♕
+    private static final int MIN_CELDA_GLIFO = 12;  // Por debajo el glifo no se distingue: un punto
+
+    private DibujoNReinas() {
+    }
+
+    /** Pinta tablero, reinas y borde centrados en un área de ancho×alto. */
+    public static void dibujar(Graphics g, int ancho, int alto, int n, int[] columnaDeFila) {
+        int cellSize = Math.min(ancho, alto) / n;
+        int boardW = n * cellSize, boardH = n * cellSize;
+        int offsetX = (ancho - boardW) / 2, offsetY = (alto - boardH) / 2;
+
+        // Dibujar tablero
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                g.setColor((i + j) % 2 == 0 ? Color.LIGHT_GRAY : Color.WHITE);
+                g.fillRect(offsetX + j*cellSize, offsetY + i*cellSize, cellSize, cellSize);
+            }
+        }
+
+        // Usar una fuente con glifos Unicode completos
+        g.setFont(new Font("Serif", Font.BOLD, Math.max(1, cellSize/2)));
+        g.setColor(Color.RED);
+        FontMetrics fm = g.getFontMetrics();
+
+        // Dibujar reinas
+        for (int r = 0; r < n; r++) {
+            int c = columnaDeFila[r];
+            if (c < 0) continue;
+            if (cellSize < MIN_CELDA_GLIFO) {
+                // Miniaturas (galería, mosaicos): la casilla entera salvo un margen
+                int margen = cellSize / 6;
+                g.fillOval(offsetX + c*cellSize + margen, offsetY + r*cellSize + margen,
+                        cellSize - 2*margen, cellSize - 2*margen);
+                continue;
+            }
+            int sw = fm.stringWidth(REINA), sh = fm.getAscent();
+            int x = offsetX + c*cellSize + (cellSize - sw)/2;
+            int y = offsetY + r*cellSize + (cellSize + sh)/2;
+            g.drawString(REINA, x, y);
+        }
+
+        // Borde
+        g.setColor(Color.BLACK);
+        g.drawRect(offsetX, offsetY, boardW, boardH);
+    }
+
+    /** Escena para exportar: el fotograma k muestra las k primeras reinas de pasos. */
+    public static ExportadorFotogramas.Escena escena(int n, BufferPasos pasos) {
+        return new ExportadorFotogramas.Escena() {
+            private final int[] columnaDeFila = new int[n];
+            private int colocadas;
+            {
+                Arrays.fill(columnaDeFila, -1);
+            }
+
+            @Override
+            public int totalFotogramas() {
+                return pasos.tamano() + 1;
+            }
+
+            @Override
+            public void avanzar(int fotograma) {
+                for (; colocadas < fotograma; colocadas++) {
+                    columnaDeFila[pasos.get(colocadas, 0)] = pasos.get(colocadas, 1);
+                }
+            }
+
+            @Override
+            public void dibujar(Graphics2D g, int ancho, int alto) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, ancho, alto);
+                DibujoNReinas.dibujar(g, ancho, alto, n, columnaDeFila);
+            }
+        };
+    }
+}
@@ -0,0 +1,302 @@
+package nreinas.vista;
+
+import base.controlador.Dialogos;
+import base.modelo.PaqueteSoluciones;
+import base.vista.VentanaJuego;
+import nreinas.controlador.LanzadorNReinas;
+import nreinas.modelo.EnumeradorIndexado;
+import ui.vista.MenuRecursivo;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * GaleriaNReinas: todas las soluciones de un N en una rejilla de miniaturas, aunque
+ * sean millones.
+ * • Virtual: no hay un componente por solución ni un JScrollPane del tamaño total
+ *   (con millones de filas no cabe en píxeles int). El panel sólo sabe cuál es la primera
+ *   fila visible (un long) y pinta las que caben; la barra lleva esa fila, a escala si
+ *   hay más filas que valores de barra.
+ * • Las soluciones se piden por índice a un {@link EnumeradorIndexado}, que se va
+ *   contando en segundo plano: la rejilla crece mientras tanto.
+ * • Las miniaturas se dibujan en un hilo aparte y se guardan en una caché LRU de
+ *   {@link #MAX_MINIATURAS} imágenes; mientras llega la suya, cada casilla enseña un
+ *   hueco gris. Si al hilo le llega el encargo de una casilla que ya no se ve (se ha
+ *   desplazado deprisa), lo descarta sin dibujarla.
+ */
+public class GaleriaNReinas extends VentanaJuego {
+    private static final int LADO_MINIATURA = 96;
+    private static final int ALTO_PIE = 16;                 // Número de la solución
+    private static final int HUECO = 8;
+    private static final int ANCHO_CELDA = LADO_MINIATURA + HUECO;
+    private static final int ALTO_CELDA = LADO_MINIATURA + ALTO_PIE + HUECO;
+    private static final int MAX_MINIATURAS = 512;          // Unos 20 MB de imágenes
+    private static final int FILAS_POR_MUESCA = 3;          // Rueda del ratón
+    private static final int ESCALA_BARRA = 1 << 30;        // Más filas: la barra va a escala
+
+    private final EnumeradorIndexado enumerador;
+    private final int n;
+    private final PanelMosaicos panel = new PanelMosaicos();
+    private final JScrollBar barra = new JScrollBar(JScrollBar.VERTICAL);
+    private final JLabel lblEstado = new JLabel();
+
+    // Caché LRU de miniaturas por índice (la usan Swing y el hilo que dibuja)
+    private final Map<Long, BufferedImage> miniaturas =
+            new LinkedHashMap<Long, BufferedImage>(MAX_MINIATURAS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> mayor) {
+                    return size() > MAX_MINIATURAS;
+                }
+            };
+    private final Set<Long> encargadas = ConcurrentHashMap.newKeySet();
+    private ExecutorService dibujante;        // Un hilo: dibuja miniaturas
+    private Thread recuento;                  // Cuenta el enumerador por bloques
+
+    private long primeraFila;                 // Fila de arriba del todo
+    private int columnas = 1;
+    private boolean moviendoBarra;            // La barra cambia por código, no por el usuario
+    // Índices visibles [desde, hasta): el hilo que dibuja descarta lo de fuera
+    private volatile long visibleDesde, visibleHasta;
+
+    public GaleriaNReinas(int n) {
+        super("Galería de soluciones: " + n + " Reinas");
+        this.n = n;
+        this.enumerador = new EnumeradorIndexado(n);
+        setSize(900, 700);
+        setLocationRelativeTo(null);
+        initComponents();
+        iniciar();
+    }
+
+    @Override
+    protected void initComponents() {
+        JPanel centro = new JPanel(new BorderLayout());
+        centro.add(panel, BorderLayout.CENTER);
+        centro.add(barra, BorderLayout.EAST);
+        add(centro, BorderLayout.CENTER);
+        panelBotones.add(lblEstado, 0);
+
+        barra.addAdjustmentListener(e -> {
+            if (moviendoBarra) return;
+            primeraFila = deBarra(e.getValue());
+            panel.repaint();
+        });
+        panel.addMouseWheelListener(e -> desplazar((long) e.getWheelRotation() * FILAS_POR_MUESCA));
+        panel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                // Se conserva la primera solución visible al cambiar de columnas
+                long primera = primeraFila * columnas;
+                columnas = Math.max(1, (panel.getWidth() - HUECO) / ANCHO_CELDA);
+                primeraFila = primera / columnas;
+                actualizarBarra();
+            }
+        });
+
+        btnSimular.setText("Ir a la solución…");
+        btnSimular.addActionListener(e -> irA());
+
+        btnVolverMenu.setText("Volver al Menú");
+        // Sustituye al de VentanaJuego: antes de volver hay que parar los hilos
+        for (var l : btnVolverMenu.getActionListeners()) {
+            btnVolverMenu.removeActionListener(l);
+        }
+        btnVolverMenu.addActionListener(e -> {
+            detener();
+            dispose();
+            new MenuRecursivo().mostrarMenu();
+        });
+        actualizarEstado();
+    }
+
+    /** Arranca el recuento (un hilo que avisa a Swing tras cada bloque) y el hilo de miniaturas. */
+    private void iniciar() {
+        dibujante = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "galeria-miniaturas");
+            t.setDaemon(true);
+            return t;
+        });
+        recuento = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted() && enumerador.contarBloque()) {
+                SwingUtilities.invokeLater(() -> {
+                    actualizarEstado();
+                    actualizarBarra();
+                });
+            }
+        }, "galeria-recuento");
+        recuento.setDaemon(true);
+        recuento.start();
+    }
+
+    /** Para el recuento (al acabar el bloque en curso) y el hilo de miniaturas. */
+    private void detener() {
+        if (recuento != null) recuento.interrupt();
+        if (dibujante != null) dibujante.shutdownNow();
+    }
+
+    @Override
+    protected void onReload() {
+        detener();
+        dispose();
+        LanzadorNReinas.ejecutarGaleria();
+    }
+
+    // -------------------- DESPLAZAMIENTO --------------------
+
+    private long filasTotales() {
+        return (enumerador.getConocidas() + columnas - 1) / columnas;
+    }
+
+    private int filasVisibles() {
+        return Math.max(1, panel.getHeight() / ALTO_CELDA);
+    }
+
+    /** Última fila que puede quedar arriba (la última fila conocida se ve entera). */
+    private long maxPrimeraFila() {
+        return Math.max(0, filasTotales() - filasVisibles());
+    }
+
+    private void desplazar(long filas) {
+        primeraFila = Math.max(0, Math.min(maxPrimeraFila(), primeraFila + filas));
+        actualizarBarra();
+    }
+
+    /** Ajusta rango y posición de la barra a las filas conocidas y a la primera fila. */
+    private void actualizarBarra() {
+        primeraFila = Math.min(primeraFila, maxPrimeraFila());
+        int visibles = filasVisibles();
+        moviendoBarra = true;
+        barra.setValues(aBarra(primeraFila), visibles, 0, aBarra(maxPrimeraFila()) + visibles);
+        barra.setBlockIncrement(visibles);
+        moviendoBarra = false;
+        panel.repaint();
+    }
+
+    private int aBarra(long fila) {
+        long max = maxPrimeraFila();
+        if (max <= ESCALA_BARRA) return (int) fila;
+        return (int) ((double) fila / max * ESCALA_BARRA);
+    }
+
+    private long deBarra(int valor) {
+        long max = maxPrimeraFila();
+        if (max <= ESCALA_BARRA) return valor;
+        return Math.min(max, (long) ((double) valor / ESCALA_BARRA * max));
+    }
+
+    /** Pide un número de solución y la deja en la primera fila visible. */
+    private void irA() {
+        long conocidas = enumerador.getConocidas();
+        if (conocidas == 0) {
+            JOptionPane.showMessageDialog(this, "Todavía no hay soluciones contadas.");
+            return;
+        }
+        // Con N=19 o 20 hay miles de millones: no caben en un int
+        Long numero = Dialogos.pedirLargo(String.format("Número de solución (1..%d):", conocidas), 1, conocidas);
+        if (numero == null) return;
+        primeraFila = (numero - 1) / columnas;
+        actualizarBarra();
+    }
+
+    private void actualizarEstado() {
+        long conocidas = enumerador.getConocidas();
+        long total = PaqueteSoluciones.cuentaNReinas(n);
+        if (enumerador.isCompleto()) {
+            lblEstado.setText(String.format("%,d soluciones", conocidas));
+        } else if (total >= 0) {
+            // El paquete ya sabe cuántas habrá
+            lblEstado.setText(String.format("Contando… %,d de %,d soluciones", conocidas, total));
+        } else {
+            lblEstado.setText(String.format("Contando… %,d soluciones (%.0f %%)",
+                    conocidas, enumerador.getProgreso() * 100));
+        }
+    }
+
+    // -------------------- MINIATURAS --------------------
+
+    private BufferedImage miniatura(long indice) {
+        synchronized (miniaturas) {
+            return miniaturas.get(indice);
+        }
+    }
+
+    /** Encarga la miniatura al hilo de dibujo (una sola vez mientras esté pendiente). */
+    private void encargar(long indice) {
+        if (!encargadas.add(indice)) return;
+        try {
+            dibujante.execute(() -> {
+                encargadas.remove(indice);
+                // Ya no se ve: otro repintado la volverá a pedir si hace falta
+                if (indice < visibleDesde || indice >= visibleHasta) return;
+                BufferedImage imagen = dibujar(indice);
+                synchronized (miniaturas) {
+                    miniaturas.put(indice, imagen);
+                }
+                panel.repaint();
+            });
+        } catch (RejectedExecutionException e) {
+            // La ventana se está cerrando
+            encargadas.remove(indice);
+        }
+    }
+
+    private BufferedImage dibujar(long indice) {
+        BufferedImage imagen = new BufferedImage(LADO_MINIATURA, LADO_MINIATURA, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagen.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, LADO_MINIATURA, LADO_MINIATURA);
+        DibujoNReinas.dibujar(g, LADO_MINIATURA, LADO_MINIATURA, n, enumerador.get(indice));
+        g.dispose();
+        return imagen;
+    }
+
+    /**
+     * Panel que pinta sólo las filas visibles a partir de primeraFila. Las casillas sin
+     * miniatura se pintan en gris y se encargan.
+     */
+    private class PanelMosaicos extends JPanel {
+        PanelMosaicos() {
+            setBackground(Color.WHITE);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            // Una fila más por si la última se ve a medias
+            int filas = getHeight() / ALTO_CELDA + 1;
+            long desde = primeraFila * columnas;
+            long hasta = Math.min(enumerador.getConocidas(), desde + (long) filas * columnas);
+            visibleDesde = desde;
+            visibleHasta = hasta;
+
+            FontMetrics fm = g.getFontMetrics();
+            for (long i = desde; i < hasta; i++) {
+                int x = HUECO + (int) ((i - desde) % columnas) * ANCHO_CELDA;
+                int y = HUECO + (int) ((i - desde) / columnas) * ALTO_CELDA;
+                BufferedImage imagen = miniatura(i);
+                if (imagen != null) {
+                    g.drawImage(imagen, x, y, null);
+                } else {
+                    g.setColor(Color.LIGHT_GRAY);
+                    g.fillRect(x, y, LADO_MINIATURA, LADO_MINIATURA);
+                    encargar(i);
+                }
+                g.setColor(Color.DARK_GRAY);
+                String pie = "#" + (i + 1);
+                g.drawString(pie, x + (LADO_MINIATURA - fm.stringWidth(pie)) / 2,
+                        y + LADO_MINIATURA + fm.getAscent());
+            }
+        }
+    }
+}
@@ -2,6 +2,10 @@ package nreinas.vista;
 
 import base.vista.VentanaJuego;
 import nreinas.controlador.LanzadorNReinas;
+import nreinas.modelo.EnumeradorIndexado;
+import base.modelo.AnilloPasos;
+import base.modelo.BufferPasos;
+import base.modelo.ControlBusqueda;
 import nreinas.modelo.ProblemaNReinas;
 import ui.vista.MenuRecursivo;
 
@@ -9,8 +13,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * VentanaNReinas: ventana que muestra paso a paso la solución
@@ -19,18 +22,31 @@ import java.util.ArrayList;
  *   • 🔃 (recargar) para volver a pedir N
  *   • btnSimular   — botón para iniciar la animación
  *   • btnVolverMenu — botón para volver al menú
+ * "Galería" cambia a la {@link GaleriaNReinas} con todas las soluciones del mismo N.
+ * Con "En vivo" no se reproduce la solución ya calculada: se ve el backtracking
+ * mientras ocurre (reinas que se colocan y se quitan), leído de un {@link AnilloPasos}.
  */
 public class VentanaNReinas extends VentanaJuego {
     private final ProblemaNReinas problema;   // Modelo con la lógica
     private NReinasPanel nReinasPanel;        // Panel donde dibujamos el tablero
     private Timer timer;                      // Temporizador para la animación
     private int stepIndex = 0;                // Índice del paso actual
-    private final List<int[]> pasos;          // Posiciones [fila,col] de cada reina
+    private final BufferPasos pasos;          // Posiciones [fila,col] de cada reina
+
+    // Modo en vivo: la búsqueda corre en otro hilo y publica en el anillo
+    private static final int CAPACIDAD_ANILLO = 4096;
+    private static final int EVENTOS_POR_FOTOGRAMA = 20;   // A 30 fps, unas 600 reinas/s
+    private final JCheckBox chkEnVivo = new JCheckBox("En vivo");
+    private AnilloPasos anillo;
+    // Control del que cuelga la búsqueda en vivo: se crea antes de lanzar el hilo para
+    // poder cancelarla aunque éste aún no haya empezado a buscar
+    private ControlBusqueda controlVivo;
+    private final JButton btnGaleria = new JButton("Galería");
 
     public VentanaNReinas(String titulo, ProblemaNReinas problema) {
         super(titulo);
         this.problema = problema;
-        this.pasos    = new ArrayList<>(problema.getPasos());
+        this.pasos    = problema.getPasos();
         initComponents();
     }
 
@@ -42,6 +58,24 @@ public class VentanaNReinas extends VentanaJuego {
 
         // 2) Configurar botón "Iniciar Simulación"
         btnSimular.setText("Iniciar Simulación");
+        chkEnVivo.setToolTipText("Ver el backtracking mientras ocurre");
+        // En vivo no hay caché ni paquete: si la búsqueda no acabaría, ni se ofrece
+        if (!problema.admiteEnVivo()) {
+            chkEnVivo.setEnabled(false);
+            chkEnVivo.setToolTipText("Con " + problema.getParametro() + " reinas el backtracking "
+                    + "tardaría demasiado: se resuelve con la construcción explícita");
+        }
+        panelBotones.add(chkEnVivo, 2);
+        // La galería enseña todas las soluciones de este N (sólo hasta donde se pueden enumerar)
+        btnGaleria.setToolTipText("Ver todas las soluciones de este tablero");
+        btnGaleria.setEnabled(problema.getParametro() <= EnumeradorIndexado.MAX_N);
+        btnGaleria.addActionListener(e -> {
+            if (timer != null && timer.isRunning()) timer.stop();
+            detenerEnVivo();
+            dispose();
+            new GaleriaNReinas(problema.getParametro()).mostrar();
+        });
+        panelBotones.add(btnGaleria, 3);
         btnSimular.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -51,7 +85,15 @@ public class VentanaNReinas extends VentanaJuego {
                     stepIndex = 0;
                     nReinasPanel.reset();
                 }
-                iniciarSimulacion();
+                detenerEnVivo();
+                if (chkEnVivo.isSelected()) {
+                    iniciarEnVivo();
+                } else {
+                    // Se parte de un tablero limpio (puede quedar el de una ejecución en vivo)
+                    stepIndex = 0;
+                    nReinasPanel.reset();
+                    iniciarSimulacion();
+                }
             }
         });
 
@@ -61,6 +103,7 @@ public class VentanaNReinas extends VentanaJuego {
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (timer != null && timer.isRunning()) timer.stop();
+                detenerEnVivo();
                 dispose();
                 new MenuRecursivo().mostrarMenu();
             }
@@ -71,8 +114,8 @@ public class VentanaNReinas extends VentanaJuego {
         timer = new Timer(500, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (stepIndex < pasos.size()) {
-                    nReinasPanel.agregarReina(pasos.get(stepIndex));
+                if (stepIndex < pasos.tamano()) {
+                    nReinasPanel.agregarReina();
                     stepIndex++;
                     nReinasPanel.repaint();
                 } else {
@@ -83,12 +126,69 @@ public class VentanaNReinas extends VentanaJuego {
         timer.start();
     }
 
+    /**
+     * Modo en vivo: ejecuta el algoritmo en otro hilo conectado a un anillo y,
+     * en cada fotograma, aplica al panel los eventos que haya (colocar o quitar reina).
+     * Mientras dura, "Iniciar" queda desactivado: la reproducción normal lee los mismos
+     * pasos que el hilo está escribiendo.
+     */
+    private void iniciarEnVivo() {
+        stepIndex = 0;
+        nReinasPanel.reset();
+        // El hilo escribe en los pasos del problema: hasta que acabe no se pueden reproducir
+        btnSimular.setEnabled(false);
+        AnilloPasos propio = new AnilloPasos(CAPACIDAD_ANILLO);
+        anillo = propio;
+        problema.setAnillo(propio);
+        controlVivo = new ControlBusqueda();
+        problema.setControlPadre(controlVivo);
+        Thread hilo = new Thread(() -> {
+            try {
+                problema.ejecutar();
+            } finally {
+                propio.terminar();
+            }
+        }, "nreinas-en-vivo");
+        hilo.setDaemon(true);
+        hilo.start();
+
+        timer = new Timer(1000 / 30, e -> {
+            propio.drenar((tipo, fila, col) -> {
+                if (tipo == AnilloPasos.COLOCAR) {
+                    nReinasPanel.colocar(fila, col);
+                } else if (tipo == AnilloPasos.QUITAR) {
+                    nReinasPanel.quitar(fila);
+                }
+            }, EVENTOS_POR_FOTOGRAMA);
+            nReinasPanel.repaint();
+            if (propio.isAgotado()) {
+                timer.stop();
+                problema.setAnillo(null);
+                problema.setControlPadre(null);
+                anillo = null;
+                btnSimular.setEnabled(true);
+            }
+        });
+        timer.start();
+    }
+
+    /** Para la búsqueda en vivo (si la hay) y libera su hilo si esperaba a la vista. */
+    private void detenerEnVivo() {
+        if (anillo == null) return;
+        anillo.abandonar();
+        // El control sigue colgado del problema: si el hilo aún no buscaba, nace cancelado
+        controlVivo.cancelar();
+        problema.setAnillo(null);
+        anillo = null;
+    }
+
     /**
      * Recarga la ventana: cierra esta instancia y vuelve a pedir N.
      */
     @Override
     protected void onReload() {
         if (timer != null && timer.isRunning()) timer.stop();
+        detenerEnVivo();
         dispose();
         LanzadorNReinas.ejecutarSimulacion();
     }
@@ -98,55 +198,40 @@ public class VentanaNReinas extends VentanaJuego {
      */
     private class NReinasPanel extends JPanel {
         private final int n;
-        private int cellSize;
-        private final List<int[]> reinasDibujadas = new ArrayList<>();
+        private int reinasDibujadas;   // Cuántas reinas de pasos se ven ya
+        private final int[] columnaDeFila;   // Columna de la reina de cada fila (-1 = ninguna)
 
         public NReinasPanel() {
             this.n = problema.getParametro();
+            this.columnaDeFila = new int[n];
+            Arrays.fill(columnaDeFila, -1);
         }
 
-        public void agregarReina(int[] pos) {
-            reinasDibujadas.add(pos);
+        /** Muestra la siguiente reina del buffer de pasos. */
+        public void agregarReina() {
+            colocar(pasos.get(reinasDibujadas, 0), pasos.get(reinasDibujadas, 1));
+            reinasDibujadas++;
+        }
+
+        /** Pone una reina en (fila, col). */
+        public void colocar(int fila, int col) {
+            columnaDeFila[fila] = col;
+        }
+
+        /** Quita la reina de la fila (vuelta atrás). */
+        public void quitar(int fila) {
+            columnaDeFila[fila] = -1;
         }
 
         public void reset() {
-            reinasDibujadas.clear();
+            reinasDibujadas = 0;
+            Arrays.fill(columnaDeFila, -1);
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            int w = getWidth(), h = getHeight();
-            cellSize = Math.min(w, h) / n;
-            int boardW = n * cellSize, boardH = n * cellSize;
-            int offsetX = (w - boardW) / 2, offsetY = (h - boardH) / 2;
-
-            // Dibujar tablero
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    g.setColor((i + j) % 2 == 0 ? Color.LIGHT_GRAY : Color.WHITE);
-                    g.fillRect(offsetX + j*cellSize, offsetY + i*cellSize, cellSize, cellSize);
-                }
-            }
-
-            // Usar una fuente con glifos Unicode completos
-            g.setFont(new Font("Serif", Font.BOLD, cellSize/2));
-            g.setColor(Color.RED);
-            FontMetrics fm = g.getFontMetrics();
-            String reina = "\u2655";  // ♕
-
-            // Dibujar reinas
-            for (int[] pos : reinasDibujadas) {
-                int r = pos[0], c = pos[1];
-                int sw = fm.stringWidth(reina), sh = fm.getAscent();
-                int x = offsetX + c*cellSize + (cellSize - sw)/2;
-                int y = offsetY + r*cellSize + (cellSize + sh)/2;
-                g.drawString(reina, x, y);
-            }
-
-            // Borde
-            g.setColor(Color.BLACK);
-            g.drawRect(offsetX, offsetY, boardW, boardH);
+            DibujoNReinas.dibujar(g, getWidth(), getHeight(), n, columnaDeFila);
         }
     }
 }
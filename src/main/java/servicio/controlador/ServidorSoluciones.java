@@ -0,0 +1,378 @@
+package servicio.controlador;
+
+import base.modelo.ControlBusqueda;
+import base.modelo.FuentePasos;
+import base.modelo.CacheSoluciones;
+import caballo.modelo.ProblemaCaballo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hanoi.modelo.ProblemaTorresHanoi;
+import nreinas.modelo.ProblemaNReinas;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * ServidorSoluciones: expone los tres problemas por HTTP a otros procesos de la misma máquina.
+ * • GET /caballo?n=8&amp;x=0&amp;y=0, GET /nreinas?n=8, GET /hanoi?n=20
+ * • formato=json (por defecto) o formato=binario (int32: número de pasos y luego cada paso).
+ * • Cada petición corre en su propio hilo virtual.
+ * • Las peticiones idénticas que llegan mientras otra igual se está calculando esperan
+ *   a ese mismo cálculo en vez de repetirlo.
+ * • Cada búsqueda tiene un presupuesto de nodos proporcional al tablero (503 si se
+ *   agota) y cada petición espera como mucho {@value #SEGUNDOS_ESPERA} s (503 también).
+ *   Cuando se va la última petición que esperaba un cálculo, el cálculo se cancela.
+ * • Las respuestas se envían troceadas (chunked) mientras se escriben, sin montar
+ *   la lista completa de movimientos en memoria.
+ */
+public class ServidorSoluciones {
+    private static final int PUERTO_POR_DEFECTO = 8080;
+    // Presupuesto de nodos: por casilla en el caballo, por fila en las N reinas (con más,
+    // el plan de ProblemaNReinas ya habría elegido la construcción explícita)
+    private static final long NODOS_CABALLO_POR_CASILLA = 1000;
+    private static final long NODOS_NREINAS_POR_FILA = 1_000_000;
+    // Lo más que espera una petición a su cálculo (HttpServer no avisa si el cliente se va)
+    private static final int SEGUNDOS_ESPERA = 30;
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    // Cálculos en marcha: clave del problema → cálculo que otras peticiones pueden esperar
+    private final ConcurrentHashMap<String, Calculo> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el servidor escuchando sólo en la interfaz local.
+     * @param puerto puerto TCP (0 = cualquiera libre)
+     */
+    public ServidorSoluciones(int puerto) throws IOException {
+        servidor = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        servidor.createContext("/caballo", ex -> atender(ex, this::resolverCaballo));
+        servidor.createContext("/nreinas", ex -> atender(ex, this::resolverNReinas));
+        servidor.createContext("/hanoi", ex -> atender(ex, this::resolverHanoi));
+        servidor.setExecutor(hilos);
+    }
+
+    /** Arranca el servidor desde la consola: ServidorSoluciones [puerto] */
+    public static void main(String[] args) throws IOException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_POR_DEFECTO;
+        ServidorSoluciones s = new ServidorSoluciones(puerto);
+        s.iniciar();
+        System.out.println("Servidor de soluciones en http://localhost:" + s.getPuerto() + "/");
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    public void detener() {
+        servidor.stop(0);
+        // Las búsquedas que queden no tienen ya a quién responder
+        for (Calculo c : enCurso.values()) {
+            c.control.cancelar();
+        }
+        hilos.shutdown();
+    }
+
+    /** @return el puerto en que escucha (útil si se pidió el 0) */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    // -------------------- PROBLEMAS --------------------
+
+    /**
+     * Problema resuelto y listo para enviar: nombre, clave de coalescencia y cálculo.
+     * El cálculo recibe el control del que debe colgar su búsqueda (para poder cancelarla).
+     */
+    private static final class Peticion {
+        final String algoritmo;
+        final String clave;
+        final Function<ControlBusqueda, FuentePasos> calculo;
+        final int pasosEsperados;   // Pasos de una solución completa (-1 si no se comprueba)
+
+        Peticion(String algoritmo, String clave, Function<ControlBusqueda, FuentePasos> calculo,
+                 int pasosEsperados) {
+            this.algoritmo = algoritmo;
+            this.clave = clave;
+            this.calculo = calculo;
+            this.pasosEsperados = pasosEsperados;
+        }
+    }
+
+    private Peticion resolverCaballo(Map<String, String> p) {
+        int n = entero(p, "n", 1, 200);
+        int x = entero(p, "x", 0, n - 1);
+        int y = entero(p, "y", 0, n - 1);
+        return new Peticion("caballo", CacheSoluciones.clave("caballo", n, x, y), control -> {
+            ProblemaCaballo problema = new ProblemaCaballo();
+            problema.setParametros(n);
+            problema.setStart(x, y);
+            // La cartera de variantes no se atasca donde Warnsdorff solo agota el presupuesto
+            problema.setPortafolio(true);
+            problema.setControlPadre(control);
+            problema.setLimiteNodos(NODOS_CABALLO_POR_CASILLA * n * n);
+            problema.ejecutar();
+            comprobarPresupuesto(problema.getControl());
+            return problema.getPasos();
+        }, n * n);
+    }
+
+    private Peticion resolverNReinas(Map<String, String> p) {
+        int n = entero(p, "n", 1, 31);
+        if (n < 4 && n != 1) {
+            throw new IllegalArgumentException("El tablero debe ser de al menos 4x4 (o 1x1).");
+        }
+        return new Peticion("nreinas", CacheSoluciones.clave("nreinas", n), control -> {
+            ProblemaNReinas problema = new ProblemaNReinas();
+            problema.setParametros(n);
+            problema.setControlPadre(control);
+            problema.setLimiteNodos(NODOS_NREINAS_POR_FILA * n);
+            problema.ejecutar();
+            comprobarPresupuesto(problema.getControl());
+            return problema.getPasos();
+        }, n);
+    }
+
+    private Peticion resolverHanoi(Map<String, String> p) {
+        int n = entero(p, "n", 1, 29);
+        // Sin búsqueda: el número de movimientos ya está acotado por n
+        return new Peticion("hanoi", CacheSoluciones.clave("hanoi", n), control -> {
+            ProblemaTorresHanoi problema = new ProblemaTorresHanoi();
+            problema.setParametros(n);
+            problema.ejecutar();
+            // Si no caben en memoria, los movimientos se calculan mientras se envían
+            return problema.getFuente();
+        }, -1);
+    }
+
+    /** @throws IllegalStateException si la búsqueda se paró por agotar su presupuesto */
+    private static void comprobarPresupuesto(ControlBusqueda control) {
+        if (control.isAgotado()) {
+            throw new IllegalStateException("Se agotó el presupuesto de "
+                    + control.getLimiteNodos() + " nodos sin encontrar solución");
+        }
+    }
+
+    // -------------------- ATENCIÓN DE PETICIONES --------------------
+
+    private interface Resolutor {
+        Peticion crear(Map<String, String> parametros);
+    }
+
+    private void atender(HttpExchange ex, Resolutor resolutor) throws IOException {
+        try (ex) {
+            if (!"GET".equals(ex.getRequestMethod())) {
+                responderError(ex, 405, "Sólo se admite GET");
+                return;
+            }
+            Map<String, String> parametros = parametros(ex.getRequestURI());
+            Peticion peticion;
+            try {
+                peticion = resolutor.crear(parametros);
+            } catch (IllegalArgumentException e) {
+                responderError(ex, 400, e.getMessage());
+                return;
+            }
+
+            FuentePasos pasos;
+            try {
+                pasos = calcularUnaVez(peticion.clave, peticion.calculo);
+            } catch (TimeoutException e) {
+                responderError(ex, 503, "El cálculo tarda más de " + SEGUNDOS_ESPERA + " s");
+                return;
+            } catch (InterruptedException e) {
+                // El servidor se está deteniendo
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IllegalStateException) {
+                    responderError(ex, 503, e.getCause().getMessage());
+                } else {
+                    responderError(ex, 500, String.valueOf(e.getCause()));
+                }
+                return;
+            }
+            if (peticion.pasosEsperados >= 0 && pasos.totalPasos() != peticion.pasosEsperados) {
+                responderError(ex, 422, "No hay solución completa para esos parámetros");
+                return;
+            }
+
+            boolean binario = "binario".equals(parametros.get("formato"));
+            ex.getResponseHeaders().set("Content-Type",
+                    binario ? "application/octet-stream" : "application/json; charset=utf-8");
+            ex.sendResponseHeaders(200, 0); // 0 → respuesta troceada (chunked)
+            try (OutputStream salida = new BufferedOutputStream(ex.getResponseBody(), 1 << 16)) {
+                if (binario) {
+                    escribirBinario(salida, pasos);
+                } else {
+                    escribirJson(salida, peticion.algoritmo, pasos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cálculo compartido por las peticiones con la misma clave: su resultado, el control
+     * del que cuelga la búsqueda y cuántas peticiones lo esperan todavía.
+     */
+    private static final class Calculo {
+        final CompletableFuture<FuentePasos> resultado = new CompletableFuture<>();
+        final ControlBusqueda control = new ControlBusqueda();
+        int esperando;       // Protegido por el propio Calculo
+        boolean cancelado;   // Ya no admite más peticiones
+    }
+
+    /**
+     * Coalescencia: si ya hay un cálculo con la misma clave en marcha, se espera a él;
+     * si no, se lanza en otro hilo y lo esperan esta petición y las que lleguen mientras
+     * tanto. Si la última que esperaba se va (por tiempo o interrupción), se cancela.
+     */
+    private FuentePasos calcularUnaVez(String clave, Function<ControlBusqueda, FuentePasos> calculo)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Calculo c;
+        while (true) {
+            Calculo nuevo = new Calculo();
+            c = enCurso.putIfAbsent(clave, nuevo);
+            if (c == null) {
+                c = nuevo;
+                lanzar(clave, nuevo, calculo);
+            }
+            synchronized (c) {
+                if (!c.cancelado) {
+                    c.esperando++;
+                    break;
+                }
+            }
+            // Lo canceló su última petición justo ahora: se empieza otro
+            enCurso.remove(clave, c);
+        }
+        try {
+            return c.resultado.get(SEGUNDOS_ESPERA, TimeUnit.SECONDS);
+        } finally {
+            boolean abandonado;
+            synchronized (c) {
+                abandonado = --c.esperando == 0 && !c.resultado.isDone();
+                if (abandonado) c.cancelado = true;
+            }
+            if (abandonado) {
+                c.control.cancelar();
+                enCurso.remove(clave, c);
+            }
+        }
+    }
+
+    private void lanzar(String clave, Calculo c, Function<ControlBusqueda, FuentePasos> calculo) {
+        hilos.execute(() -> {
+            try {
+                c.resultado.complete(calculo.apply(c.control));
+            } catch (Throwable t) {
+                c.resultado.completeExceptionally(t);
+            } finally {
+                enCurso.remove(clave, c);
+            }
+        });
+    }
+
+    private static void escribirJson(OutputStream salida, String algoritmo, FuentePasos pasos)
+            throws IOException {
+        salida.write(("{\"algoritmo\":\"" + algoritmo + "\",\"total\":" + pasos.totalPasos()
+                + ",\"pasos\":[").getBytes(StandardCharsets.US_ASCII));
+        byte[] numero = new byte[11];
+        for (long i = 0; i < pasos.totalPasos(); i++) {
+            if (i > 0) salida.write(',');
+            salida.write('[');
+            for (int c = 0; c < pasos.getAncho(); c++) {
+                if (c > 0) salida.write(',');
+                escribirEntero(salida, pasos.paso(i, c), numero);
+            }
+            salida.write(']');
+        }
+        salida.write(']');
+        salida.write('}');
+    }
+
+    private static void escribirBinario(OutputStream salida, FuentePasos pasos) throws IOException {
+        DataOutputStream datos = new DataOutputStream(salida);
+        // El total va en un int: los límites de cada problema lo garantizan
+        datos.writeInt(Math.toIntExact(pasos.totalPasos()));
+        for (long i = 0; i < pasos.totalPasos(); i++) {
+            for (int c = 0; c < pasos.getAncho(); c++) {
+                datos.writeInt(pasos.paso(i, c));
+            }
+        }
+        datos.flush();
+    }
+
+    /** Escribe un entero en ASCII sin crear Strings. */
+    private static void escribirEntero(OutputStream salida, int valor, byte[] aux) throws IOException {
+        if (valor == 0) {
+            salida.write('0');
+            return;
+        }
+        long v = valor;
+        if (v < 0) {
+            salida.write('-');
+            v = -v;
+        }
+        int i = aux.length;
+        while (v > 0) {
+            aux[--i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        salida.write(aux, i, aux.length - i);
+    }
+
+    private static void responderError(HttpExchange ex, int codigo, String mensaje) throws IOException {
+        byte[] cuerpo = ("{\"error\":\"" + mensaje.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(codigo, cuerpo.length);
+        ex.getResponseBody().write(cuerpo);
+    }
+
+    private static Map<String, String> parametros(URI uri) {
+        Map<String, String> mapa = new HashMap<>();
+        String consulta = uri.getRawQuery();
+        if (consulta == null) return mapa;
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                mapa.put(par.substring(0, igual), par.substring(igual + 1));
+            }
+        }
+        return mapa;
+    }
+
+    private static int entero(Map<String, String> p, String nombre, int min, int max) {
+        String valor = p.get(nombre);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el parámetro " + nombre);
+        }
+        try {
+            int v = Integer.parseInt(valor);
+            if (v < min || v > max) {
+                throw new IllegalArgumentException(
+                        "El parámetro " + nombre + " debe estar entre " + min + " y " + max);
+            }
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro " + nombre + " no es un entero");
+        }
+    }
+}
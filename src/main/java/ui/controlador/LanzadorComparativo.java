@@ -0,0 +1,78 @@
+package ui.controlador;
+
+import base.controlador.Dialogos;
+import caballo.modelo.ProblemaCaballo;
+import nreinas.modelo.ProblemaNReinas;
+import ui.vista.MenuRecursivo;
+import ui.vista.VentanaComparativa;
+
+import javax.swing.JOptionPane;
+
+/**
+ * Pide qué comparar y abre la {@link VentanaComparativa}:
+ * • N Reinas: un mosaico por cada N de un rango.
+ * • Caballo: un tablero de N fijo, con un mosaico por casilla inicial distinta salvo
+ *   simetría (las del octante 0 ≤ x ≤ y ≤ (N-1)/2; las demás dan lo mismo giradas).
+ * Las búsquedas no empiezan hasta pulsar "Iniciar todas".
+ */
+public class LanzadorComparativo {
+    // Con más, las casillas de los mosaicos son demasiado pequeñas para ver nada
+    private static final int MAX_N_REINAS = 40;
+    private static final int MAX_N_CABALLO = 16;
+
+    public static void ejecutarSimulacion() {
+        String[] opciones = {"N Reinas", "Caballo"};
+        int juego = JOptionPane.showOptionDialog(null, "¿Qué quieres comparar?",
+                "Comparar búsquedas", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, opciones, opciones[0]);
+        VentanaComparativa ventana = null;
+        if (juego == 0) {
+            ventana = nReinas();
+        } else if (juego == 1) {
+            ventana = caballo();
+        }
+        if (ventana == null) {
+            new MenuRecursivo().mostrarMenu();
+            return;
+        }
+        ventana.mostrar();
+    }
+
+    /** @return la ventana con un mosaico por N, o null si se cancela */
+    private static VentanaComparativa nReinas() {
+        Integer desde = Dialogos.pedirEntero("N del primer tablero:", 4, MAX_N_REINAS);
+        if (desde == null) return null;
+        int maximo = Math.min(MAX_N_REINAS, desde + VentanaComparativa.MAX_MOSAICOS - 1);
+        Integer hasta = Dialogos.pedirEntero("N del último tablero (" + desde + ".." + maximo + "):",
+                desde, maximo);
+        if (hasta == null) return null;
+
+        VentanaComparativa ventana = new VentanaComparativa(
+                "Comparar N Reinas (N = " + desde + ".." + hasta + ")");
+        for (int n = desde; n <= hasta; n++) {
+            ProblemaNReinas problema = new ProblemaNReinas();
+            problema.setParametros(n);
+            ventana.agregar(problema);
+        }
+        return ventana;
+    }
+
+    /** @return la ventana con un mosaico por casilla inicial, o null si se cancela */
+    private static VentanaComparativa caballo() {
+        Integer n = Dialogos.pedirEntero("Tamaño del tablero (N):", 5, MAX_N_CABALLO);
+        if (n == null) return null;
+
+        VentanaComparativa ventana = new VentanaComparativa("Comparar Caballo " + n + "x" + n);
+        int mitad = (n - 1) / 2, mosaicos = 0;
+        for (int x = 0; x <= mitad; x++) {
+            for (int y = x; y <= mitad && mosaicos < VentanaComparativa.MAX_MOSAICOS; y++) {
+                // Cada mosaico con su propio problema: corren a la vez en hilos distintos
+                ProblemaCaballo problema = new ProblemaCaballo();
+                problema.setParametros(n);
+                ventana.agregar(problema, x, y);
+                mosaicos++;
+            }
+        }
+        return ventana;
+    }
+}
@@ -1,12 +1,22 @@
 package ui.vista;
 
+import base.controlador.Juego;
+import base.controlador.RegistroJuegos;
+import base.modelo.PasosMapeados;
 import base.vista.MenuGrafico;
-import caballo.controlador.LanzadorCaballo;
-import hanoi.controlador.LanzadorTorresHanoi;
-import nreinas.controlador.LanzadorNReinas;
+import ui.controlador.LanzadorComparativo;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 
+/**
+ * Menú principal: un botón por cada juego de {@link RegistroJuegos} (en el orden que
+ * piden) y, debajo, las herramientas comunes. No conoce ningún juego en concreto:
+ * sus clases se cargan al pulsar su botón.
+ */
 public class MenuRecursivo extends MenuGrafico {
 
     public MenuRecursivo() {
@@ -15,31 +25,63 @@ public class MenuRecursivo extends MenuGrafico {
 
     @Override
     protected void initMenu() {
-        // Creamos un solo panel de 4 filas, 1 columna (exactamente 3 botones)
-        JPanel panel = new JPanel(new GridLayout(3, 1, 10, 10));
+        List<Juego> juegos = RegistroJuegos.juegos();
+        // Un solo panel de 1 columna: los juegos y las 2 herramientas
+        JPanel panel = new JPanel(new GridLayout(juegos.size() + 2, 1, 10, 10));
 
-        JButton b1 = new JButton("Problema del Caballo");
-        b1.addActionListener(e -> {
-            dispose();
-            LanzadorCaballo.ejecutarSimulacion();
-        });
-        panel.add(b1);
+        for (Juego juego : juegos) {
+            JButton b = new JButton(juego.getNombre());
+            String descripcion = juego.getDescripcion();
+            b.setToolTipText((descripcion != null ? descripcion + " " : "")
+                    + "(" + juego.getMinimo() + ".." + juego.getMaximo() + ")");
+            b.addActionListener(e -> {
+                dispose();
+                juego.lanzar();
+            });
+            panel.add(b);
+        }
 
-        JButton b2 = new JButton("Torres de Hanoi");
-        b2.addActionListener(e -> {
-            dispose();
-            LanzadorTorresHanoi.ejecutarSimulacion();
-        });
-        panel.add(b2);
+        JButton abrir = new JButton("Abrir resultado…");
+        abrir.setToolTipText("Reproducir un archivo resultadoHanoi_… o resultadoCaballo_… ya guardado");
+        abrir.addActionListener(e -> abrirResultado());
+        panel.add(abrir);
 
-        JButton b3 = new JButton("Problema de las N Reinas");
-        b3.addActionListener(e -> {
+        JButton comparar = new JButton("Comparar búsquedas…");
+        comparar.setToolTipText("Varias búsquedas en vivo a la vez (distintos N o casillas iniciales)");
+        comparar.addActionListener(e -> {
             dispose();
-            LanzadorNReinas.ejecutarSimulacion();
+            LanzadorComparativo.ejecutarSimulacion();
         });
-        panel.add(b3);
+        panel.add(comparar);
 
         // Un único add al CENTER: no debe haber más adds en este frame
         add(panel, BorderLayout.CENTER);
     }
+
+    /**
+     * Elige un archivo de guardarResultado y lo abre en su ventana, mapeado: los pasos
+     * se leen del disco según se reproducen. El juego es el primero del registro que
+     * reconoce la cabecera (el del Caballo empieza por "Punto de inicio").
+     */
+    private void abrirResultado() {
+        JFileChooser selector = new JFileChooser(new File("."));
+        selector.setFileFilter(new FileNameExtensionFilter("Resultados (*.txt)", "txt"));
+        if (selector.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        PasosMapeados pasos;
+        try {
+            pasos = new PasosMapeados(selector.getSelectedFile().toPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(),
+                    "No se puede abrir", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Juego juego = RegistroJuegos.paraResultado(pasos.getCabecera());
+        if (juego == null) {
+            JOptionPane.showMessageDialog(this, "Ningún juego reconoce este archivo.",
+                    "No se puede abrir", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        dispose();
+        juego.abrirResultado(pasos);
+    }
 }
@@ -0,0 +1,376 @@
+package ui.vista;
+
+import base.modelo.AlgoritmoBusqueda;
+import base.modelo.AnilloPasos;
+import base.modelo.ControlBusqueda;
+import base.modelo.Planificador;
+import base.vista.VentanaJuego;
+import caballo.modelo.ProblemaCaballo;
+import caballo.vista.DibujoCaballo;
+import nreinas.modelo.ProblemaNReinas;
+import nreinas.vista.DibujoNReinas;
+import ui.controlador.LanzadorComparativo;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * VentanaComparativa: varias búsquedas en vivo a la vez, cada una en su mosaico
+ * (N Reinas con distintos N, o el caballo desde distintas casillas).
+ * • Las búsquedas corren en un grupo de hilos acotado (uno por núcleo): las que no
+ *   caben esperan "En cola" a que acabe otra.
+ * • Cada búsqueda publica en su propio {@link AnilloPasos}; un único Timer de Swing
+ *   los drena todos y repinta la rejilla entera a ritmo fijo, en vez de una ventana
+ *   y un Timer por problema.
+ * • Cada mosaico enseña nodos explorados y nodos/s (medidos entre refrescos), para
+ *   comparar configuraciones de un vistazo.
+ * Los mosaicos drenan todo lo que haya en cada fotograma: la búsqueda sólo espera si
+ * llena el anillo entre dos fotogramas, así que los nodos/s son casi los reales.
+ */
+public class VentanaComparativa extends VentanaJuego {
+    // Más mosaicos no se distinguen en la ventana
+    public static final int MAX_MOSAICOS = 16;
+    private static final int FOTOGRAMAS_POR_SEGUNDO = 30;
+    private static final int CAPACIDAD_ANILLO = 1 << 14;
+    private static final long NANOS_ENTRE_MEDIDAS = 500_000_000L;   // Nodos/s cada medio segundo
+
+    private final List<Mosaico> mosaicos = new ArrayList<>();
+    private final JPanel rejilla = new JPanel();
+    private Timer timer;                  // El único Timer de la ventana
+    private ExecutorService hilos;        // Grupo acotado que ejecuta las búsquedas
+
+    public VentanaComparativa(String titulo) {
+        super(titulo);
+        setSize(900, 700);
+        setLocationRelativeTo(null);
+        initComponents();
+    }
+
+    @Override
+    protected void initComponents() {
+        add(new JScrollPane(rejilla), BorderLayout.CENTER);
+
+        btnSimular.setText("Iniciar todas");
+        btnSimular.addActionListener(e -> iniciar());
+
+        btnVolverMenu.setText("Volver al Menú");
+        // Sustituye al de VentanaJuego: antes de volver hay que parar las búsquedas
+        for (var l : btnVolverMenu.getActionListeners()) {
+            btnVolverMenu.removeActionListener(l);
+        }
+        btnVolverMenu.addActionListener(e -> {
+            detener();
+            dispose();
+            new MenuRecursivo().mostrarMenu();
+        });
+    }
+
+    /** Añade un mosaico de N Reinas (antes de iniciar). */
+    public void agregar(ProblemaNReinas problema) {
+        agregar(new MosaicoNReinas(problema));
+    }
+
+    /** Añade un mosaico del caballo que sale de (x, y) (antes de iniciar). */
+    public void agregar(ProblemaCaballo problema, int x, int y) {
+        agregar(new MosaicoCaballo(problema, x, y));
+    }
+
+    private void agregar(Mosaico mosaico) {
+        if (mosaicos.size() >= MAX_MOSAICOS) {
+            throw new IllegalStateException("Como mucho " + MAX_MOSAICOS + " búsquedas a la vez.");
+        }
+        mosaicos.add(mosaico);
+        // Rejilla lo más cuadrada posible
+        int columnas = (int) Math.ceil(Math.sqrt(mosaicos.size()));
+        rejilla.setLayout(new GridLayout(0, columnas, 6, 6));
+        rejilla.add(mosaico);
+    }
+
+    /**
+     * Lanza todas las búsquedas en el grupo de hilos y arranca el Timer común.
+     * Si ya corrían, las para y empieza de nuevo.
+     */
+    private void iniciar() {
+        detener();
+        int tamano = Math.max(1, Math.min(mosaicos.size(), Planificador.nucleos()));
+        AtomicInteger numero = new AtomicInteger();
+        hilos = Executors.newFixedThreadPool(tamano, r -> {
+            Thread t = new Thread(r, "comparativo-" + numero.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (Mosaico m : mosaicos) {
+            m.preparar();
+            hilos.execute(m::ejecutar);
+        }
+        // Las tareas en curso terminan solas; no se aceptan más
+        hilos.shutdown();
+
+        timer = new Timer(1000 / FOTOGRAMAS_POR_SEGUNDO, e -> fotograma());
+        timer.start();
+    }
+
+    /** Un fotograma: drena todos los anillos, actualiza las medidas y repinta una vez. */
+    private void fotograma() {
+        long ahora = System.nanoTime();
+        boolean quedan = false;
+        for (Mosaico m : mosaicos) {
+            quedan |= m.avanzar(ahora);
+        }
+        rejilla.repaint();
+        if (!quedan) timer.stop();
+    }
+
+    /** Para el Timer y todas las búsquedas (las que esperan en el anillo quedan libres). */
+    private void detener() {
+        if (timer != null) timer.stop();
+        for (Mosaico m : mosaicos) {
+            m.abandonar();
+        }
+        if (hilos != null) hilos.shutdownNow();
+        hilos = null;
+    }
+
+    @Override
+    protected void onReload() {
+        detener();
+        dispose();
+        LanzadorComparativo.ejecutarSimulacion();
+    }
+
+    // -------------------- MOSAICOS --------------------
+
+    /**
+     * Un problema con su anillo, su tablero en miniatura y sus medidas.
+     * El hilo de búsqueda sólo toca ejecutar(); lo demás corre en el hilo de Swing.
+     */
+    private abstract static class Mosaico extends JPanel implements AnilloPasos.Consumidor {
+        private static final int ALTO_TEXTO = 34;
+
+        protected final AlgoritmoBusqueda problema;
+        protected final int n;
+        private final String titulo;
+        private AnilloPasos anillo;
+        // Control del que cuelga la búsqueda: se crea antes de encolarla para poder
+        // cancelarla aunque aún no haya empezado
+        private ControlBusqueda control;
+
+        // Escritos por el hilo de búsqueda, leídos por el de Swing
+        private volatile long inicio, fin;
+        private volatile RuntimeException fallo;
+
+        // Medidas (hilo de Swing)
+        private long nodosMedidos, instanteMedida;
+        private double nodosPorSegundo;
+        private boolean acabado;
+
+        Mosaico(AlgoritmoBusqueda problema, int n, String titulo) {
+            this.problema = problema;
+            this.n = n;
+            this.titulo = titulo;
+            setBackground(Color.WHITE);
+            setBorder(BorderFactory.createLineBorder(Color.GRAY));
+            setPreferredSize(new Dimension(200, 200 + ALTO_TEXTO));
+        }
+
+        /** Tablero vacío, anillo nuevo y medidas a cero (hilo de Swing, antes de lanzar). */
+        void preparar() {
+            anillo = new AnilloPasos(CAPACIDAD_ANILLO);
+            problema.setAnillo(anillo);
+            control = new ControlBusqueda();
+            problema.setControlPadre(control);
+            inicio = fin = 0;
+            fallo = null;
+            nodosMedidos = 0;
+            nodosPorSegundo = 0;
+            acabado = false;
+            reiniciar();
+        }
+
+        /** Cuerpo de la tarea del grupo de hilos. */
+        void ejecutar() {
+            AnilloPasos propio = anillo;
+            try {
+                if (propio.isAbandonado()) return;   // Se paró mientras estaba en cola
+                inicio = System.nanoTime();
+                problema.ejecutar();
+            } catch (RuntimeException e) {
+                fallo = e;
+            } finally {
+                fin = System.nanoTime();
+                propio.terminar();
+            }
+        }
+
+        /**
+         * Drena el anillo y, cada medio segundo, mide los nodos/s.
+         * @return true si la búsqueda sigue (o aún no ha empezado)
+         */
+        boolean avanzar(long ahora) {
+            if (anillo == null || acabado) return false;
+            anillo.drenar(this, CAPACIDAD_ANILLO);
+            if (inicio != 0 && ahora - instanteMedida >= NANOS_ENTRE_MEDIDAS) {
+                long nodos = problema.getNodosExplorados();
+                if (instanteMedida != 0 && nodosMedidos <= nodos) {
+                    nodosPorSegundo = (nodos - nodosMedidos) * 1e9 / (ahora - instanteMedida);
+                }
+                nodosMedidos = nodos;
+                instanteMedida = ahora;
+            }
+            if (anillo.isAgotado()) {
+                acabado = true;
+                problema.setAnillo(null);
+                nodosMedidos = problema.getNodosExplorados();
+                // Al acabar, la media de toda la búsqueda
+                long nanos = fin - inicio;
+                nodosPorSegundo = (inicio != 0 && nanos > 0) ? nodosMedidos * 1e9 / nanos : 0;
+            }
+            return !acabado;
+        }
+
+        /** Para la búsqueda: suelta al productor si esperaba y le pide que acabe. */
+        void abandonar() {
+            if (anillo == null || acabado) return;
+            anillo.abandonar();
+            control.cancelar();
+            problema.setAnillo(null);
+            acabado = true;
+        }
+
+        /** @return el estado en una palabra */
+        private String estado() {
+            if (anillo == null) return "Sin lanzar";
+            if (fallo != null) return "Error: " + fallo.getMessage();
+            if (inicio == 0) return acabado ? "Detenida" : "En cola";
+            if (!acabado) return "Buscando " + Planificador.formatearSegundos((System.nanoTime() - inicio) / 1e9);
+            if (fin == 0 || problema.getControl().isCancelado()) return "Detenida";
+            return (resuelto() ? "Resuelto en " : "Sin solución tras ")
+                    + Planificador.formatearSegundos((fin - inicio) / 1e9);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int lado = Math.max(1, Math.min(getWidth(), getHeight() - ALTO_TEXTO));
+            Graphics tablero = g.create((getWidth() - lado) / 2, ALTO_TEXTO, lado, lado);
+            try {
+                dibujarTablero(tablero, lado);
+            } finally {
+                tablero.dispose();
+            }
+            g.setColor(Color.BLACK);
+            g.setFont(new Font("Dialog", Font.BOLD, 12));
+            g.drawString(titulo + " — " + estado(), 4, 14);
+            g.setFont(new Font("Dialog", Font.PLAIN, 11));
+            g.drawString(String.format("%,d nodos · %,.0f nodos/s", nodosMedidos, nodosPorSegundo), 4, 28);
+        }
+
+        /** Deja el tablero en miniatura como antes de buscar. */
+        protected abstract void reiniciar();
+
+        /** @return true si la búsqueda acabada dejó una solución completa */
+        protected abstract boolean resuelto();
+
+        /** Pinta el tablero en un cuadrado de lado×lado. */
+        protected abstract void dibujarTablero(Graphics g, int lado);
+    }
+
+    /** Mosaico de N Reinas: la reina de cada fila, como en VentanaNReinas en vivo. */
+    private static class MosaicoNReinas extends Mosaico {
+        private final int[] columnaDeFila;
+
+        MosaicoNReinas(ProblemaNReinas problema) {
+            super(problema, problema.getParametro(), "N Reinas " + problema.getParametro());
+            columnaDeFila = new int[n];
+        }
+
+        @Override
+        protected void reiniciar() {
+            Arrays.fill(columnaDeFila, -1);
+        }
+
+        @Override
+        public void evento(int tipo, int fila, int col) {
+            if (tipo == AnilloPasos.COLOCAR) {
+                columnaDeFila[fila] = col;
+            } else if (tipo == AnilloPasos.QUITAR) {
+                columnaDeFila[fila] = -1;
+            }
+        }
+
+        @Override
+        protected boolean resuelto() {
+            return problema.getPasos().tamano() == n;
+        }
+
+        @Override
+        protected void dibujarTablero(Graphics g, int lado) {
+            DibujoNReinas.dibujar(g, lado, lado, n, columnaDeFila);
+        }
+    }
+
+    /** Mosaico del caballo: casillas numeradas y una pila para deshacer los saltos. */
+    private static class MosaicoCaballo extends Mosaico {
+        private final int startX, startY;
+        private final int[][] orden;
+        private final int[] pilaX, pilaY;
+        private int profundidad;
+
+        MosaicoCaballo(ProblemaCaballo problema, int x, int y) {
+            super(problema, problema.getParametro(),
+                    "Caballo " + problema.getParametro() + " (" + x + ", " + y + ")");
+            this.startX = x;
+            this.startY = y;
+            orden = new int[n][n];
+            pilaX = new int[n * n];
+            pilaY = new int[n * n];
+        }
+
+        @Override
+        void preparar() {
+            ((ProblemaCaballo) problema).setStart(startX, startY);
+            super.preparar();
+        }
+
+        @Override
+        protected void reiniciar() {
+            for (int[] fila : orden) {
+                Arrays.fill(fila, -1);
+            }
+            orden[startX][startY] = 0;
+            pilaX[0] = startX;
+            pilaY[0] = startY;
+            profundidad = 1;
+        }
+
+        @Override
+        public void evento(int tipo, int x, int y) {
+            if (tipo == AnilloPasos.COLOCAR) {
+                orden[x][y] = profundidad;
+                pilaX[profundidad] = x;
+                pilaY[profundidad] = y;
+                profundidad++;
+            } else if (tipo == AnilloPasos.QUITAR) {
+                profundidad--;
+                orden[x][y] = -1;
+            }
+        }
+
+        @Override
+        protected boolean resuelto() {
+            return problema.getPasos().totalPasos() == (long) n * n;
+        }
+
+        @Override
+        protected void dibujarTablero(Graphics g, int lado) {
+            DibujoCaballo.dibujar(g, lado, lado, n, orden,
+                    pilaX[profundidad - 1], pilaY[profundidad - 1]);
+        }
+    }
+}